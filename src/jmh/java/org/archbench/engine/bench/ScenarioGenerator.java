@@ -0,0 +1,73 @@
+package org.archbench.engine.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/**
+ * Deterministic synthetic scenarios for the benchmarks. Node 0 is the client and node 1 the load balancer; every
+ * later node gets one edge from a recent predecessor, so the graph stays connected, plus
+ * {@code edgesPerNode - 1} extra edges from random earlier nodes. Database nodes carry
+ * {@code tablesPerDatabase} tables with {@code columnsPerTable} columns each.
+ */
+final class ScenarioGenerator {
+
+    private static final String[] BACKEND_TYPES = {
+        "service", "service", "service", "gateway", "cache", "database", "queue", "worker", "search", "objectstore", "stream"
+    };
+    private static final String[] DB_ENGINES = {"postgres", "mysql", "dynamodb", "mongo"};
+    private static final String[] SIZE_CLASSES = {"S", "M", "L"};
+    private static final String[] COLUMN_TYPES = {"bigint", "text", "timestamp", "uuid", "jsonb"};
+    private static final int PARENT_WINDOW = 64;
+
+    private ScenarioGenerator() {
+    }
+
+    static ScenarioDto generate(int nodeCount, int edgesPerNode, int tablesPerDatabase, int columnsPerTable, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ScenarioDto.Node> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            String type = i == 0 ? "client" : i == 1 ? "lb" : BACKEND_TYPES[random.nextInt(BACKEND_TYPES.length)];
+            ScenarioDto.DbConfig dbConfig = "database".equals(type)
+                ? dbConfig(random, tablesPerDatabase, columnsPerTable)
+                : null;
+            nodes.add(new ScenarioDto.Node("n" + i, type, null, null, null, null, null, dbConfig));
+        }
+
+        List<ScenarioDto.Edge> edges = new ArrayList<>(Math.max(0, nodeCount - 1) * Math.max(1, edgesPerNode));
+        for (int i = 1; i < nodeCount; i++) {
+            int parent = Math.max(0, i - 1 - random.nextInt(Math.min(i, PARENT_WINDOW)));
+            edges.add(new ScenarioDto.Edge("n" + parent, "n" + i));
+            for (int extra = 1; extra < edgesPerNode && i > 1; extra++) {
+                int from = random.nextInt(i);
+                edges.add(new ScenarioDto.Edge("n" + from, "n" + i));
+            }
+        }
+        return new ScenarioDto(
+            "synthetic-" + nodeCount + "-" + edgesPerNode + "-" + tablesPerDatabase,
+            new ScenarioDto.Workload(1000, 250),
+            nodes,
+            edges
+        );
+    }
+
+    private static ScenarioDto.DbConfig dbConfig(SplittableRandom random, int tables, int columnsPerTable) {
+        List<ScenarioDto.DbTable> tableList = new ArrayList<>(tables);
+        for (int t = 0; t < tables; t++) {
+            List<ScenarioDto.DbColumn> columns = new ArrayList<>(columnsPerTable);
+            for (int c = 0; c < columnsPerTable; c++) {
+                columns.add(new ScenarioDto.DbColumn("col_" + c, COLUMN_TYPES[random.nextInt(COLUMN_TYPES.length)]));
+            }
+            List<String> indexes = random.nextBoolean() ? List.of("col_0") : List.of();
+            tableList.add(new ScenarioDto.DbTable(
+                "table_" + t,
+                SIZE_CLASSES[random.nextInt(SIZE_CLASSES.length)],
+                indexes,
+                columns
+            ));
+        }
+        return new ScenarioDto.DbConfig(DB_ENGINES[random.nextInt(DB_ENGINES.length)], tableList);
+    }
+}
@@ -0,0 +1,249 @@
+package org.archbench.engine.bench;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.archbench.engine.api.ColumnarCodec;
+import org.archbench.engine.api.SimulateController;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.ScenarioPatchDto;
+import org.archbench.engine.api.dto.SimulationParams;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.archbench.engine.core.CompiledScenario;
+import org.archbench.engine.core.CompiledTopology;
+import org.archbench.engine.core.DiscreteEventSimulator;
+import org.archbench.engine.core.IncrementalScenario;
+import org.archbench.engine.core.MonteCarloSimulator;
+import org.archbench.engine.core.NodeIdTable;
+import org.archbench.engine.core.QueueingModel;
+import org.archbench.engine.core.ResilienceModel;
+import org.archbench.engine.core.RunHistory;
+import org.archbench.engine.core.ScenarioMetrics;
+import org.archbench.engine.core.ScenarioValidator;
+import org.archbench.engine.core.SimulationAdmission;
+import org.archbench.engine.core.SimulationInsights;
+import org.archbench.engine.core.SimulationMetrics;
+import org.archbench.engine.core.SimulationPipeline;
+import org.archbench.engine.core.SimulationResultCache;
+import org.archbench.engine.core.SimulationService;
+import org.archbench.engine.core.TraceStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-stage cost of a single scenario. Run with {@code -prof gc} (the default {@code jmh.args}) to get
+ * {@code gc.alloc.rate.norm}, i.e. bytes allocated per scenario, next to the time per scenario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SimulationBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int nodes;
+
+    @Param({"1", "4"})
+    public int edgesPerNode;
+
+    @Param({"0", "32"})
+    public int tablesPerDatabase;
+
+    private static final int COLUMNS_PER_TABLE = 16;
+
+    private final SimulationService simulationService = new SimulationService();
+    private final ScenarioValidator scenarioValidator = new ScenarioValidator();
+    private final SimulationInsights simulationInsights = new SimulationInsights();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimulationParams params = new SimulationParams(null, null, null, null, null, null, null, null);
+
+    private ForkJoinPool pool;
+    private SimulateController controller;
+    private ScenarioDto scenario;
+    private byte[] scenarioJson;
+    private byte[] scenarioColumnar;
+    private List<ScenarioDto.Node> normalizedNodes;
+    private CompiledScenario compiled;
+    private CompiledTopology topology;
+    private final QueueingModel queueingModel = new QueueingModel();
+    private int latencyP50;
+    private int latencyP95;
+    private int throughput;
+    private double failureRate;
+    private IncrementalScenario session;
+    private ScenarioPatchDto[] edits;
+    private int editCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        SimulationPipeline pipeline = new SimulationPipeline(
+            simulationService,
+            scenarioValidator,
+            simulationInsights,
+            new DiscreteEventSimulator(),
+            new MonteCarloSimulator(pool),
+            new QueueingModel(),
+            new ResilienceModel(),
+            new TraceStore(Path.of(System.getProperty("java.io.tmpdir"), "archbench-traces"), 3_600),
+            new SimulationResultCache(0),
+            new SimulationMetrics(new SimpleMeterRegistry())
+        );
+        controller = new SimulateController(
+            pipeline,
+            null,
+            new SimulationResultCache(0),
+            new SimulationAdmission(new SimpleMeterRegistry(), 0, 512, 0, 128, 0, 16, 30_000),
+            new RunHistory(false, Path.of(System.getProperty("java.io.tmpdir"), "archbench-history"), 0, 0L, 0, 0L, null)
+        );
+
+        scenario = ScenarioGenerator.generate(nodes, edgesPerNode, tablesPerDatabase, COLUMNS_PER_TABLE, 42L);
+        scenarioJson = objectMapper.writeValueAsBytes(scenario);
+        scenarioColumnar = ColumnarCodec.encodeScenario(scenario);
+        normalizedNodes = simulationService.normalizeNodes(scenario.nodes());
+        compiled = simulationService.compileScenario(scenario.nodes());
+        topology = simulationService.compileTopology(normalizedNodes, scenario.edges());
+        SimulationService.LongestPaths paths = simulationService.longestPaths(topology, normalizedNodes);
+        latencyP50 = simulationService.calculateLatencyP50(paths);
+        latencyP95 = simulationService.calculateLatencyP95(latencyP50, paths, normalizedNodes);
+        throughput = simulationService.calculateThroughput(topology, normalizedNodes);
+        failureRate = simulationService.calculateFailureRate(normalizedNodes);
+
+        session = new IncrementalScenario(simulationService, scenarioValidator, simulationService.catalog(), scenario);
+        ScenarioDto.Node edited = scenario.nodes().get(scenario.nodes().size() / 2);
+        edits = new ScenarioPatchDto[2];
+        for (int i = 0; i < edits.length; i++) {
+            ScenarioDto.Node node = new ScenarioDto.Node(edited.id(), edited.type(), 10 + i * 25, edited.varianceFactor(),
+                edited.capacityRps(), edited.failureRate(), edited.costPerHour(), edited.dbConfig());
+            edits[i] = new ScenarioPatchDto(null, List.of(new ScenarioPatchDto.Operation("update-node", node, null, null, null)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ScenarioDto validate() {
+        scenarioValidator.validate(scenario);
+        return scenario;
+    }
+
+    @Benchmark
+    public CompiledTopology validateAndCompileTopology() {
+        try (NodeIdTable ids = scenarioValidator.validateAndIndex(scenario)) {
+            return simulationService.compileTopology(simulationService.catalog(), normalizedNodes, scenario.edges(), ids);
+        }
+    }
+
+    @Benchmark
+    public List<ScenarioDto.Node> normalize() {
+        return simulationService.normalizeNodes(scenario.nodes());
+    }
+
+    @Benchmark
+    public CompiledScenario compileScenario() {
+        return simulationService.compileScenario(scenario.nodes());
+    }
+
+    @Benchmark
+    public CompiledTopology compileTopology() {
+        return simulationService.compileTopology(normalizedNodes, scenario.edges());
+    }
+
+    @Benchmark
+    public int calculateLatencyP50() {
+        return simulationService.calculateLatencyP50(topology, normalizedNodes);
+    }
+
+    @Benchmark
+    public int calculateLatencyP95() {
+        return simulationService.calculateLatencyP95(latencyP50, topology, normalizedNodes);
+    }
+
+    @Benchmark
+    public int calculateThroughput() {
+        return simulationService.calculateThroughput(topology, normalizedNodes);
+    }
+
+    @Benchmark
+    public double calculateFailureRate() {
+        return simulationService.calculateFailureRate(normalizedNodes);
+    }
+
+    @Benchmark
+    public double calculateCost() {
+        return simulationService.calculateCost(normalizedNodes);
+    }
+
+    @Benchmark
+    public ScenarioMetrics calculateMetrics() {
+        return simulationService.calculateMetrics(compiled, topology);
+    }
+
+    @Benchmark
+    public QueueingModel.AnalyticResult analytic() {
+        return queueingModel.evaluate(compiled, topology, throughput, null);
+    }
+
+    @Benchmark
+    public ScenarioMetrics incrementalEdit() {
+        session.apply(edits[editCount++ & 1]);
+        return session.metrics();
+    }
+
+    @Benchmark
+    public int insights() {
+        String status = simulationInsights.deriveStatus(scenario, latencyP95, throughput, failureRate);
+        int score = simulationInsights.calculateScore(scenario, latencyP95, throughput, failureRate);
+        List<String> hints = simulationInsights.generateHints(scenario, latencyP95, throughput, failureRate);
+        return status.length() + score + hints.size();
+    }
+
+    @Benchmark
+    public SimulationResultDto controller() {
+        return controller.simulate(scenario, params);
+    }
+
+    @Benchmark
+    public byte[] controllerWithJson() throws Exception {
+        ScenarioDto parsed = objectMapper.readValue(scenarioJson, ScenarioDto.class);
+        return objectMapper.writeValueAsBytes(controller.simulate(parsed, params));
+    }
+
+    @Benchmark
+    public byte[] controllerWithColumnar() {
+        ScenarioDto parsed = ColumnarCodec.decodeScenario(scenarioColumnar);
+        return ColumnarCodec.encodeResult(controller.simulate(parsed, params));
+    }
+
+    @Benchmark
+    public ScenarioDto parseJson() throws Exception {
+        return objectMapper.readValue(scenarioJson, ScenarioDto.class);
+    }
+
+    @Benchmark
+    public ScenarioDto decodeColumnar() {
+        return ColumnarCodec.decodeScenario(scenarioColumnar);
+    }
+}
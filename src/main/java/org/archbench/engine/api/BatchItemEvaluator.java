@@ -0,0 +1,36 @@
+package org.archbench.engine.api;
+
+import java.util.concurrent.CancellationException;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationPipeline;
+import org.archbench.engine.core.SimulationProgress;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BatchItemEvaluator {
+
+    private final SimulationPipeline simulationPipeline;
+    private final GlobalExceptionHandler exceptionHandler;
+
+    public BatchItemEvaluator(SimulationPipeline simulationPipeline, GlobalExceptionHandler exceptionHandler) {
+        this.simulationPipeline = simulationPipeline;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public BatchItemDto evaluate(ScenarioDto scenario, SimulationOptions options) {
+        return evaluate(scenario, options, SimulationProgress.NONE);
+    }
+
+    public BatchItemDto evaluate(ScenarioDto scenario, SimulationOptions options, SimulationProgress progress) {
+        try {
+            return BatchItemDto.success(simulationPipeline.simulate(scenario, options, progress));
+        } catch (CancellationException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            return BatchItemDto.failure(exceptionHandler.toProblemDetail(ex));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.archbench.engine.api;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ClusterWorkerDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationParams;
+import org.archbench.engine.api.dto.WorkerRegistrationDto;
+import org.archbench.engine.core.ScenarioValidationException.Code;
+import org.archbench.engine.core.ScenarioValidator;
+import org.archbench.engine.core.SimulationOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Coordinator endpoints: worker registration and {@code POST /cluster/batch}, which takes the body and parameters of
+ * {@code /simulate/batch} and shards them across the registered workers through {@link SweepCoordinator}. Uploaded
+ * traces live on the instance that received them, so scenarios replaying one are rejected rather than sharded.
+ */
+@RestController
+public class ClusterController {
+
+    private final ClusterWorkerRegistry registry;
+    private final SweepCoordinator coordinator;
+    private final int maxSweepSize;
+
+    public ClusterController(
+        ClusterWorkerRegistry registry,
+        SweepCoordinator coordinator,
+        @Value("${archbench.cluster.max-size:1000000}") int maxSweepSize
+    ) {
+        this.registry = registry;
+        this.coordinator = coordinator;
+        this.maxSweepSize = maxSweepSize;
+    }
+
+    @PostMapping(path = "/cluster/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemDto> simulateBatch(
+        @RequestBody List<ScenarioDto> scenarios,
+        SimulationParams params,
+        HttpServletRequest request
+    ) {
+        if (scenarios.size() > maxSweepSize) {
+            ScenarioValidator.bad("Sweep exceeds the maximum of " + maxSweepSize + " scenarios");
+        }
+        for (ScenarioDto scenario : scenarios) {
+            if (scenario != null && scenario.workload() != null && scenario.workload().trace() != null) {
+                ScenarioValidator.bad(Code.UNKNOWN_TRACE, "Scenario " + scenario.name() + " replays trace " + scenario.workload().trace()
+                    + ", which exists only on this instance; sweep it with /simulate/batch or describe the load as a curve");
+            }
+        }
+        SimulationOptions options = params.toOptions();
+        return coordinator.run(scenarios, options, query(request.getParameterMap()));
+    }
+
+    @GetMapping("/cluster/workers")
+    public List<ClusterWorkerDto> workers() {
+        return registry.list();
+    }
+
+    @PostMapping(path = "/cluster/workers", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ClusterWorkerDto register(@RequestBody WorkerRegistrationDto registration) {
+        return registry.register(registration.url());
+    }
+
+    @DeleteMapping("/cluster/workers")
+    public ResponseEntity<Void> unregister(@RequestParam String url) {
+        return registry.unregister(url) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /** The request parameters, re-encoded so that each worker simulates with exactly the same options. */
+    private static String query(Map<String, String[]> parameters) {
+        StringJoiner query = new StringJoiner("&");
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                query.add(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return query.toString();
+    }
+}
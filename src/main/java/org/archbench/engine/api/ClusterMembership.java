@@ -0,0 +1,103 @@
+package org.archbench.engine.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.archbench.engine.api.dto.WorkerRegistrationDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Worker side of a cluster. With {@code archbench.cluster.coordinator-url} set, this instance registers itself with
+ * the coordinator once its web server is up and again every {@code archbench.cluster.heartbeat-ms}, so it rejoins
+ * after a coordinator restart or a failed chunk, and unregisters on shutdown. It advertises
+ * {@code archbench.cluster.advertised-url}, by default {@code http://localhost:<port>}.
+ */
+@Component
+public class ClusterMembership {
+
+    private final ObjectMapper objectMapper;
+    private final String coordinatorUrl;
+    private final String advertisedUrl;
+    private final long heartbeatMs;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(2))
+        .build();
+    private ScheduledExecutorService heartbeat;
+    private String url;
+
+    public ClusterMembership(
+        ObjectMapper objectMapper,
+        @Value("${archbench.cluster.coordinator-url:}") String coordinatorUrl,
+        @Value("${archbench.cluster.advertised-url:}") String advertisedUrl,
+        @Value("${archbench.cluster.heartbeat-ms:10000}") long heartbeatMs
+    ) {
+        this.objectMapper = objectMapper;
+        this.coordinatorUrl = coordinatorUrl.isBlank() ? null : coordinatorUrl.trim().replaceAll("/+$", "");
+        this.advertisedUrl = advertisedUrl.isBlank() ? null : advertisedUrl.trim();
+        this.heartbeatMs = Math.max(1_000L, heartbeatMs);
+    }
+
+    @EventListener
+    public synchronized void onWebServerReady(WebServerInitializedEvent event) {
+        if (coordinatorUrl == null || heartbeat != null) {
+            return;
+        }
+        url = advertisedUrl != null ? advertisedUrl : "http://localhost:" + event.getWebServer().getPort();
+        heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cluster-heartbeat").daemon(true).factory());
+        heartbeat.scheduleWithFixedDelay(this::register, 0, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void leave() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.shutdownNow();
+        String query = "?url=" + URLEncoder.encode(url, StandardCharsets.UTF_8);
+        send(HttpRequest.newBuilder(URI.create(coordinatorUrl + "/cluster/workers" + query))
+            .timeout(Duration.ofSeconds(2))
+            .DELETE()
+            .build());
+    }
+
+    private void register() {
+        try {
+            send(HttpRequest.newBuilder(URI.create(coordinatorUrl + "/cluster/workers"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new WorkerRegistrationDto(url))))
+                .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** Best effort: an unreachable coordinator is retried on the next heartbeat. */
+    private void send(HttpRequest request) {
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            // The coordinator is down or restarting; the next heartbeat registers again.
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
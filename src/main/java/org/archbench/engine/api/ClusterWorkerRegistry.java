@@ -0,0 +1,132 @@
+package org.archbench.engine.api;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.archbench.engine.api.dto.ClusterWorkerDto;
+import org.archbench.engine.core.ScenarioValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engine instances a coordinator can hand sweep chunks to: those listed in {@code archbench.cluster.workers} plus
+ * those registered through {@code POST /cluster/workers}. A worker that fails a chunk sits out new sweeps for
+ * {@code archbench.cluster.cooldown-ms}. Registering again, as every heartbeat does, leaves a running cooldown alone.
+ */
+@Component
+public class ClusterWorkerRegistry {
+
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    private final long cooldownMs;
+
+    public ClusterWorkerRegistry(
+        @Value("${archbench.cluster.workers:}") List<String> configured,
+        @Value("${archbench.cluster.cooldown-ms:30000}") long cooldownMs
+    ) {
+        this.cooldownMs = cooldownMs;
+        for (String url : configured) {
+            if (!url.isBlank()) {
+                String normalized = normalize(url);
+                workers.put(normalized, new Worker(normalized, true));
+            }
+        }
+    }
+
+    public ClusterWorkerDto register(String url) {
+        String normalized = normalize(url);
+        return workers.computeIfAbsent(normalized, key -> new Worker(key, false)).toDto();
+    }
+
+    public boolean unregister(String url) {
+        return workers.remove(normalize(url)) != null;
+    }
+
+    public List<ClusterWorkerDto> list() {
+        return workers.values().stream()
+            .sorted(Comparator.comparing(Worker::url))
+            .map(Worker::toDto)
+            .toList();
+    }
+
+    /** Workers not cooling down after a failure, in a stable order. */
+    List<Worker> available() {
+        long now = System.currentTimeMillis();
+        List<Worker> available = new ArrayList<>();
+        for (Worker worker : workers.values()) {
+            if (worker.availableAt(now)) {
+                available.add(worker);
+            }
+        }
+        available.sort(Comparator.comparing(Worker::url));
+        return available;
+    }
+
+    private static String normalize(String url) {
+        if (url == null || url.isBlank()) {
+            ScenarioValidator.bad("Worker url is required");
+        }
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        URI uri;
+        try {
+            uri = URI.create(trimmed);
+        } catch (IllegalArgumentException ex) {
+            uri = null;
+        }
+        if (uri == null || uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+            ScenarioValidator.bad("Worker url must be an absolute http(s) URL: " + url);
+        }
+        return trimmed;
+    }
+
+    final class Worker {
+
+        private final String url;
+        private final boolean configured;
+        private long chunks;
+        private long scenarios;
+        private long failures;
+        private String lastError;
+        private long downUntil;
+
+        private Worker(String url, boolean configured) {
+            this.url = url;
+            this.configured = configured;
+        }
+
+        String url() {
+            return url;
+        }
+
+        synchronized void succeeded(int chunkScenarios) {
+            chunks++;
+            scenarios += chunkScenarios;
+        }
+
+        synchronized void failed(String error) {
+            failures++;
+            lastError = error;
+            downUntil = System.currentTimeMillis() + cooldownMs;
+        }
+
+        /** A refusal that says nothing about the worker's health, such as a 4xx: counted, but no cooldown. */
+        synchronized void rejected(String error) {
+            failures++;
+            lastError = error;
+        }
+
+        private synchronized boolean availableAt(long now) {
+            return now >= downUntil;
+        }
+
+        private synchronized ClusterWorkerDto toDto() {
+            return new ClusterWorkerDto(url, configured, availableAt(System.currentTimeMillis()), chunks, scenarios, failures, lastError);
+        }
+    }
+}
@@ -0,0 +1,950 @@
+package org.archbench.engine.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.archbench.engine.core.ScenarioValidator;
+
+/**
+ * Binary wire format for scenarios and results, {@value #APPLICATION_COLUMNAR_VALUE}. A scenario is laid out column
+ * by column: node ids, then node types as indexes into a type dictionary, then one column per numeric field. A column
+ * with no values costs one byte. Edges are two columns of varint references to node ordinals, so ids are never
+ * repeated. Integers are zigzag varints and doubles are 8 little-endian bytes. Optional values use 0 for null and
+ * shift the rest by one.
+ *
+ * <p>Every payload starts with {@code 0xAB}, a kind byte ({@code 'S'} for a scenario, {@code 'R'} for a result) and
+ * the format version. Version 2 added workload curves and traces, resilience policies on edges, cache configs and
+ * database query mixes; a payload of any other version is rejected with a 400 naming the version this engine reads.
+ * Edges that name an id no node has, which validation then rejects, are carried in a small table of extra ids after
+ * the node ordinals.
+ */
+public final class ColumnarCodec {
+
+    public static final String APPLICATION_COLUMNAR_VALUE = "application/vnd.archbench.columnar";
+
+    private static final int MAGIC = 0xAB;
+    private static final int SCENARIO = 'S';
+    private static final int RESULT = 'R';
+    private static final int VERSION = 2;
+
+    private static final int MONTE_CARLO = 1;
+    private static final int LATENCY = 2;
+    private static final int ANALYTIC = 4;
+    private static final int BREAKDOWN = 8;
+    private static final int TIMELINE = 16;
+    private static final int RESILIENCE = 32;
+
+    private static final int CONSTANT_WORKLOAD = 1;
+    private static final int VARYING_WORKLOAD = 2;
+
+    private ColumnarCodec() {
+    }
+
+    public static byte[] encodeScenario(ScenarioDto scenario) {
+        Writer out = new Writer(64);
+        out.header(SCENARIO);
+        out.optString(scenario.name());
+        ScenarioDto.Workload workload = scenario.workload();
+        boolean varying = workload != null && (workload.curve() != null || workload.trace() != null);
+        out.u8(workload == null ? 0 : varying ? VARYING_WORKLOAD : CONSTANT_WORKLOAD);
+        if (workload != null) {
+            out.optInt(workload.rps());
+            out.optInt(workload.p95TargetMs());
+        }
+        if (varying) {
+            List<ScenarioDto.RatePoint> curve = workload.curve();
+            out.varint(curve == null ? 0 : curve.size() + 1L);
+            if (curve != null) {
+                for (ScenarioDto.RatePoint point : curve) {
+                    out.u8(point == null ? 0 : 1);
+                    if (point != null) {
+                        out.optInt(point.atSec());
+                        out.optInt(point.rps());
+                    }
+                }
+            }
+            out.optString(workload.trace());
+        }
+
+        List<ScenarioDto.Node> nodes = scenario.nodes() == null ? List.of() : scenario.nodes();
+        int n = nodes.size();
+        out.varint(n);
+        Map<String, Integer> types = new LinkedHashMap<>();
+        int[] typeRefs = new int[n];
+        Map<String, Integer> ordinals = new HashMap<>(Math.max(16, n * 2));
+        for (int i = 0; i < n; i++) {
+            ScenarioDto.Node node = nodes.get(i);
+            if (node == null) {
+                continue;
+            }
+            if (node.type() != null) {
+                typeRefs[i] = types.computeIfAbsent(node.type(), t -> types.size()) + 1;
+            }
+            if (node.id() != null) {
+                ordinals.putIfAbsent(node.id(), i);
+            }
+        }
+        out.varint(types.size());
+        for (String type : types.keySet()) {
+            out.string(type);
+        }
+        for (ScenarioDto.Node node : nodes) {
+            out.optString(node == null ? null : node.id());
+        }
+        for (int ref : typeRefs) {
+            out.varint(ref);
+        }
+        Integer[] ints = new Integer[n];
+        Double[] doubles = new Double[n];
+        for (int i = 0; i < n; i++) ints[i] = nodes.get(i) == null ? null : nodes.get(i).latencyMs();
+        out.intColumn(ints);
+        for (int i = 0; i < n; i++) doubles[i] = nodes.get(i) == null ? null : nodes.get(i).varianceFactor();
+        out.doubleColumn(doubles);
+        for (int i = 0; i < n; i++) ints[i] = nodes.get(i) == null ? null : nodes.get(i).capacityRps();
+        out.intColumn(ints);
+        for (int i = 0; i < n; i++) doubles[i] = nodes.get(i) == null ? null : nodes.get(i).failureRate();
+        out.doubleColumn(doubles);
+        for (int i = 0; i < n; i++) doubles[i] = nodes.get(i) == null ? null : nodes.get(i).costPerHour();
+        out.doubleColumn(doubles);
+        for (int i = 0; i < n; i++) ints[i] = nodes.get(i) == null ? null : nodes.get(i).replicas();
+        out.intColumn(ints);
+
+        int databases = 0;
+        for (ScenarioDto.Node node : nodes) {
+            if (node != null && node.dbConfig() != null) {
+                databases++;
+            }
+        }
+        out.varint(databases);
+        for (int i = 0; i < n; i++) {
+            ScenarioDto.Node node = nodes.get(i);
+            if (node != null && node.dbConfig() != null) {
+                out.varint(i);
+                writeDbConfig(out, node.dbConfig());
+            }
+        }
+        int caches = 0;
+        for (ScenarioDto.Node node : nodes) {
+            if (node != null && node.cache() != null) {
+                caches++;
+            }
+        }
+        out.varint(caches);
+        for (int i = 0; i < n; i++) {
+            ScenarioDto.Node node = nodes.get(i);
+            if (node != null && node.cache() != null) {
+                out.varint(i);
+                out.optDouble(node.cache().hitRatio());
+                out.optLong(node.cache().keySpace());
+                out.optLong(node.cache().cachedKeys());
+                out.optDouble(node.cache().zipfSkew());
+            }
+        }
+
+        List<ScenarioDto.Edge> edges = scenario.edges();
+        out.u8(edges == null ? 0 : 1);
+        if (edges == null) {
+            return out.toByteArray();
+        }
+        int m = edges.size();
+        Map<String, Integer> extras = new LinkedHashMap<>();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int e = 0; e < m; e++) {
+            ScenarioDto.Edge edge = edges.get(e);
+            if (edge != null) {
+                from[e] = ref(edge.from(), ordinals, extras, n);
+                to[e] = ref(edge.to(), ordinals, extras, n);
+            }
+        }
+        out.varint(m);
+        out.varint(extras.size());
+        for (String extra : extras.keySet()) {
+            out.string(extra);
+        }
+        for (int ref : from) {
+            out.varint(ref);
+        }
+        for (int ref : to) {
+            out.varint(ref);
+        }
+        writePolicies(out, edges);
+        return out.toByteArray();
+    }
+
+    /** Call policies are rare, so they follow the edge columns as a sparse list keyed by edge index. */
+    private static void writePolicies(Writer out, List<ScenarioDto.Edge> edges) {
+        int count = 0;
+        for (ScenarioDto.Edge edge : edges) {
+            if (hasPolicy(edge)) {
+                count++;
+            }
+        }
+        out.varint(count);
+        for (int e = 0; e < edges.size(); e++) {
+            ScenarioDto.Edge edge = edges.get(e);
+            if (!hasPolicy(edge)) {
+                continue;
+            }
+            out.varint(e);
+            out.optInt(edge.timeoutMs());
+            ScenarioDto.Retry retry = edge.retry();
+            out.u8(retry == null ? 0 : 1);
+            if (retry != null) {
+                out.optInt(retry.maxRetries());
+                out.optInt(retry.backoffMs());
+                out.optDouble(retry.backoffMultiplier());
+            }
+            ScenarioDto.CircuitBreaker breaker = edge.circuitBreaker();
+            out.u8(breaker == null ? 0 : 1);
+            if (breaker != null) {
+                out.optDouble(breaker.failureThreshold());
+            }
+        }
+    }
+
+    private static boolean hasPolicy(ScenarioDto.Edge edge) {
+        return edge != null && (edge.timeoutMs() != null || edge.retry() != null || edge.circuitBreaker() != null);
+    }
+
+    private static void readPolicies(Reader in, List<ScenarioDto.Edge> edges) {
+        int count = in.count();
+        for (int p = 0; p < count; p++) {
+            int e = in.varint();
+            if (e >= edges.size()) {
+                throw Reader.malformed();
+            }
+            Integer timeoutMs = in.optInt();
+            ScenarioDto.Retry retry = in.u8() == 0 ? null : new ScenarioDto.Retry(in.optInt(), in.optInt(), in.optDouble());
+            ScenarioDto.CircuitBreaker breaker = in.u8() == 0 ? null : new ScenarioDto.CircuitBreaker(in.optDouble());
+            ScenarioDto.Edge edge = edges.get(e);
+            edges.set(e, new ScenarioDto.Edge(edge.from(), edge.to(), timeoutMs, retry, breaker));
+        }
+    }
+
+    public static ScenarioDto decodeScenario(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        in.header(SCENARIO);
+        String name = in.optString();
+        int workloadKind = in.u8();
+        ScenarioDto.Workload workload = null;
+        if (workloadKind != 0) {
+            Integer rps = in.optInt();
+            Integer p95TargetMs = in.optInt();
+            List<ScenarioDto.RatePoint> curve = null;
+            String trace = null;
+            if (workloadKind == VARYING_WORKLOAD) {
+                int points = in.count();
+                if (points > 0) {
+                    curve = new ArrayList<>(points - 1);
+                    for (int i = 0; i < points - 1; i++) {
+                        curve.add(in.u8() == 0 ? null : new ScenarioDto.RatePoint(in.optInt(), in.optInt()));
+                    }
+                }
+                trace = in.optString();
+            }
+            workload = new ScenarioDto.Workload(rps, p95TargetMs, curve, trace);
+        }
+
+        int n = in.count();
+        String[] types = new String[in.count()];
+        for (int t = 0; t < types.length; t++) {
+            types[t] = in.string();
+        }
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = in.optString();
+        }
+        String[] nodeTypes = new String[n];
+        for (int i = 0; i < n; i++) {
+            int ref = in.varint();
+            if (ref > types.length) {
+                throw Reader.malformed();
+            }
+            nodeTypes[i] = ref == 0 ? null : types[ref - 1];
+        }
+        Integer[] latency = in.intColumn(n);
+        Double[] variance = in.doubleColumn(n);
+        Integer[] capacity = in.intColumn(n);
+        Double[] failure = in.doubleColumn(n);
+        Double[] cost = in.doubleColumn(n);
+        Integer[] replicas = in.intColumn(n);
+        ScenarioDto.DbConfig[] dbConfigs = new ScenarioDto.DbConfig[n];
+        int databases = in.count();
+        for (int d = 0; d < databases; d++) {
+            int ordinal = in.varint();
+            if (ordinal >= n) {
+                throw Reader.malformed();
+            }
+            dbConfigs[ordinal] = readDbConfig(in);
+        }
+        ScenarioDto.CacheConfig[] caches = new ScenarioDto.CacheConfig[n];
+        int cacheCount = in.count();
+        for (int c = 0; c < cacheCount; c++) {
+            int ordinal = in.varint();
+            if (ordinal >= n) {
+                throw Reader.malformed();
+            }
+            caches[ordinal] = new ScenarioDto.CacheConfig(in.optDouble(), in.optLong(), in.optLong(), in.optDouble());
+        }
+        List<ScenarioDto.Node> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new ScenarioDto.Node(
+                ids[i], nodeTypes[i], latency[i], variance[i], capacity[i], failure[i], cost[i], dbConfigs[i], replicas[i],
+                caches[i]
+            ));
+        }
+
+        List<ScenarioDto.Edge> edges = null;
+        if (in.u8() != 0) {
+            int m = in.count();
+            String[] extras = new String[in.count()];
+            for (int x = 0; x < extras.length; x++) {
+                extras[x] = in.string();
+            }
+            int[] from = new int[m];
+            for (int e = 0; e < m; e++) {
+                from[e] = in.varint();
+            }
+            edges = new ArrayList<>(m);
+            for (int e = 0; e < m; e++) {
+                edges.add(new ScenarioDto.Edge(id(from[e], ids, extras), id(in.varint(), ids, extras)));
+            }
+            readPolicies(in, edges);
+        }
+        in.end();
+        return new ScenarioDto(name, workload, nodes, edges);
+    }
+
+    public static byte[] encodeResult(SimulationResultDto result) {
+        Writer out = new Writer(64);
+        out.header(RESULT);
+        out.zigzag(result.latencyMsP50());
+        out.zigzag(result.latencyMsP95());
+        out.zigzag(result.throughputRps());
+        out.float64(result.costPerHour());
+        out.optString(result.status());
+        out.optInt(result.score());
+        out.optStrings(result.hints());
+        out.optInt(result.latencyMsP99());
+        out.u8((result.monteCarlo() != null ? MONTE_CARLO : 0)
+            | (result.latency() != null ? LATENCY : 0)
+            | (result.analytic() != null ? ANALYTIC : 0)
+            | (result.breakdown() != null ? BREAKDOWN : 0)
+            | (result.timeline() != null ? TIMELINE : 0)
+            | (result.resilience() != null ? RESILIENCE : 0));
+
+        SimulationResultDto.MonteCarlo monteCarlo = result.monteCarlo();
+        if (monteCarlo != null) {
+            out.zigzag(monteCarlo.trials());
+            out.zigzag(monteCarlo.seed());
+            out.float64(monteCarlo.latencyMsMean());
+            out.interval(monteCarlo.latencyMsMeanInterval());
+            out.interval(monteCarlo.latencyMsP95Interval());
+            out.interval(monteCarlo.latencyMsP99Interval());
+            out.float64(monteCarlo.failureRate());
+            out.interval(monteCarlo.failureRateInterval());
+        }
+        SimulationResultDto.LatencyDistribution latency = result.latency();
+        if (latency != null) {
+            out.zigzag(latency.count());
+            out.float64(latency.meanMs());
+            out.float64(latency.maxMs());
+            Map<String, Double> quantiles = latency.quantiles();
+            out.varint(quantiles == null ? 0 : quantiles.size() + 1);
+            if (quantiles != null) {
+                for (Map.Entry<String, Double> quantile : quantiles.entrySet()) {
+                    out.string(quantile.getKey());
+                    out.float64(quantile.getValue());
+                }
+            }
+            out.optString(latency.histogram());
+        }
+        SimulationResultDto.Analytic analytic = result.analytic();
+        if (analytic != null) {
+            out.zigzag(analytic.offeredRps());
+            out.float64(analytic.maxUtilization());
+            out.optStrings(analytic.saturatedNodes());
+        }
+        SimulationResultDto.Breakdown breakdown = result.breakdown();
+        if (breakdown != null) {
+            out.optStrings(breakdown.criticalPath());
+            out.optString(breakdown.bottleneck());
+            List<SimulationResultDto.NodeDetail> details = breakdown.nodes();
+            out.varint(details == null ? 0 : details.size() + 1);
+            if (details != null) {
+                int n = details.size();
+                for (SimulationResultDto.NodeDetail detail : details) {
+                    out.optString(detail.id());
+                }
+                Double[] utilization = new Double[n];
+                for (int i = 0; i < n; i++) utilization[i] = details.get(i).utilization();
+                out.doubleColumn(utilization);
+                for (SimulationResultDto.NodeDetail detail : details) out.float64(detail.latencyMs());
+                for (SimulationResultDto.NodeDetail detail : details) out.float64(detail.costShare());
+                for (SimulationResultDto.NodeDetail detail : details) out.float64(detail.failureShare());
+            }
+        }
+        SimulationResultDto.Timeline timeline = result.timeline();
+        if (timeline != null) {
+            out.zigzag(timeline.windowSec());
+            List<SimulationResultDto.Window> windows = timeline.windows();
+            out.varint(windows == null ? 0 : windows.size() + 1L);
+            if (windows != null) {
+                for (SimulationResultDto.Window window : windows) {
+                    writeWindow(out, window);
+                }
+            }
+            out.u8(timeline.worst() == null ? 0 : 1);
+            if (timeline.worst() != null) {
+                writeWindow(out, timeline.worst());
+            }
+        }
+        SimulationResultDto.Resilience resilience = result.resilience();
+        if (resilience != null) {
+            out.float64(resilience.availability());
+            out.float64(resilience.retryAmplification());
+            out.optStrings(resilience.retryStorms());
+            out.optStrings(resilience.openBreakers());
+        }
+        return out.toByteArray();
+    }
+
+    public static SimulationResultDto decodeResult(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        in.header(RESULT);
+        int latencyP50 = in.zigzagInt();
+        int latencyP95 = in.zigzagInt();
+        int throughput = in.zigzagInt();
+        double cost = in.float64();
+        String status = in.optString();
+        Integer score = in.optInt();
+        List<String> hints = in.optStrings();
+        Integer latencyP99 = in.optInt();
+        int sections = in.u8();
+
+        SimulationResultDto.MonteCarlo monteCarlo = null;
+        if ((sections & MONTE_CARLO) != 0) {
+            monteCarlo = new SimulationResultDto.MonteCarlo(
+                in.zigzagInt(), in.zigzag(), in.float64(), in.interval(), in.interval(), in.interval(), in.float64(), in.interval()
+            );
+        }
+        SimulationResultDto.LatencyDistribution latency = null;
+        if ((sections & LATENCY) != 0) {
+            long count = in.zigzag();
+            double mean = in.float64();
+            double max = in.float64();
+            Map<String, Double> quantiles = null;
+            int size = in.count();
+            if (size > 0) {
+                quantiles = new LinkedHashMap<>();
+                for (int q = 0; q < size - 1; q++) {
+                    quantiles.put(in.string(), in.float64());
+                }
+            }
+            latency = new SimulationResultDto.LatencyDistribution(count, mean, max, quantiles, in.optString());
+        }
+        SimulationResultDto.Analytic analytic = null;
+        if ((sections & ANALYTIC) != 0) {
+            analytic = new SimulationResultDto.Analytic(in.zigzagInt(), in.float64(), in.optStrings());
+        }
+        SimulationResultDto.Breakdown breakdown = null;
+        if ((sections & BREAKDOWN) != 0) {
+            List<String> criticalPath = in.optStrings();
+            String bottleneck = in.optString();
+            List<SimulationResultDto.NodeDetail> details = null;
+            int size = in.count();
+            if (size > 0) {
+                int n = size - 1;
+                String[] ids = new String[n];
+                for (int i = 0; i < n; i++) ids[i] = in.optString();
+                Double[] utilization = in.doubleColumn(n);
+                double[] latencyMs = new double[n];
+                double[] costShare = new double[n];
+                double[] failureShare = new double[n];
+                for (int i = 0; i < n; i++) latencyMs[i] = in.float64();
+                for (int i = 0; i < n; i++) costShare[i] = in.float64();
+                for (int i = 0; i < n; i++) failureShare[i] = in.float64();
+                details = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    details.add(new SimulationResultDto.NodeDetail(ids[i], utilization[i], latencyMs[i], costShare[i], failureShare[i]));
+                }
+            }
+            breakdown = new SimulationResultDto.Breakdown(criticalPath, bottleneck, details);
+        }
+        SimulationResultDto.Timeline timeline = null;
+        if ((sections & TIMELINE) != 0) {
+            int windowSec = in.zigzagInt();
+            List<SimulationResultDto.Window> windows = null;
+            int size = in.count();
+            if (size > 0) {
+                windows = new ArrayList<>(size - 1);
+                for (int w = 0; w < size - 1; w++) {
+                    windows.add(readWindow(in));
+                }
+            }
+            timeline = new SimulationResultDto.Timeline(windowSec, windows, in.u8() == 0 ? null : readWindow(in));
+        }
+        SimulationResultDto.Resilience resilience = null;
+        if ((sections & RESILIENCE) != 0) {
+            resilience = new SimulationResultDto.Resilience(in.float64(), in.float64(), in.optStrings(), in.optStrings());
+        }
+        in.end();
+        return new SimulationResultDto(
+            latencyP50, latencyP95, throughput, cost, status, score, hints, latencyP99, monteCarlo, latency, analytic, breakdown,
+            timeline, resilience
+        );
+    }
+
+    private static void writeWindow(Writer out, SimulationResultDto.Window window) {
+        out.zigzag(window.startSec());
+        out.zigzag(window.seconds());
+        out.float64(window.offeredRps());
+        out.zigzag(window.throughputRps());
+        out.zigzag(window.latencyMsP50());
+        out.zigzag(window.latencyMsP95());
+        out.float64(window.failureRate());
+    }
+
+    private static SimulationResultDto.Window readWindow(Reader in) {
+        return new SimulationResultDto.Window(
+            in.zigzagInt(), in.zigzagInt(), in.float64(), in.zigzagInt(), in.zigzagInt(), in.zigzagInt(), in.float64()
+        );
+    }
+
+    private static int ref(String id, Map<String, Integer> ordinals, Map<String, Integer> extras, int n) {
+        if (id == null) {
+            return 0;
+        }
+        Integer ordinal = ordinals.get(id);
+        if (ordinal != null) {
+            return ordinal + 1;
+        }
+        return n + 1 + extras.computeIfAbsent(id, x -> extras.size());
+    }
+
+    private static String id(int ref, String[] ids, String[] extras) {
+        if (ref == 0) {
+            return null;
+        }
+        if (ref <= ids.length) {
+            return ids[ref - 1];
+        }
+        int extra = ref - ids.length - 1;
+        if (extra >= extras.length) {
+            throw Reader.malformed();
+        }
+        return extras[extra];
+    }
+
+    private static void writeDbConfig(Writer out, ScenarioDto.DbConfig dbConfig) {
+        out.optString(dbConfig.engine());
+        out.optInt(dbConfig.connectionPool());
+        List<ScenarioDto.DbTable> tables = dbConfig.tables();
+        out.varint(tables == null ? 0 : tables.size() + 1);
+        if (tables == null) {
+            return;
+        }
+        for (ScenarioDto.DbTable table : tables) {
+            out.u8(table == null ? 0 : 1);
+            if (table == null) {
+                continue;
+            }
+            out.optString(table.name());
+            out.optString(table.sizeClass());
+            out.optStrings(table.indexes());
+            List<ScenarioDto.DbColumn> columns = table.columns();
+            out.varint(columns == null ? 0 : columns.size() + 1);
+            if (columns != null) {
+                for (ScenarioDto.DbColumn column : columns) {
+                    out.u8(column == null ? 0 : 1);
+                    if (column != null) {
+                        out.optString(column.name());
+                        out.optString(column.type());
+                    }
+                }
+            }
+            List<ScenarioDto.DbQuery> queries = table.queries();
+            out.varint(queries == null ? 0 : queries.size() + 1);
+            if (queries != null) {
+                for (ScenarioDto.DbQuery query : queries) {
+                    out.u8(query == null ? 0 : 1);
+                    if (query != null) {
+                        out.optString(query.kind());
+                        out.optString(query.column());
+                        out.optDouble(query.perRequest());
+                        out.optDouble(query.selectivity());
+                    }
+                }
+            }
+        }
+    }
+
+    private static ScenarioDto.DbConfig readDbConfig(Reader in) {
+        String engine = in.optString();
+        Integer connectionPool = in.optInt();
+        int tableCount = in.count();
+        List<ScenarioDto.DbTable> tables = null;
+        if (tableCount > 0) {
+            tables = new ArrayList<>(tableCount - 1);
+            for (int t = 0; t < tableCount - 1; t++) {
+                if (in.u8() == 0) {
+                    tables.add(null);
+                    continue;
+                }
+                String name = in.optString();
+                String sizeClass = in.optString();
+                List<String> indexes = in.optStrings();
+                int columnCount = in.count();
+                List<ScenarioDto.DbColumn> columns = null;
+                if (columnCount > 0) {
+                    columns = new ArrayList<>(columnCount - 1);
+                    for (int c = 0; c < columnCount - 1; c++) {
+                        columns.add(in.u8() == 0 ? null : new ScenarioDto.DbColumn(in.optString(), in.optString()));
+                    }
+                }
+                int queryCount = in.count();
+                List<ScenarioDto.DbQuery> queries = null;
+                if (queryCount > 0) {
+                    queries = new ArrayList<>(queryCount - 1);
+                    for (int q = 0; q < queryCount - 1; q++) {
+                        queries.add(in.u8() == 0
+                            ? null
+                            : new ScenarioDto.DbQuery(in.optString(), in.optString(), in.optDouble(), in.optDouble()));
+                    }
+                }
+                tables.add(new ScenarioDto.DbTable(name, sizeClass, indexes, columns, queries));
+            }
+        }
+        return new ScenarioDto.DbConfig(engine, tables, connectionPool);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void header(int kind) {
+            u8(MAGIC);
+            u8(kind);
+            u8(VERSION);
+        }
+
+        void u8(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void optInt(Integer value) {
+            if (value == null) {
+                varint(0);
+            } else {
+                varint(((value.longValue() << 1) ^ (value.longValue() >> 63)) + 1);
+            }
+        }
+
+        void float64(double value) {
+            ensure(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int b = 0; b < 8; b++) {
+                buffer[size++] = (byte) (bits >>> (8 * b));
+            }
+        }
+
+        void string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buffer, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void optString(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buffer, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void optDouble(Double value) {
+            u8(value == null ? 0 : 1);
+            if (value != null) {
+                float64(value);
+            }
+        }
+
+        void optLong(Long value) {
+            u8(value == null ? 0 : 1);
+            if (value != null) {
+                zigzag(value);
+            }
+        }
+
+        void optStrings(List<String> values) {
+            varint(values == null ? 0 : values.size() + 1L);
+            if (values != null) {
+                for (String value : values) {
+                    optString(value);
+                }
+            }
+        }
+
+        void interval(SimulationResultDto.Interval interval) {
+            u8(interval == null ? 0 : 1);
+            if (interval != null) {
+                float64(interval.lower());
+                float64(interval.upper());
+            }
+        }
+
+        void intColumn(Integer[] values) {
+            boolean any = false;
+            for (Integer value : values) {
+                any |= value != null;
+            }
+            u8(any ? 1 : 0);
+            if (any) {
+                for (Integer value : values) {
+                    optInt(value);
+                }
+            }
+        }
+
+        void doubleColumn(Double[] values) {
+            boolean any = false;
+            for (Double value : values) {
+                any |= value != null;
+            }
+            u8(any ? 1 : 0);
+            if (!any) {
+                return;
+            }
+            byte[] present = new byte[(values.length + 7) >>> 3];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    present[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            ensure(present.length);
+            System.arraycopy(present, 0, buffer, size, present.length);
+            size += present.length;
+            for (Double value : values) {
+                if (value != null) {
+                    float64(value);
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        static IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed columnar payload");
+        }
+
+        void header(int kind) {
+            if (u8() != MAGIC || u8() != kind) {
+                throw malformed();
+            }
+            int version = u8();
+            if (version != VERSION) {
+                ScenarioValidator.bad("Unsupported columnar format version " + version + "; this engine reads version " + VERSION);
+            }
+        }
+
+        void end() {
+            if (position != buffer.length) {
+                throw malformed();
+            }
+        }
+
+        int u8() {
+            if (position >= buffer.length) {
+                throw malformed();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long varlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw malformed();
+        }
+
+        int varint() {
+            long value = varlong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw malformed();
+            }
+            return (int) value;
+        }
+
+        /** A length or count; every element takes at least one byte, so it cannot exceed what is left. */
+        int count() {
+            int count = varint();
+            if (count > buffer.length - position + 1) {
+                throw malformed();
+            }
+            return count;
+        }
+
+        long zigzag() {
+            long raw = varlong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        int zigzagInt() {
+            long value = zigzag();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw malformed();
+            }
+            return (int) value;
+        }
+
+        Integer optInt() {
+            long raw = varlong();
+            if (raw == 0) {
+                return null;
+            }
+            raw--;
+            long value = (raw >>> 1) ^ -(raw & 1);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw malformed();
+            }
+            return (int) value;
+        }
+
+        double float64() {
+            if (buffer.length - position < 8) {
+                throw malformed();
+            }
+            long bits = 0;
+            for (int b = 0; b < 8; b++) {
+                bits |= (long) (buffer[position++] & 0xFF) << (8 * b);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String string() {
+            return utf8(count());
+        }
+
+        String optString() {
+            int length = count();
+            return length == 0 ? null : utf8(length - 1);
+        }
+
+        Double optDouble() {
+            return u8() == 0 ? null : float64();
+        }
+
+        Long optLong() {
+            return u8() == 0 ? null : zigzag();
+        }
+
+        List<String> optStrings() {
+            int count = count();
+            if (count == 0) {
+                return null;
+            }
+            List<String> values = new ArrayList<>(count - 1);
+            for (int i = 0; i < count - 1; i++) {
+                values.add(optString());
+            }
+            return values;
+        }
+
+        SimulationResultDto.Interval interval() {
+            return u8() == 0 ? null : new SimulationResultDto.Interval(float64(), float64());
+        }
+
+        Integer[] intColumn(int n) {
+            Integer[] values = new Integer[n];
+            if (u8() != 0) {
+                for (int i = 0; i < n; i++) {
+                    values[i] = optInt();
+                }
+            }
+            return values;
+        }
+
+        Double[] doubleColumn(int n) {
+            Double[] values = new Double[n];
+            if (u8() == 0) {
+                return values;
+            }
+            int bitmap = position;
+            position += (n + 7) >>> 3;
+            if (position > buffer.length) {
+                throw malformed();
+            }
+            for (int i = 0; i < n; i++) {
+                if ((buffer[bitmap + (i >>> 3)] & (1 << (i & 7))) != 0) {
+                    values[i] = float64();
+                }
+            }
+            return values;
+        }
+
+        private String utf8(int length) {
+            if (length > buffer.length - position) {
+                throw malformed();
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.archbench.engine.api;
+
+import java.io.IOException;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/** Reads scenarios and writes results in the {@link ColumnarCodec} format. */
+public class ColumnarMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_COLUMNAR = MediaType.parseMediaType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE);
+
+    public ColumnarMessageConverter() {
+        super(APPLICATION_COLUMNAR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ScenarioDto.class || clazz == SimulationResultDto.class;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return clazz == ScenarioDto.class ? ColumnarCodec.decodeScenario(body) : ColumnarCodec.decodeResult(body);
+        } catch (IllegalArgumentException ex) {
+            throw new HttpMessageNotReadableException(ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = value instanceof ScenarioDto scenario
+            ? ColumnarCodec.encodeScenario(scenario)
+            : ColumnarCodec.encodeResult((SimulationResultDto) value);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
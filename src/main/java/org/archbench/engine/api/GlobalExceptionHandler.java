@@ -1,7 +1,14 @@
 package org.archbench.engine.api;
 
+import java.util.Map;
+
+import org.archbench.engine.core.NodeTypeCatalogException;
+import org.archbench.engine.core.ScenarioValidationException;
+import org.archbench.engine.core.SimulationRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
@@ -13,6 +20,14 @@ public class GlobalExceptionHandler {
     public ProblemDetail handle(ResponseStatusException ex) {
         ProblemDetail pd = ProblemDetail.forStatusAndDetail(ex.getStatusCode(), ex.getReason());
         pd.setTitle("Invalid scenario");
+        if (ex instanceof ScenarioValidationException validation) {
+            pd.setProperty("code", validation.code().param());
+            if (validation.violations().size() > 1) {
+                pd.setProperty("errors", validation.violations().stream()
+                    .map(v -> Map.of("code", v.code().param(), "detail", v.detail()))
+                    .toList());
+            }
+        }
         return pd;
     }
 
@@ -22,4 +37,68 @@ public class GlobalExceptionHandler {
         pd.setTitle("Invalid scenario");
         return pd;
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(NodeTypeCatalogException.class)
+    public ProblemDetail handleCatalog(NodeTypeCatalogException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+        pd.setTitle("Invalid node type catalog");
+        return pd;
+    }
+
+    @ExceptionHandler(SimulationJobNotFoundException.class)
+    public ProblemDetail handleJobNotFound(SimulationJobNotFoundException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        pd.setTitle("Unknown simulation job");
+        return pd;
+    }
+
+    @ExceptionHandler(TraceNotFoundException.class)
+    public ProblemDetail handleTraceNotFound(TraceNotFoundException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        pd.setTitle("Unknown trace");
+        return pd;
+    }
+
+    @ExceptionHandler(RunNotFoundException.class)
+    public ProblemDetail handleRunNotFound(RunNotFoundException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        pd.setTitle("Unknown run");
+        return pd;
+    }
+
+    @ExceptionHandler(ScenarioSessionNotFoundException.class)
+    public ProblemDetail handleSessionNotFound(ScenarioSessionNotFoundException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+        pd.setTitle("Unknown scenario session");
+        return pd;
+    }
+
+    @ExceptionHandler(SimulationRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleRejected(SimulationRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.retryAfterSeconds()))
+            .body(rejected(ex));
+    }
+
+    public ProblemDetail toProblemDetail(RuntimeException ex) {
+        if (ex instanceof ResponseStatusException statusException) {
+            return handle(statusException);
+        }
+        if (ex instanceof IllegalArgumentException illegalArgument) {
+            return handleIllegalArg(illegalArgument);
+        }
+        if (ex instanceof SimulationRejectedException rejectedException) {
+            return rejected(rejectedException);
+        }
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+        pd.setTitle("Simulation failed");
+        return pd;
+    }
+
+    private static ProblemDetail rejected(SimulationRejectedException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        pd.setTitle("Too many simulations");
+        pd.setProperty("retryAfterSeconds", ex.retryAfterSeconds());
+        return pd;
+    }
+}
@@ -0,0 +1,90 @@
+package org.archbench.engine.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.core.SimulationOptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Reads scenarios one at a time from an NDJSON stream and writes one result line per scenario, in input order.
+ * At most a small window of scenarios is in flight, so heap usage does not depend on the size of the upload.
+ */
+@Component
+public class NdjsonSimulationStreamer {
+
+    private static final byte NEWLINE = '\n';
+
+    private final BatchItemEvaluator batchItemEvaluator;
+    private final ForkJoinPool simulationPool;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader scenarioReader;
+    private final ObjectWriter itemWriter;
+    private final int window;
+
+    public NdjsonSimulationStreamer(BatchItemEvaluator batchItemEvaluator, ForkJoinPool simulationPool, ObjectMapper objectMapper) {
+        this.batchItemEvaluator = batchItemEvaluator;
+        this.simulationPool = simulationPool;
+        this.objectMapper = objectMapper;
+        this.scenarioReader = objectMapper.readerFor(ScenarioDto.class);
+        this.itemWriter = objectMapper.writerFor(BatchItemDto.class);
+        this.window = simulationPool.getParallelism() * 2;
+    }
+
+    public void stream(InputStream input, OutputStream output, SimulationOptions options) throws IOException {
+        ArrayDeque<ForkJoinTask<BatchItemDto>> inFlight = new ArrayDeque<>(window);
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            while (true) {
+                ScenarioDto scenario;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        break;
+                    }
+                    scenario = scenarioReader.readValue(parser);
+                } catch (JsonProcessingException ex) {
+                    drain(inFlight, output, 0);
+                    ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Malformed scenario JSON: " + ex.getOriginalMessage());
+                    pd.setTitle("Invalid scenario");
+                    write(BatchItemDto.failure(pd), output);
+                    output.flush();
+                    return;
+                }
+                if (inFlight.size() == window) {
+                    drain(inFlight, output, window - 1);
+                }
+                inFlight.addLast(simulationPool.submit(() -> batchItemEvaluator.evaluate(scenario, options)));
+            }
+        }
+        drain(inFlight, output, 0);
+    }
+
+    private void drain(ArrayDeque<ForkJoinTask<BatchItemDto>> inFlight, OutputStream output, int keep) throws IOException {
+        while (inFlight.size() > keep || (!inFlight.isEmpty() && inFlight.peekFirst().isDone())) {
+            write(inFlight.pollFirst().join(), output);
+            if (inFlight.isEmpty() || !inFlight.peekFirst().isDone()) {
+                output.flush();
+            }
+        }
+    }
+
+    private void write(BatchItemDto item, OutputStream output) throws IOException {
+        output.write(itemWriter.writeValueAsBytes(item));
+        output.write(NEWLINE);
+    }
+}
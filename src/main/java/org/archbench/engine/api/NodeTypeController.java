@@ -0,0 +1,43 @@
+package org.archbench.engine.api;
+
+import org.archbench.engine.api.dto.NodeTypesDto;
+import org.archbench.engine.core.NodeTypeCatalog;
+import org.archbench.engine.core.SimulationResultCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class NodeTypeController {
+
+    private final NodeTypeCatalog catalog;
+    private final SimulationResultCache resultCache;
+
+    public NodeTypeController(NodeTypeCatalog catalog, SimulationResultCache resultCache) {
+        this.catalog = catalog;
+        this.resultCache = resultCache;
+    }
+
+    @GetMapping("/node-types")
+    public NodeTypesDto nodeTypes() {
+        return toDto(catalog.current());
+    }
+
+    @PostMapping("/node-types/reload")
+    public NodeTypesDto reload() {
+        long previousVersion = catalog.current().version();
+        NodeTypeCatalog.Snapshot snapshot = catalog.reload();
+        if (snapshot.version() != previousVersion) {
+            resultCache.invalidateAll();
+        }
+        return toDto(snapshot);
+    }
+
+    private static NodeTypesDto toDto(NodeTypeCatalog.Snapshot snapshot) {
+        return new NodeTypesDto(
+            Long.toHexString(snapshot.version()),
+            snapshot.typeNames().stream().sorted().toList(),
+            snapshot.dbEngines().stream().sorted().toList()
+        );
+    }
+}
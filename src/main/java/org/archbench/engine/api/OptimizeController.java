@@ -0,0 +1,33 @@
+package org.archbench.engine.api;
+
+import org.archbench.engine.api.dto.OptimizationResultDto;
+import org.archbench.engine.api.dto.OptimizeParams;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.core.OptimizerOptions;
+import org.archbench.engine.core.ScenarioOptimizer;
+import org.archbench.engine.core.SimulationAdmission;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class OptimizeController {
+
+    private final ScenarioOptimizer optimizer;
+    private final SimulationAdmission admission;
+
+    public OptimizeController(ScenarioOptimizer optimizer, SimulationAdmission admission) {
+        this.optimizer = optimizer;
+        this.admission = admission;
+    }
+
+    @PostMapping(path = "/optimize", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public OptimizationResultDto optimize(
+        @RequestBody ScenarioDto scenario,
+        OptimizeParams params
+    ) {
+        OptimizerOptions options = params.toOptions();
+        return admission.run(admission.classify(scenario, options), () -> optimizer.optimize(scenario, options));
+    }
+}
@@ -0,0 +1,8 @@
+package org.archbench.engine.api;
+
+public class RunNotFoundException extends RuntimeException {
+
+    public RunNotFoundException(String name, long id) {
+        super("No run " + id + " of scenario '" + name + "' (unknown or compacted away)");
+    }
+}
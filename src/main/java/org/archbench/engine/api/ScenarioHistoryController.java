@@ -0,0 +1,118 @@
+package org.archbench.engine.api;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.archbench.engine.api.dto.RunDiffDto;
+import org.archbench.engine.api.dto.RunDto;
+import org.archbench.engine.api.dto.RunHistoryDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.archbench.engine.core.RunHistory;
+import org.archbench.engine.core.ScenarioValidator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Past runs of a named scenario as recorded by {@link RunHistory}: the run list over a time window, the full result
+ * of one run, and what changed between two runs.
+ */
+@RestController
+public class ScenarioHistoryController {
+
+    static final int MAX_LIMIT = 10_000;
+
+    private final RunHistory runHistory;
+
+    public ScenarioHistoryController(RunHistory runHistory) {
+        this.runHistory = runHistory;
+    }
+
+    @GetMapping("/scenarios/{name}/history")
+    public RunHistoryDto history(
+        @PathVariable String name,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            ScenarioValidator.bad("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            ScenarioValidator.bad("from must be before to");
+        }
+        List<RunDto> runs = runHistory.history(name, from, to, limit).stream()
+            .map(ScenarioHistoryController::toDto)
+            .toList();
+        return new RunHistoryDto(name, runs);
+    }
+
+    @GetMapping("/scenarios/{name}/history/{runId}")
+    public SimulationResultDto run(@PathVariable String name, @PathVariable long runId) {
+        return runHistory.result(name, runId).orElseThrow(() -> new RunNotFoundException(name, runId));
+    }
+
+    @GetMapping("/scenarios/{name}/history/diff")
+    public RunDiffDto diff(@PathVariable String name, @RequestParam("from") long fromId, @RequestParam("to") long toId) {
+        RunHistory.Run from = runHistory.run(name, fromId).orElseThrow(() -> new RunNotFoundException(name, fromId));
+        RunHistory.Run to = runHistory.run(name, toId).orElseThrow(() -> new RunNotFoundException(name, toId));
+        SimulationResultDto fromResult = runHistory.result(name, fromId).orElseThrow(() -> new RunNotFoundException(name, fromId));
+        SimulationResultDto toResult = runHistory.result(name, toId).orElseThrow(() -> new RunNotFoundException(name, toId));
+
+        List<RunDiffDto.Change> changes = new ArrayList<>();
+        change(changes, "latencyMsP50", from.latencyMsP50(), to.latencyMsP50());
+        change(changes, "latencyMsP95", from.latencyMsP95(), to.latencyMsP95());
+        change(changes, "latencyMsP99", from.latencyMsP99(), to.latencyMsP99());
+        change(changes, "throughputRps", from.throughputRps(), to.throughputRps());
+        change(changes, "costPerHour", from.costPerHour(), to.costPerHour());
+        change(changes, "score", from.score(), to.score());
+
+        Set<String> fromHints = hints(fromResult);
+        Set<String> toHints = hints(toResult);
+        return new RunDiffDto(
+            name,
+            toDto(from),
+            toDto(to),
+            !from.scenarioHash().equals(to.scenarioHash()),
+            changes,
+            toHints.stream().filter(hint -> !fromHints.contains(hint)).toList(),
+            fromHints.stream().filter(hint -> !toHints.contains(hint)).toList()
+        );
+    }
+
+    /** Metrics missing from either run (p99 outside Monte Carlo, score without a challenge) are not compared. */
+    private static void change(List<RunDiffDto.Change> changes, String metric, Number from, Number to) {
+        if (from == null || to == null || Objects.equals(from, to)) {
+            return;
+        }
+        double before = from.doubleValue();
+        double after = to.doubleValue();
+        changes.add(new RunDiffDto.Change(metric, before, after, after - before));
+    }
+
+    private static Set<String> hints(SimulationResultDto result) {
+        return result.hints() == null ? Set.of() : new LinkedHashSet<>(result.hints());
+    }
+
+    private static RunDto toDto(RunHistory.Run run) {
+        return new RunDto(
+            run.id(),
+            run.at(),
+            run.scenarioHash(),
+            run.mode(),
+            run.status(),
+            run.latencyMsP50(),
+            run.latencyMsP95(),
+            run.latencyMsP99(),
+            run.throughputRps(),
+            run.costPerHour(),
+            run.score()
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package org.archbench.engine.api;
+
+import java.net.URI;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.ScenarioPatchDto;
+import org.archbench.engine.api.dto.ScenarioSessionDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ScenarioSessionController {
+
+    private final ScenarioSessionManager sessionManager;
+
+    public ScenarioSessionController(ScenarioSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    @PostMapping("/sessions")
+    public ResponseEntity<ScenarioSessionDto> open(@RequestBody ScenarioDto scenario) {
+        ScenarioSessionDto session = sessionManager.open(scenario);
+        return ResponseEntity.created(URI.create("/sessions/" + session.id())).body(session);
+    }
+
+    @GetMapping("/sessions/{id}")
+    public ScenarioSessionDto get(@PathVariable String id) {
+        return sessionManager.get(id);
+    }
+
+    @PatchMapping("/sessions/{id}")
+    public ScenarioSessionDto patch(@PathVariable String id, @RequestBody ScenarioPatchDto patch) {
+        return sessionManager.patch(id, patch);
+    }
+
+    @GetMapping("/sessions/{id}/scenario")
+    public ScenarioDto scenario(@PathVariable String id) {
+        return sessionManager.scenario(id);
+    }
+
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<Void> close(@PathVariable String id) {
+        sessionManager.close(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,115 @@
+package org.archbench.engine.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.ScenarioPatchDto;
+import org.archbench.engine.api.dto.ScenarioSessionDto;
+import org.archbench.engine.core.IncrementalScenario;
+import org.archbench.engine.core.ScenarioValidator;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationPipeline;
+import org.archbench.engine.core.SimulationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Editor sessions holding an {@link IncrementalScenario} each. Sessions expire after
+ * {@code archbench.sessions.ttl-seconds} without access, and the store is weighted by node count so all open
+ * sessions together hold at most {@code archbench.sessions.max-nodes} nodes. A session keeps the node type catalog
+ * it was opened with.
+ */
+@Component
+public class ScenarioSessionManager {
+
+    private final SimulationService simulationService;
+    private final ScenarioValidator scenarioValidator;
+    private final SimulationPipeline simulationPipeline;
+    private final Cache<String, IncrementalScenario> sessions;
+
+    public ScenarioSessionManager(
+        SimulationService simulationService,
+        ScenarioValidator scenarioValidator,
+        SimulationPipeline simulationPipeline,
+        @Value("${archbench.sessions.ttl-seconds:1800}") long ttlSeconds,
+        @Value("${archbench.sessions.max-nodes:2000000}") long maxNodes
+    ) {
+        this.simulationService = simulationService;
+        this.scenarioValidator = scenarioValidator;
+        this.simulationPipeline = simulationPipeline;
+        this.sessions = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+            .maximumWeight(maxNodes)
+            .<String, IncrementalScenario>weigher((id, session) -> Math.max(1, session.nodeCount()))
+            .build();
+    }
+
+    public ScenarioSessionDto open(ScenarioDto scenario) {
+        IncrementalScenario session = new IncrementalScenario(
+            simulationService,
+            scenarioValidator,
+            simulationService.catalog(),
+            scenario
+        );
+        String id = UUID.randomUUID().toString();
+        ScenarioSessionDto result = toDto(id, session);
+        sessions.put(id, session);
+        return result;
+    }
+
+    public ScenarioSessionDto get(String id) {
+        IncrementalScenario session = find(id);
+        synchronized (session) {
+            return toDto(id, session);
+        }
+    }
+
+    public ScenarioSessionDto patch(String id, ScenarioPatchDto patch) {
+        IncrementalScenario session = find(id);
+        ScenarioSessionDto result;
+        synchronized (session) {
+            session.apply(patch);
+            result = toDto(id, session);
+        }
+        // Re-insert so the store re-weighs the session after it grew or shrank.
+        sessions.asMap().replace(id, session);
+        return result;
+    }
+
+    public ScenarioDto scenario(String id) {
+        IncrementalScenario session = find(id);
+        synchronized (session) {
+            return session.toScenario();
+        }
+    }
+
+    public void close(String id) {
+        if (sessions.asMap().remove(id) == null) {
+            throw new ScenarioSessionNotFoundException(id);
+        }
+    }
+
+    private IncrementalScenario find(String id) {
+        IncrementalScenario session = sessions.getIfPresent(id);
+        if (session == null) {
+            throw new ScenarioSessionNotFoundException(id);
+        }
+        return session;
+    }
+
+    private ScenarioSessionDto toDto(String id, IncrementalScenario session) {
+        ScenarioDto targets = new ScenarioDto(null, session.workload(), List.of(), List.of());
+        return new ScenarioSessionDto(
+            id,
+            session.revision(),
+            session.nodeCount(),
+            session.edgeCount(),
+            simulationPipeline.closedFormResult(targets, session.metrics(), SimulationOptions.DEFAULT)
+        );
+    }
+}
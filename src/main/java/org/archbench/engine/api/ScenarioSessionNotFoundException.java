@@ -0,0 +1,8 @@
+package org.archbench.engine.api;
+
+public class ScenarioSessionNotFoundException extends RuntimeException {
+
+    public ScenarioSessionNotFoundException(String id) {
+        super("No scenario session '" + id + "' (unknown, closed or expired)");
+    }
+}
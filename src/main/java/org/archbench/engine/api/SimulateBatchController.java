@@ -0,0 +1,139 @@
+package org.archbench.engine.api;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationParams;
+import org.archbench.engine.core.NodeTypeCatalog;
+import org.archbench.engine.core.ScenarioValidator;
+import org.archbench.engine.core.SimulationAdmission;
+import org.archbench.engine.core.SimulationOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+@RestController
+public class SimulateBatchController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final BatchItemEvaluator batchItemEvaluator;
+    private final SimulationAdmission admission;
+    private final ForkJoinPool simulationPool;
+    private final NodeTypeCatalog catalog;
+    private final ObjectReader scenarioReader;
+    private final int maxBatchSize;
+
+    public SimulateBatchController(
+        BatchItemEvaluator batchItemEvaluator,
+        SimulationAdmission admission,
+        ForkJoinPool simulationPool,
+        NodeTypeCatalog catalog,
+        ObjectMapper objectMapper,
+        @Value("${archbench.batch.max-size:100000}") int maxBatchSize
+    ) {
+        this.batchItemEvaluator = batchItemEvaluator;
+        this.admission = admission;
+        this.simulationPool = simulationPool;
+        this.catalog = catalog;
+        this.scenarioReader = objectMapper.readerFor(ScenarioDto.class);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostMapping(path = "/simulate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemDto> simulateBatch(
+        @RequestBody List<ScenarioDto> scenarios,
+        SimulationParams params,
+        @RequestHeader(name = SweepCoordinator.CATALOG_VERSION_HEADER, required = false) String catalogVersion
+    ) {
+        checkCatalog(catalogVersion);
+        SimulationOptions options = params.toOptions();
+        List<BatchEntry> entries = new ArrayList<>(scenarios.size());
+        for (ScenarioDto scenario : scenarios) {
+            entries.add(new BatchEntry(scenario, null));
+        }
+        return admission.run(admission.classify(scenarios, options), () -> evaluate(entries, options));
+    }
+
+    @PostMapping(path = "/simulate/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public List<BatchItemDto> simulateBatchNdjson(
+        InputStream body,
+        SimulationParams params,
+        @RequestHeader(name = SweepCoordinator.CATALOG_VERSION_HEADER, required = false) String catalogVersion
+    ) throws IOException {
+        checkCatalog(catalogVersion);
+        SimulationOptions options = params.toOptions();
+        List<BatchEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                checkSize(entries.size() + 1);
+                try {
+                    entries.add(new BatchEntry(scenarioReader.readValue(line), null));
+                } catch (JsonProcessingException ex) {
+                    ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Malformed scenario JSON: " + ex.getOriginalMessage());
+                    pd.setTitle("Invalid scenario");
+                    entries.add(new BatchEntry(null, pd));
+                }
+            }
+        }
+        List<ScenarioDto> scenarios = entries.stream().map(BatchEntry::scenario).toList();
+        return admission.run(admission.classify(scenarios, options), () -> evaluate(entries, options));
+    }
+
+    private List<BatchItemDto> evaluate(List<BatchEntry> entries, SimulationOptions options) {
+        checkSize(entries.size());
+        BatchItemDto[] items = new BatchItemDto[entries.size()];
+        simulationPool.submit(() -> IntStream.range(0, items.length)
+            .parallel()
+            .forEach(i -> items[i] = evaluate(entries.get(i), options))
+        ).join();
+        return List.of(items);
+    }
+
+    private BatchItemDto evaluate(BatchEntry entry, SimulationOptions options) {
+        if (entry.parseError() != null) {
+            return BatchItemDto.failure(entry.parseError());
+        }
+        return batchItemEvaluator.evaluate(entry.scenario(), options);
+    }
+
+    private void checkSize(int size) {
+        if (size > maxBatchSize) {
+            ScenarioValidator.bad("Batch exceeds the maximum of " + maxBatchSize + " scenarios");
+        }
+    }
+
+    /** A chunk sent by a coordinator must be simulated against the same node types the coordinator uses. */
+    private void checkCatalog(String expectedVersion) {
+        String version = Long.toHexString(catalog.current().version());
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Node type catalog version " + version + " does not match the coordinator's " + expectedVersion);
+        }
+    }
+
+    private record BatchEntry(ScenarioDto scenario, ProblemDetail parseError) {}
+}
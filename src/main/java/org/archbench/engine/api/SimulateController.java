@@ -1,53 +1,89 @@
 package org.archbench.engine.api;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
+import org.archbench.engine.api.dto.CacheStatsDto;
 import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationParams;
 import org.archbench.engine.api.dto.SimulationResultDto;
-import org.archbench.engine.core.ScenarioValidator;
-import org.archbench.engine.core.SimulationInsights;
-import org.archbench.engine.core.SimulationService;
+import org.archbench.engine.core.RunHistory;
+import org.archbench.engine.core.SimulationAdmission;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationPipeline;
+import org.archbench.engine.core.SimulationResultCache;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 public class SimulateController {
 
-    private final SimulationService simulationService;
-    private final ScenarioValidator scenarioValidator;
-    private final SimulationInsights simulationInsights;
+    private final SimulationPipeline simulationPipeline;
+    private final NdjsonSimulationStreamer ndjsonSimulationStreamer;
+    private final SimulationResultCache resultCache;
+    private final SimulationAdmission admission;
+    private final RunHistory runHistory;
 
     public SimulateController(
-        SimulationService simulationService,
-        ScenarioValidator scenarioValidator,
-        SimulationInsights simulationInsights
+        SimulationPipeline simulationPipeline,
+        NdjsonSimulationStreamer ndjsonSimulationStreamer,
+        SimulationResultCache resultCache,
+        SimulationAdmission admission,
+        RunHistory runHistory
     ) {
-        this.simulationService = simulationService;
-        this.scenarioValidator = scenarioValidator;
-        this.simulationInsights = simulationInsights;
+        this.simulationPipeline = simulationPipeline;
+        this.ndjsonSimulationStreamer = ndjsonSimulationStreamer;
+        this.resultCache = resultCache;
+        this.admission = admission;
+        this.runHistory = runHistory;
+    }
+
+    @PostMapping(path = "/simulate", consumes = { MediaType.APPLICATION_JSON_VALUE, ColumnarCodec.APPLICATION_COLUMNAR_VALUE })
+    public SimulationResultDto simulate(
+        @RequestBody ScenarioDto scenario,
+        SimulationParams params
+    ) {
+        SimulationOptions options = params.toOptions();
+        SimulationResultDto result = admission.run(admission.classify(scenario, options), () -> simulationPipeline.simulate(scenario, options));
+        runHistory.record(scenario, options, result);
+        return result;
+    }
+
+    @PostMapping(path = "/simulate", consumes = SimulateBatchController.APPLICATION_NDJSON_VALUE)
+    public void simulateStream(
+        InputStream body,
+        HttpServletResponse response,
+        SimulationParams params
+    ) throws IOException {
+        SimulationOptions options = params.toOptions();
+        admission.run(SimulationAdmission.CostClass.LARGE, () -> {
+            response.setContentType(SimulateBatchController.APPLICATION_NDJSON_VALUE);
+            try {
+                ndjsonSimulationStreamer.stream(body, response.getOutputStream(), options);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
     }
 
-    @PostMapping("/simulate")
-    public SimulationResultDto simulate(@RequestBody ScenarioDto scenario) {
-        scenarioValidator.validate(scenario);
-        List<ScenarioDto.Node> normalizedNodes = simulationService.normalizeNodes(scenario.nodes());
-        int latencyP50 = simulationService.calculateLatencyP50(normalizedNodes, scenario.edges());
-        int latencyP95 = simulationService.calculateLatencyP95(latencyP50, normalizedNodes);
-        int throughput = simulationService.calculateThroughput(normalizedNodes);
-        double failureRate = simulationService.calculateFailureRate(normalizedNodes);
-        double costPerHour = simulationService.calculateCost(normalizedNodes);
-        String status = simulationInsights.deriveStatus(scenario, latencyP95, throughput, failureRate);
-        int score = simulationInsights.calculateScore(scenario, latencyP95, throughput, failureRate);
-        List<String> hints = simulationInsights.generateHints(scenario, latencyP95, throughput, failureRate);
-        return new SimulationResultDto(
-            latencyP50,
-            latencyP95,
-            throughput,
-            costPerHour,
-            status,
-            score,
-            hints
+    @GetMapping("/simulate/cache")
+    public CacheStatsDto cacheStats() {
+        CacheStats stats = resultCache.stats();
+        return new CacheStatsDto(
+            resultCache.size(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            stats.hitRate()
         );
     }
 
@@ -0,0 +1,158 @@
+package org.archbench.engine.api;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationJobDto;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationProgress;
+
+/**
+ * State of one asynchronous simulation job. The job thread writes results and progress; pollers read them without
+ * locking. Status transitions are synchronized so a cancel racing with the job start resolves to exactly one outcome.
+ * The job doubles as the {@link SimulationProgress} of the scenario currently running.
+ */
+final class SimulationJob implements SimulationProgress {
+
+    enum Status {
+        QUEUED, RUNNING, CANCELLING, SUCCEEDED, CANCELLED;
+
+        String param() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        boolean finished() {
+            return this == SUCCEEDED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final SimulationOptions options;
+    private final Instant createdAt;
+    private final int total;
+    private final AtomicReferenceArray<BatchItemDto> results;
+    private final AtomicLong itemUnitsDone = new AtomicLong();
+
+    private volatile List<ScenarioDto> scenarios;
+    private volatile Future<?> future;
+    private volatile long itemUnitsTotal;
+    private volatile int completed;
+    private volatile boolean cancelRequested;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+
+    SimulationJob(String id, List<ScenarioDto> scenarios, SimulationOptions options) {
+        this.id = id;
+        this.scenarios = scenarios;
+        this.options = options;
+        this.createdAt = Instant.now();
+        this.total = scenarios.size();
+        this.results = new AtomicReferenceArray<>(total);
+    }
+
+    String id() {
+        return id;
+    }
+
+    int total() {
+        return total;
+    }
+
+    SimulationOptions options() {
+        return options;
+    }
+
+    ScenarioDto scenario(int index) {
+        return scenarios.get(index);
+    }
+
+    Status status() {
+        return status;
+    }
+
+    void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean begin() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void cancel() {
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            Future<?> pending = future;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            finish(Status.CANCELLED);
+        } else if (status == Status.RUNNING) {
+            status = Status.CANCELLING;
+        }
+    }
+
+    synchronized void finish(Status outcome) {
+        if (status.finished()) {
+            return;
+        }
+        status = outcome;
+        finishedAt = Instant.now();
+        scenarios = null;
+        future = null;
+    }
+
+    void startItem() {
+        itemUnitsTotal = 0;
+        itemUnitsDone.set(0);
+    }
+
+    void completeItem(int index, BatchItemDto result) {
+        results.set(index, result);
+        completed = completed + 1;
+    }
+
+    @Override
+    public void start(long totalUnits) {
+        itemUnitsDone.set(0);
+        itemUnitsTotal = totalUnits;
+    }
+
+    @Override
+    public void advance(long units) {
+        itemUnitsDone.addAndGet(units);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    SimulationJobDto toDto() {
+        Status current = status;
+        int done = completed;
+        double progress;
+        if (current == Status.SUCCEEDED || total == 0) {
+            progress = 1.0;
+        } else {
+            long unitsTotal = itemUnitsTotal;
+            double item = done < total && unitsTotal > 0 ? Math.min(1.0, (double) itemUnitsDone.get() / unitsTotal) : 0.0;
+            progress = (done + item) / total;
+        }
+        BatchItemDto[] snapshot = new BatchItemDto[total];
+        for (int i = 0; i < total; i++) {
+            snapshot[i] = results.get(i);
+        }
+        return new SimulationJobDto(id, current.param(), total, done, progress, createdAt, finishedAt, Arrays.asList(snapshot));
+    }
+}
@@ -0,0 +1,53 @@
+package org.archbench.engine.api;
+
+import java.net.URI;
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationJobDto;
+import org.archbench.engine.api.dto.SimulationParams;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RestController
+public class SimulationJobController {
+
+    private static final TypeReference<List<ScenarioDto>> SCENARIO_LIST = new TypeReference<>() {};
+
+    private final SimulationJobManager jobManager;
+    private final ObjectMapper objectMapper;
+
+    public SimulationJobController(SimulationJobManager jobManager, ObjectMapper objectMapper) {
+        this.jobManager = jobManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(path = "/simulations", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SimulationJobDto> submit(@RequestBody JsonNode body, SimulationParams params) {
+        List<ScenarioDto> scenarios = body.isArray()
+            ? objectMapper.convertValue(body, SCENARIO_LIST)
+            : List.of(objectMapper.convertValue(body, ScenarioDto.class));
+        SimulationJobDto job = jobManager.submit(scenarios, params.toOptions());
+        return ResponseEntity.accepted().location(URI.create("/simulations/" + job.id())).body(job);
+    }
+
+    @GetMapping("/simulations/{id}")
+    public SimulationJobDto get(@PathVariable String id) {
+        return jobManager.get(id);
+    }
+
+    @DeleteMapping("/simulations/{id}")
+    public ResponseEntity<SimulationJobDto> cancel(@PathVariable String id) {
+        return ResponseEntity.accepted().body(jobManager.cancel(id));
+    }
+}
@@ -0,0 +1,136 @@
+package org.archbench.engine.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationJobDto;
+import org.archbench.engine.core.ScenarioValidator;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationRejectedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Runs simulation jobs on the dedicated job executor. Jobs in flight live in a map capped at
+ * {@code archbench.jobs.max-active}; finished jobs move to a Caffeine store that expires them after
+ * {@code archbench.jobs.ttl-seconds} and is weighted by result count, so retained results never exceed
+ * {@code archbench.jobs.max-retained-results} regardless of how large individual sweeps are.
+ */
+@Component
+public class SimulationJobManager {
+
+    private final BatchItemEvaluator batchItemEvaluator;
+    private final ExecutorService executor;
+    private final int maxActive;
+    private final int maxScenarios;
+    private final Map<String, SimulationJob> active = new ConcurrentHashMap<>();
+    private final Cache<String, SimulationJob> finished;
+
+    public SimulationJobManager(
+        BatchItemEvaluator batchItemEvaluator,
+        @Qualifier("simulationJobExecutor") ExecutorService executor,
+        @Value("${archbench.jobs.max-active:64}") int maxActive,
+        @Value("${archbench.jobs.max-retained-results:100000}") long maxRetainedResults,
+        @Value("${archbench.jobs.ttl-seconds:3600}") long ttlSeconds,
+        @Value("${archbench.batch.max-size:100000}") int maxScenarios
+    ) {
+        this.batchItemEvaluator = batchItemEvaluator;
+        this.executor = executor;
+        this.maxActive = maxActive;
+        this.maxScenarios = maxScenarios;
+        this.finished = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumWeight(maxRetainedResults)
+            .<String, SimulationJob>weigher((id, job) -> Math.max(1, job.total()))
+            .build();
+    }
+
+    public SimulationJobDto submit(List<ScenarioDto> scenarios, SimulationOptions options) {
+        if (scenarios.isEmpty()) {
+            ScenarioValidator.bad("A simulation job needs at least one scenario");
+        }
+        if (scenarios.size() > maxScenarios) {
+            ScenarioValidator.bad("Job exceeds the maximum of " + maxScenarios + " scenarios");
+        }
+        if (active.size() >= maxActive) {
+            throw new SimulationRejectedException("Too many simulation jobs in progress (limit " + maxActive + ")", 1);
+        }
+        SimulationJob job = new SimulationJob(UUID.randomUUID().toString(), List.copyOf(scenarios), options);
+        active.put(job.id(), job);
+        try {
+            job.attach(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException ex) {
+            active.remove(job.id());
+            throw new SimulationRejectedException("Simulation job executor is shutting down", 1);
+        }
+        return job.toDto();
+    }
+
+    public SimulationJobDto get(String id) {
+        return find(id).toDto();
+    }
+
+    public SimulationJobDto cancel(String id) {
+        SimulationJob job = find(id);
+        job.cancel();
+        if (job.status().finished() && active.containsKey(id)) {
+            retire(job);
+        }
+        return job.toDto();
+    }
+
+    public int activeJobs() {
+        return active.size();
+    }
+
+    private SimulationJob find(String id) {
+        SimulationJob job = active.get(id);
+        if (job == null) {
+            job = finished.getIfPresent(id);
+        }
+        if (job == null) {
+            throw new SimulationJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private void run(SimulationJob job) {
+        if (!job.begin()) {
+            return;
+        }
+        boolean cancelled = false;
+        try {
+            for (int i = 0; i < job.total() && !cancelled; i++) {
+                if (job.isCancelled()) {
+                    cancelled = true;
+                    break;
+                }
+                job.startItem();
+                try {
+                    job.completeItem(i, batchItemEvaluator.evaluate(job.scenario(i), job.options(), job));
+                } catch (CancellationException ex) {
+                    cancelled = true;
+                }
+            }
+        } finally {
+            job.finish(cancelled ? SimulationJob.Status.CANCELLED : SimulationJob.Status.SUCCEEDED);
+            retire(job);
+        }
+    }
+
+    private void retire(SimulationJob job) {
+        finished.put(job.id(), job);
+        active.remove(job.id());
+    }
+}
@@ -0,0 +1,8 @@
+package org.archbench.engine.api;
+
+public class SimulationJobNotFoundException extends RuntimeException {
+
+    public SimulationJobNotFoundException(String id) {
+        super("No simulation job '" + id + "' (unknown, or its result has expired)");
+    }
+}
@@ -0,0 +1,377 @@
+package org.archbench.engine.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.core.NodeTypeCatalog;
+import org.archbench.engine.core.SimulationAdmission;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationRejectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Shards a sweep across the workers in {@link ClusterWorkerRegistry}. The sweep is cut into chunks that every worker,
+ * this instance included when {@code archbench.cluster.local-worker} is set, pulls from one queue, so a fast worker
+ * simply takes more of them. A worker is any engine instance: a chunk is a plain {@code POST /simulate/batch} with the
+ * sweep's parameters and the coordinator's node-type catalog version in {@value #CATALOG_VERSION_HEADER}, so results
+ * are exactly those of a local batch; a worker on another catalog version answers 409 and drops out of the sweep.
+ *
+ * <p>Once the queue is empty an idle worker runs a backup copy of the chunk that has been in flight longest and still
+ * has a single copy, and the first copy to finish wins; a straggler therefore holds up the sweep by at most one chunk
+ * time of the fastest worker. A worker that fails a chunk goes back to the head of the queue. A worker answering
+ * 429 or 503 is busy, not broken: it waits out {@code Retry-After} and stays in the sweep. A transport error, a
+ * timeout, a 5xx or a result of the wrong length takes the worker out of the sweep and into the registry's cooldown;
+ * any other refusal only takes it out of this sweep. When every remote worker has left, the rest of the sweep runs
+ * here.
+ *
+ * <p>Only the chunks simulated here go through {@link SimulationAdmission}, one permit per chunk, so a sweep that is
+ * mostly waiting on workers holds no local capacity. A chunk that admission turns away is left to the remote workers;
+ * with none left, the rejection ends the sweep. Interrupting the calling thread ends the sweep with an
+ * {@link IllegalStateException} and leaves the interrupt flag set.
+ */
+@Component
+public class SweepCoordinator {
+
+    /** Catalog version, in the hex form of {@code GET /node-types}, that a worker must match to run a chunk. */
+    public static final String CATALOG_VERSION_HEADER = "X-Archbench-Catalog-Version";
+
+    private static final TypeReference<List<BatchItemDto>> BATCH_ITEMS = new TypeReference<>() {};
+    /** Chunks per worker when the sweep is too small for full chunks, so the tail still spreads. */
+    private static final int CHUNKS_PER_WORKER = 4;
+    /** Busy replies in a row after which a worker leaves the sweep, without a cooldown. */
+    private static final int MAX_BUSY_REPLIES = 20;
+    private static final long DEFAULT_RETRY_AFTER_MS = 1_000L;
+    private static final long MAX_BACKOFF_MS = 30_000L;
+
+    private final ClusterWorkerRegistry registry;
+    private final BatchItemEvaluator batchItemEvaluator;
+    private final ForkJoinPool simulationPool;
+    private final NodeTypeCatalog catalog;
+    private final SimulationAdmission admission;
+    private final ChunkTransport transport;
+    private final int chunkSize;
+    private final boolean localWorker;
+
+    @Autowired
+    public SweepCoordinator(
+        ClusterWorkerRegistry registry,
+        BatchItemEvaluator batchItemEvaluator,
+        ForkJoinPool simulationPool,
+        NodeTypeCatalog catalog,
+        SimulationAdmission admission,
+        ObjectMapper objectMapper,
+        @Value("${archbench.cluster.chunk-size:256}") int chunkSize,
+        @Value("${archbench.cluster.local-worker:true}") boolean localWorker,
+        @Value("${archbench.cluster.connect-timeout-ms:2000}") long connectTimeoutMs,
+        @Value("${archbench.cluster.request-timeout-ms:600000}") long requestTimeoutMs
+    ) {
+        this(registry, batchItemEvaluator, simulationPool, catalog, admission, new HttpChunkTransport(objectMapper, connectTimeoutMs, requestTimeoutMs), chunkSize, localWorker);
+    }
+
+    SweepCoordinator(
+        ClusterWorkerRegistry registry,
+        BatchItemEvaluator batchItemEvaluator,
+        ForkJoinPool simulationPool,
+        NodeTypeCatalog catalog,
+        SimulationAdmission admission,
+        ChunkTransport transport,
+        int chunkSize,
+        boolean localWorker
+    ) {
+        this.registry = registry;
+        this.batchItemEvaluator = batchItemEvaluator;
+        this.simulationPool = simulationPool;
+        this.catalog = catalog;
+        this.admission = admission;
+        this.transport = transport;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.localWorker = localWorker;
+    }
+
+    /** Results in the order of {@code scenarios}; {@code query} is forwarded to every worker as is. */
+    public List<BatchItemDto> run(List<ScenarioDto> scenarios, SimulationOptions options, String query) {
+        List<ClusterWorkerRegistry.Worker> workers = registry.available();
+        int slots = workers.size() + (localWorker ? 1 : 0);
+        int size = Math.min(chunkSize, Math.max(1, Math.ceilDiv(scenarios.size(), CHUNKS_PER_WORKER * Math.max(1, slots))));
+        Sweep sweep = new Sweep(scenarios, size, workers.size());
+        String catalogVersion = Long.toHexString(catalog.current().version());
+
+        for (ClusterWorkerRegistry.Worker worker : workers) {
+            Thread.ofVirtual().name("sweep-" + worker.url()).start(() -> remote(sweep, worker, query, catalogVersion));
+        }
+        if (!localWorker) {
+            sweep.awaitRemote();
+        }
+        for (int chunk; (chunk = sweep.next()) >= 0; ) {
+            List<ScenarioDto> slice = sweep.chunk(chunk);
+            BatchItemDto[] items;
+            try {
+                items = admission.run(admission.classify(slice, options), () -> local(slice, options));
+            } catch (SimulationRejectedException ex) {
+                sweep.fail(chunk);
+                if (sweep.stranded()) {
+                    throw ex;
+                }
+                sweep.awaitRemote();
+                continue;
+            }
+            sweep.complete(chunk, items);
+        }
+        int outstanding = sweep.outstanding();
+        if (outstanding > 0) {
+            throw new IllegalStateException("Sweep interrupted with " + outstanding + " chunks outstanding");
+        }
+        return List.of(sweep.items);
+    }
+
+    private void remote(Sweep sweep, ClusterWorkerRegistry.Worker worker, String query, String catalogVersion) {
+        int busy = 0;
+        try {
+            for (int chunk; (chunk = sweep.next()) >= 0; ) {
+                List<ScenarioDto> scenarios = sweep.chunk(chunk);
+                List<BatchItemDto> items;
+                try {
+                    items = transport.send(worker.url(), scenarios, query, catalogVersion);
+                    if (items == null || items.size() != scenarios.size()) {
+                        throw new IOException("Expected " + scenarios.size() + " results, got " + (items == null ? 0 : items.size()));
+                    }
+                } catch (WorkerStatusException ex) {
+                    sweep.fail(chunk);
+                    if (ex.busy() && ++busy <= MAX_BUSY_REPLIES) {
+                        Thread.sleep(Math.min(MAX_BACKOFF_MS, ex.retryAfterMs()));
+                        continue;
+                    }
+                    if (ex.status() >= 500 && !ex.busy()) {
+                        worker.failed(ex.getMessage());
+                    } else {
+                        worker.rejected(ex.getMessage());
+                    }
+                    return;
+                } catch (IOException | RuntimeException ex) {
+                    worker.failed(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+                    sweep.fail(chunk);
+                    return;
+                }
+                busy = 0;
+                worker.succeeded(scenarios.size());
+                sweep.complete(chunk, items.toArray(BatchItemDto[]::new));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sweep.leave();
+        }
+    }
+
+    private BatchItemDto[] local(List<ScenarioDto> scenarios, SimulationOptions options) {
+        BatchItemDto[] items = new BatchItemDto[scenarios.size()];
+        simulationPool.submit(() -> IntStream.range(0, items.length)
+            .parallel()
+            .forEach(i -> items[i] = batchItemEvaluator.evaluate(scenarios.get(i), options))
+        ).join();
+        return items;
+    }
+
+    /** Sends one chunk to a worker and returns its results. */
+    @FunctionalInterface
+    interface ChunkTransport {
+        List<BatchItemDto> send(String workerUrl, List<ScenarioDto> chunk, String query, String catalogVersion) throws IOException, InterruptedException;
+    }
+
+    /** Chunk bookkeeping of one sweep, guarded by its monitor; chunks are views of the immutable scenario list. */
+    private static final class Sweep {
+
+        private final List<ScenarioDto> scenarios;
+        private final int chunkSize;
+        private final BatchItemDto[] items;
+        private final boolean[] done;
+        private final int[] copies;
+        private final long[] startedNanos;
+        private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+        private int remaining;
+        private int remoteWorkers;
+
+        private Sweep(List<ScenarioDto> scenarios, int chunkSize, int remoteWorkers) {
+            this.scenarios = scenarios;
+            this.chunkSize = chunkSize;
+            this.items = new BatchItemDto[scenarios.size()];
+            int chunks = Math.ceilDiv(scenarios.size(), chunkSize);
+            this.done = new boolean[chunks];
+            this.copies = new int[chunks];
+            this.startedNanos = new long[chunks];
+            this.remaining = chunks;
+            this.remoteWorkers = remoteWorkers;
+            for (int c = 0; c < chunks; c++) {
+                pending.addLast(c);
+            }
+        }
+
+        List<ScenarioDto> chunk(int chunk) {
+            return scenarios.subList(chunk * chunkSize, Math.min(scenarios.size(), (chunk + 1) * chunkSize));
+        }
+
+        /**
+         * The next chunk to run: a queued one, else a backup copy of the oldest single-copy chunk in flight. Blocks
+         * while every chunk in flight already has a backup; -1 once the sweep is done or the caller is interrupted.
+         */
+        synchronized int next() {
+            while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+                Integer queued = pending.pollFirst();
+                if (queued != null) {
+                    return start(queued);
+                }
+                int straggler = -1;
+                for (int c = 0; c < done.length; c++) {
+                    if (!done[c] && copies[c] == 1 && (straggler < 0 || startedNanos[c] < startedNanos[straggler])) {
+                        straggler = c;
+                    }
+                }
+                if (straggler >= 0) {
+                    return start(straggler);
+                }
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        synchronized void complete(int chunk, BatchItemDto[] results) {
+            copies[chunk]--;
+            if (!done[chunk]) {
+                done[chunk] = true;
+                System.arraycopy(results, 0, items, chunk * chunkSize, results.length);
+                remaining--;
+            }
+            notifyAll();
+        }
+
+        synchronized void fail(int chunk) {
+            copies[chunk]--;
+            if (!done[chunk] && copies[chunk] == 0) {
+                pending.addFirst(chunk);
+            }
+            notifyAll();
+        }
+
+        synchronized void leave() {
+            remoteWorkers--;
+            notifyAll();
+        }
+
+        /** Chunks without a result yet; non-zero after {@link #next()} only if it gave up on an interrupt. */
+        synchronized int outstanding() {
+            return remaining;
+        }
+
+        /** Chunks are left but no remote worker is, so only this instance can finish the sweep. */
+        synchronized boolean stranded() {
+            return remaining > 0 && remoteWorkers == 0;
+        }
+
+        /** Waits until the sweep is done or no remote worker is left in it. */
+        synchronized void awaitRemote() {
+            while (remaining > 0 && remoteWorkers > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private int start(int chunk) {
+            if (copies[chunk]++ == 0) {
+                startedNanos[chunk] = System.nanoTime();
+            }
+            return chunk;
+        }
+    }
+
+    private static final class HttpChunkTransport implements ChunkTransport {
+
+        private final ObjectMapper objectMapper;
+        private final HttpClient client;
+        private final Duration requestTimeout;
+
+        private HttpChunkTransport(ObjectMapper objectMapper, long connectTimeoutMs, long requestTimeoutMs) {
+            this.objectMapper = objectMapper;
+            this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+            this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        }
+
+        @Override
+        public List<BatchItemDto> send(String workerUrl, List<ScenarioDto> chunk, String query, String catalogVersion) throws IOException, InterruptedException {
+            String uri = workerUrl + "/simulate/batch" + (query == null || query.isEmpty() ? "" : "?" + query);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header(CATALOG_VERSION_HEADER, catalogVersion)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(chunk)))
+                .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new WorkerStatusException(workerUrl, response.statusCode(), retryAfterMs(response));
+            }
+            return objectMapper.readValue(response.body(), BATCH_ITEMS);
+        }
+
+        /** {@code Retry-After} in seconds; the HTTP-date form is not used by engines and falls back to a second. */
+        private static long retryAfterMs(HttpResponse<?> response) {
+            try {
+                return response.headers().firstValue("Retry-After").map(value -> Long.parseLong(value.trim()) * 1_000L).orElse(DEFAULT_RETRY_AFTER_MS);
+            } catch (NumberFormatException ex) {
+                return DEFAULT_RETRY_AFTER_MS;
+            }
+        }
+    }
+
+    /** A worker answered a chunk with a status other than 200. */
+    static final class WorkerStatusException extends IOException {
+
+        private final int status;
+        private final long retryAfterMs;
+
+        WorkerStatusException(String workerUrl, int status, long retryAfterMs) {
+            super("HTTP " + status + " from " + workerUrl);
+            this.status = status;
+            this.retryAfterMs = retryAfterMs;
+        }
+
+        int status() {
+            return status;
+        }
+
+        long retryAfterMs() {
+            return retryAfterMs;
+        }
+
+        /** Admission control turned the chunk away; the worker is healthy and should be tried again. */
+        boolean busy() {
+            return status == 429 || status == 503;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.archbench.engine.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.archbench.engine.api.dto.TraceDto;
+import org.archbench.engine.core.TraceFile;
+import org.archbench.engine.core.TraceStore;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Uploads recorded traffic for {@code workload.trace}. The body is read as a stream straight from the request, so a
+ * long trace is never buffered in memory.
+ */
+@RestController
+public class TraceController {
+
+    private final TraceStore traceStore;
+
+    public TraceController(TraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @PostMapping(value = "/traces", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<TraceDto> uploadText(HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return created(traceStore.importText(body));
+        }
+    }
+
+    @PostMapping(value = "/traces", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<TraceDto> uploadBinary(HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return created(traceStore.importBinary(body));
+        }
+    }
+
+    @GetMapping("/traces/{id}")
+    public TraceDto get(@PathVariable String id) {
+        return toDto(traceStore.find(id).orElseThrow(() -> new TraceNotFoundException(id)));
+    }
+
+    @DeleteMapping("/traces/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        if (!traceStore.delete(id)) {
+            throw new TraceNotFoundException(id);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<TraceDto> created(TraceFile trace) {
+        return ResponseEntity.created(URI.create("/traces/" + trace.id())).body(toDto(trace));
+    }
+
+    private static TraceDto toDto(TraceFile trace) {
+        return new TraceDto(trace.id(), trace.seconds(), trace.totalRequests(), trace.peakRps());
+    }
+}
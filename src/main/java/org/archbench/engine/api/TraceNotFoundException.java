@@ -0,0 +1,8 @@
+package org.archbench.engine.api;
+
+public class TraceNotFoundException extends RuntimeException {
+
+    public TraceNotFoundException(String id) {
+        super("No trace '" + id + "' (unknown or deleted)");
+    }
+}
@@ -0,0 +1,19 @@
+package org.archbench.engine.api.dto;
+
+import org.springframework.http.ProblemDetail;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemDto(
+        SimulationResultDto result,
+        ProblemDetail error) {
+
+    public static BatchItemDto success(SimulationResultDto result) {
+        return new BatchItemDto(result, null);
+    }
+
+    public static BatchItemDto failure(ProblemDetail error) {
+        return new BatchItemDto(null, error);
+    }
+}
@@ -0,0 +1,9 @@
+package org.archbench.engine.api.dto;
+
+public record CacheStatsDto(
+        long size,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRate) {
+}
@@ -0,0 +1,14 @@
+package org.archbench.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClusterWorkerDto(
+        String url,
+        boolean configured,
+        boolean available,
+        long chunks,
+        long scenarios,
+        long failures,
+        String lastError) {
+}
@@ -0,0 +1,9 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+public record NodeTypesDto(
+        String version,
+        List<String> types,
+        List<String> dbEngines) {
+}
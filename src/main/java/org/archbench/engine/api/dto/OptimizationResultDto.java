@@ -0,0 +1,35 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record OptimizationResultDto(
+        boolean feasible,
+        Metrics baseline,
+        Metrics best,
+        List<NodeChange> changes,
+        List<Alternative> frontier,
+        int evaluatedCandidates) {
+
+    public record Metrics(
+            int latencyMsP50,
+            int latencyMsP95,
+            int throughputRps,
+            double costPerHour) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record NodeChange(
+            String nodeId,
+            int replicas,
+            int capacityRps,
+            Integer cacheReplicas,
+            Integer latencyMs) {
+    }
+
+    public record Alternative(
+            Metrics metrics,
+            List<String> cachedNodes) {
+    }
+}
@@ -0,0 +1,31 @@
+package org.archbench.engine.api.dto;
+
+import org.archbench.engine.core.OptimizerOptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public record OptimizeParams(
+        Integer maxReplicas,
+        Double cacheHitRatio,
+        Integer maxCandidates) {
+
+    private static final int MAX_REPLICAS = 1024;
+    private static final int MAX_CANDIDATES = 100_000;
+
+    public OptimizerOptions toOptions() {
+        if (maxReplicas != null && (maxReplicas < 1 || maxReplicas > MAX_REPLICAS)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxReplicas must be between 1 and " + MAX_REPLICAS);
+        }
+        if (cacheHitRatio != null && !(cacheHitRatio >= 0.0 && cacheHitRatio < 1.0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cacheHitRatio must be in [0, 1)");
+        }
+        if (maxCandidates != null && (maxCandidates < 1 || maxCandidates > MAX_CANDIDATES)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxCandidates must be between 1 and " + MAX_CANDIDATES);
+        }
+        return new OptimizerOptions(
+            maxReplicas != null ? maxReplicas : OptimizerOptions.DEFAULT_MAX_REPLICAS,
+            cacheHitRatio != null ? cacheHitRatio : OptimizerOptions.DEFAULT_CACHE_HIT_RATIO,
+            maxCandidates != null ? maxCandidates : OptimizerOptions.DEFAULT_MAX_CANDIDATES
+        );
+    }
+}
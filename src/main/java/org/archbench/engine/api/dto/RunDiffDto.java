@@ -0,0 +1,24 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+/**
+ * Two runs of a scenario side by side: whether the scenario or its options changed in between, the headline metrics
+ * that moved, and the hints that appeared or went away.
+ */
+public record RunDiffDto(
+        String name,
+        RunDto from,
+        RunDto to,
+        boolean scenarioChanged,
+        List<Change> changes,
+        List<String> hintsAdded,
+        List<String> hintsRemoved) {
+
+    public record Change(
+        String metric,
+        double from,
+        double to,
+        double delta
+    ) {}
+}
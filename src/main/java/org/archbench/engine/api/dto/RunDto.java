@@ -0,0 +1,20 @@
+package org.archbench.engine.api.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RunDto(
+        long id,
+        Instant at,
+        String scenarioHash,
+        String mode,
+        String status,
+        int latencyMsP50,
+        int latencyMsP95,
+        Integer latencyMsP99,
+        int throughputRps,
+        double costPerHour,
+        Integer score) {
+}
@@ -0,0 +1,8 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+public record RunHistoryDto(
+        String name,
+        List<RunDto> runs) {
+}
@@ -10,7 +10,18 @@ public record ScenarioDto(
 ) {
     public record Workload(
         Integer rps,
-        Integer p95TargetMs
+        Integer p95TargetMs,
+        List<RatePoint> curve,
+        String trace
+    ) {
+        public Workload(Integer rps, Integer p95TargetMs) {
+            this(rps, p95TargetMs, null, null);
+        }
+    }
+
+    public record RatePoint(
+        Integer atSec,
+        Integer rps
     ) {}
 
     public record Node(
@@ -21,19 +32,83 @@ public record ScenarioDto(
         Integer capacityRps,
         Double failureRate,
         Double costPerHour,
-        DbConfig dbConfig
+        DbConfig dbConfig,
+        Integer replicas,
+        CacheConfig cache
+    ) {
+        public Node(
+            String id,
+            String type,
+            Integer latencyMs,
+            Double varianceFactor,
+            Integer capacityRps,
+            Double failureRate,
+            Double costPerHour,
+            DbConfig dbConfig,
+            Integer replicas
+        ) {
+            this(id, type, latencyMs, varianceFactor, capacityRps, failureRate, costPerHour, dbConfig, replicas, null);
+        }
+
+        public Node(
+            String id,
+            String type,
+            Integer latencyMs,
+            Double varianceFactor,
+            Integer capacityRps,
+            Double failureRate,
+            Double costPerHour,
+            DbConfig dbConfig
+        ) {
+            this(id, type, latencyMs, varianceFactor, capacityRps, failureRate, costPerHour, dbConfig, null, null);
+        }
+    }
+
+    /**
+     * Hit ratio of a cache-type node: either given as {@code hitRatio}, or derived from a key space of
+     * {@code keySpace} keys requested with Zipf skew {@code zipfSkew} of which the {@code cachedKeys} most popular
+     * are cached.
+     */
+    public record CacheConfig(
+        Double hitRatio,
+        Long keySpace,
+        Long cachedKeys,
+        Double zipfSkew
     ) {}
 
+    /** A database's engine and tables; {@code connectionPool} overrides the engine's default pool size. */
     public record DbConfig(
         String engine,
-        List<DbTable> tables
-    ) {}
+        List<DbTable> tables,
+        Integer connectionPool
+    ) {
+        public DbConfig(String engine, List<DbTable> tables) {
+            this(engine, tables, null);
+        }
+    }
 
     public record DbTable(
         String name,
         String sizeClass,
         List<String> indexes,
-        List<DbColumn> columns
+        List<DbColumn> columns,
+        List<DbQuery> queries
+    ) {
+        public DbTable(String name, String sizeClass, List<String> indexes, List<DbColumn> columns) {
+            this(name, sizeClass, indexes, columns, null);
+        }
+    }
+
+    /**
+     * A query against a table: a {@code point} lookup, {@code range} scan or {@code write} filtered on
+     * {@code column}, issued {@code perRequest} times per request (default 1). A range returns {@code selectivity}
+     * of the table's rows (default 1%); a write without a column is an insert.
+     */
+    public record DbQuery(
+        String kind,
+        String column,
+        Double perRequest,
+        Double selectivity
     ) {}
 
     public record DbColumn(
@@ -41,8 +116,28 @@ public record ScenarioDto(
         String type
     ) {}
 
+    /** A call from {@code from} to {@code to}, optionally with a timeout, retries and a circuit breaker. */
     public record Edge(
         String from,
-        String to
+        String to,
+        Integer timeoutMs,
+        Retry retry,
+        CircuitBreaker circuitBreaker
+    ) {
+        public Edge(String from, String to) {
+            this(from, to, null, null, null);
+        }
+    }
+
+    /** Up to {@code maxRetries} further attempts, the k-th after {@code backoffMs * backoffMultiplier^(k-1)}. */
+    public record Retry(
+        Integer maxRetries,
+        Integer backoffMs,
+        Double backoffMultiplier
+    ) {}
+
+    /** Fails calls fast, without retrying, while the failure rate of attempts is at or above the threshold. */
+    public record CircuitBreaker(
+        Double failureThreshold
     ) {}
 }
@@ -0,0 +1,20 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+public record ScenarioPatchDto(
+    ScenarioDto.Workload workload,
+    List<Operation> ops
+) {
+    /**
+     * One edit. {@code add-node} and {@code update-node} carry {@code node}; {@code remove-node} carries {@code id};
+     * {@code add-edge} and {@code remove-edge} carry {@code from} and {@code to}.
+     */
+    public record Operation(
+        String op,
+        ScenarioDto.Node node,
+        String id,
+        String from,
+        String to
+    ) {}
+}
@@ -0,0 +1,9 @@
+package org.archbench.engine.api.dto;
+
+public record ScenarioSessionDto(
+        String id,
+        long revision,
+        int nodes,
+        int edges,
+        SimulationResultDto result) {
+}
@@ -0,0 +1,18 @@
+package org.archbench.engine.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SimulationJobDto(
+        String id,
+        String status,
+        int total,
+        int completed,
+        double progress,
+        Instant createdAt,
+        Instant finishedAt,
+        List<BatchItemDto> results) {
+}
@@ -0,0 +1,41 @@
+package org.archbench.engine.api.dto;
+
+import java.util.List;
+
+import org.archbench.engine.core.SimulationMode;
+import org.archbench.engine.core.SimulationOptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public record SimulationParams(
+        String mode,
+        Integer durationSec,
+        Long seed,
+        Integer trials,
+        List<Double> quantiles,
+        Boolean histogram,
+        Boolean breakdown,
+        Integer windowSec) {
+
+    private static final int MAX_QUANTILES = 16;
+
+    public SimulationOptions toOptions() {
+        if (quantiles != null) {
+            if (quantiles.size() > MAX_QUANTILES) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_QUANTILES + " quantiles may be requested");
+            }
+            for (Double quantile : quantiles) {
+                if (quantile == null || !(quantile > 0.0 && quantile <= 1.0)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantiles must be in (0, 1]");
+                }
+            }
+        }
+        if (windowSec != null && windowSec < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "windowSec must be at least 1");
+        }
+        return new SimulationOptions(SimulationMode.fromParam(mode), durationSec, seed, trials)
+            .withDistribution(quantiles, Boolean.TRUE.equals(histogram))
+            .withBreakdown(Boolean.TRUE.equals(breakdown))
+            .withWindowSec(windowSec);
+    }
+}
@@ -1,7 +1,11 @@
 package org.archbench.engine.api.dto;
 
 import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record SimulationResultDto( 
         int latencyMsP50,
         int latencyMsP95,
@@ -9,5 +13,97 @@ public record SimulationResultDto(
         double costPerHour,
         String status,
         Integer score,
-        List<String> hints) {
+        List<String> hints,
+        Integer latencyMsP99,
+        MonteCarlo monteCarlo,
+        LatencyDistribution latency,
+        Analytic analytic,
+        Breakdown breakdown,
+        Timeline timeline,
+        Resilience resilience) {
+
+    public SimulationResultDto(
+            int latencyMsP50,
+            int latencyMsP95,
+            int throughputRps,
+            double costPerHour,
+            String status,
+            Integer score,
+            List<String> hints) {
+        this(latencyMsP50, latencyMsP95, throughputRps, costPerHour, status, score, hints, null, null, null, null, null, null, null);
+    }
+
+    public record MonteCarlo(
+        int trials,
+        long seed,
+        double latencyMsMean,
+        Interval latencyMsMeanInterval,
+        Interval latencyMsP95Interval,
+        Interval latencyMsP99Interval,
+        double failureRate,
+        Interval failureRateInterval
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record LatencyDistribution(
+        long count,
+        double meanMs,
+        double maxMs,
+        Map<String, Double> quantiles,
+        String histogram
+    ) {}
+
+    public record Analytic(
+        int offeredRps,
+        double maxUtilization,
+        List<String> saturatedNodes
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Breakdown(
+        List<String> criticalPath,
+        String bottleneck,
+        List<NodeDetail> nodes
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record NodeDetail(
+        String id,
+        Double utilization,
+        double latencyMs,
+        double costShare,
+        double failureShare
+    ) {}
+
+    public record Timeline(
+        int windowSec,
+        List<Window> windows,
+        Window worst
+    ) {}
+
+    public record Window(
+        int startSec,
+        int seconds,
+        double offeredRps,
+        int throughputRps,
+        int latencyMsP50,
+        int latencyMsP95,
+        double failureRate
+    ) {}
+
+    /**
+     * Effect of the edges' timeout, retry and circuit-breaker policies. {@code retryStorms} are nodes saturated only
+     * because of retries; {@code openBreakers} are nodes whose callers' breakers shed calls.
+     */
+    public record Resilience(
+        double availability,
+        double retryAmplification,
+        List<String> retryStorms,
+        List<String> openBreakers
+    ) {}
+
+    public record Interval(
+        double lower,
+        double upper
+    ) {}
 }
@@ -0,0 +1,8 @@
+package org.archbench.engine.api.dto;
+
+public record TraceDto(
+        String id,
+        int seconds,
+        long totalRequests,
+        int peakRps) {
+}
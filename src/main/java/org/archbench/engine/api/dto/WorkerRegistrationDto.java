@@ -0,0 +1,5 @@
+package org.archbench.engine.api.dto;
+
+public record WorkerRegistrationDto(
+        String url) {
+}
@@ -0,0 +1,26 @@
+package org.archbench.engine.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SimulationExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool simulationPool(@Value("${archbench.batch.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService simulationJobExecutor(@Value("${archbench.jobs.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Executors.newFixedThreadPool(size, Thread.ofPlatform().name("simulation-job-", 0).daemon(true).factory());
+    }
+
+}
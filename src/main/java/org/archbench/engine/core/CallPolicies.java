@@ -0,0 +1,98 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/**
+ * Timeout, retry and circuit-breaker settings of every call, indexed by the CSR edge slots of a
+ * {@link CompiledTopology}. Edges without a policy get the neutral values: no timeout, no retries and no breaker.
+ */
+public final class CallPolicies {
+
+    static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+
+    private final int[] timeoutMs;
+    private final int[] maxRetries;
+    private final double[] backoffMs;
+    private final double[] backoffMultiplier;
+    private final double[] breakerThreshold;
+
+    private CallPolicies(int slots) {
+        timeoutMs = new int[slots];
+        maxRetries = new int[slots];
+        backoffMs = new double[slots];
+        backoffMultiplier = new double[slots];
+        breakerThreshold = new double[slots];
+    }
+
+    /** The policies of the scenario's edges, or null when no edge declares one, which leaves every model unchanged. */
+    public static CallPolicies compile(List<ScenarioDto.Edge> edges, CompiledTopology topology) {
+        if (!anyDeclared(edges)) {
+            return null;
+        }
+        int[] sources = topology.edgeSources();
+        CallPolicies policies = new CallPolicies(sources.length);
+        for (int slot = 0; slot < sources.length; slot++) {
+            ScenarioDto.Edge edge = edges.get(sources[slot]);
+            policies.timeoutMs[slot] = edge.timeoutMs() != null ? edge.timeoutMs() : 0;
+            ScenarioDto.Retry retry = edge.retry();
+            if (retry != null) {
+                policies.maxRetries[slot] = retry.maxRetries() != null ? retry.maxRetries() : 0;
+                policies.backoffMs[slot] = retry.backoffMs() != null ? retry.backoffMs() : 0;
+            }
+            policies.backoffMultiplier[slot] = retry != null && retry.backoffMultiplier() != null
+                ? retry.backoffMultiplier()
+                : DEFAULT_BACKOFF_MULTIPLIER;
+            ScenarioDto.CircuitBreaker breaker = edge.circuitBreaker();
+            policies.breakerThreshold[slot] = breaker != null && breaker.failureThreshold() != null
+                ? breaker.failureThreshold()
+                : Double.POSITIVE_INFINITY;
+        }
+        return policies;
+    }
+
+    public static boolean anyDeclared(List<ScenarioDto.Edge> edges) {
+        if (edges == null) {
+            return false;
+        }
+        for (ScenarioDto.Edge edge : edges) {
+            if (declared(edge)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean declared(ScenarioDto.Edge edge) {
+        return edge != null && (edge.timeoutMs() != null || edge.retry() != null || edge.circuitBreaker() != null);
+    }
+
+    /** Timeout of the call in a slot, 0 for none. */
+    int timeoutMs(int slot) {
+        return timeoutMs[slot];
+    }
+
+    int maxRetries(int slot) {
+        return maxRetries[slot];
+    }
+
+    boolean hasBreaker(int slot) {
+        return breakerThreshold[slot] <= 1.0;
+    }
+
+    double breakerThreshold(int slot) {
+        return breakerThreshold[slot];
+    }
+
+    /** Total backoff before the first {@code retries} retries of a call in a slot. */
+    double backoffMs(int slot, int retries) {
+        double multiplier = backoffMultiplier[slot];
+        if (retries <= 0 || backoffMs[slot] == 0.0) {
+            return 0.0;
+        }
+        return multiplier == 1.0
+            ? backoffMs[slot] * retries
+            : backoffMs[slot] * (Math.pow(multiplier, retries) - 1.0) / (multiplier - 1.0);
+    }
+}
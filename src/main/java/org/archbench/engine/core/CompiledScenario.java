@@ -0,0 +1,146 @@
+package org.archbench.engine.core;
+
+/**
+ * Structure-of-arrays view of the normalized node attributes, indexed by the same ordinals as
+ * {@link CompiledTopology}. Node types are stored as the catalog's interned ids, which fit in a byte. Built in one pass by {@link SimulationService#compileScenario} without materializing
+ * normalized node records.
+ */
+public final class CompiledScenario {
+
+    private final NodeTypeCatalog.Snapshot catalog;
+    private final byte[] types;
+    private final int[] latencyMs;
+    private final double[] varianceFactor;
+    private final int[] capacityRps;
+    private final double[] failureRate;
+    private final double[] costPerHour;
+    private double[] hitRatio;
+    private int[] connections;
+
+    CompiledScenario(NodeTypeCatalog.Snapshot catalog, int nodeCount) {
+        this.catalog = catalog;
+        types = new byte[nodeCount];
+        latencyMs = new int[nodeCount];
+        varianceFactor = new double[nodeCount];
+        capacityRps = new int[nodeCount];
+        failureRate = new double[nodeCount];
+        costPerHour = new double[nodeCount];
+    }
+
+    CompiledScenario copy() {
+        CompiledScenario copy = new CompiledScenario(catalog, types.length);
+        System.arraycopy(types, 0, copy.types, 0, types.length);
+        System.arraycopy(latencyMs, 0, copy.latencyMs, 0, types.length);
+        System.arraycopy(varianceFactor, 0, copy.varianceFactor, 0, types.length);
+        System.arraycopy(capacityRps, 0, copy.capacityRps, 0, types.length);
+        System.arraycopy(failureRate, 0, copy.failureRate, 0, types.length);
+        System.arraycopy(costPerHour, 0, copy.costPerHour, 0, types.length);
+        copy.hitRatio = hitRatio != null ? hitRatio.clone() : null;
+        copy.connections = connections != null ? connections.clone() : null;
+        return copy;
+    }
+
+    void set(int node, int typeId, int latency, double variance, int capacity, double failure, double cost) {
+        types[node] = (byte) typeId;
+        latencyMs[node] = latency;
+        varianceFactor[node] = variance;
+        capacityRps[node] = capacity;
+        failureRate[node] = failure;
+        costPerHour[node] = cost;
+    }
+
+    void setHitRatio(int node, double ratio) {
+        if (hitRatio == null) {
+            if (ratio <= 0.0) {
+                return;
+            }
+            hitRatio = new double[types.length];
+        }
+        hitRatio[node] = ratio;
+    }
+
+    void setConnections(int node, int pooled) {
+        if (connections == null) {
+            if (pooled <= 0) {
+                return;
+            }
+            connections = new int[types.length];
+        }
+        connections[node] = pooled;
+    }
+
+    public int nodeCount() {
+        return types.length;
+    }
+
+    public NodeTypeCatalog.Snapshot catalog() {
+        return catalog;
+    }
+
+    public int typeId(int node) {
+        return types[node] & 0xFF;
+    }
+
+    public String type(int node) {
+        return catalog.typeName(typeId(node));
+    }
+
+    public int latencyMs(int node) {
+        return latencyMs[node];
+    }
+
+    public double varianceFactor(int node) {
+        return varianceFactor[node];
+    }
+
+    public int capacityRps(int node) {
+        return capacityRps[node];
+    }
+
+    public double failureRate(int node) {
+        return failureRate[node];
+    }
+
+    public double costPerHour(int node) {
+        return costPerHour[node];
+    }
+
+    /** Share of the requests reaching a cache node that it answers itself, without calling its children. */
+    public double hitRatio(int node) {
+        return hitRatio != null ? hitRatio[node] : 0.0;
+    }
+
+    /** Connections across the node's pools, each serving one call at a time; 0 for a node without a pool. */
+    public int connections(int node) {
+        return connections != null ? connections[node] : 0;
+    }
+
+    public boolean hasHits() {
+        return hitRatio != null;
+    }
+
+    int[] latencies() {
+        return latencyMs;
+    }
+
+    double[] varianceFactors() {
+        return varianceFactor;
+    }
+
+    int[] capacities() {
+        return capacityRps;
+    }
+
+    double[] failureRates() {
+        return failureRate;
+    }
+
+    double[] costs() {
+        return costPerHour;
+    }
+
+    /** Hit ratios by ordinal, or null when no node has one. */
+    double[] hitRatios() {
+        return hitRatio;
+    }
+}
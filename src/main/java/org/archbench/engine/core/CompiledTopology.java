@@ -0,0 +1,279 @@
+package org.archbench.engine.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/**
+ * Int-indexed view of the scenario graph. Node ordinals follow the order of the node list; edges are kept in
+ * CSR form and only the ones that agree with the computed topological order are retained, so cycles are broken
+ * deterministically instead of rejected. Every request enters at the entry nodes and fans out along the edges;
+ * a node with several parents starts once all of its reachable parents have finished.
+ */
+public final class CompiledTopology {
+
+    private static final Set<String> ENTRY_TYPES = Set.of("client", "cdn", "lb");
+
+    private final int nodeCount;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] edgeSources;
+    private final int[] order;
+    private final boolean[] reachable;
+    private final int[] indegree;
+    private final int[] starts;
+    private final int sinkCount;
+    private final int droppedEdges;
+
+    private CompiledTopology(
+        int nodeCount,
+        int[] edgeOffsets,
+        int[] edgeTargets,
+        int[] edgeSources,
+        int[] order,
+        boolean[] reachable,
+        int[] indegree,
+        int[] starts,
+        int sinkCount,
+        int droppedEdges
+    ) {
+        this.nodeCount = nodeCount;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeSources = edgeSources;
+        this.order = order;
+        this.reachable = reachable;
+        this.indegree = indegree;
+        this.starts = starts;
+        this.sinkCount = sinkCount;
+        this.droppedEdges = droppedEdges;
+    }
+
+    public static CompiledTopology compile(List<ScenarioDto.Node> nodes, List<ScenarioDto.Edge> edges) {
+        return compile(nodes, edges, ENTRY_TYPES::contains);
+    }
+
+    public static CompiledTopology compile(
+        List<ScenarioDto.Node> nodes,
+        List<ScenarioDto.Edge> edges,
+        Predicate<String> entryType
+    ) {
+        int n = nodes == null ? 0 : nodes.size();
+        try (NodeIdTable ordinals = NodeIdTable.acquire(n)) {
+            for (int i = 0; i < n; i++) {
+                ordinals.putIfAbsent(nodes.get(i).id(), i);
+            }
+            return compile(nodes, edges, entryType, ordinals);
+        }
+    }
+
+    /** Compiles against an id to ordinal table that has already been built, e.g. by {@link ScenarioValidator}. */
+    static CompiledTopology compile(
+        List<ScenarioDto.Node> nodes,
+        List<ScenarioDto.Edge> edges,
+        Predicate<String> entryType,
+        NodeIdTable ordinals
+    ) {
+        int n = nodes == null ? 0 : nodes.size();
+        int edgeCount = edges == null ? 0 : edges.size();
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] index = new int[edgeCount];
+        int resolved = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            ScenarioDto.Edge edge = edges.get(i);
+            if (edge == null) {
+                continue;
+            }
+            int u = ordinals.get(edge.from());
+            int v = ordinals.get(edge.to());
+            if (u == NodeIdTable.ABSENT || v == NodeIdTable.ABSENT || u == v) {
+                continue;
+            }
+            from[resolved] = u;
+            to[resolved] = v;
+            index[resolved] = i;
+            resolved++;
+        }
+
+        boolean[] entry = new boolean[n];
+        boolean anyTypedEntry = false;
+        for (int i = 0; i < n; i++) {
+            if (entryType.test(nodes.get(i).type())) {
+                entry[i] = true;
+                anyTypedEntry = true;
+            }
+        }
+        return build(n, from, to, index, resolved, entry, anyTypedEntry);
+    }
+
+    static CompiledTopology build(
+        int n,
+        int[] from,
+        int[] to,
+        int[] index,
+        int edgeCount,
+        boolean[] entry,
+        boolean anyTypedEntry
+    ) {
+        int[] allOffsets = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            allOffsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            allOffsets[i + 1] += allOffsets[i];
+        }
+        int[] allTargets = new int[edgeCount];
+        int[] cursor = new int[n];
+        int[] remaining = new int[n];
+        for (int i = 0; i < edgeCount; i++) {
+            allTargets[allOffsets[from[i]] + cursor[from[i]]++] = to[i];
+            remaining[to[i]]++;
+        }
+
+        int[] order = new int[n];
+        int[] position = new int[n];
+        boolean[] placed = new boolean[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] == 0) {
+                order[tail++] = i;
+                placed[i] = true;
+            }
+        }
+        int scan = 0;
+        while (head < n) {
+            if (head == tail) {
+                while (placed[scan]) {
+                    scan++;
+                }
+                order[tail++] = scan;
+                placed[scan] = true;
+            }
+            int u = order[head];
+            position[u] = head++;
+            for (int e = allOffsets[u]; e < allOffsets[u + 1]; e++) {
+                int v = allTargets[e];
+                if (!placed[v] && --remaining[v] == 0) {
+                    order[tail++] = v;
+                    placed[v] = true;
+                }
+            }
+        }
+
+        int[] edgeOffsets = new int[n + 1];
+        int[] forwardIn = new int[n];
+        int forward = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (position[from[i]] < position[to[i]]) {
+                edgeOffsets[from[i] + 1]++;
+                forwardIn[to[i]]++;
+                forward++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            edgeOffsets[i + 1] += edgeOffsets[i];
+        }
+        int[] edgeTargets = new int[forward];
+        int[] edgeSources = new int[forward];
+        Arrays.fill(cursor, 0);
+        for (int i = 0; i < edgeCount; i++) {
+            if (position[from[i]] < position[to[i]]) {
+                int slot = edgeOffsets[from[i]] + cursor[from[i]]++;
+                edgeTargets[slot] = to[i];
+                edgeSources[slot] = index[i];
+            }
+        }
+
+        boolean[] reachable = new boolean[n];
+        int[] indegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            reachable[i] = anyTypedEntry ? entry[i] : forwardIn[i] == 0;
+        }
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!reachable[u]) {
+                continue;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                reachable[v] = true;
+                indegree[v]++;
+            }
+        }
+
+        int startCount = 0;
+        int sinkCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (!reachable[i]) {
+                continue;
+            }
+            if (indegree[i] == 0) {
+                startCount++;
+            }
+            if (edgeOffsets[i] == edgeOffsets[i + 1]) {
+                sinkCount++;
+            }
+        }
+        int[] starts = new int[startCount];
+        int s = 0;
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (reachable[u] && indegree[u] == 0) {
+                starts[s++] = u;
+            }
+        }
+        return new CompiledTopology(
+            n, edgeOffsets, edgeTargets, edgeSources, order, reachable, indegree, starts, sinkCount, edgeCount - forward
+        );
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    public int droppedEdges() {
+        return droppedEdges;
+    }
+
+    public int sinkCount() {
+        return sinkCount;
+    }
+
+    public boolean isReachable(int node) {
+        return reachable[node];
+    }
+
+    int[] edgeOffsets() {
+        return edgeOffsets;
+    }
+
+    int[] edgeTargets() {
+        return edgeTargets;
+    }
+
+    /** Index in the scenario's edge list of the edge in each CSR slot. */
+    int[] edgeSources() {
+        return edgeSources;
+    }
+
+    int[] order() {
+        return order;
+    }
+
+    int[] indegree() {
+        return indegree;
+    }
+
+    int[] starts() {
+        return starts;
+    }
+}
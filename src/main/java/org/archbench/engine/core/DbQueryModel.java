@@ -0,0 +1,144 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Query-level cost of a database node whose tables declare a query mix. Each query filters on a column: when an
+ * index leads with that column it descends the B-tree ({@code pageMs} per level at a fan-out of 100) and reads the
+ * matching rows, otherwise it scans the table. Writes also update every index and pay the engine's
+ * {@code commitMs}, its lock hold or replica acknowledgement. Row counts come from the table's size class and the
+ * per-engine costs from the catalog.
+ *
+ * <p>A table's cost depends only on its schema, its queries, the engine and the catalog, so it is cached under a
+ * {@link ScenarioFingerprint} of those and repeated simulations of the same schema skip the computation.
+ */
+final class DbQueryModel {
+
+    static final int MAX_TABLES = 4096;
+    static final double DEFAULT_SELECTIVITY = 0.01;
+
+    private static final double FANOUT = 100.0;
+
+    private final Cache<ScenarioFingerprint.Key, Double> tableCosts = Caffeine.newBuilder()
+        .maximumSize(MAX_TABLES)
+        .recordStats()
+        .build();
+
+    /** Whether any table declares queries, which switches the node from size-class multipliers to this model. */
+    static boolean applies(ScenarioDto.DbConfig config) {
+        if (config == null || config.tables() == null) {
+            return false;
+        }
+        for (ScenarioDto.DbTable table : config.tables()) {
+            if (table != null && table.queries() != null && !table.queries().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Milliseconds a request spends in queries against the node's tables. */
+    double queryMs(NodeTypeCatalog.Snapshot catalog, ScenarioDto.DbConfig config) {
+        double total = 0.0;
+        for (ScenarioDto.DbTable table : config.tables()) {
+            if (table == null || table.queries() == null || table.queries().isEmpty()) {
+                continue;
+            }
+            ScenarioFingerprint.Key key = ScenarioFingerprint.ofTable(config.engine(), table, catalog.version());
+            total += tableCosts.get(key, ignored -> tableMs(catalog.queryCosts(config.engine()), catalog.tableRows(table.sizeClass()), table));
+        }
+        return total;
+    }
+
+    CacheStats stats() {
+        return tableCosts.stats();
+    }
+
+    /** Connections in the node's pool: the configured size, else the engine default; 0 without a pool. */
+    static int connections(NodeTypeCatalog.Snapshot catalog, ScenarioDto.DbConfig config) {
+        if (config.connectionPool() != null) {
+            return config.connectionPool();
+        }
+        return Math.max(0, catalog.queryCosts(config.engine()).connections());
+    }
+
+    /** Capacity of a node whose calls each hold one of {@code connections} for {@code holdMs}. */
+    static int pooledCapacity(int capacity, int connections, double holdMs) {
+        if (connections <= 0 || holdMs <= 0.0) {
+            return capacity;
+        }
+        return (int) Math.min(capacity, Math.floor(connections * 1000.0 / holdMs));
+    }
+
+    static double tableMs(NodeTypeCatalog.QueryCosts costs, long rows, ScenarioDto.DbTable table) {
+        int indexes = 0;
+        if (table.indexes() != null) {
+            for (String index : table.indexes()) {
+                if (index != null && !index.isBlank()) {
+                    indexes++;
+                }
+            }
+        }
+        double total = 0.0;
+        for (ScenarioDto.DbQuery query : table.queries()) {
+            if (query == null) {
+                continue;
+            }
+            double perRequest = query.perRequest() != null ? query.perRequest() : 1.0;
+            total += perRequest * queryMs(costs, rows, table.indexes(), indexes, query);
+        }
+        return total;
+    }
+
+    private static double queryMs(
+        NodeTypeCatalog.QueryCosts costs,
+        long rows,
+        List<String> indexes,
+        int indexCount,
+        ScenarioDto.DbQuery query
+    ) {
+        boolean write = "write".equals(query.kind());
+        double locateMs;
+        if (query.column() == null || query.column().isBlank()) {
+            locateMs = write ? 0.0 : rows * costs.rowMs();
+        } else if (!indexed(indexes, query.column())) {
+            locateMs = rows * costs.rowMs();
+        } else {
+            double matched = "range".equals(query.kind())
+                ? Math.max(1.0, rows * (query.selectivity() != null ? query.selectivity() : DEFAULT_SELECTIVITY))
+                : 1.0;
+            locateMs = depth(rows) * costs.pageMs() + matched * costs.rowMs();
+        }
+        return write ? locateMs + (1 + indexCount) * costs.writeMs() + costs.commitMs() : locateMs;
+    }
+
+    /** Levels of a B-tree over {@code rows} keys. */
+    static int depth(long rows) {
+        return Math.max(1, (int) Math.ceil(Math.log(rows) / Math.log(FANOUT)));
+    }
+
+    /** Whether an index leads with {@code column}; composite indexes are written as comma-separated columns. */
+    private static boolean indexed(List<String> indexes, String column) {
+        if (indexes == null) {
+            return false;
+        }
+        String wanted = column.trim();
+        for (String index : indexes) {
+            if (index == null) {
+                continue;
+            }
+            int comma = index.indexOf(',');
+            String leading = (comma >= 0 ? index.substring(0, comma) : index).trim();
+            if (leading.equals(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
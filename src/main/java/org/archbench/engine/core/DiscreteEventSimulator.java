@@ -0,0 +1,551 @@
+package org.archbench.engine.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Event-driven simulation of a scenario. Requests arrive at a constant rate, fan out along the compiled topology
+ * and queue at every node in FIFO order: a node admits at most {@code capacityRps} requests per second and each
+ * admitted request then takes a log-normal service time with the node latency as median and
+ * {@code latency * varianceFactor} as p95. A cache node with a hit ratio answers a hit itself: its children are
+ * skipped, and so is every node that none of its parents ends up calling.
+ *
+ * <p>A {@link RateProfile} replaces the constant rate with recorded or shaped traffic. Each second's requests are
+ * spread evenly over that second, so a replay is as deterministic as a constant-rate run. With a window length, the
+ * run also reports every window: arrivals are counted in the window they arrive in, and latencies in the window they
+ * complete in. Completions leave the event queue in time order, so one histogram, reset per window, is enough.
+ */
+@Component
+public class DiscreteEventSimulator {
+
+    public static final int DEFAULT_RPS = 100;
+    public static final int DEFAULT_DURATION_SECONDS = 60;
+
+    private static final double P95_Z = 1.6448536269514722;
+    private static final double WARMUP_FRACTION = 0.1;
+    static final long MAX_REQUESTS = 10_000_000L;
+    private static final long MAX_NODE_VISITS = 200_000_000L;
+    private static final int MAX_JOIN_COUNTERS = 1 << 24;
+    private static final int MAX_IN_FLIGHT = 1 << 20;
+    private static final long ARRIVAL = -1L;
+    /** Set in a join counter once any parent has called the join rather than skipped it. */
+    private static final int CALLED = 1 << 30;
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    public DiscreteEventResult simulate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        Integer rps,
+        Integer durationSeconds,
+        long seed
+    ) {
+        return simulate(scenario, topology, rps, durationSeconds, seed, SimulationProgress.NONE);
+    }
+
+    public DiscreteEventResult simulate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        Integer rps,
+        Integer durationSeconds,
+        long seed,
+        SimulationProgress progress
+    ) {
+        return simulate(scenario, topology, rps, null, durationSeconds, 0, seed, progress);
+    }
+
+    /**
+     * Runs with arrivals from {@code profile} when it is non-null, for {@code durationSeconds} or else the length of
+     * the profile. A positive {@code windowSeconds} adds the per-window timeline to the result.
+     */
+    public DiscreteEventResult simulate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        Integer rps,
+        RateProfile profile,
+        Integer durationSeconds,
+        int windowSeconds,
+        long seed,
+        SimulationProgress progress
+    ) {
+        int offered = rps != null && rps > 0 ? rps : DEFAULT_RPS;
+        int duration = durationSeconds != null && durationSeconds > 0
+            ? durationSeconds
+            : profile != null ? profile.seconds() : DEFAULT_DURATION_SECONDS;
+        int reachableCount = 0;
+        for (int i = 0; i < topology.nodeCount(); i++) {
+            if (topology.isReachable(i)) {
+                reachableCount++;
+            }
+        }
+        if (reachableCount == 0) {
+            return DiscreteEventResult.EMPTY;
+        }
+        long cap = Math.max(1, Math.min(MAX_REQUESTS, MAX_NODE_VISITS / reachableCount));
+        long requests;
+        double horizonMs;
+        if (profile == null) {
+            requests = Math.min((long) offered * duration, cap);
+            horizonMs = requests * (1000.0 / offered);
+        } else {
+            requests = 0;
+            int second = 0;
+            while (second < duration && requests < cap) {
+                requests += profile.requestsAt(second++);
+            }
+            requests = Math.min(requests, cap);
+            horizonMs = second * 1000.0;
+        }
+        progress.start(requests);
+        return new Run(scenario, topology, offered, profile, requests, horizonMs, windowSeconds, seed, progress).execute();
+    }
+
+    public record DiscreteEventResult(
+        long generatedRequests,
+        long completedRequests,
+        long rejectedRequests,
+        double simulatedSeconds,
+        int latencyP50,
+        int latencyP95,
+        int latencyP99,
+        int throughputRps,
+        double failureRate,
+        LatencyHistogram latencies,
+        List<TimelineWindow> windows
+    ) {
+        static final DiscreteEventResult EMPTY =
+            new DiscreteEventResult(0, 0, 0, 0.0, 0, 0, 0, 0, 0.0, new LatencyHistogram(), null);
+    }
+
+    private static final class Run {
+
+        private final CompiledTopology topology;
+        private final int[] edgeOffsets;
+        private final int[] edgeTargets;
+        private final int[] starts;
+        private final SplittableRandom random;
+        private final SimulationProgress progress;
+        private final double interarrivalMs;
+        private final long totalRequests;
+        private final double horizonMs;
+        private final double warmupMs;
+        private final RateProfile profile;
+        private int arrivalSecond = -1;
+        private int arrivalIndex;
+        private int arrivalCount;
+
+        private final double[] medianMs;
+        private final double[] sigma;
+        private final double[] failure;
+        private final double[] admitSpacingMs;
+        private final double[] nextAdmitMs;
+        private final double[] hit;
+        private final int[] skipped;
+
+        private final int[] joinIndex;
+        private final int[] joinNodes;
+        private final int joinCount;
+        private final int maxSlots;
+        private int[] joinCounters;
+        private double[] startMs;
+        private int[] remainingSinks;
+        private boolean[] failed;
+        private int[] freeSlots;
+        private int freeCount;
+        private int slotCount;
+
+        private double[] heapTime = new double[1024];
+        private long[] heapEvent = new long[1024];
+        private int heapSize;
+
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        private long generated;
+        private long completed;
+        private long failedCount;
+        private long rejected;
+        private long windowCompletions;
+
+        private final int timelineSeconds;
+        private final double timelineMs;
+        private final int timelineCount;
+        private final long[] windowOffered;
+        private final long[] windowCompleted;
+        private final long[] windowFailed;
+        private final long[] windowRejected;
+        private final int[] windowP50;
+        private final int[] windowP95;
+        private final LatencyHistogram windowLatencies;
+        private int openWindow;
+
+        Run(
+            CompiledScenario scenario,
+            CompiledTopology topology,
+            int rps,
+            RateProfile profile,
+            long totalRequests,
+            double horizonMs,
+            int windowSeconds,
+            long seed,
+            SimulationProgress progress
+        ) {
+            this.topology = topology;
+            this.progress = progress;
+            this.edgeOffsets = topology.edgeOffsets();
+            this.edgeTargets = topology.edgeTargets();
+            this.starts = topology.starts();
+            this.random = new SplittableRandom(seed);
+            this.interarrivalMs = 1000.0 / rps;
+            this.profile = profile;
+            this.totalRequests = totalRequests;
+            this.horizonMs = horizonMs;
+            this.warmupMs = horizonMs * WARMUP_FRACTION;
+
+            timelineSeconds = windowSeconds;
+            timelineMs = windowSeconds * 1000.0;
+            timelineCount = windowSeconds > 0 ? (int) Math.max(1, Math.ceil(horizonMs / timelineMs)) : 0;
+            windowOffered = new long[timelineCount];
+            windowCompleted = new long[timelineCount];
+            windowFailed = new long[timelineCount];
+            windowRejected = new long[timelineCount];
+            windowP50 = new int[timelineCount];
+            windowP95 = new int[timelineCount];
+            windowLatencies = timelineCount > 0 ? new LatencyHistogram() : null;
+
+            int n = topology.nodeCount();
+            medianMs = new double[n];
+            sigma = new double[n];
+            failure = new double[n];
+            admitSpacingMs = new double[n];
+            nextAdmitMs = new double[n];
+            joinIndex = new int[n];
+            hit = scenario.hasHits() ? new double[n] : null;
+            skipped = hit != null ? new int[n] : null;
+            int[] indegree = topology.indegree();
+            int joins = 0;
+            for (int i = 0; i < n; i++) {
+                medianMs[i] = scenario.latencyMs(i);
+                sigma[i] = scenario.varianceFactor(i) > 1.0 ? Math.log(scenario.varianceFactor(i)) / P95_Z : 0.0;
+                failure[i] = scenario.failureRate(i);
+                int capacity = scenario.capacityRps(i);
+                admitSpacingMs[i] = capacity == Integer.MAX_VALUE || capacity <= 0 ? 0.0 : 1000.0 / capacity;
+                if (hit != null) {
+                    hit[i] = scenario.hitRatio(i);
+                }
+                joinIndex[i] = topology.isReachable(i) && indegree[i] > 1 ? joins++ : -1;
+            }
+            joinCount = joins;
+            joinNodes = new int[joins];
+            for (int i = 0; i < n; i++) {
+                if (joinIndex[i] >= 0) {
+                    joinNodes[joinIndex[i]] = i;
+                }
+            }
+            maxSlots = joins == 0 ? MAX_IN_FLIGHT : Math.max(1024, Math.min(MAX_IN_FLIGHT, MAX_JOIN_COUNTERS / joins));
+            int initialSlots = Math.min(maxSlots, 1024);
+            joinCounters = new int[initialSlots * joins];
+            startMs = new double[initialSlots];
+            remainingSinks = new int[initialSlots];
+            failed = new boolean[initialSlots];
+            freeSlots = new int[initialSlots];
+        }
+
+        DiscreteEventResult execute() {
+            if (totalRequests > 0) {
+                push(profile == null ? 0.0 : nextProfileArrivalMs(), ARRIVAL);
+            }
+            while (heapSize > 0) {
+                double now = heapTime[0];
+                long event = heapEvent[0];
+                pop();
+                if (event == ARRIVAL) {
+                    startRequest(now);
+                    if (++generated % PROGRESS_INTERVAL == 0) {
+                        progress.advance(PROGRESS_INTERVAL);
+                        progress.checkCancelled();
+                    }
+                    if (generated < totalRequests) {
+                        push(profile == null ? generated * interarrivalMs : nextProfileArrivalMs(), ARRIVAL);
+                    }
+                } else {
+                    depart((int) (event >>> 32), (int) event, now);
+                }
+            }
+            progress.advance(generated % PROGRESS_INTERVAL);
+            return summarize();
+        }
+
+        private double nextProfileArrivalMs() {
+            arrivalIndex++;
+            while (arrivalIndex >= arrivalCount) {
+                arrivalCount = profile.requestsAt(++arrivalSecond);
+                arrivalIndex = 0;
+            }
+            return arrivalSecond * 1000.0 + arrivalIndex * 1000.0 / arrivalCount;
+        }
+
+        private void startRequest(double now) {
+            if (timelineCount > 0) {
+                windowOffered[windowOf(now)]++;
+            }
+            int slot = allocateSlot();
+            if (slot < 0) {
+                rejected++;
+                if (timelineCount > 0) {
+                    windowRejected[windowOf(now)]++;
+                }
+                return;
+            }
+            startMs[slot] = now;
+            remainingSinks[slot] = topology.sinkCount();
+            failed[slot] = false;
+            int base = slot * joinCount;
+            int[] indegree = topology.indegree();
+            for (int j = 0; j < joinCount; j++) {
+                joinCounters[base + j] = indegree[joinNodes[j]];
+            }
+            for (int start : starts) {
+                arrive(slot, start, now);
+            }
+        }
+
+        private void arrive(int slot, int node, double now) {
+            double admitted = Math.max(now, nextAdmitMs[node]);
+            nextAdmitMs[node] = admitted + admitSpacingMs[node];
+            push(admitted + sampleServiceMs(node), ((long) slot << 32) | node);
+        }
+
+        private void depart(int slot, int node, double now) {
+            if (failure[node] > 0.0 && random.nextDouble() < failure[node]) {
+                failed[slot] = true;
+            }
+            if (hit != null && hit[node] > 0.0 && random.nextDouble() < hit[node]) {
+                skip(slot, node, now);
+                return;
+            }
+
+            int begin = edgeOffsets[node];
+            int end = edgeOffsets[node + 1];
+            if (begin == end) {
+                if (--remainingSinks[slot] == 0) {
+                    complete(slot, now);
+                }
+                return;
+            }
+            int base = slot * joinCount;
+            for (int e = begin; e < end; e++) {
+                int child = edgeTargets[e];
+                int join = joinIndex[child];
+                if (join < 0) {
+                    arrive(slot, child, now);
+                    continue;
+                }
+                int left = --joinCounters[base + join];
+                if (hit != null) {
+                    joinCounters[base + join] = left |= CALLED;
+                }
+                if ((left & ~CALLED) == 0) {
+                    arrive(slot, child, now);
+                }
+            }
+        }
+
+        /**
+         * Releases the children of {@code node} without calling them. A skipped join is still called if another
+         * parent calls it; sinks that are skipped count as done, so a request completes at its last real departure
+         * or its last skip. Iterative, since a skip can cover a long chain.
+         */
+        private void skip(int slot, int node, double now) {
+            int base = slot * joinCount;
+            int top = 0;
+            skipped[top++] = node;
+            while (top > 0) {
+                int u = skipped[--top];
+                int begin = edgeOffsets[u];
+                int end = edgeOffsets[u + 1];
+                if (begin == end) {
+                    if (--remainingSinks[slot] == 0) {
+                        complete(slot, now);
+                    }
+                    continue;
+                }
+                for (int e = begin; e < end; e++) {
+                    int child = edgeTargets[e];
+                    int join = joinIndex[child];
+                    if (join < 0) {
+                        skipped[top++] = child;
+                        continue;
+                    }
+                    int left = --joinCounters[base + join];
+                    if ((left & ~CALLED) == 0) {
+                        if ((left & CALLED) != 0) {
+                            arrive(slot, child, now);
+                        } else {
+                            skipped[top++] = child;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void complete(int slot, double now) {
+            double latency = now - startMs[slot];
+            completed++;
+            if (failed[slot]) {
+                failedCount++;
+            }
+            if (now >= warmupMs && now <= horizonMs) {
+                windowCompletions++;
+            }
+            latencies.recordMillis(latency);
+            if (timelineCount > 0) {
+                int window = windowOf(now);
+                while (openWindow < window) {
+                    closeWindow();
+                }
+                windowLatencies.recordMillis(latency);
+                windowCompleted[window]++;
+                if (failed[slot]) {
+                    windowFailed[window]++;
+                }
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        private int windowOf(double now) {
+            return (int) Math.min(timelineCount - 1, (long) (now / timelineMs));
+        }
+
+        private void closeWindow() {
+            if (windowLatencies.count() > 0) {
+                windowP50[openWindow] = (int) Math.round(windowLatencies.quantileMillis(0.50));
+                windowP95[openWindow] = (int) Math.round(windowLatencies.quantileMillis(0.95));
+                windowLatencies.reset();
+            }
+            openWindow++;
+        }
+
+        private List<TimelineWindow> timeline() {
+            if (timelineCount == 0) {
+                return null;
+            }
+            while (openWindow < timelineCount) {
+                closeWindow();
+            }
+            int horizonSeconds = (int) Math.ceil(horizonMs / 1000.0);
+            List<TimelineWindow> windows = new ArrayList<>(timelineCount);
+            for (int w = 0; w < timelineCount; w++) {
+                int start = w * timelineSeconds;
+                int seconds = Math.max(1, Math.min(timelineSeconds, horizonSeconds - start));
+                long attempted = windowCompleted[w] + windowRejected[w];
+                windows.add(new TimelineWindow(
+                    start,
+                    seconds,
+                    (double) windowOffered[w] / seconds,
+                    (int) Math.round((double) windowCompleted[w] / seconds),
+                    windowP50[w],
+                    windowP95[w],
+                    attempted == 0 ? 0.0 : (double) (windowFailed[w] + windowRejected[w]) / attempted
+                ));
+            }
+            return windows;
+        }
+
+        private double sampleServiceMs(int node) {
+            double median = medianMs[node];
+            double s = sigma[node];
+            if (s == 0.0 || median == 0.0) {
+                return median;
+            }
+            return median * Math.exp(s * random.nextGaussian());
+        }
+
+        private int allocateSlot() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (slotCount == startMs.length) {
+                if (slotCount == maxSlots) {
+                    return -1;
+                }
+                int grown = Math.min(maxSlots, slotCount * 2);
+                joinCounters = Arrays.copyOf(joinCounters, grown * joinCount);
+                startMs = Arrays.copyOf(startMs, grown);
+                remainingSinks = Arrays.copyOf(remainingSinks, grown);
+                failed = Arrays.copyOf(failed, grown);
+                freeSlots = Arrays.copyOf(freeSlots, grown);
+            }
+            return slotCount++;
+        }
+
+        private void push(double time, long event) {
+            if (heapSize == heapTime.length) {
+                heapTime = Arrays.copyOf(heapTime, heapSize * 2);
+                heapEvent = Arrays.copyOf(heapEvent, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapTime[parent] <= time) {
+                    break;
+                }
+                heapTime[i] = heapTime[parent];
+                heapEvent[i] = heapEvent[parent];
+                i = parent;
+            }
+            heapTime[i] = time;
+            heapEvent[i] = event;
+        }
+
+        private void pop() {
+            int last = --heapSize;
+            if (last == 0) {
+                return;
+            }
+            double time = heapTime[last];
+            long event = heapEvent[last];
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < last && heapTime[right] < heapTime[child]) {
+                    child = right;
+                }
+                if (time <= heapTime[child]) {
+                    break;
+                }
+                heapTime[i] = heapTime[child];
+                heapEvent[i] = heapEvent[child];
+                i = child;
+            }
+            heapTime[i] = time;
+            heapEvent[i] = event;
+        }
+
+        private DiscreteEventResult summarize() {
+            double windowSeconds = (horizonMs - warmupMs) / 1000.0;
+            int throughput = windowSeconds > 0
+                ? (int) Math.round(windowCompletions / windowSeconds)
+                : (int) completed;
+            long attempted = completed + rejected;
+            double failureRate = attempted == 0 ? 0.0 : (double) (failedCount + rejected) / attempted;
+            return new DiscreteEventResult(
+                generated,
+                completed,
+                rejected,
+                horizonMs / 1000.0,
+                (int) Math.round(latencies.quantileMillis(0.50)),
+                (int) Math.round(latencies.quantileMillis(0.95)),
+                (int) Math.round(latencies.quantileMillis(0.99)),
+                throughput,
+                failureRate,
+                latencies,
+                timeline()
+            );
+        }
+    }
+}
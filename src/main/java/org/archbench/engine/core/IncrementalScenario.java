@@ -0,0 +1,579 @@
+package org.archbench.engine.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.ScenarioPatchDto;
+
+/**
+ * Mutable closed-form model of one scenario, for editor sessions that send small patches instead of whole scenarios.
+ * Cost and the failure survival product are running aggregates updated in O(1) per node edit. Longest-path latency,
+ * critical-path variance and reachability are kept per node, and an edit re-derives only the nodes downstream of
+ * what it touched, in topological order. Reachable nodes are indexed by path length and by capacity, so the critical
+ * path end and the bottleneck are read in O(log n). Results match {@link SimulationService#calculateMetrics} on the
+ * materialized scenario; while the graph has a cycle, every edit falls back to that full computation. Not
+ * thread-safe.
+ */
+public final class IncrementalScenario {
+
+    private static final int RESYNC_INTERVAL = 1024;
+
+    private final SimulationService simulationService;
+    private final ScenarioValidator validator;
+    private final NodeTypeCatalog.Snapshot catalog;
+    private final String name;
+    private ScenarioDto.Workload workload;
+    private long revision;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private ScenarioDto.Node[] nodes = new ScenarioDto.Node[0];
+    private int[] latency = new int[0];
+    private double[] variance = new double[0];
+    private int[] capacity = new int[0];
+    private double[] failure = new double[0];
+    private double[] cost = new double[0];
+    private boolean[] entry = new boolean[0];
+    private int[][] out = new int[0][];
+    private int[] outCount = new int[0];
+    private int[][] in = new int[0][];
+    private int[] inCount = new int[0];
+    private int slotCount;
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int liveCount;
+    private int edgeCount;
+    private int entryCount;
+
+    private long[] path = new long[0];
+    private int[] predecessor = new int[0];
+    private double[] chainVariance = new double[0];
+    private int[] chainLength = new int[0];
+    private boolean[] reachable = new boolean[0];
+    private boolean[] indexed = new boolean[0];
+    private int[] indexedCapacity = new int[0];
+    private final TreeSet<Integer> byPath = new TreeSet<>(this::compareByPath);
+    private final TreeMap<Integer, Integer> capacities = new TreeMap<>();
+
+    private double totalCost;
+    private double survival = 1.0;
+    private int certainFailures;
+    private int updatesSinceResync;
+
+    private int[] seeds = new int[16];
+    private int seedCount;
+    private int[] visitMark = new int[0];
+    private int[] pending = new int[0];
+    private int[] work = new int[16];
+    private int[] queue = new int[16];
+    private int epoch;
+    private boolean typedEntries;
+    private boolean rebuild = true;
+    private boolean cyclic;
+    private ScenarioMetrics cyclicMetrics;
+
+    public IncrementalScenario(
+        SimulationService simulationService,
+        ScenarioValidator validator,
+        NodeTypeCatalog.Snapshot catalog,
+        ScenarioDto scenario
+    ) {
+        validator.validate(scenario);
+        requireConstant(scenario.workload());
+        this.simulationService = simulationService;
+        this.validator = validator;
+        this.catalog = catalog;
+        this.name = scenario.name();
+        this.workload = scenario.workload();
+        for (ScenarioDto.Node node : scenario.nodes()) {
+            requireKnownType(node);
+            requireUncached(node);
+        }
+        for (ScenarioDto.Node node : scenario.nodes()) {
+            addNode(node);
+        }
+        if (CallPolicies.anyDeclared(scenario.edges())) {
+            ScenarioValidator.bad(
+                ScenarioValidationException.Code.INVALID_EDGE,
+                "Sessions do not model timeout, retry or circuit-breaker policies; use /simulate instead"
+            );
+        }
+        for (ScenarioDto.Edge edge : scenario.edges()) {
+            addEdge(slots.get(edge.from()), slots.get(edge.to()));
+        }
+    }
+
+    public long revision() {
+        return revision;
+    }
+
+    public int nodeCount() {
+        return liveCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public ScenarioDto.Workload workload() {
+        return workload;
+    }
+
+    /** Applies every operation of the patch, or none of them if any is invalid. */
+    public void apply(ScenarioPatchDto patch) {
+        if (patch == null) ScenarioValidator.bad(ScenarioValidationException.Code.MISSING_BODY, "Request body is null");
+        List<ScenarioPatchDto.Operation> ops = patch.ops() != null ? patch.ops() : List.of();
+        check(ops, patch.workload());
+        for (ScenarioPatchDto.Operation op : ops) {
+            switch (op.op()) {
+                case "add-node" -> addNode(op.node());
+                case "update-node" -> updateNode(op.node());
+                case "remove-node" -> removeNode(op.id());
+                case "add-edge" -> addEdge(slots.get(op.from()), slots.get(op.to()));
+                case "remove-edge" -> removeEdge(slots.get(op.from()), slots.get(op.to()));
+                default -> throw new IllegalStateException(op.op());
+            }
+        }
+        if (cyclic && !ops.isEmpty()) {
+            rebuild = true;
+        }
+        if (patch.workload() != null) {
+            workload = patch.workload();
+        }
+        revision++;
+    }
+
+    public ScenarioMetrics metrics() {
+        flush();
+        if (cyclic) {
+            return cyclicMetrics;
+        }
+        int end = byPath.isEmpty() ? -1 : byPath.first();
+        int latencyP50 = end < 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, path[end]);
+        double averageVariance = end < 0 ? 1.0 : chainVariance[end] / chainLength[end];
+        return new ScenarioMetrics(
+            latencyP50,
+            (int) Math.round(latencyP50 * averageVariance),
+            end < 0 ? 0 : capacities.firstKey(),
+            liveCount == 0 ? 0.0 : 1.0 - (certainFailures > 0 ? 0.0 : survival),
+            totalCost
+        );
+    }
+
+    public ScenarioDto toScenario() {
+        List<ScenarioDto.Node> nodeList = new ArrayList<>(liveCount);
+        List<ScenarioDto.Edge> edgeList = new ArrayList<>(edgeCount);
+        for (int u = 0; u < slotCount; u++) {
+            if (nodes[u] == null) {
+                continue;
+            }
+            nodeList.add(nodes[u]);
+            for (int e = 0; e < outCount[u]; e++) {
+                edgeList.add(new ScenarioDto.Edge(nodes[u].id(), nodes[out[u][e]].id()));
+            }
+        }
+        return new ScenarioDto(name, workload, nodeList, edgeList);
+    }
+
+    private void check(List<ScenarioPatchDto.Operation> ops, ScenarioDto.Workload workload) {
+        if (workload != null) {
+            validator.validateWorkload(workload);
+            requireConstant(workload);
+        }
+        Set<String> added = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        Map<ScenarioDto.Edge, Integer> edgeDelta = new HashMap<>();
+        for (ScenarioPatchDto.Operation op : ops) {
+            if (op == null || op.op() == null) ScenarioValidator.bad("Patch operation is missing 'op'");
+            switch (op.op()) {
+                case "add-node" -> {
+                    validator.validateNode(op.node());
+                    if (exists(op.node().id(), added, removed)) ScenarioValidator.bad(ScenarioValidationException.Code.DUPLICATE_NODE, "Duplicate node id: " + op.node().id());
+                    requireKnownType(op.node());
+                    requireUncached(op.node());
+                    added.add(op.node().id());
+                }
+                case "update-node" -> {
+                    validator.validateNode(op.node());
+                    if (!exists(op.node().id(), added, removed)) ScenarioValidator.bad(ScenarioValidationException.Code.UNKNOWN_NODE, "Node not found: " + op.node().id());
+                    requireKnownType(op.node());
+                    requireUncached(op.node());
+                }
+                case "remove-node" -> {
+                    if (op.id() == null || !exists(op.id(), added, removed)) ScenarioValidator.bad(ScenarioValidationException.Code.UNKNOWN_NODE, "Node not found: " + op.id());
+                    added.remove(op.id());
+                    removed.add(op.id());
+                    edgeDelta.keySet().removeIf(edge -> edge.from().equals(op.id()) || edge.to().equals(op.id()));
+                }
+                case "add-edge", "remove-edge" -> {
+                    ScenarioDto.Edge edge = new ScenarioDto.Edge(op.from(), op.to());
+                    validator.validateEdge(edge);
+                    if (!exists(edge.from(), added, removed)) ScenarioValidator.bad(ScenarioValidationException.Code.UNKNOWN_NODE, "Edge 'from' not found: " + edge.from());
+                    if (!exists(edge.to(), added, removed)) ScenarioValidator.bad(ScenarioValidationException.Code.UNKNOWN_NODE, "Edge 'to' not found: " + edge.to());
+                    int delta = edgeDelta.getOrDefault(edge, 0);
+                    if (op.op().equals("remove-edge")) {
+                        boolean fresh = removed.contains(edge.from()) || removed.contains(edge.to())
+                            || !slots.containsKey(edge.from()) || !slots.containsKey(edge.to());
+                        int existing = fresh ? 0 : multiplicity(slots.get(edge.from()), slots.get(edge.to()));
+                        if (existing + delta <= 0) ScenarioValidator.bad(ScenarioValidationException.Code.INVALID_EDGE, "Edge not found: " + edge.from() + " -> " + edge.to());
+                        edgeDelta.put(edge, delta - 1);
+                    } else {
+                        edgeDelta.put(edge, delta + 1);
+                    }
+                }
+                default -> ScenarioValidator.bad("Unknown patch op '" + op.op() + "'");
+            }
+        }
+    }
+
+    private boolean exists(String id, Set<String> added, Set<String> removed) {
+        return added.contains(id) || (slots.containsKey(id) && !removed.contains(id));
+    }
+
+    /** Sessions keep the every-node-sees-every-request sums incrementally, which a cache hit ratio would break. */
+    private static void requireUncached(ScenarioDto.Node node) {
+        if (node.cache() != null) {
+            ScenarioValidator.bad(
+                ScenarioValidationException.Code.INVALID_NODE,
+                "Sessions do not model cache hit ratios; use /simulate for node '" + node.id() + "'"
+            );
+        }
+    }
+
+    /** Sessions evaluate in closed form, which has no notion of time, just as closed-form {@code /simulate}. */
+    private static void requireConstant(ScenarioDto.Workload workload) {
+        if (workload != null && (workload.curve() != null || workload.trace() != null)) {
+            ScenarioValidator.bad(ScenarioValidationException.Code.INVALID_WORKLOAD, SimulationPipeline.TIME_VARYING_MODES);
+        }
+    }
+
+    private void requireKnownType(ScenarioDto.Node node) {
+        if (catalog.typeId(node.type()) < 0) {
+            ScenarioValidator.bad(ScenarioValidationException.Code.INVALID_NODE, "No defaults configured for node type: " + node.type());
+        }
+    }
+
+    private void addNode(ScenarioDto.Node node) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = slotCount++;
+            grow(slotCount);
+        }
+        slots.put(node.id(), slot);
+        outCount[slot] = 0;
+        inCount[slot] = 0;
+        reachable[slot] = false;
+        indexed[slot] = false;
+        liveCount++;
+        setNode(slot, node);
+        seed(slot);
+    }
+
+    private void updateNode(ScenarioDto.Node node) {
+        int slot = slots.get(node.id());
+        removeAggregates(slot);
+        setNode(slot, node);
+        seed(slot);
+    }
+
+    private void removeNode(String id) {
+        int slot = slots.remove(id);
+        unindex(slot);
+        removeAggregates(slot);
+        for (int e = 0; e < outCount[slot]; e++) {
+            int child = out[slot][e];
+            inCount[child] = removeOne(in[child], inCount[child], slot);
+            seed(child);
+        }
+        for (int e = 0; e < inCount[slot]; e++) {
+            int parent = in[slot][e];
+            outCount[parent] = removeOne(out[parent], outCount[parent], slot);
+        }
+        edgeCount -= outCount[slot] + inCount[slot];
+        outCount[slot] = 0;
+        inCount[slot] = 0;
+        nodes[slot] = null;
+        reachable[slot] = false;
+        liveCount--;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void addEdge(int from, int to) {
+        out[from] = append(out[from], outCount[from]++, to);
+        in[to] = append(in[to], inCount[to]++, from);
+        edgeCount++;
+        seed(to);
+    }
+
+    private void removeEdge(int from, int to) {
+        outCount[from] = removeOne(out[from], outCount[from], to);
+        inCount[to] = removeOne(in[to], inCount[to], from);
+        edgeCount--;
+        seed(to);
+    }
+
+    private int multiplicity(int from, int to) {
+        int count = 0;
+        for (int e = 0; e < outCount[from]; e++) {
+            if (out[from][e] == to) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void setNode(int slot, ScenarioDto.Node node) {
+        CompiledScenario compiled = simulationService.compileScenario(catalog, List.of(node));
+        nodes[slot] = node;
+        latency[slot] = compiled.latencyMs(0);
+        variance[slot] = compiled.varianceFactor(0);
+        capacity[slot] = compiled.capacityRps(0);
+        failure[slot] = compiled.failureRate(0);
+        cost[slot] = compiled.costPerHour(0);
+        entry[slot] = catalog.isEntry(compiled.typeId(0));
+        addAggregates(slot);
+        updatesSinceResync++;
+    }
+
+    private void addAggregates(int slot) {
+        totalCost += cost[slot];
+        double factor = 1.0 - failure[slot];
+        if (factor == 0.0) {
+            certainFailures++;
+        } else {
+            survival *= factor;
+        }
+        if (entry[slot]) {
+            entryCount++;
+        }
+    }
+
+    private void removeAggregates(int slot) {
+        totalCost -= cost[slot];
+        double factor = 1.0 - failure[slot];
+        if (factor == 0.0) {
+            certainFailures--;
+        } else {
+            survival /= factor;
+        }
+        if (entry[slot]) {
+            entryCount--;
+        }
+    }
+
+    private void resync() {
+        totalCost = 0.0;
+        survival = 1.0;
+        certainFailures = 0;
+        entryCount = 0;
+        for (int s = 0; s < slotCount; s++) {
+            if (nodes[s] != null) {
+                addAggregates(s);
+            }
+        }
+        updatesSinceResync = 0;
+    }
+
+    private void flush() {
+        if (!rebuild && seedCount == 0) {
+            return;
+        }
+        if (updatesSinceResync >= RESYNC_INTERVAL) {
+            resync();
+        }
+        if (rebuild || cyclic || (entryCount > 0) != typedEntries) {
+            rebuildAll();
+            return;
+        }
+        epoch++;
+        int count = 0;
+        for (int i = 0; i < seedCount; i++) {
+            int s = seeds[i];
+            if (nodes[s] != null && visitMark[s] != epoch) {
+                visitMark[s] = epoch;
+                work = append(work, count++, s);
+            }
+        }
+        seedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int u = work[i];
+            for (int e = 0; e < outCount[u]; e++) {
+                int v = out[u][e];
+                if (visitMark[v] != epoch) {
+                    visitMark[v] = epoch;
+                    work = append(work, count++, v);
+                }
+            }
+        }
+        int tail = 0;
+        for (int i = 0; i < count; i++) {
+            int v = work[i];
+            int parents = 0;
+            for (int e = 0; e < inCount[v]; e++) {
+                if (visitMark[in[v][e]] == epoch) {
+                    parents++;
+                }
+            }
+            pending[v] = parents;
+            if (parents == 0) {
+                queue = append(queue, tail++, v);
+            }
+        }
+        if (propagate(tail) < count) {
+            rebuildAll();
+        }
+    }
+
+    private void rebuildAll() {
+        byPath.clear();
+        capacities.clear();
+        Arrays.fill(indexed, false);
+        Arrays.fill(reachable, false);
+        resync();
+        typedEntries = entryCount > 0;
+        rebuild = false;
+        seedCount = 0;
+        int tail = 0;
+        for (int s = 0; s < slotCount; s++) {
+            if (nodes[s] != null) {
+                pending[s] = inCount[s];
+                if (pending[s] == 0) {
+                    queue = append(queue, tail++, s);
+                }
+            }
+        }
+        cyclic = propagate(tail) < liveCount;
+        if (cyclic) {
+            ScenarioDto scenario = toScenario();
+            cyclicMetrics = simulationService.calculateMetrics(
+                simulationService.compileScenario(catalog, scenario.nodes()),
+                simulationService.compileTopology(catalog, scenario.nodes(), scenario.edges())
+            );
+        } else {
+            cyclicMetrics = null;
+        }
+    }
+
+    /** Kahn's algorithm over the queued nodes and their pending children; returns how many nodes it settled. */
+    private int propagate(int tail) {
+        int head = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            recompute(u);
+            for (int e = 0; e < outCount[u]; e++) {
+                int v = out[u][e];
+                if (--pending[v] == 0) {
+                    queue = append(queue, tail++, v);
+                }
+            }
+        }
+        return head;
+    }
+
+    private void recompute(int node) {
+        unindex(node);
+        boolean isReachable = !typedEntries || entry[node];
+        long best = 0;
+        int parent = -1;
+        for (int e = 0; e < inCount[node]; e++) {
+            int p = in[node][e];
+            if (!reachable[p]) {
+                continue;
+            }
+            isReachable = true;
+            if (parent < 0 || path[p] > best || (path[p] == best && p < parent)) {
+                best = path[p];
+                parent = p;
+            }
+        }
+        reachable[node] = isReachable;
+        if (!isReachable) {
+            path[node] = 0;
+            predecessor[node] = -1;
+            return;
+        }
+        path[node] = best + latency[node];
+        predecessor[node] = parent;
+        chainVariance[node] = (parent < 0 ? 0.0 : chainVariance[parent]) + variance[node];
+        chainLength[node] = (parent < 0 ? 0 : chainLength[parent]) + 1;
+        byPath.add(node);
+        capacities.merge(capacity[node], 1, Integer::sum);
+        indexed[node] = true;
+        indexedCapacity[node] = capacity[node];
+    }
+
+    private void unindex(int node) {
+        if (!indexed[node]) {
+            return;
+        }
+        byPath.remove(node);
+        capacities.merge(indexedCapacity[node], -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+        indexed[node] = false;
+    }
+
+    private int compareByPath(int a, int b) {
+        int byLatency = Long.compare(path[b], path[a]);
+        return byLatency != 0 ? byLatency : Integer.compare(a, b);
+    }
+
+    private void seed(int slot) {
+        seeds = append(seeds, seedCount++, slot);
+    }
+
+    private void grow(int size) {
+        if (size <= nodes.length) {
+            return;
+        }
+        int length = Math.max(16, nodes.length * 2);
+        nodes = Arrays.copyOf(nodes, length);
+        latency = Arrays.copyOf(latency, length);
+        variance = Arrays.copyOf(variance, length);
+        capacity = Arrays.copyOf(capacity, length);
+        failure = Arrays.copyOf(failure, length);
+        cost = Arrays.copyOf(cost, length);
+        entry = Arrays.copyOf(entry, length);
+        out = Arrays.copyOf(out, length);
+        outCount = Arrays.copyOf(outCount, length);
+        in = Arrays.copyOf(in, length);
+        inCount = Arrays.copyOf(inCount, length);
+        freeSlots = Arrays.copyOf(freeSlots, length);
+        path = Arrays.copyOf(path, length);
+        predecessor = Arrays.copyOf(predecessor, length);
+        chainVariance = Arrays.copyOf(chainVariance, length);
+        chainLength = Arrays.copyOf(chainLength, length);
+        reachable = Arrays.copyOf(reachable, length);
+        indexed = Arrays.copyOf(indexed, length);
+        indexedCapacity = Arrays.copyOf(indexedCapacity, length);
+        visitMark = Arrays.copyOf(visitMark, length);
+        pending = Arrays.copyOf(pending, length);
+    }
+
+    private static int[] append(int[] array, int size, int value) {
+        if (array == null) {
+            array = new int[4];
+        } else if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, size * 2));
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private static int removeOne(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                array[i] = array[size - 1];
+                return size - 1;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,310 @@
+package org.archbench.engine.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Fixed-size log-linear latency histogram in the style of HdrHistogram. Values are recorded in microseconds; values
+ * below 256 µs are exact and larger values land in buckets no wider than 1/128 of their magnitude. The bucket array
+ * is allocated once (about 34 KB) and never grows. Instances are single-writer: give each worker its own histogram
+ * and combine them with {@link #merge}, which is a plain O(buckets) addition and needs no locking.
+ */
+public final class LatencyHistogram {
+
+    private static final int PRECISION_BITS = 8;
+    private static final int EXACT_LIMIT = 1 << PRECISION_BITS;
+    private static final int HALF = EXACT_LIMIT >>> 1;
+    private static final int MAX_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+    private static final int BUCKETS = EXACT_LIMIT + (MAX_BITS - PRECISION_BITS) * HALF;
+    private static final int ENCODING_VERSION = 1;
+    private static final int FITTED_POINTS = 2000;
+    private static final double P95_Z = 1.6448536269514722;
+    private static final double[] A = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+        1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+    private static final double[] B = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+        6.680131188771972e+01, -1.328068155288572e+01};
+    private static final double[] C = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+        -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+    private static final double[] D = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sumMicros;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+
+    /**
+     * Distribution of a log-normal latency with the given median and p95, used by the analytic modes that only
+     * produce those two points. The curve is sampled at evenly spaced quantiles, so the result merges and reports
+     * like a histogram filled from trials.
+     */
+    public static LatencyHistogram logNormal(double medianMs, double p95Ms) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (medianMs <= 0.0 || p95Ms <= medianMs) {
+            histogram.recordMillis(Math.max(0.0, medianMs), FITTED_POINTS);
+            return histogram;
+        }
+        double sigma = Math.log(p95Ms / medianMs) / P95_Z;
+        for (int i = 0; i < FITTED_POINTS; i++) {
+            double quantile = (i + 0.5) / FITTED_POINTS;
+            histogram.recordMillis(medianMs * Math.exp(sigma * inverseNormal(quantile)));
+        }
+        return histogram;
+    }
+
+    public void recordMillis(double latencyMs) {
+        recordMicros(Math.round(latencyMs * 1000.0), 1);
+    }
+
+    public void recordMillis(double latencyMs, long count) {
+        recordMicros(Math.round(latencyMs * 1000.0), count);
+    }
+
+    public void recordMicros(long micros, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long value = Math.max(0, Math.min(MAX_VALUE, micros));
+        counts[bucketOf(value)] += count;
+        totalCount += count;
+        sumMicros += value * count;
+        if (value < minMicros) {
+            minMicros = value;
+        }
+        if (value > maxMicros) {
+            maxMicros = value;
+        }
+    }
+
+    public void merge(LatencyHistogram other) {
+        long[] source = other.counts;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += source[i];
+        }
+        totalCount += other.totalCount;
+        sumMicros += other.sumMicros;
+        minMicros = Math.min(minMicros, other.minMicros);
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        sumMicros = 0;
+        minMicros = Long.MAX_VALUE;
+        maxMicros = 0;
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public double meanMillis() {
+        return totalCount == 0 ? 0.0 : sumMicros / 1000.0 / totalCount;
+    }
+
+    public double minMillis() {
+        return totalCount == 0 ? 0.0 : minMicros / 1000.0;
+    }
+
+    public double maxMillis() {
+        return maxMicros / 1000.0;
+    }
+
+    public double stdDevMillis() {
+        if (totalCount < 2) {
+            return 0.0;
+        }
+        double mean = (double) sumMicros / totalCount;
+        double squares = 0.0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                double delta = representative(i) - mean;
+                squares += counts[i] * delta * delta;
+            }
+        }
+        return Math.sqrt(squares / (totalCount - 1)) / 1000.0;
+    }
+
+    public double quantileMillis(double quantile) {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        if (quantile >= 1.0) {
+            return maxMillis();
+        }
+        return valueAtRankMillis(Math.max(1, (long) Math.ceil(quantile * totalCount)));
+    }
+
+    public double valueAtRankMillis(long rank) {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        if (rank >= totalCount) {
+            return maxMillis();
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(representative(i), minMicros), maxMicros) / 1000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    public String encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        writeVarint(out, ENCODING_VERSION);
+        writeVarint(out, PRECISION_BITS);
+        writeVarint(out, totalCount == 0 ? 0 : minMicros);
+        writeVarint(out, maxMicros);
+        int zeros = 0;
+        int last = totalCount == 0 ? -1 : bucketOf(maxMicros);
+        for (int i = 0; i <= last; i++) {
+            if (counts[i] == 0) {
+                zeros++;
+                continue;
+            }
+            if (zeros > 0) {
+                writeVarint(out, zigZag(-zeros));
+                zeros = 0;
+            }
+            writeVarint(out, zigZag(counts[i]));
+        }
+        return Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    public static LatencyHistogram decode(String encoded) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        int[] position = {0};
+        long version = readVarint(bytes, position);
+        long precision = readVarint(bytes, position);
+        if (version != ENCODING_VERSION || precision != PRECISION_BITS) {
+            throw new IllegalArgumentException("Unsupported histogram encoding");
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        long min = readVarint(bytes, position);
+        long max = readVarint(bytes, position);
+        int bucket = 0;
+        while (position[0] < bytes.length) {
+            long value = unZigZag(readVarint(bytes, position));
+            if (value < 0) {
+                if (value < bucket - (long) BUCKETS) {
+                    throw new IllegalArgumentException("Histogram encoding skips past the last bucket");
+                }
+                bucket += (int) -value;
+                continue;
+            }
+            if (bucket >= BUCKETS) {
+                throw new IllegalArgumentException("Histogram encoding has more than " + BUCKETS + " buckets");
+            }
+            histogram.counts[bucket] = value;
+            histogram.totalCount += value;
+            histogram.sumMicros += representative(bucket) * value;
+            bucket++;
+        }
+        if (histogram.totalCount > 0) {
+            histogram.minMicros = min;
+            histogram.maxMicros = max;
+        }
+        return histogram;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LatencyHistogram that)) {
+            return false;
+        }
+        return totalCount == that.totalCount
+            && sumMicros == that.sumMicros
+            && minMicros == that.minMicros
+            && maxMicros == that.maxMicros
+            && Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(totalCount) + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + totalCount + ", meanMs=" + meanMillis() + ", maxMs=" + maxMillis() + "]";
+    }
+
+    static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - PRECISION_BITS + 1;
+        int sub = (int) (value >>> shift);
+        return EXACT_LIMIT + (exponent - PRECISION_BITS) * HALF + (sub - HALF);
+    }
+
+    static long representative(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - EXACT_LIMIT;
+        int shift = offset / HALF + 1;
+        long lower = (long) (HALF + offset % HALF) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    // Acklam's rational approximation of the standard normal quantile function, accurate to about 1e-9.
+    private static double inverseNormal(double p) {
+        if (p < 0.02425) {
+            double q = Math.sqrt(-2.0 * Math.log(p));
+            return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+        }
+        if (p > 1.0 - 0.02425) {
+            double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+            return -(((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+            / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1.0);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (position[0] >= bytes.length || shift > 63) {
+                throw new IllegalArgumentException("Truncated or malformed histogram encoding");
+            }
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.archbench.engine.core;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs independent randomized trials of a scenario. Each trial samples a log-normal latency per reachable node
+ * (median {@code latencyMs}, p95 {@code latencyMs * varianceFactor}) and a Bernoulli failure per node, then takes the
+ * critical path over the compiled topology. A cache node with a hit ratio samples a hit per trial and on a hit
+ * does not call its children; a node that no parent calls is skipped. Trials are split into a fixed number of chunks whose random streams are
+ * derived from the seed up front, so results depend only on the seed and not on the pool size or scheduling.
+ */
+@Component
+public class MonteCarloSimulator {
+
+    public static final int DEFAULT_TRIALS = 1000;
+    public static final int MAX_TRIALS = 1_000_000;
+
+    private static final double P95_Z = 1.6448536269514722;
+    private static final double Z_95 = 1.959963984540054;
+    private static final long MAX_NODE_SAMPLES = 200_000_000L;
+    private static final int MIN_TRIALS_PER_CHUNK = 256;
+    private static final int MAX_CHUNKS = 64;
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloSimulator(ForkJoinPool simulationPool) {
+        this.pool = simulationPool;
+    }
+
+    public MonteCarloResult simulate(CompiledScenario scenario, CompiledTopology topology, Integer trials, long seed) {
+        return simulate(scenario, topology, trials, seed, SimulationProgress.NONE);
+    }
+
+    public MonteCarloResult simulate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        Integer trials,
+        long seed,
+        SimulationProgress progress
+    ) {
+        int reachable = 0;
+        for (int i = 0; i < topology.nodeCount(); i++) {
+            if (topology.isReachable(i)) {
+                reachable++;
+            }
+        }
+        int requested = trials != null && trials > 0 ? Math.min(trials, MAX_TRIALS) : DEFAULT_TRIALS;
+        int total = (int) Math.max(1, Math.min(requested, MAX_NODE_SAMPLES / Math.max(1, reachable)));
+
+        Model model = new Model(scenario, topology);
+        int chunks = Math.max(1, Math.min(MAX_CHUNKS, total / MIN_TRIALS_PER_CHUNK));
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+        progress.start(total);
+        Accumulator merged = pool.invoke(new TrialTask(model, streams, progress, total, 0, chunks));
+        return merged.summarize(seed);
+    }
+
+    public record Interval(double lower, double upper) {}
+
+    public record MonteCarloResult(
+        int trials,
+        long seed,
+        double latencyMean,
+        Interval latencyMeanInterval,
+        int latencyP50,
+        int latencyP95,
+        Interval latencyP95Interval,
+        int latencyP99,
+        Interval latencyP99Interval,
+        double failureRate,
+        Interval failureRateInterval,
+        LatencyHistogram latencies
+    ) {}
+
+    private static final class Model {
+
+        private final int[] order;
+        private final int[] edgeOffsets;
+        private final int[] edgeTargets;
+        private final boolean[] reachable;
+        private final double[] medianMs;
+        private final double[] sigma;
+        private final double[] failure;
+        private final int[] starts;
+        private final double[] hit;
+
+        Model(CompiledScenario scenario, CompiledTopology topology) {
+            int n = topology.nodeCount();
+            order = topology.order();
+            edgeOffsets = topology.edgeOffsets();
+            edgeTargets = topology.edgeTargets();
+            reachable = new boolean[n];
+            medianMs = new double[n];
+            sigma = new double[n];
+            failure = new double[n];
+            starts = topology.starts();
+            hit = scenario.hasHits() ? new double[n] : null;
+            for (int i = 0; i < n; i++) {
+                reachable[i] = topology.isReachable(i);
+                medianMs[i] = scenario.latencyMs(i);
+                sigma[i] = scenario.varianceFactor(i) > 1.0 ? Math.log(scenario.varianceFactor(i)) / P95_Z : 0.0;
+                failure[i] = scenario.failureRate(i);
+                if (hit != null) {
+                    hit[i] = scenario.hitRatio(i);
+                }
+            }
+        }
+    }
+
+    private static final class TrialTask extends RecursiveTask<Accumulator> {
+
+        private final Model model;
+        private final SplittableRandom[] streams;
+        private final SimulationProgress progress;
+        private final int totalTrials;
+        private final int fromChunk;
+        private final int toChunk;
+
+        TrialTask(Model model, SplittableRandom[] streams, SimulationProgress progress, int totalTrials, int fromChunk, int toChunk) {
+            this.model = model;
+            this.streams = streams;
+            this.progress = progress;
+            this.totalTrials = totalTrials;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (toChunk - fromChunk == 1) {
+                return runChunk(fromChunk);
+            }
+            int mid = (fromChunk + toChunk) >>> 1;
+            TrialTask left = new TrialTask(model, streams, progress, totalTrials, fromChunk, mid);
+            TrialTask right = new TrialTask(model, streams, progress, totalTrials, mid, toChunk);
+            left.fork();
+            Accumulator merged = right.compute();
+            merged.merge(left.join());
+            return merged;
+        }
+
+        private Accumulator runChunk(int chunk) {
+            int chunks = streams.length;
+            int trials = totalTrials / chunks + (chunk < totalTrials % chunks ? 1 : 0);
+            SplittableRandom random = streams[chunk];
+            Accumulator accumulator = new Accumulator();
+            double[] ready = new double[model.order.length];
+            boolean[] called = model.hit != null ? new boolean[model.order.length] : null;
+            for (int t = 0; t < trials; t++) {
+                if (t % PROGRESS_INTERVAL == 0) {
+                    if (t > 0) {
+                        progress.advance(PROGRESS_INTERVAL);
+                    }
+                    progress.checkCancelled();
+                }
+                boolean failed = false;
+                double latency = 0.0;
+                Arrays.fill(ready, 0.0);
+                if (called != null) {
+                    Arrays.fill(called, false);
+                    for (int start : model.starts) {
+                        called[start] = true;
+                    }
+                }
+                for (int node : model.order) {
+                    if (!model.reachable[node] || (called != null && !called[node])) {
+                        continue;
+                    }
+                    double service = model.medianMs[node];
+                    if (model.sigma[node] > 0.0 && service > 0.0) {
+                        service *= Math.exp(model.sigma[node] * random.nextGaussian());
+                    }
+                    if (model.failure[node] > 0.0 && random.nextDouble() < model.failure[node]) {
+                        failed = true;
+                    }
+                    double done = ready[node] + service;
+                    if (done > latency) {
+                        latency = done;
+                    }
+                    if (called != null && model.hit[node] > 0.0 && random.nextDouble() < model.hit[node]) {
+                        continue;
+                    }
+                    for (int e = model.edgeOffsets[node]; e < model.edgeOffsets[node + 1]; e++) {
+                        int child = model.edgeTargets[e];
+                        if (done > ready[child]) {
+                            ready[child] = done;
+                        }
+                        if (called != null) {
+                            called[child] = true;
+                        }
+                    }
+                }
+                accumulator.record(latency, failed);
+            }
+            progress.advance(trials == 0 ? 0 : (trials - 1) % PROGRESS_INTERVAL + 1);
+            return accumulator;
+        }
+    }
+
+    private static final class Accumulator {
+
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long failures;
+
+        void record(double latencyMs, boolean failed) {
+            latencies.recordMillis(latencyMs);
+            if (failed) {
+                failures++;
+            }
+        }
+
+        void merge(Accumulator other) {
+            latencies.merge(other.latencies);
+            failures += other.failures;
+        }
+
+        MonteCarloResult summarize(long seed) {
+            long trials = latencies.count();
+            double mean = latencies.meanMillis();
+            double stdError = trials > 1 ? latencies.stdDevMillis() / Math.sqrt(trials) : 0.0;
+            double failureRate = (double) failures / trials;
+            return new MonteCarloResult(
+                (int) trials,
+                seed,
+                mean,
+                new Interval(Math.max(0.0, mean - Z_95 * stdError), mean + Z_95 * stdError),
+                (int) Math.round(latencies.quantileMillis(0.50)),
+                (int) Math.round(latencies.quantileMillis(0.95)),
+                quantileInterval(trials, 0.95),
+                (int) Math.round(latencies.quantileMillis(0.99)),
+                quantileInterval(trials, 0.99),
+                failureRate,
+                wilson(failures, trials),
+                latencies
+            );
+        }
+
+        private Interval quantileInterval(long trials, double quantile) {
+            double spread = Z_95 * Math.sqrt(trials * quantile * (1.0 - quantile));
+            long lower = Math.max(1, (long) Math.floor(trials * quantile - spread));
+            long upper = Math.min(trials, (long) Math.ceil(trials * quantile + spread));
+            // Widened outward to whole milliseconds so the interval always contains the rounded point estimate.
+            return new Interval(
+                Math.floor(latencies.valueAtRankMillis(lower)),
+                Math.ceil(latencies.valueAtRankMillis(upper))
+            );
+        }
+
+        private static Interval wilson(long successes, long trials) {
+            double p = (double) successes / trials;
+            double z2 = Z_95 * Z_95;
+            double denominator = 1.0 + z2 / trials;
+            double centre = (p + z2 / (2.0 * trials)) / denominator;
+            double margin = Z_95 * Math.sqrt(p * (1.0 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+            return new Interval(Math.max(0.0, centre - margin), Math.min(1.0, centre + margin));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.archbench.engine.core;
+
+/**
+ * Per-node detail captured while a model computes its aggregates. Pass one to
+ * {@link SimulationService#calculateMetrics(CompiledScenario, CompiledTopology, NodeBreakdown)} or
+ * {@link QueueingModel#evaluate(CompiledScenario, CompiledTopology, Integer, Integer, NodeBreakdown)} to have the
+ * critical path and bottleneck recorded by the same pass; without one nothing extra is allocated.
+ */
+public final class NodeBreakdown {
+
+    private int[] criticalPath = new int[0];
+    private int bottleneck = -1;
+    private double[] reach;
+    private double[] utilization;
+    private double[] waitMs;
+
+    void record(int[] criticalPath, int bottleneck, double[] reach) {
+        this.criticalPath = criticalPath;
+        this.bottleneck = bottleneck;
+        this.reach = reach;
+    }
+
+    void recordLoad(double[] utilization, double[] waitMs) {
+        this.utilization = utilization;
+        this.waitMs = waitMs;
+    }
+
+    /** Ordinals of the critical path, from its first node to its end. */
+    public int[] criticalPath() {
+        return criticalPath;
+    }
+
+    /** Ordinal of the reachable node with the lowest capacity, or -1 when nothing is reachable. */
+    public int bottleneck() {
+        return bottleneck;
+    }
+
+    /** Per-node share of requests that reach the node past any caches, or null when every request reaches all. */
+    public double[] reach() {
+        return reach;
+    }
+
+    /** Per-node utilization from a load model, or null when the model does not propagate load. */
+    public double[] utilization() {
+        return utilization;
+    }
+
+    /** Per-node queueing delay from a load model, or null when the model does not propagate load. */
+    public double[] waitMs() {
+        return waitMs;
+    }
+}
@@ -0,0 +1,169 @@
+package org.archbench.engine.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Open-addressed {@code String -> int} table with linear probing, used for node id to ordinal lookups and for the
+ * name sets in database schemas. Slots are tagged with a generation, so {@link #reset(int)} is O(1) and a table can be
+ * reused for the next scenario without clearing or reallocating its arrays.
+ *
+ * <p>Tables come from a small bounded pool rather than a {@code ThreadLocal}: requests run on virtual threads, which
+ * would each get a fresh thread-local. {@link #close()} hands the table back; very large tables are dropped instead
+ * of being retained. A table is not thread-safe and must not be used after it is closed.
+ */
+public final class NodeIdTable implements AutoCloseable {
+
+    static final int ABSENT = -1;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+    private static final ArrayBlockingQueue<NodeIdTable> POOL =
+        new ArrayBlockingQueue<>(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+    private String[] keys;
+    private int[] values;
+    private int[] generations;
+    private int generation;
+    private int mask;
+    private int size;
+
+    private NodeIdTable(int capacity) {
+        keys = new String[capacity];
+        values = new int[capacity];
+        generations = new int[capacity];
+        generation = 1;
+        mask = capacity - 1;
+    }
+
+    /** A pooled table sized for about {@code expected} keys, empty. */
+    static NodeIdTable acquire(int expected) {
+        NodeIdTable table = POOL.poll();
+        if (table == null) {
+            return new NodeIdTable(capacityFor(expected));
+        }
+        table.reset(expected);
+        return table;
+    }
+
+    /** Drops every key and sizes the probed range for about {@code expected} keys. */
+    void reset(int expected) {
+        int capacity = capacityFor(expected);
+        if (capacity > keys.length) {
+            keys = new String[capacity];
+            values = new int[capacity];
+            generations = new int[capacity];
+            generation = 1;
+        } else if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Maps {@code key} to {@code value} unless it is already present. Returns the existing value, or {@link #ABSENT}
+     * when the key was added. A {@code null} key is never stored.
+     */
+    int putIfAbsent(String key, int value) {
+        if (key == null) {
+            return ABSENT;
+        }
+        if (2 * (size + 1) > mask + 1) {
+            grow();
+        }
+        int i = spread(key.hashCode()) & mask;
+        while (generations[i] == generation) {
+            if (key.equals(keys[i])) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        generations[i] = generation;
+        size++;
+        return ABSENT;
+    }
+
+    /** Adds {@code key} as a set member; false when it was already there. */
+    boolean add(String key) {
+        return putIfAbsent(key, 0) == ABSENT;
+    }
+
+    /** The value stored for {@code key}, or {@link #ABSENT}. */
+    int get(String key) {
+        if (key == null) {
+            return ABSENT;
+        }
+        int i = spread(key.hashCode()) & mask;
+        while (generations[i] == generation) {
+            if (key.equals(keys[i])) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    boolean contains(String key) {
+        return get(key) != ABSENT;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (keys.length <= MAX_RETAINED_CAPACITY) {
+            POOL.offer(this);
+        }
+    }
+
+    private void grow() {
+        int capacity = (mask + 1) * 2;
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldGenerations = generations;
+        int oldGeneration = generation;
+        int oldCapacity = mask + 1;
+        if (capacity > keys.length) {
+            keys = new String[capacity];
+            values = new int[capacity];
+            generations = new int[capacity];
+            generation = 1;
+        } else {
+            // The probed range doubles inside arrays that are already large enough; rehash out of copies.
+            oldKeys = Arrays.copyOf(keys, oldCapacity);
+            oldValues = Arrays.copyOf(values, oldCapacity);
+            oldGenerations = Arrays.copyOf(generations, oldCapacity);
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+        }
+        mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            if (oldGenerations[i] == oldGeneration) {
+                int j = spread(oldKeys[i].hashCode()) & mask;
+                while (generations[j] == generation) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+                generations[j] = generation;
+            }
+        }
+    }
+
+    private static int capacityFor(int expected) {
+        int wanted = Math.max(MIN_CAPACITY, 2 * Math.max(0, expected));
+        return wanted >= 1 << 30 ? 1 << 30 : Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,297 @@
+package org.archbench.engine.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+/**
+ * Node type profiles and database multipliers loaded from {@code archbench.catalog.location} (JSON, or YAML for
+ * {@code .yaml}/{@code .yml}). Readers work against an immutable {@link Snapshot} whose types are interned to small
+ * integer ids; {@link #reload()} builds a new snapshot and swaps it in atomically, so simulations holding the
+ * previous snapshot finish against it undisturbed.
+ */
+@Component
+public class NodeTypeCatalog {
+
+    public static final String BUILT_IN_LOCATION = "classpath:node-types.json";
+
+    static final int MAX_TYPES = 256;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper YAML = new YAMLMapper();
+    private static final ObjectMapper CANONICAL = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private final Resource resource;
+    private final AtomicReference<Snapshot> current;
+
+    @Autowired
+    public NodeTypeCatalog(
+        @Value("${archbench.catalog.location:" + BUILT_IN_LOCATION + "}") String location,
+        ResourceLoader resourceLoader
+    ) {
+        this.resource = resourceLoader.getResource(location);
+        this.current = new AtomicReference<>(load(resource));
+    }
+
+    public static NodeTypeCatalog builtIn() {
+        return BuiltIn.INSTANCE;
+    }
+
+    public Snapshot current() {
+        return current.get();
+    }
+
+    public Snapshot reload() {
+        Snapshot next = load(resource);
+        current.set(next);
+        return next;
+    }
+
+    static Snapshot load(Resource resource) {
+        String filename = resource.getFilename() != null ? resource.getFilename() : "";
+        ObjectMapper mapper = filename.endsWith(".yaml") || filename.endsWith(".yml") ? YAML : JSON;
+        CatalogFile file;
+        try (InputStream in = resource.getInputStream()) {
+            file = mapper.readValue(in, CatalogFile.class);
+        } catch (IOException ex) {
+            throw new NodeTypeCatalogException("Cannot read node type catalog " + resource.getDescription() + ": " + ex.getMessage(), ex);
+        }
+        return compile(file);
+    }
+
+    static Snapshot compile(CatalogFile file) {
+        if (file == null || file.types() == null || file.types().isEmpty()) {
+            throw new NodeTypeCatalogException("Node type catalog defines no types");
+        }
+        if (file.types().size() > MAX_TYPES) {
+            throw new NodeTypeCatalogException("Node type catalog defines more than " + MAX_TYPES + " types");
+        }
+        Map<String, TypeProfile> types = new TreeMap<>(file.types());
+        int count = types.size();
+        String[] names = new String[count];
+        NodeDefaults[] defaults = new NodeDefaults[count];
+        boolean[] entry = new boolean[count];
+        boolean[] database = new boolean[count];
+        boolean[] cache = new boolean[count];
+        Map<String, Integer> ids = new HashMap<>(count * 2);
+        int id = 0;
+        for (Map.Entry<String, TypeProfile> type : types.entrySet()) {
+            String name = type.getKey();
+            TypeProfile profile = type.getValue();
+            if (name == null || name.isBlank() || profile == null) {
+                throw new NodeTypeCatalogException("Node type catalog has a blank or empty type entry");
+            }
+            names[id] = name;
+            defaults[id] = new NodeDefaults(
+                require(name, "latencyMs", profile.latencyMs()),
+                require(name, "varianceFactor", profile.varianceFactor()),
+                require(name, "capacityRps", profile.capacityRps()),
+                require(name, "failureRate", profile.failureRate()),
+                require(name, "costPerHour", profile.costPerHour())
+            );
+            entry[id] = Boolean.TRUE.equals(profile.entry());
+            database[id] = Boolean.TRUE.equals(profile.database());
+            cache[id] = Boolean.TRUE.equals(profile.cache());
+            ids.put(name, id);
+            id++;
+        }
+        return new Snapshot(
+            fingerprint(file),
+            ids,
+            names,
+            defaults,
+            entry,
+            database,
+            cache,
+            file.dbEngines() != null ? Map.copyOf(file.dbEngines()) : Map.of(),
+            file.sizeClasses() != null ? Map.copyOf(file.sizeClasses()) : Map.of(),
+            file.indexedLatencyMultiplier() != null ? file.indexedLatencyMultiplier() : 1.0,
+            file.dbQueryCosts() != null ? Map.copyOf(file.dbQueryCosts()) : Map.of(),
+            file.tableRows() != null ? Map.copyOf(file.tableRows()) : Map.of()
+        );
+    }
+
+    private static <T> T require(String type, String field, T value) {
+        if (value == null) {
+            throw new NodeTypeCatalogException("Node type '" + type + "' is missing '" + field + "'");
+        }
+        return value;
+    }
+
+    private static long fingerprint(CatalogFile file) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(CANONICAL.writeValueAsBytes(file));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (NoSuchAlgorithmException | IOException ex) {
+            throw new IllegalStateException("Cannot fingerprint node type catalog", ex);
+        }
+    }
+
+    record CatalogFile(
+        Map<String, TypeProfile> types,
+        Map<String, Multipliers> dbEngines,
+        Map<String, Multipliers> sizeClasses,
+        Double indexedLatencyMultiplier,
+        Map<String, QueryCosts> dbQueryCosts,
+        Map<String, Long> tableRows
+    ) {}
+
+    record TypeProfile(
+        Integer latencyMs,
+        Double varianceFactor,
+        Integer capacityRps,
+        Double failureRate,
+        Double costPerHour,
+        Boolean entry,
+        Boolean database,
+        Boolean cache
+    ) {}
+
+    public record Multipliers(double latency, double capacity) {
+        public static final Multipliers NEUTRAL = new Multipliers(1.0, 1.0);
+    }
+
+    /**
+     * Per-engine costs of the database query model: {@code pageMs} per index level visited, {@code rowMs} per row
+     * read, {@code writeMs} per index entry written, {@code commitMs} for the lock hold (postgres, mysql) or replica
+     * acknowledgement (dynamodb, mongo) of each write, and the default {@code connections} per pool, 0 for engines
+     * reached without a pool.
+     */
+    public record QueryCosts(double pageMs, double rowMs, double writeMs, double commitMs, int connections) {
+        public static final QueryCosts GENERIC = new QueryCosts(0.02, 0.0002, 0.05, 0.5, 100);
+    }
+
+    public static final class Snapshot {
+
+        static final long DEFAULT_TABLE_ROWS = 1_000_000L;
+
+        private final long version;
+        private final Map<String, Integer> ids;
+        private final String[] names;
+        private final NodeDefaults[] defaults;
+        private final boolean[] entry;
+        private final boolean[] database;
+        private final boolean[] cache;
+        private final Map<String, Multipliers> dbEngines;
+        private final Map<String, Multipliers> sizeClasses;
+        private final double indexedLatencyMultiplier;
+        private final Map<String, QueryCosts> dbQueryCosts;
+        private final Map<String, Long> tableRows;
+
+        private Snapshot(
+            long version,
+            Map<String, Integer> ids,
+            String[] names,
+            NodeDefaults[] defaults,
+            boolean[] entry,
+            boolean[] database,
+            boolean[] cache,
+            Map<String, Multipliers> dbEngines,
+            Map<String, Multipliers> sizeClasses,
+            double indexedLatencyMultiplier,
+            Map<String, QueryCosts> dbQueryCosts,
+            Map<String, Long> tableRows
+        ) {
+            this.version = version;
+            this.ids = ids;
+            this.names = names;
+            this.defaults = defaults;
+            this.entry = entry;
+            this.database = database;
+            this.cache = cache;
+            this.dbEngines = dbEngines;
+            this.sizeClasses = sizeClasses;
+            this.indexedLatencyMultiplier = indexedLatencyMultiplier;
+            this.dbQueryCosts = dbQueryCosts;
+            this.tableRows = tableRows;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int typeCount() {
+            return names.length;
+        }
+
+        /** Interned id of the type, or -1 when the catalog does not define it. */
+        public int typeId(String typeName) {
+            Integer id = typeName == null ? null : ids.get(typeName);
+            return id == null ? -1 : id;
+        }
+
+        public String typeName(int typeId) {
+            return names[typeId];
+        }
+
+        public NodeDefaults defaults(int typeId) {
+            return defaults[typeId];
+        }
+
+        public boolean isEntry(int typeId) {
+            return entry[typeId];
+        }
+
+        public boolean isDatabase(int typeId) {
+            return database[typeId];
+        }
+
+        /** Whether nodes of the type serve hits themselves and take a {@code cache} config. */
+        public boolean isCache(int typeId) {
+            return cache[typeId];
+        }
+
+        public Set<String> typeNames() {
+            return Collections.unmodifiableSet(ids.keySet());
+        }
+
+        public Set<String> dbEngines() {
+            return dbEngines.keySet();
+        }
+
+        public Multipliers dbEngine(String engine) {
+            return engine == null ? Multipliers.NEUTRAL : dbEngines.getOrDefault(engine, Multipliers.NEUTRAL);
+        }
+
+        public Multipliers sizeClass(String sizeClass) {
+            return sizeClass == null ? Multipliers.NEUTRAL : sizeClasses.getOrDefault(sizeClass, Multipliers.NEUTRAL);
+        }
+
+        public double indexedLatencyMultiplier() {
+            return indexedLatencyMultiplier;
+        }
+
+        public QueryCosts queryCosts(String engine) {
+            return engine == null ? QueryCosts.GENERIC : dbQueryCosts.getOrDefault(engine, QueryCosts.GENERIC);
+        }
+
+        /** Rows assumed for a table of the size class; unknown and missing classes count as mid-sized. */
+        public long tableRows(String sizeClass) {
+            Long rows = sizeClass == null ? null : tableRows.get(sizeClass);
+            return rows != null && rows > 0 ? rows : DEFAULT_TABLE_ROWS;
+        }
+    }
+
+    private static final class BuiltIn {
+        private static final NodeTypeCatalog INSTANCE = new NodeTypeCatalog(BUILT_IN_LOCATION, new DefaultResourceLoader());
+    }
+}
@@ -0,0 +1,12 @@
+package org.archbench.engine.core;
+
+public class NodeTypeCatalogException extends RuntimeException {
+
+    public NodeTypeCatalogException(String message) {
+        super(message);
+    }
+
+    public NodeTypeCatalogException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
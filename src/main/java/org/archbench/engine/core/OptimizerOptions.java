@@ -0,0 +1,14 @@
+package org.archbench.engine.core;
+
+public record OptimizerOptions(
+    int maxReplicas,
+    double cacheHitRatio,
+    int maxCandidates
+) {
+    public static final int DEFAULT_MAX_REPLICAS = 32;
+    public static final double DEFAULT_CACHE_HIT_RATIO = 0.8;
+    public static final int DEFAULT_MAX_CANDIDATES = 2048;
+
+    public static final OptimizerOptions DEFAULT =
+        new OptimizerOptions(DEFAULT_MAX_REPLICAS, DEFAULT_CACHE_HIT_RATIO, DEFAULT_MAX_CANDIDATES);
+}
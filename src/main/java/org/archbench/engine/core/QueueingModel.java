@@ -0,0 +1,333 @@
+package org.archbench.engine.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Analytic, load-aware counterpart of the closed-form sums. It uses the same node model as
+ * {@link DiscreteEventSimulator}: a gate admits at most {@code capacityRps} requests per second, then the service
+ * time follows. The gate is treated as an M/D/1 queue, with Poisson arrivals and a deterministic admit spacing of
+ * {@code 1 / capacityRps}.
+ *
+ * <p>The offered rate enters at the start nodes and flows along the edges. Each request visits every reachable node
+ * once and a join waits for all of its parents, so a node sees the smallest rate its parents let through, and a node
+ * lets through at most its capacity. Below saturation the mean gate wait is the Pollaczek-Khinchine value
+ * {@code rho * s / (2 (1 - rho))}, and its p95 is read off an exponential tail. At or above saturation there is no
+ * steady state. The backlog grows for the whole run, so the wait is averaged over {@code durationSec}, like the
+ * discrete-event run the model stands in for. Everything is a single pass over the topological order.
+ *
+ * <p>A cache node with a hit ratio passes only its misses on, so a node reached by a share {@code r} of the requests
+ * sees {@code r} times their rate and can carry {@code capacityRps / r} of them. Rates flow in requests, and each node
+ * scales them by its share; like {@link SimulationService#calculateMetrics}, the p50 path counts only nodes that more
+ * than half of the requests reach, and the p95 path only nodes that more than 5% reach.
+ *
+ * <p>A database with a connection pool is {@code c} connections sharing its capacity, each holding a call for its
+ * whole service time. Its wait is the M/M/c value {@code C(c, a) / (c mu - lambda)} from Erlang's C formula, and its
+ * p95 follows from the exponential wait of the calls that queue at all.
+ */
+@Component
+public class QueueingModel {
+
+    /** {@code -ln(0.05)}: p95 of an exponential distribution in units of its mean. */
+    private static final double P95_OF_EXPONENTIAL = 2.995732273553991;
+
+    public AnalyticResult evaluate(CompiledScenario scenario, CompiledTopology topology, Integer rps, Integer durationSeconds) {
+        return evaluate(scenario, topology, rps, durationSeconds, null);
+    }
+
+    public AnalyticResult evaluate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        Integer rps,
+        Integer durationSeconds,
+        NodeBreakdown breakdown
+    ) {
+        int offered = rps != null && rps > 0 ? rps : DiscreteEventSimulator.DEFAULT_RPS;
+        int duration = durationSeconds != null && durationSeconds > 0
+            ? durationSeconds
+            : DiscreteEventSimulator.DEFAULT_DURATION_SECONDS;
+        return evaluateAt(scenario, topology, offered, duration, breakdown);
+    }
+
+    /**
+     * Evaluates at an exact offered rate, which may be fractional or zero, e.g. the mean rate of one window of a
+     * time-varying workload. {@code duration} is the number of seconds a saturated backlog grows over.
+     */
+    public AnalyticResult evaluateAt(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        double offered,
+        int duration,
+        NodeBreakdown breakdown
+    ) {
+        int n = scenario.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        int[] latency = scenario.latencies();
+        int[] capacity = scenario.capacities();
+        double[] variance = scenario.varianceFactors();
+        double[] failure = scenario.failureRates();
+
+        double[] reach = SimulationService.reach(scenario, topology);
+        double[] arrival = new double[n];
+        double[] utilization = new double[n];
+        double[] waitMs = new double[n];
+        double[] wait95Ms = new double[n];
+        Arrays.fill(arrival, Double.POSITIVE_INFINITY);
+        for (int start : topology.starts()) {
+            arrival[start] = offered;
+        }
+
+        double[] incoming = new double[n];
+        double[] pathWeight = new double[n];
+        int[] predecessor = new int[n];
+        Arrays.fill(predecessor, -1);
+        int end = -1;
+        double delivered = offered;
+        int bottleneck = -1;
+        double bottleneckLimit = Double.POSITIVE_INFINITY;
+        double maxUtilization = 0.0;
+        int saturated = 0;
+        double survival = 1.0;
+        for (int k = 0; k < n; k++) {
+            survival *= 1.0 - (reach != null && topology.isReachable(k) ? failure[k] * reach[k] : failure[k]);
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                arrival[u] = 0.0;
+                continue;
+            }
+            double share = reach == null ? 1.0 : reach[u];
+            double requests = arrival[u];
+            double lambda = requests * share;
+            arrival[u] = lambda;
+            double rate = capacity[u] <= 0 || capacity[u] == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : capacity[u];
+            double limit = share > 0.0 ? rate / share : Double.POSITIVE_INFINITY;
+            double rho = lambda / rate;
+            utilization[u] = rho;
+            maxUtilization = Math.max(maxUtilization, rho);
+            if (rho >= 1.0) {
+                saturated++;
+            }
+            waitMs[u] = meanWaitMs(lambda, rate, scenario.connections(u), duration);
+            wait95Ms[u] = p95WaitMs(lambda, rate, scenario.connections(u), duration);
+            if (bottleneck < 0 || limit < bottleneckLimit || (limit == bottleneckLimit && u < bottleneck)) {
+                bottleneck = u;
+                bottleneckLimit = limit;
+            }
+            double departure = Math.min(requests, limit);
+            delivered = Math.min(delivered, departure);
+
+            double path = incoming[u] + (share > SimulationService.P50_REACH ? latency[u] + waitMs[u] : 0.0);
+            pathWeight[u] = path;
+            if (end < 0 || path > pathWeight[end] || (path == pathWeight[end] && u < end)) {
+                end = u;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                arrival[v] = Math.min(arrival[v], departure);
+                if (predecessor[v] < 0 || path > incoming[v] || (path == incoming[v] && u < predecessor[v])) {
+                    incoming[v] = path;
+                    predecessor[v] = u;
+                }
+            }
+        }
+
+        if (breakdown != null) {
+            breakdown.recordLoad(utilization, waitMs);
+        }
+        if (end < 0) {
+            if (breakdown != null) {
+                breakdown.record(new int[0], -1, reach);
+            }
+            return new AnalyticResult(
+                0, 0, 0, n == 0 ? 0.0 : 1.0 - survival, (int) Math.round(offered), 0.0, 0, arrival, utilization, waitMs
+            );
+        }
+        long service = 0;
+        double varianceSum = 0.0;
+        int pathLength = 0;
+        double wait = 0.0;
+        double wait95 = 0.0;
+        int weighed = 0;
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            pathLength++;
+            if (reach == null || reach[node] > SimulationService.P50_REACH) {
+                service += latency[node];
+                varianceSum += variance[node];
+                weighed++;
+                wait += waitMs[node];
+                wait95 += wait95Ms[node];
+            }
+        }
+        int serviceP50 = (int) Math.min(Integer.MAX_VALUE, service);
+        if (breakdown != null) {
+            breakdown.record(SimulationService.pathTo(end, pathLength, predecessor), bottleneck, reach);
+        }
+        int latencyP95 = clamp(Math.round(serviceP50 * (varianceSum / weighed)) + wait95);
+        if (reach != null) {
+            latencyP95 = tailLatency(topology, latency, variance, waitMs, wait95Ms, reach, incoming, pathWeight, predecessor);
+        }
+        return new AnalyticResult(
+            clamp(serviceP50 + wait),
+            latencyP95,
+            (int) Math.floor(delivered),
+            1.0 - survival,
+            (int) Math.round(offered),
+            maxUtilization,
+            saturated,
+            arrival,
+            utilization,
+            waitMs
+        );
+    }
+
+    /** p95 along the longest path through the nodes that more than 5% of the requests reach; reuses the scratch arrays. */
+    private static int tailLatency(
+        CompiledTopology topology,
+        int[] latency,
+        double[] variance,
+        double[] waitMs,
+        double[] wait95Ms,
+        double[] reach,
+        double[] incoming,
+        double[] pathWeight,
+        int[] predecessor
+    ) {
+        int n = topology.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        Arrays.fill(incoming, 0.0);
+        Arrays.fill(predecessor, -1);
+        int end = -1;
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            double path = incoming[u] + (reach[u] > SimulationService.P95_REACH ? latency[u] + waitMs[u] : 0.0);
+            pathWeight[u] = path;
+            if (end < 0 || path > pathWeight[end] || (path == pathWeight[end] && u < end)) {
+                end = u;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                if (predecessor[v] < 0 || path > incoming[v] || (path == incoming[v] && u < predecessor[v])) {
+                    incoming[v] = path;
+                    predecessor[v] = u;
+                }
+            }
+        }
+        long service = 0;
+        double varianceSum = 0.0;
+        int weighed = 0;
+        double wait95 = 0.0;
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            if (reach[node] > SimulationService.P95_REACH) {
+                service += latency[node];
+                varianceSum += variance[node];
+                weighed++;
+                wait95 += wait95Ms[node];
+            }
+        }
+        return clamp(Math.round(Math.min(Integer.MAX_VALUE, service) * (varianceSum / weighed)) + wait95);
+    }
+
+    /**
+     * Evaluates each window of a time-varying workload at its mean rate. Windows are independent steady states: a
+     * saturated window's backlog grows over that window only and is not carried into the next one.
+     */
+    public List<TimelineWindow> timeline(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        RateProfile profile,
+        int duration,
+        int windowSeconds
+    ) {
+        List<TimelineWindow> windows = new ArrayList<>((duration + windowSeconds - 1) / windowSeconds);
+        for (int start = 0; start < duration; start += windowSeconds) {
+            int seconds = Math.min(windowSeconds, duration - start);
+            long requests = 0;
+            for (int second = start; second < start + seconds; second++) {
+                requests += profile.requestsAt(second);
+            }
+            double rate = (double) requests / seconds;
+            AnalyticResult result = evaluateAt(scenario, topology, rate, seconds, null);
+            windows.add(new TimelineWindow(
+                start, seconds, rate, result.throughputRps(), result.latencyP50(), result.latencyP95(), result.failureRate()
+            ));
+        }
+        return windows;
+    }
+
+    /** Mean gate wait at arrival rate {@code lambda} and capacity {@code rate}; see the class comment. */
+    static double meanWaitMs(double lambda, double rate, int duration) {
+        double rho = lambda / rate;
+        if (rho >= 1.0) {
+            return (lambda - rate) / rate * duration * 500.0;
+        }
+        return rho > 0.0 ? rho * (1000.0 / rate) / (2.0 * (1.0 - rho)) : 0.0;
+    }
+
+    static double p95WaitMs(double lambda, double rate, int duration) {
+        if (lambda >= rate) {
+            return (lambda - rate) / rate * duration * 950.0;
+        }
+        return meanWaitMs(lambda, rate, duration) * P95_OF_EXPONENTIAL;
+    }
+
+    /** Mean wait for one of {@code servers} connections sharing capacity {@code rate}; a single gate is M/D/1. */
+    static double meanWaitMs(double lambda, double rate, int servers, int duration) {
+        if (servers <= 1 || lambda >= rate) {
+            return meanWaitMs(lambda, rate, duration);
+        }
+        return lambda > 0.0 ? erlangC(lambda / rate, servers) / (rate - lambda) * 1000.0 : 0.0;
+    }
+
+    static double p95WaitMs(double lambda, double rate, int servers, int duration) {
+        if (servers <= 1 || lambda >= rate) {
+            return p95WaitMs(lambda, rate, duration);
+        }
+        double queued = lambda > 0.0 ? erlangC(lambda / rate, servers) : 0.0;
+        return queued > 0.05 ? Math.log(queued / 0.05) / (rate - lambda) * 1000.0 : 0.0;
+    }
+
+    /** Probability that a call has to wait for one of {@code servers} at utilization {@code rho}, via Erlang B. */
+    static double erlangC(double rho, int servers) {
+        double offered = rho * servers;
+        double blocked = 1.0;
+        for (int k = 1; k <= servers; k++) {
+            blocked = offered * blocked / (k + offered * blocked);
+        }
+        return blocked / (1.0 - rho * (1.0 - blocked));
+    }
+
+    private static int clamp(double millis) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(millis));
+    }
+
+    /**
+     * Scenario-level estimates plus the per-node arrival rate, utilization and mean gate wait, indexed by ordinal.
+     * Utilization is {@code arrivalRps / capacityRps}; a node at or above 1 is saturated.
+     */
+    public record AnalyticResult(
+        int latencyP50,
+        int latencyP95,
+        int throughputRps,
+        double failureRate,
+        int offeredRps,
+        double maxUtilization,
+        int saturatedNodes,
+        double[] arrivalRps,
+        double[] utilization,
+        double[] waitMs
+    ) {
+        public boolean isSaturated(int node) {
+            return utilization[node] >= 1.0;
+        }
+    }
+}
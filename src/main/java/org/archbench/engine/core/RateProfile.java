@@ -0,0 +1,75 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/** Requests offered in each second of simulated time, for workloads that are not a constant rate. */
+public interface RateProfile {
+
+    /** Natural length in seconds: the time of the last curve point, or the length of a trace. */
+    int seconds();
+
+    /**
+     * Requests arriving during {@code second}, counted from 0. Past {@link #seconds()} a curve holds its last rate and
+     * a trace offers nothing.
+     */
+    int requestsAt(int second);
+
+    /** A constant rate that never ends; its natural length is the default run duration. */
+    static RateProfile constant(int rps) {
+        return new RateProfile() {
+            @Override
+            public int seconds() {
+                return DiscreteEventSimulator.DEFAULT_DURATION_SECONDS;
+            }
+
+            @Override
+            public int requestsAt(int second) {
+                return rps;
+            }
+        };
+    }
+
+    /**
+     * Piecewise-linear curve through the given points, already validated to have strictly increasing
+     * {@code atSec} values and non-negative rates. The rate before the first point is that of the first point.
+     */
+    static RateProfile curve(List<ScenarioDto.RatePoint> points) {
+        int size = points.size();
+        int[] at = new int[size];
+        int[] rps = new int[size];
+        for (int i = 0; i < size; i++) {
+            at[i] = points.get(i).atSec();
+            rps[i] = points.get(i).rps();
+        }
+        return new RateProfile() {
+            @Override
+            public int seconds() {
+                return Math.max(1, at[size - 1]);
+            }
+
+            @Override
+            public int requestsAt(int second) {
+                if (second <= at[0]) {
+                    return rps[0];
+                }
+                if (second >= at[size - 1]) {
+                    return rps[size - 1];
+                }
+                int low = 0;
+                int high = size - 1;
+                while (high - low > 1) {
+                    int mid = (low + high) >>> 1;
+                    if (at[mid] <= second) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                double fraction = (double) (second - at[low]) / (at[high] - at[low]);
+                return (int) Math.round(rps[low] + fraction * (rps[high] - rps[low]));
+            }
+        };
+    }
+}
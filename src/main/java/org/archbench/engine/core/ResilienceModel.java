@@ -0,0 +1,315 @@
+package org.archbench.engine.core;
+
+import java.util.Arrays;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Availability, retry amplification and tail latency of a scenario whose calls have timeouts, retries and circuit
+ * breakers. Each edge's policy governs the hop into its target: an attempt fails when the target fails on its own
+ * ({@code failureRate}) or does not answer within the timeout, and a failed call is retried up to
+ * {@code maxRetries} times. Failures further downstream are retried by their own edges. A node with several parents
+ * is called through the incoming edge with the most retries.
+ *
+ * <p>Attempts load the target, so its gate wait (the M/D/1 wait of {@link QueueingModel}) and with it the share of
+ * attempts that time out depend on how often it is retried. That local fixed point is solved per node, starting from
+ * an idle node, so a node with no stable low-load state climbs to the saturated one: a retry storm. A breaker whose
+ * threshold is reached sheds just enough calls to hold the failure rate of admitted attempts at the threshold, and
+ * shed calls fail fast without being retried. Everything is one pass over the topological order; replicas need no
+ * special handling because they are already folded into each node's capacity. A cache node passes only its misses
+ * on, and weighs on a latency quantile only where {@link SimulationService#calculateMetrics} would count it.
+ *
+ * <p>Without an offered rate there is no queueing, and only failures and the service-time tail against the
+ * timeout trigger retries.
+ */
+@Component
+public class ResilienceModel {
+
+    private static final double P95_Z = 1.6448536269514722;
+    private static final int MAX_ITERATIONS = 200;
+    private static final int BISECTION_STEPS = 40;
+    private static final double EPSILON = 1e-12;
+
+    public ResilienceResult evaluate(
+        CompiledScenario scenario,
+        CompiledTopology topology,
+        CallPolicies policies,
+        double offeredRps,
+        int durationSeconds
+    ) {
+        int n = scenario.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+
+        double[] calls = new double[n];
+        int[] via = new int[n];
+        Arrays.fill(via, -1);
+        for (int start : topology.starts()) {
+            calls[start] = 1.0;
+        }
+        double[] attempts = new double[n];
+        double[] callFailure = new double[n];
+        double[] shed = new double[n];
+        double[] utilization = new double[n];
+        double[] waitMs = new double[n];
+        double[] weight50 = new double[n];
+        double[] weight95 = new double[n];
+        boolean[] retryStorm = new boolean[n];
+        Hop hop = new Hop(offeredRps, durationSeconds);
+        double[] reach = SimulationService.reach(scenario, topology);
+
+        double survival = 1.0;
+        double totalCalls = 0.0;
+        double totalAttempts = 0.0;
+        double throughput = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                survival *= 1.0 - scenario.failureRate(u);
+                continue;
+            }
+            hop.solve(scenario, policies, u, via[u], calls[u]);
+            attempts[u] = hop.attempts;
+            callFailure[u] = hop.callFailure;
+            shed[u] = hop.shed;
+            utilization[u] = hop.utilization;
+            waitMs[u] = hop.waitMs;
+            if (reach == null || reach[u] > SimulationService.P50_REACH) {
+                weight50[u] = hop.latency(policies, via[u], 0.5);
+            }
+            if (reach == null || reach[u] > SimulationService.P95_REACH) {
+                weight95[u] = hop.latency(policies, via[u], 0.95);
+            }
+            survival *= 1.0 - hop.callFailure;
+            totalCalls += calls[u];
+            totalAttempts += hop.attempts;
+            retryStorm[u] = hop.utilization >= 1.0 && hop.baseUtilization < 1.0;
+            int capacity = scenario.capacityRps(u);
+            if (capacity > 0 && capacity != Integer.MAX_VALUE) {
+                throughput = Math.min(throughput, capacity / Math.max(1.0, hop.attempts));
+            }
+            double passed = calls[u] * (1.0 - hop.callFailure) * (1.0 - scenario.hitRatio(u));
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                calls[v] = Math.max(calls[v], passed);
+                if (via[v] < 0 || policies.maxRetries(e) > policies.maxRetries(via[v])) {
+                    via[v] = e;
+                }
+            }
+        }
+
+        return new ResilienceResult(
+            1.0 - survival,
+            clamp(longestPath(topology, weight50)),
+            clamp(longestPath(topology, weight95)),
+            throughput == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) Math.floor(throughput),
+            totalCalls > 0.0 ? totalAttempts / totalCalls : 1.0,
+            attempts,
+            callFailure,
+            shed,
+            utilization,
+            waitMs,
+            retryStorm
+        );
+    }
+
+    private static double longestPath(CompiledTopology topology, double[] weight) {
+        int n = topology.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        double[] incoming = new double[n];
+        double longest = 0.0;
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            double path = incoming[u] + weight[u];
+            longest = Math.max(longest, path);
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                incoming[edgeTargets[e]] = Math.max(incoming[edgeTargets[e]], path);
+            }
+        }
+        return longest;
+    }
+
+    private static int clamp(double millis) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(millis));
+    }
+
+    /** The steady state of one hop, reused across nodes so the pass allocates nothing per node. */
+    private static final class Hop {
+
+        private final double offeredRps;
+        private final int durationSeconds;
+
+        private double medianMs;
+        private double sigma;
+        private double failure;
+        private double capacity;
+        private double calls;
+        private int timeoutMs;
+        private int maxRetries;
+        private int servers;
+
+        double attemptFailure;
+        double timeoutShare;
+        double attempts;
+        double callFailure;
+        double shed;
+        double utilization;
+        double baseUtilization;
+        double waitMs;
+        double wait95Ms;
+
+        Hop(double offeredRps, int durationSeconds) {
+            this.offeredRps = offeredRps;
+            this.durationSeconds = durationSeconds;
+        }
+
+        void solve(CompiledScenario scenario, CallPolicies policies, int node, int slot, double calls) {
+            medianMs = scenario.latencyMs(node);
+            double variance = scenario.varianceFactor(node);
+            sigma = variance > 1.0 ? Math.log(variance) / P95_Z : 0.0;
+            failure = scenario.failureRate(node);
+            int nodeCapacity = scenario.capacityRps(node);
+            capacity = nodeCapacity <= 0 || nodeCapacity == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : nodeCapacity;
+            this.calls = calls;
+            servers = scenario.connections(node);
+            timeoutMs = slot < 0 ? 0 : policies.timeoutMs(slot);
+            maxRetries = slot < 0 ? 0 : policies.maxRetries(slot);
+            baseUtilization = offeredRps * calls / capacity;
+
+            settle(0.0);
+            shed = 0.0;
+            if (slot >= 0 && policies.hasBreaker(slot) && attemptFailure >= policies.breakerThreshold(slot)) {
+                double threshold = policies.breakerThreshold(slot);
+                settle(1.0);
+                if (attemptFailure >= threshold) {
+                    shed = 1.0;
+                } else {
+                    double low = 0.0;
+                    double high = 1.0;
+                    for (int step = 0; step < BISECTION_STEPS; step++) {
+                        double mid = 0.5 * (low + high);
+                        settle(mid);
+                        if (attemptFailure >= threshold) {
+                            low = mid;
+                        } else {
+                            high = mid;
+                        }
+                    }
+                    shed = high;
+                }
+                settle(shed);
+            }
+            callFailure = shed + (1.0 - shed) * Math.pow(attemptFailure, maxRetries + 1);
+        }
+
+        /**
+         * Least fixed point of attempt failure against the load it causes, with a fraction {@code shed} of calls
+         * short-circuited. Iterating from an idle node only ever raises the failure rate, so it converges.
+         */
+        private void settle(double shedFraction) {
+            double admitted = calls * (1.0 - shedFraction);
+            double q = 0.0;
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                double expected = admitted * expectedAttempts(q, maxRetries);
+                double lambda = offeredRps * expected;
+                waitMs = QueueingModel.meanWaitMs(lambda, capacity, servers, durationSeconds);
+                wait95Ms = QueueingModel.p95WaitMs(lambda, capacity, servers, durationSeconds);
+                utilization = lambda / capacity;
+                attempts = expected;
+                timeoutShare = timeoutMs > 0 ? exceeds(timeoutMs - waitMs) : 0.0;
+                double next = 1.0 - (1.0 - failure) * (1.0 - timeoutShare);
+                boolean settled = Math.abs(next - q) < EPSILON;
+                q = next;
+                if (settled) {
+                    break;
+                }
+            }
+            attemptFailure = q;
+            attempts = admitted * expectedAttempts(q, maxRetries);
+        }
+
+        /** Share of service times above {@code limitMs}: log-normal with the node latency as median. */
+        private double exceeds(double limitMs) {
+            if (limitMs <= 0.0) {
+                return 1.0;
+            }
+            if (medianMs <= 0.0) {
+                return 0.0;
+            }
+            if (sigma == 0.0) {
+                return medianMs > limitMs ? 1.0 : 0.0;
+            }
+            return 0.5 * erfc((Math.log(limitMs) - Math.log(medianMs)) / (sigma * Math.sqrt(2.0)));
+        }
+
+        /**
+         * Latency of a call at {@code quantile}: the failed attempts that quantile sits behind, their backoff, and
+         * the successful attempt, which cannot take longer than the timeout.
+         */
+        double latency(CallPolicies policies, int slot, double quantile) {
+            int retries = 0;
+            while (retries < maxRetries && Math.pow(attemptFailure, retries + 1) > 1.0 - quantile) {
+                retries++;
+            }
+            double serviceMs = quantile >= 0.95 ? medianMs * Math.exp(sigma * P95_Z) : medianMs;
+            double successMs = serviceMs + (quantile >= 0.95 ? wait95Ms : waitMs);
+            if (timeoutMs > 0) {
+                successMs = Math.min(successMs, timeoutMs);
+            }
+            if (retries == 0) {
+                return successMs;
+            }
+            double timedOut = timeoutShare;
+            double errored = failure * (1.0 - timeoutShare);
+            double failedMs = (timedOut * timeoutMs + errored * (medianMs + waitMs)) / (timedOut + errored);
+            return retries * failedMs + policies.backoffMs(slot, retries) + successMs;
+        }
+
+        private static double expectedAttempts(double q, int maxRetries) {
+            if (q >= 1.0) {
+                return maxRetries + 1.0;
+            }
+            return (1.0 - Math.pow(q, maxRetries + 1)) / (1.0 - q);
+        }
+    }
+
+    /** Complementary error function, Numerical Recipes' Chebyshev fit; relative error below 1.2e-7. */
+    static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1.0 / (1.0 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+            + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+            + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0.0 ? r : 2.0 - r;
+    }
+
+    /**
+     * Scenario-level results plus, indexed by ordinal, attempts per request, the probability that a call fails,
+     * the share of calls a breaker sheds, utilization, mean gate wait, and whether the node is in a retry storm:
+     * saturated although its first attempts alone would fit its capacity. {@code retryAmplification} is attempts
+     * over calls across all reachable nodes, 1 without retries.
+     */
+    public record ResilienceResult(
+        double failureRate,
+        int latencyP50,
+        int latencyP95,
+        int throughputRps,
+        double retryAmplification,
+        double[] attempts,
+        double[] callFailure,
+        double[] shed,
+        double[] utilization,
+        double[] waitMs,
+        boolean[] retryStorm
+    ) {
+        public boolean isBreakerOpen(int node) {
+            return shed[node] > 0.0;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package org.archbench.engine.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Persistent history of simulation runs. Each run's scenario fingerprint, headline metrics and full result are
+ * appended to a {@link RunLog} under {@code archbench.history.directory}, and an in-memory index by scenario name and
+ * time is rebuilt from the log on startup. An append only copies into a memory map; a background flusher forces the
+ * segments written since its last tick every {@code archbench.history.flush-ms}, so one fsync commits a whole group
+ * of runs and no request waits for the disk. A crash loses at most the runs of the last interval.
+ *
+ * <p>Disk use stays bounded. Each scenario keeps its latest {@code archbench.history.max-runs-per-scenario} runs, a
+ * sealed segment that is less than half live is rewritten into the head of the log, and the oldest segments are
+ * dropped while the log takes more than {@code archbench.history.max-bytes}. Compaction runs on the flusher thread.
+ */
+@Component
+public class RunHistory implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int NONE = Integer.MIN_VALUE;
+    /** Location of a run dropped by retention, so a compaction in flight does not copy it. */
+    private static final long RELEASED = -1L;
+    /** Records copied per hold of the index lock while a segment is rewritten. */
+    private static final int COPY_BATCH = 64;
+    /** Id, time, the two hash halves, six ints (the last pads the double to 8 bytes) and the cost. */
+    private static final int FIXED_BYTES = 4 * Long.BYTES + 6 * Integer.BYTES + Double.BYTES;
+
+    private final boolean enabled;
+    private final NodeTypeCatalog catalog;
+    private final long maxBytes;
+    private final int maxRunsPerScenario;
+    private final Clock clock;
+    private final RunLog log;
+    private final Map<String, ArrayDeque<Entry>> index = new HashMap<>();
+    private final ScheduledExecutorService flusher;
+    /** Serializes flushes and compactions, which run on the flusher thread and on {@link #close()}. */
+    private final Object compaction = new Object();
+    private long nextId;
+
+    @Autowired
+    public RunHistory(
+        @Value("${archbench.history.enabled:true}") boolean enabled,
+        @Value("${archbench.history.directory:${java.io.tmpdir}/archbench-history}") Path directory,
+        @Value("${archbench.history.segment-bytes:16777216}") int segmentBytes,
+        @Value("${archbench.history.max-bytes:1073741824}") long maxBytes,
+        @Value("${archbench.history.max-runs-per-scenario:10000}") int maxRunsPerScenario,
+        @Value("${archbench.history.flush-ms:200}") long flushMs,
+        NodeTypeCatalog catalog
+    ) {
+        this(enabled, directory, segmentBytes, maxBytes, maxRunsPerScenario, flushMs, catalog, Clock.systemUTC());
+    }
+
+    RunHistory(
+        boolean enabled,
+        Path directory,
+        int segmentBytes,
+        long maxBytes,
+        int maxRunsPerScenario,
+        long flushMs,
+        NodeTypeCatalog catalog,
+        Clock clock
+    ) {
+        this.enabled = enabled;
+        this.catalog = catalog;
+        this.maxBytes = maxBytes;
+        this.maxRunsPerScenario = Math.max(1, maxRunsPerScenario);
+        this.clock = clock;
+        if (!enabled) {
+            log = null;
+            flusher = null;
+            return;
+        }
+        try {
+            log = new RunLog(directory, segmentBytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open run history in " + directory, ex);
+        }
+        replay();
+        if (flushMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("run-history-flush").daemon(true).factory());
+            flusher.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a run of {@code scenario}. Empty when the history is disabled, the scenario has no name, or the log
+     * cannot grow; a full disk costs the history, never the simulation.
+     */
+    public Optional<Run> record(ScenarioDto scenario, SimulationOptions options, SimulationResultDto result) {
+        if (!enabled || scenario == null || scenario.name() == null || result == null) {
+            return Optional.empty();
+        }
+        ScenarioFingerprint.Key hash = ScenarioFingerprint.of(scenario, options, catalog.current().version());
+        byte[] json;
+        try {
+            json = JSON.writeValueAsBytes(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize simulation result", ex);
+        }
+        synchronized (this) {
+            Run run = new Run(
+                nextId,
+                Instant.ofEpochMilli(clock.millis()),
+                hex(hash),
+                options.mode().param(),
+                result.status(),
+                result.latencyMsP50(),
+                result.latencyMsP95(),
+                result.latencyMsP99(),
+                result.throughputRps(),
+                result.costPerHour(),
+                result.score()
+            );
+            long location;
+            try {
+                location = log.append(encode(scenario.name(), run, hash, json));
+            } catch (UncheckedIOException ex) {
+                return Optional.empty();
+            }
+            nextId++;
+            add(scenario.name(), new Entry(run.id(), run.at().toEpochMilli(), location));
+            return Optional.of(run);
+        }
+    }
+
+    /** The latest {@code limit} runs of a scenario in {@code [from, to)}, oldest first; either bound may be null. */
+    public synchronized List<Run> history(String name, Instant from, Instant to, int limit) {
+        ArrayDeque<Entry> entries = enabled ? index.get(name) : null;
+        if (entries == null) {
+            return List.of();
+        }
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<Run> runs = new ArrayList<>(Math.min(limit, entries.size()));
+        for (Iterator<Entry> it = entries.descendingIterator(); it.hasNext() && runs.size() < limit; ) {
+            Entry entry = it.next();
+            if (entry.timestampMs >= fromMillis && entry.timestampMs < toMillis) {
+                runs.add(decode(log.read(entry.location)));
+            }
+        }
+        Collections.reverse(runs);
+        return runs;
+    }
+
+    public synchronized Optional<Run> run(String name, long id) {
+        Entry entry = find(name, id);
+        return entry == null ? Optional.empty() : Optional.of(decode(log.read(entry.location)));
+    }
+
+    public Optional<SimulationResultDto> result(String name, long id) {
+        byte[] json;
+        synchronized (this) {
+            Entry entry = find(name, id);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = log.read(entry.location);
+            payload.position(FIXED_BYTES);
+            for (int i = 0; i < 3; i++) {
+                readString(payload);
+            }
+            json = new byte[payload.getInt()];
+            payload.get(json);
+        }
+        try {
+            return Optional.of(JSON.readValue(json, SimulationResultDto.class));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read run " + id + " of '" + name + "'", ex);
+        }
+    }
+
+    /** Forces the segments written since the last flush to disk in one go, then compacts if needed. */
+    void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (compaction) {
+            force();
+            compact();
+        }
+    }
+
+    /**
+     * Drops the oldest segments over budget, then rewrites sparse sealed segments. Live records are copied a batch at
+     * a time so {@link #record} is never held up for a whole segment, and the copies are forced to disk before their
+     * source segment is deleted, so a crash in between leaves two copies rather than none.
+     */
+    void compact() {
+        synchronized (compaction) {
+            List<Integer> sparse = new ArrayList<>();
+            synchronized (this) {
+                while (log.diskBytes() > maxBytes && log.segmentCount() > 1) {
+                    int oldest = log.oldest();
+                    for (ArrayDeque<Entry> entries : index.values()) {
+                        entries.removeIf(entry -> RunLog.segmentOf(entry.location) == oldest);
+                    }
+                    log.delete(oldest);
+                }
+                index.values().removeIf(ArrayDeque::isEmpty);
+                for (int segment : log.sealed()) {
+                    if (log.sparse(segment)) {
+                        sparse.add(segment);
+                    }
+                }
+            }
+            for (int segment : sparse) {
+                rewrite(segment);
+            }
+        }
+    }
+
+    private void rewrite(int segment) {
+        List<Entry> live = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<Entry> entries : index.values()) {
+                for (Entry entry : entries) {
+                    if (entry.location != RELEASED && RunLog.segmentOf(entry.location) == segment) {
+                        live.add(entry);
+                    }
+                }
+            }
+        }
+        for (int from = 0; from < live.size(); from += COPY_BATCH) {
+            synchronized (this) {
+                for (Entry entry : live.subList(from, Math.min(live.size(), from + COPY_BATCH))) {
+                    if (entry.location != RELEASED && RunLog.segmentOf(entry.location) == segment) {
+                        entry.location = log.append(log.read(entry.location));
+                    }
+                }
+            }
+        }
+        force();
+        synchronized (this) {
+            log.delete(segment);
+        }
+    }
+
+    private void force() {
+        List<MappedByteBuffer> dirty;
+        synchronized (this) {
+            dirty = log.takeDirty();
+        }
+        for (MappedByteBuffer segment : dirty) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+        if (enabled) {
+            try {
+                log.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private void add(String name, Entry entry) {
+        ArrayDeque<Entry> entries = index.computeIfAbsent(name, key -> new ArrayDeque<>());
+        entries.addLast(entry);
+        while (entries.size() > maxRunsPerScenario) {
+            Entry dropped = entries.pollFirst();
+            log.release(dropped.location);
+            dropped.location = RELEASED;
+        }
+    }
+
+    private Entry find(String name, long id) {
+        ArrayDeque<Entry> entries = enabled ? index.get(name) : null;
+        if (entries == null) {
+            return null;
+        }
+        for (Iterator<Entry> it = entries.descendingIterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.id == id) {
+                return entry;
+            }
+            if (entry.id < id) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the index from the log. Compaction copies a record before it deletes the old segment, so a crash in
+     * between leaves two copies of a run; the later one wins and the other counts as dead.
+     */
+    private void replay() {
+        Map<String, List<Entry>> loaded = new HashMap<>();
+        log.forEach((location, payload) -> {
+            long id = payload.getLong(0);
+            long timestampMs = payload.getLong(Long.BYTES);
+            payload.position(FIXED_BYTES);
+            loaded.computeIfAbsent(readString(payload), key -> new ArrayList<>()).add(new Entry(id, timestampMs, location));
+            nextId = Math.max(nextId, id + 1);
+        });
+        Comparator<Entry> order = Comparator.<Entry>comparingLong(entry -> entry.id).thenComparingLong(entry -> entry.location);
+        for (Map.Entry<String, List<Entry>> runs : loaded.entrySet()) {
+            List<Entry> entries = runs.getValue();
+            entries.sort(order);
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if (i + 1 < entries.size() && entries.get(i + 1).id == entry.id) {
+                    log.release(entry.location);
+                    continue;
+                }
+                add(runs.getKey(), entry);
+            }
+        }
+    }
+
+    private static ByteBuffer encode(String name, Run run, ScenarioFingerprint.Key hash, byte[] json) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] mode = run.mode().getBytes(StandardCharsets.UTF_8);
+        byte[] status = run.status() != null ? run.status().getBytes(StandardCharsets.UTF_8) : null;
+        int size = FIXED_BYTES + 3 * Integer.BYTES + nameBytes.length + mode.length + (status != null ? status.length : 0)
+            + Integer.BYTES + json.length;
+        ByteBuffer payload = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        payload.putLong(run.id());
+        payload.putLong(run.at().toEpochMilli());
+        payload.putLong(hash.high());
+        payload.putLong(hash.low());
+        payload.putInt(run.latencyMsP50());
+        payload.putInt(run.latencyMsP95());
+        payload.putInt(run.latencyMsP99() != null ? run.latencyMsP99() : NONE);
+        payload.putInt(run.throughputRps());
+        payload.putInt(run.score() != null ? run.score() : NONE);
+        payload.putInt(0);
+        payload.putDouble(run.costPerHour());
+        putString(payload, nameBytes);
+        putString(payload, mode);
+        putString(payload, status);
+        payload.putInt(json.length);
+        payload.put(json);
+        return payload.flip();
+    }
+
+    private static Run decode(ByteBuffer payload) {
+        long id = payload.getLong(0);
+        long timestampMs = payload.getLong(8);
+        String hash = hex(new ScenarioFingerprint.Key(payload.getLong(16), payload.getLong(24)));
+        int p50 = payload.getInt(32);
+        int p95 = payload.getInt(36);
+        int p99 = payload.getInt(40);
+        int throughput = payload.getInt(44);
+        int score = payload.getInt(48);
+        double cost = payload.getDouble(56);
+        payload.position(FIXED_BYTES);
+        readString(payload);
+        String mode = readString(payload);
+        String status = readString(payload);
+        return new Run(
+            id,
+            Instant.ofEpochMilli(timestampMs),
+            hash,
+            mode,
+            status,
+            p50,
+            p95,
+            p99 != NONE ? p99 : null,
+            throughput,
+            cost,
+            score != NONE ? score : null
+        );
+    }
+
+    private static void putString(ByteBuffer payload, byte[] bytes) {
+        if (bytes == null) {
+            payload.putInt(-1);
+            return;
+        }
+        payload.putInt(bytes.length);
+        payload.put(bytes);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String hex(ScenarioFingerprint.Key hash) {
+        return String.format("%016x%016x", hash.high(), hash.low());
+    }
+
+    /** Where a run lives in the log; compaction moves it. */
+    private static final class Entry {
+
+        private final long id;
+        private final long timestampMs;
+        private long location;
+
+        private Entry(long id, long timestampMs, long location) {
+            this.id = id;
+            this.timestampMs = timestampMs;
+            this.location = location;
+        }
+    }
+
+    /** A recorded run: when it ran, the fingerprint of the scenario and options, and its headline metrics. */
+    public record Run(
+        long id,
+        Instant at,
+        String scenarioHash,
+        String mode,
+        String status,
+        int latencyMsP50,
+        int latencyMsP95,
+        Integer latencyMsP99,
+        int throughputRps,
+        double costPerHour,
+        Integer score
+    ) {}
+}
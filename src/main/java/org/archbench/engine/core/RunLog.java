@@ -0,0 +1,256 @@
+package org.archbench.engine.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmented append-only log behind {@link RunHistory}. A segment is a file of {@code segmentBytes} mapped read-write;
+ * a record is a little-endian int length, a CRC-32C of the payload, and the payload. Appends copy into the map
+ * without a system call, and {@link #takeDirty()} hands the segments written since the last call to the flusher,
+ * which forces them to disk together. A zero length ends a segment, so a tail torn by a crash is cut off at the first
+ * record whose length or checksum does not hold.
+ *
+ * <p>A record is addressed by a location that packs its segment id into the high and its offset into the low 32
+ * bits. Not thread-safe; {@link RunHistory} serializes access.
+ *
+ * <p>A log belongs to one process: opening it takes an exclusive lock on {@code history.lock} in its directory, and
+ * a second engine pointed at the same directory fails to start instead of interleaving appends with the first.
+ */
+final class RunLog {
+
+    static final int HEADER_BYTES = 8;
+
+    private static final String PREFIX = "runs-";
+    private static final String SUFFIX = ".log";
+    private static final String LOCK_FILE = "history.lock";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final CRC32C crc = new CRC32C();
+    private final FileChannel lockChannel;
+    private Segment active;
+
+    RunLog(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Run history in " + directory + " is in use by another engine instance; "
+                + "give each instance its own archbench.history.directory");
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int id;
+                try {
+                    id = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                Segment segment = new Segment(id, file, map(file, Files.size(file)));
+                segment.position = end(segment.buffer);
+                segment.liveBytes = segment.position;
+                segments.put(id, segment);
+            }
+        }
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+    }
+
+    /** Appends a record and returns its location. */
+    long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (active == null || active.position + HEADER_BYTES + length > active.buffer.capacity()) {
+            roll(HEADER_BYTES + length);
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        int offset = active.position;
+        active.buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        active.buffer.put(offset + HEADER_BYTES, payload, payload.position(), length);
+        active.buffer.putInt(offset, length);
+        active.position = offset + HEADER_BYTES + length;
+        active.liveBytes += HEADER_BYTES + length;
+        active.dirty = true;
+        return location(active.id, offset);
+    }
+
+    /** A read-only view of the payload at {@code location}, valid until its segment is deleted. */
+    ByteBuffer read(long location) {
+        Segment segment = segments.get(segmentOf(location));
+        int offset = (int) location;
+        int length = segment.buffer.getInt(offset);
+        return segment.buffer.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Marks a record dead, so its segment's live share drops and compaction can reclaim it. */
+    void release(long location) {
+        Segment segment = segments.get(segmentOf(location));
+        if (segment != null) {
+            segment.liveBytes -= HEADER_BYTES + segment.buffer.getInt((int) location);
+        }
+    }
+
+    void forEach(RecordVisitor visitor) {
+        for (Segment segment : segments.values()) {
+            int offset = 0;
+            while (offset < segment.position) {
+                int length = segment.buffer.getInt(offset);
+                visitor.accept(location(segment.id, offset), read(location(segment.id, offset)));
+                offset += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    /** Segments that are no longer appended to, oldest first. */
+    List<Integer> sealed() {
+        List<Integer> sealed = new ArrayList<>(segments.keySet());
+        if (active != null) {
+            sealed.remove(Integer.valueOf(active.id));
+        }
+        return sealed;
+    }
+
+    boolean sparse(int segmentId) {
+        Segment segment = segments.get(segmentId);
+        return segment != null && segment.liveBytes * 2 < segment.position;
+    }
+
+    Integer oldest() {
+        return segments.isEmpty() ? null : segments.firstKey();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    /** Bytes the segments take on disk, counted at their mapped size. */
+    long diskBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.buffer.capacity();
+        }
+        return total;
+    }
+
+    void delete(int segmentId) {
+        Segment segment = segments.remove(segmentId);
+        if (segment == null) {
+            return;
+        }
+        if (segment == active) {
+            active = null;
+        }
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** The segments written since the last call; the caller forces them outside any lock. */
+    List<MappedByteBuffer> takeDirty() {
+        List<MappedByteBuffer> dirty = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (segment.dirty) {
+                segment.dirty = false;
+                dirty.add(segment.buffer);
+            }
+        }
+        return dirty;
+    }
+
+    /** Releases the directory lock; the log must not be used afterwards. */
+    void close() throws IOException {
+        lockChannel.close();
+    }
+
+    static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static long location(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private void roll(int recordBytes) {
+        int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        Path file = directory.resolve(PREFIX + String.format("%010d", id) + SUFFIX);
+        try {
+            Segment segment = new Segment(id, file, map(file, Math.max(segmentBytes, recordBytes)));
+            segments.put(id, segment);
+            active = segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /** Offset after the last intact record. */
+    private int end(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(offset + HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void accept(long location, ByteBuffer payload);
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long liveBytes;
+        private boolean dirty;
+
+        private Segment(int id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
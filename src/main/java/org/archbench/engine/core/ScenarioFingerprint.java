@@ -0,0 +1,287 @@
+package org.archbench.engine.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/**
+ * Canonical SHA-256 digest of a scenario and the options it is simulated with. Nodes and edges are hashed in
+ * request order because ordinals decide tie-breaks between equally long paths and which edge closes a cycle;
+ * database tables, indexes and columns are order-insensitive to the engine and are hashed sorted.
+ */
+public final class ScenarioFingerprint {
+
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<ScenarioDto.DbTable> TABLE_ORDER =
+        Comparator.nullsFirst(Comparator.comparing(ScenarioDto.DbTable::name, NULLS_FIRST));
+    private static final Comparator<ScenarioDto.DbColumn> COLUMN_ORDER = Comparator.nullsFirst(
+        Comparator.comparing(ScenarioDto.DbColumn::name, NULLS_FIRST).thenComparing(ScenarioDto.DbColumn::type, NULLS_FIRST));
+
+    private static final ThreadLocal<ScenarioFingerprint> ENCODERS = ThreadLocal.withInitial(ScenarioFingerprint::new);
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[1024];
+    private int position;
+
+    private ScenarioFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record Key(long high, long low) {}
+
+    public static Key of(ScenarioDto scenario, SimulationOptions options, long catalogVersion) {
+        ScenarioFingerprint encoder = ENCODERS.get();
+        encoder.reset();
+        encoder.writeLong(catalogVersion);
+        encoder.writeString(options.mode().param());
+        encoder.writeInteger(options.durationSec());
+        encoder.writeLong(options.seed() != null ? options.seed() : Long.MIN_VALUE);
+        encoder.writeInteger(options.trials());
+        encoder.writeQuantiles(options.quantiles());
+        encoder.writeByte(options.histogram() ? 1 : 0);
+        encoder.writeByte(options.breakdown() ? 1 : 0);
+        encoder.writeInteger(options.windowSec());
+        encoder.writeScenario(scenario);
+        return encoder.finish();
+    }
+
+    /** Digest of one table's schema and query mix on an engine, the cache key of {@link DbQueryModel}. */
+    static Key ofTable(String engine, ScenarioDto.DbTable table, long catalogVersion) {
+        ScenarioFingerprint encoder = ENCODERS.get();
+        encoder.reset();
+        encoder.writeLong(catalogVersion);
+        encoder.writeString(engine);
+        encoder.writeTable(table);
+        return encoder.finish();
+    }
+
+    private void writeScenario(ScenarioDto scenario) {
+        if (!writePresence(scenario)) {
+            return;
+        }
+        writeString(scenario.name());
+        if (writePresence(scenario.workload())) {
+            writeInteger(scenario.workload().rps());
+            writeInteger(scenario.workload().p95TargetMs());
+            List<ScenarioDto.RatePoint> curve = scenario.workload().curve();
+            if (writePresence(curve)) {
+                writeInt(curve.size());
+                for (ScenarioDto.RatePoint point : curve) {
+                    if (writePresence(point)) {
+                        writeInteger(point.atSec());
+                        writeInteger(point.rps());
+                    }
+                }
+            }
+            writeString(scenario.workload().trace());
+        }
+        List<ScenarioDto.Node> nodes = scenario.nodes();
+        if (writePresence(nodes)) {
+            writeInt(nodes.size());
+            for (ScenarioDto.Node node : nodes) {
+                writeNode(node);
+            }
+        }
+        List<ScenarioDto.Edge> edges = scenario.edges();
+        if (writePresence(edges)) {
+            writeInt(edges.size());
+            for (ScenarioDto.Edge edge : edges) {
+                if (writePresence(edge)) {
+                    writeString(edge.from());
+                    writeString(edge.to());
+                    writeInteger(edge.timeoutMs());
+                    if (writePresence(edge.retry())) {
+                        writeInteger(edge.retry().maxRetries());
+                        writeInteger(edge.retry().backoffMs());
+                        writeDouble(edge.retry().backoffMultiplier());
+                    }
+                    if (writePresence(edge.circuitBreaker())) {
+                        writeDouble(edge.circuitBreaker().failureThreshold());
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeNode(ScenarioDto.Node node) {
+        if (!writePresence(node)) {
+            return;
+        }
+        writeString(node.id());
+        writeString(node.type());
+        writeInteger(node.latencyMs());
+        writeDouble(node.varianceFactor());
+        writeInteger(node.capacityRps());
+        writeDouble(node.failureRate());
+        writeDouble(node.costPerHour());
+        writeInteger(node.replicas());
+        if (writePresence(node.cache())) {
+            writeDouble(node.cache().hitRatio());
+            writeLong(node.cache().keySpace());
+            writeLong(node.cache().cachedKeys());
+            writeDouble(node.cache().zipfSkew());
+        }
+        ScenarioDto.DbConfig dbConfig = node.dbConfig();
+        if (!writePresence(dbConfig)) {
+            return;
+        }
+        writeString(dbConfig.engine());
+        writeInteger(dbConfig.connectionPool());
+        if (!writePresence(dbConfig.tables())) {
+            return;
+        }
+        List<ScenarioDto.DbTable> tables = sorted(dbConfig.tables(), TABLE_ORDER);
+        writeInt(tables.size());
+        for (ScenarioDto.DbTable table : tables) {
+            writeTable(table);
+        }
+    }
+
+    private void writeTable(ScenarioDto.DbTable table) {
+        if (!writePresence(table)) {
+            return;
+        }
+        writeString(table.name());
+        writeString(table.sizeClass());
+        if (writePresence(table.indexes())) {
+            List<String> indexes = sorted(table.indexes(), NULLS_FIRST);
+            writeInt(indexes.size());
+            for (String index : indexes) {
+                writeString(index);
+            }
+        }
+        if (writePresence(table.columns())) {
+            List<ScenarioDto.DbColumn> columns = sorted(table.columns(), COLUMN_ORDER);
+            writeInt(columns.size());
+            for (ScenarioDto.DbColumn column : columns) {
+                if (writePresence(column)) {
+                    writeString(column.name());
+                    writeString(column.type());
+                }
+            }
+        }
+        List<ScenarioDto.DbQuery> queries = table.queries();
+        if (writePresence(queries)) {
+            writeInt(queries.size());
+            for (ScenarioDto.DbQuery query : queries) {
+                if (writePresence(query)) {
+                    writeString(query.kind());
+                    writeString(query.column());
+                    writeDouble(query.perRequest());
+                    writeDouble(query.selectivity());
+                }
+            }
+        }
+    }
+
+    private void writeQuantiles(List<Double> quantiles) {
+        if (writePresence(quantiles)) {
+            writeInt(quantiles.size());
+            for (Double quantile : quantiles) {
+                writeDouble(quantile);
+            }
+        }
+    }
+
+    private static <T> List<T> sorted(List<T> values, Comparator<? super T> order) {
+        if (values.size() < 2) {
+            return values;
+        }
+        List<T> copy = new ArrayList<>(values);
+        copy.sort(order);
+        return copy;
+    }
+
+    private boolean writePresence(Object value) {
+        writeByte(value == null ? 0 : 1);
+        return value != null;
+    }
+
+    private void writeString(String value) {
+        if (!writePresence(value)) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        if (position + bytes.length > buffer.length) {
+            flush();
+            digest.update(bytes);
+            return;
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeInteger(Integer value) {
+        if (writePresence(value)) {
+            writeInt(value);
+        }
+    }
+
+    private void writeLong(Long value) {
+        if (writePresence(value)) {
+            writeLong(value.longValue());
+        }
+    }
+
+    private void writeDouble(Double value) {
+        if (writePresence(value)) {
+            writeLong(Double.doubleToLongBits(value));
+        }
+    }
+
+    private void writeInt(int value) {
+        ensure(4);
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        digest.update(buffer, 0, position);
+        position = 0;
+    }
+
+    private void reset() {
+        digest.reset();
+        position = 0;
+    }
+
+    private Key finish() {
+        flush();
+        byte[] hash = digest.digest();
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (hash[i] & 0xFF);
+            low = (low << 8) | (hash[i + 8] & 0xFF);
+        }
+        return new Key(high, low);
+    }
+}
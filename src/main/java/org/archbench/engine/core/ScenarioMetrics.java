@@ -0,0 +1,9 @@
+package org.archbench.engine.core;
+
+public record ScenarioMetrics(
+    int latencyP50,
+    int latencyP95,
+    int throughputRps,
+    double failureRate,
+    double costPerHour
+) {}
@@ -0,0 +1,402 @@
+package org.archbench.engine.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.archbench.engine.api.dto.OptimizationResultDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.springframework.stereotype.Component;
+
+/**
+ * What-if search for the cheapest configuration of a scenario that meets its workload. Every reachable node is
+ * scaled out to enough replicas for its share of {@code workload.rps}, which is all of it unless a cache with a hit
+ * ratio sits in front. Replica counts are absolute: a node that already declares replicas is sized from the capacity
+ * and cost of one instance, and may come back with fewer. The search itself is over which nodes get a cache in
+ * front of them, modelled with the catalog's {@code cache} profile and a fixed hit ratio. Because per-node
+ * replica counts depend only on the node's own load, each node has exactly two precomputed variants (plain and
+ * cached) and a candidate is just the set of cached nodes.
+ *
+ * <p>The search is a beam over cache sets: infeasible candidates are expanded by caching a node on their critical
+ * path (latency) or their bottleneck (throughput), dominated and over-budget candidates are pruned in one sorted
+ * sweep, and each level is evaluated in parallel on the simulation pool. Evaluation never rebuilds scenario records:
+ * each worker owns a copy of the compiled scenario, overwrites the cached nodes in place, runs the closed-form
+ * metrics and restores them.
+ */
+@Component
+public class ScenarioOptimizer {
+
+    static final String CACHE_TYPE = "cache";
+    private static final int BEAM_WIDTH = 32;
+    private static final int FRONTIER_LIMIT = 16;
+    private static final int MIN_CHUNK = 8;
+    private static final Comparator<Evaluation> SWEEP_ORDER = Comparator
+        .comparingDouble((Evaluation evaluation) -> evaluation.metrics.costPerHour())
+        .thenComparingInt(evaluation -> evaluation.metrics.latencyP95())
+        .thenComparing(Comparator.comparingInt((Evaluation evaluation) -> evaluation.metrics.throughputRps()).reversed());
+
+    private final SimulationService simulationService;
+    private final ScenarioValidator scenarioValidator;
+    private final ForkJoinPool pool;
+
+    public ScenarioOptimizer(SimulationService simulationService, ScenarioValidator scenarioValidator, ForkJoinPool simulationPool) {
+        this.simulationService = simulationService;
+        this.scenarioValidator = scenarioValidator;
+        this.pool = simulationPool;
+    }
+
+    public OptimizationResultDto optimize(ScenarioDto scenario, OptimizerOptions options) {
+        scenarioValidator.validate(scenario);
+        ScenarioDto.Workload workload = scenario.workload();
+        Integer rps = workload != null ? workload.rps() : null;
+        Integer p95Target = workload != null ? workload.p95TargetMs() : null;
+        if (rps == null && p95Target == null) {
+            ScenarioValidator.bad("Optimization needs workload.rps or workload.p95TargetMs");
+        }
+        NodeTypeCatalog.Snapshot catalog = simulationService.catalog();
+        CompiledScenario base = simulationService.compileScenario(catalog, scenario.nodes());
+        CompiledTopology topology = simulationService.compileTopology(catalog, scenario.nodes(), scenario.edges());
+        ScenarioMetrics baseline = simulationService.calculateMetrics(base, topology);
+
+        Search search = new Search(base, topology, new Variants(scenario.nodes(), base, topology, rps, options), rps, p95Target);
+        Evaluation best = search.run(options.maxCandidates());
+        return new OptimizationResultDto(
+            search.feasible(best),
+            metrics(baseline),
+            metrics(best.metrics),
+            changes(scenario.nodes(), search, best),
+            frontier(scenario.nodes(), search),
+            search.evaluated.size()
+        );
+    }
+
+    /** Plain and cached variant of every node, with the replica counts needed to carry the target load. */
+    private static final class Variants {
+
+        final int[] declared;
+        final int[] instanceCapacity;
+        final double[] instanceCost;
+        final int[] replicas;
+        final boolean[] cacheable;
+        final int[] cachedLatency;
+        final int[] cachedCapacity;
+        final double[] cachedCost;
+        final int[] cachedReplicas;
+        final int[] cacheReplicas;
+        final int[] savers;
+
+        Variants(List<ScenarioDto.Node> nodes, CompiledScenario base, CompiledTopology topology, Integer rps, OptimizerOptions options) {
+            int n = base.nodeCount();
+            NodeTypeCatalog.Snapshot catalog = base.catalog();
+            int cacheType = catalog.typeId(CACHE_TYPE);
+            NodeDefaults cache = cacheType >= 0 ? catalog.defaults(cacheType) : null;
+            double miss = 1.0 - options.cacheHitRatio();
+            long offered = rps != null ? rps : 0;
+            double[] reach = SimulationService.reach(base, topology);
+            declared = new int[n];
+            instanceCapacity = new int[n];
+            instanceCost = new double[n];
+            replicas = new int[n];
+            cacheable = new boolean[n];
+            cachedLatency = new int[n];
+            cachedCapacity = new int[n];
+            cachedCost = new double[n];
+            cachedReplicas = new int[n];
+            cacheReplicas = new int[n];
+            List<Integer> saving = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                declared[i] = SimulationService.replicas(nodes.get(i));
+                int total = base.capacityRps(i);
+                int capacity = total == Integer.MAX_VALUE ? total : Math.max(1, total / declared[i]);
+                instanceCapacity[i] = capacity;
+                instanceCost[i] = base.costPerHour(i) / declared[i];
+                boolean reachable = topology.isReachable(i);
+                long load = reach == null ? offered : (long) Math.ceil(offered * reach[i]);
+                replicas[i] = reachable ? replicasFor(load, capacity, options.maxReplicas()) : declared[i];
+                int typeId = base.typeId(i);
+                if (cache == null || !reachable || catalog.isEntry(typeId) || typeId == cacheType) {
+                    continue;
+                }
+                cacheable[i] = true;
+                cachedReplicas[i] = replicasFor((long) Math.ceil(load * miss), capacity, options.maxReplicas());
+                cacheReplicas[i] = replicasFor(load, Math.max(1, cache.capacityRps()), options.maxReplicas());
+                cachedLatency[i] = (int) Math.min(Integer.MAX_VALUE, Math.round(cache.latencyMs() + miss * base.latencyMs(i)));
+                long front = (long) cache.capacityRps() * cacheReplicas[i];
+                double origin = miss > 0 ? (double) capacity * cachedReplicas[i] / miss : Double.MAX_VALUE;
+                cachedCapacity[i] = (int) Math.min(Integer.MAX_VALUE, Math.min(front, (long) Math.min(origin, Long.MAX_VALUE)));
+                cachedCost[i] = instanceCost[i] * cachedReplicas[i] + cache.costPerHour() * cacheReplicas[i];
+                if (cachedLatency[i] <= base.latencyMs(i) && cachedCost[i] < instanceCost[i] * replicas[i]) {
+                    saving.add(i);
+                }
+            }
+            savers = saving.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int replicasFor(long load, int capacity, int maxReplicas) {
+            long needed = (load + capacity - 1) / capacity;
+            return (int) Math.max(1, Math.min(maxReplicas, needed));
+        }
+
+        int capacity(int node) {
+            int capacity = instanceCapacity[node];
+            return capacity == Integer.MAX_VALUE ? capacity : (int) Math.min(Integer.MAX_VALUE, (long) capacity * replicas[node]);
+        }
+    }
+
+    private record Evaluation(int[] cached, ScenarioMetrics metrics, int[] expandable) {}
+
+    private record CacheSet(int[] nodes) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CacheSet set && Arrays.equals(nodes, set.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+
+    private final class Search {
+
+        final CompiledTopology topology;
+        final Variants variants;
+        final Integer rps;
+        final Integer p95Target;
+        final CompiledScenario scaled;
+        final List<Evaluation> evaluated = new ArrayList<>();
+        final Set<CacheSet> seen = new HashSet<>();
+
+        Search(CompiledScenario base, CompiledTopology topology, Variants variants, Integer rps, Integer p95Target) {
+            this.topology = topology;
+            this.variants = variants;
+            this.rps = rps;
+            this.p95Target = p95Target;
+            this.scaled = base.copy();
+            for (int i = 0; i < base.nodeCount(); i++) {
+                scaled.set(i, base.typeId(i), base.latencyMs(i), base.varianceFactor(i), variants.capacity(i),
+                    base.failureRate(i), variants.instanceCost[i] * variants.replicas[i]);
+            }
+        }
+
+        Evaluation run(int budget) {
+            List<int[]> level = new ArrayList<>();
+            offer(level, new int[0], budget);
+            offer(level, variants.savers, budget);
+            Evaluation best = null;
+            while (!level.isEmpty()) {
+                List<Evaluation> results = evaluate(level);
+                evaluated.addAll(results);
+                for (Evaluation result : results) {
+                    if (best == null || better(result, best)) {
+                        best = result;
+                    }
+                }
+                double budgetCost = feasible(best) ? best.metrics.costPerHour() : Double.POSITIVE_INFINITY;
+                List<Evaluation> beam = undominated(results).stream()
+                    .filter(result -> !feasible(result) && result.metrics.costPerHour() < budgetCost)
+                    .limit(BEAM_WIDTH)
+                    .toList();
+                level = new ArrayList<>();
+                for (Evaluation parent : beam) {
+                    for (int node : parent.expandable) {
+                        offer(level, with(parent.cached, node), budget);
+                    }
+                }
+            }
+            return best;
+        }
+
+        private void offer(List<int[]> level, int[] cached, int budget) {
+            if (evaluated.size() + level.size() < budget && seen.add(new CacheSet(cached))) {
+                level.add(cached);
+            }
+        }
+
+        private List<Evaluation> evaluate(List<int[]> level) {
+            int chunks = Math.max(1, Math.min(pool.getParallelism(), level.size() / MIN_CHUNK));
+            if (chunks == 1) {
+                return evaluateChunk(level);
+            }
+            List<ForkJoinTask<List<Evaluation>>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                List<int[]> chunk = level.subList(c * level.size() / chunks, (c + 1) * level.size() / chunks);
+                tasks.add(pool.submit(() -> evaluateChunk(chunk)));
+            }
+            List<Evaluation> results = new ArrayList<>(level.size());
+            for (ForkJoinTask<List<Evaluation>> task : tasks) {
+                results.addAll(task.join());
+            }
+            return results;
+        }
+
+        private List<Evaluation> evaluateChunk(List<int[]> chunk) {
+            CompiledScenario working = scaled.copy();
+            List<Evaluation> results = new ArrayList<>(chunk.size());
+            for (int[] cached : chunk) {
+                for (int node : cached) {
+                    working.set(node, working.typeId(node), variants.cachedLatency[node], working.varianceFactor(node),
+                        variants.cachedCapacity[node], working.failureRate(node), variants.cachedCost[node]);
+                }
+                ScenarioMetrics metrics = simulationService.calculateMetrics(working, topology);
+                results.add(new Evaluation(cached, metrics, expandable(working, metrics)));
+                for (int node : cached) {
+                    working.set(node, scaled.typeId(node), scaled.latencyMs(node), scaled.varianceFactor(node),
+                        scaled.capacityRps(node), scaled.failureRate(node), scaled.costPerHour(node));
+                }
+            }
+            return results;
+        }
+
+        private int[] expandable(CompiledScenario working, ScenarioMetrics metrics) {
+            if (feasible(metrics)) {
+                return new int[0];
+            }
+            int[] candidates = p95Met(metrics) ? new int[0] : simulationService.criticalPath(working, topology);
+            if (!throughputMet(metrics)) {
+                for (int i = 0; i < working.nodeCount(); i++) {
+                    if (topology.isReachable(i) && working.capacityRps(i) == metrics.throughputRps()) {
+                        candidates = Arrays.copyOf(candidates, candidates.length + 1);
+                        candidates[candidates.length - 1] = i;
+                    }
+                }
+            }
+            return Arrays.stream(candidates).filter(node -> variants.cacheable[node]).distinct().toArray();
+        }
+
+        private boolean throughputMet(ScenarioMetrics metrics) {
+            return rps == null || metrics.throughputRps() >= rps;
+        }
+
+        private boolean p95Met(ScenarioMetrics metrics) {
+            return p95Target == null || metrics.latencyP95() <= p95Target;
+        }
+
+        private boolean feasible(ScenarioMetrics metrics) {
+            return throughputMet(metrics) && p95Met(metrics);
+        }
+
+        boolean feasible(Evaluation evaluation) {
+            return feasible(evaluation.metrics);
+        }
+
+        /** Feasible beats infeasible, then cheaper wins; among infeasible ones the closest to the targets wins. */
+        private boolean better(Evaluation candidate, Evaluation current) {
+            boolean candidateFeasible = feasible(candidate);
+            if (candidateFeasible != feasible(current)) {
+                return candidateFeasible;
+            }
+            ScenarioMetrics a = candidate.metrics;
+            ScenarioMetrics b = current.metrics;
+            if (!candidateFeasible) {
+                if (throughputMet(a) != throughputMet(b)) {
+                    return throughputMet(a);
+                }
+                if (a.latencyP95() != b.latencyP95()) {
+                    return a.latencyP95() < b.latencyP95();
+                }
+            }
+            return a.costPerHour() < b.costPerHour();
+        }
+
+        /**
+         * The results no other result dominates on cost, p95 and throughput, cheapest then fastest first. One sweep in
+         * that order: everything seen earlier is no more expensive, so a result is dominated exactly when an earlier,
+         * different one has no worse p95 and at least its throughput. The earlier ones are kept as a staircase from
+         * p95 to the best throughput at or below it. Identical results do not dominate each other, so each run of them
+         * is checked before any of it joins the staircase.
+         */
+        private List<Evaluation> undominated(List<Evaluation> results) {
+            List<Evaluation> sorted = new ArrayList<>(results);
+            sorted.sort(SWEEP_ORDER);
+            TreeMap<Integer, Integer> staircase = new TreeMap<>();
+            List<Evaluation> front = new ArrayList<>();
+            int from = 0;
+            while (from < sorted.size()) {
+                int to = from + 1;
+                while (to < sorted.size() && SWEEP_ORDER.compare(sorted.get(from), sorted.get(to)) == 0) {
+                    to++;
+                }
+                ScenarioMetrics metrics = sorted.get(from).metrics;
+                Map.Entry<Integer, Integer> floor = staircase.floorEntry(metrics.latencyP95());
+                if (floor == null || floor.getValue() < metrics.throughputRps()) {
+                    front.addAll(sorted.subList(from, to));
+                    staircase.put(metrics.latencyP95(), metrics.throughputRps());
+                    Map.Entry<Integer, Integer> above;
+                    while ((above = staircase.higherEntry(metrics.latencyP95())) != null
+                        && above.getValue() <= metrics.throughputRps()) {
+                        staircase.remove(above.getKey());
+                    }
+                }
+                from = to;
+            }
+            return front;
+        }
+    }
+
+    private static int[] with(int[] cached, int node) {
+        int[] next = Arrays.copyOf(cached, cached.length + 1);
+        next[cached.length] = node;
+        Arrays.sort(next);
+        return next;
+    }
+
+    private static OptimizationResultDto.Metrics metrics(ScenarioMetrics metrics) {
+        return new OptimizationResultDto.Metrics(
+            metrics.latencyP50(),
+            metrics.latencyP95(),
+            metrics.throughputRps(),
+            metrics.costPerHour()
+        );
+    }
+
+    private static List<OptimizationResultDto.NodeChange> changes(List<ScenarioDto.Node> nodes, Search search, Evaluation best) {
+        Variants variants = search.variants;
+        List<OptimizationResultDto.NodeChange> changes = new ArrayList<>();
+        int next = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            boolean cached = next < best.cached.length && best.cached[next] == i;
+            if (cached) {
+                next++;
+                changes.add(new OptimizationResultDto.NodeChange(nodes.get(i).id(), variants.cachedReplicas[i],
+                    variants.cachedCapacity[i], variants.cacheReplicas[i], variants.cachedLatency[i]));
+            } else if (variants.replicas[i] != variants.declared[i]) {
+                changes.add(new OptimizationResultDto.NodeChange(nodes.get(i).id(), variants.replicas[i],
+                    search.scaled.capacityRps(i), null, null));
+            }
+        }
+        return changes;
+    }
+
+    /** Cost/latency Pareto front of the candidates that carry the target load, cheapest first. */
+    private static List<OptimizationResultDto.Alternative> frontier(List<ScenarioDto.Node> nodes, Search search) {
+        List<Evaluation> carrying = search.evaluated.stream()
+            .filter(evaluation -> search.throughputMet(evaluation.metrics))
+            .sorted(Comparator.comparingDouble((Evaluation evaluation) -> evaluation.metrics.costPerHour())
+                .thenComparingInt(evaluation -> evaluation.metrics.latencyP95()))
+            .toList();
+        List<OptimizationResultDto.Alternative> frontier = new ArrayList<>();
+        int bestP95 = Integer.MAX_VALUE;
+        for (Evaluation evaluation : carrying) {
+            if (evaluation.metrics.latencyP95() >= bestP95) {
+                continue;
+            }
+            bestP95 = evaluation.metrics.latencyP95();
+            frontier.add(new OptimizationResultDto.Alternative(
+                metrics(evaluation.metrics),
+                Arrays.stream(evaluation.cached).mapToObj(node -> nodes.get(node).id()).toList()
+            ));
+            if (frontier.size() == FRONTIER_LIMIT) {
+                break;
+            }
+        }
+        return frontier;
+    }
+}
@@ -0,0 +1,66 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A 400 raised by {@link ScenarioValidator}, tagged with a stable code so rejections can be counted by cause. When the
+ * validator collects several problems in one pass, the reason and code are those of the first and
+ * {@link #violations()} lists all of them.
+ */
+public class ScenarioValidationException extends ResponseStatusException {
+
+    public enum Code {
+        MISSING_BODY,
+        MISSING_NAME,
+        MISSING_NODES,
+        MISSING_EDGES,
+        DUPLICATE_NODE,
+        INVALID_NODE,
+        INVALID_EDGE,
+        SELF_LOOP,
+        UNKNOWN_NODE,
+        UNKNOWN_DB_ENGINE,
+        DUPLICATE_TABLE,
+        DUPLICATE_COLUMN,
+        INVALID_QUERY,
+        INVALID_WORKLOAD,
+        UNKNOWN_TRACE,
+        INVALID_REQUEST;
+
+        private final String param = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+        public String param() {
+            return param;
+        }
+    }
+
+    public record Violation(Code code, String detail) {
+    }
+
+    private final Code code;
+    private final List<Violation> violations;
+
+    public ScenarioValidationException(Code code, String detail) {
+        super(HttpStatus.BAD_REQUEST, detail);
+        this.code = code;
+        this.violations = List.of(new Violation(code, detail));
+    }
+
+    public ScenarioValidationException(List<Violation> violations) {
+        super(HttpStatus.BAD_REQUEST, violations.get(0).detail());
+        this.code = violations.get(0).code();
+        this.violations = List.copyOf(violations);
+    }
+
+    public Code code() {
+        return code;
+    }
+
+    public List<Violation> violations() {
+        return violations;
+    }
+}
@@ -1,91 +1,383 @@
 package org.archbench.engine.core;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import org.archbench.engine.api.dto.ScenarioDto;
-import org.springframework.http.HttpStatus;
+import org.archbench.engine.core.ScenarioValidationException.Code;
+import org.archbench.engine.core.ScenarioValidationException.Violation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Structural checks on a scenario. Node ids go into one pooled {@link NodeIdTable} that maps them to their ordinals,
+ * so the table that answers the edge checks is the one {@link CompiledTopology} resolves edges against: validation
+ * and compilation share a single hashing pass. Problems are collected until {@code maxErrors} have been seen and
+ * then reported together; with a limit of 1 the first problem is thrown as soon as it is found.
+ */
 @Component
 public class ScenarioValidator {
 
-    private static final Set<String> SUPPORTED_DB_ENGINES = Set.of("postgres", "mysql", "dynamodb", "mongo");
-    
+    public static final int DEFAULT_MAX_ERRORS = 20;
+    public static final int MAX_CURVE_POINTS = 100_000;
+    public static final int MAX_RETRIES = 10;
+    public static final int MAX_ZIPF_SKEW = 5;
+    public static final int MAX_QUERIES_PER_REQUEST = 1000;
+
+    private final NodeTypeCatalog catalog;
+    private final int maxErrors;
+
+    public ScenarioValidator() {
+        this(NodeTypeCatalog.builtIn());
+    }
+
+    public ScenarioValidator(NodeTypeCatalog catalog) {
+        this(catalog, DEFAULT_MAX_ERRORS);
+    }
+
+    @Autowired
+    public ScenarioValidator(
+        NodeTypeCatalog catalog,
+        @Value("${archbench.validation.max-errors:" + DEFAULT_MAX_ERRORS + "}") int maxErrors
+    ) {
+        this.catalog = catalog;
+        this.maxErrors = Math.max(1, maxErrors);
+    }
+
     public void validate(ScenarioDto scenario){
-        if (scenario == null) bad("Request body is null");
-        if (scenario.name() == null || scenario.name().isBlank()) bad("Missing name");
-        if (scenario.nodes() == null || scenario.nodes().isEmpty()) bad("Missing nodes");
-        if (scenario.edges() == null) bad("Missing edges");
+        validateAndIndex(scenario).close();
+    }
 
-        Set<String> nodeIds = new HashSet<>();
-        for (var n : scenario.nodes()) {
-            if (n == null) bad("Node entry is null");
-            if (n.id() == null || n.id().isBlank()) bad("Node id is missing/blank");
-            if (!nodeIds.add(n.id())) bad("Duplicate node id: " + n.id());
-            if (n.type() == null || n.type().isBlank()) bad("Node '" + n.id() + "' has missing 'type'");
-            if ("database".equals(n.type()) && n.dbConfig() != null) {
-                validateDbConfig(n);
+    /**
+     * Validates the scenario and returns its node id to ordinal table. The caller owns the table and must close it,
+     * typically once the topology has been compiled from it.
+     */
+    public NodeIdTable validateAndIndex(ScenarioDto scenario) {
+        if (scenario == null) bad(Code.MISSING_BODY, "Request body is null");
+        if (scenario.name() == null || scenario.name().isBlank()) bad(Code.MISSING_NAME, "Missing name");
+        if (scenario.nodes() == null || scenario.nodes().isEmpty()) bad(Code.MISSING_NODES, "Missing nodes");
+        if (scenario.edges() == null) bad(Code.MISSING_EDGES, "Missing edges");
+
+        List<ScenarioDto.Node> nodes = scenario.nodes();
+        NodeIdTable ids = NodeIdTable.acquire(nodes.size());
+        try (Pass pass = new Pass(maxErrors)) {
+            pass.workload(scenario.workload());
+            for (int i = 0; i < nodes.size(); i++) {
+                ScenarioDto.Node n = nodes.get(i);
+                if (n != null && n.id() != null && !n.id().isBlank() && ids.putIfAbsent(n.id(), i) != NodeIdTable.ABSENT) {
+                    pass.report(Code.DUPLICATE_NODE, "Duplicate node id: " + n.id());
+                }
+                pass.node(n);
+            }
+            for (ScenarioDto.Edge e : scenario.edges()) {
+                pass.edge(e, ids);
             }
+            pass.finish();
+            return ids;
+        } catch (RuntimeException ex) {
+            ids.close();
+            throw ex;
         }
+    }
+
+    public void validateNode(ScenarioDto.Node n) {
+        try (Pass pass = new Pass(1)) {
+            pass.node(n);
+        }
+    }
 
-        for (var e : scenario.edges()) {
-            if (e == null) bad("Edge entry is null");
-            if (e.from() == null || e.from().isBlank()) bad("Edge missing 'from'");
-            if (e.to() == null || e.to().isBlank()) bad("Edge missing 'to'");
-            if (e.from().equals(e.to())) bad("Self-loop edge not allowed: " + e.from());
-            if (!nodeIds.contains(e.from())) bad("Edge 'from' not found: " + e.from());
-            if (!nodeIds.contains(e.to())) bad("Edge 'to' not found: " + e.to());
+    public void validateWorkload(ScenarioDto.Workload workload) {
+        try (Pass pass = new Pass(1)) {
+            pass.workload(workload);
         }
+    }
 
+    public void validateEdge(ScenarioDto.Edge e) {
+        try (Pass pass = new Pass(1)) {
+            pass.edge(e, null);
+        }
     }
 
     public static void bad(String detail){
-        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, detail);
+        bad(Code.INVALID_REQUEST, detail);
     }
 
-    private void validateDbConfig(ScenarioDto.Node node) {
-        ScenarioDto.DbConfig dbConfig = node.dbConfig();
-        if (dbConfig.engine() != null && !SUPPORTED_DB_ENGINES.contains(dbConfig.engine())) {
-            bad("Node '" + node.id() + "' has unsupported database engine '" + dbConfig.engine() + "'");
+    public static void bad(Code code, String detail){
+        throw new ScenarioValidationException(code, detail);
+    }
+
+    /** One validation run: the problems found so far and the name tables reused across database nodes. */
+    private final class Pass implements AutoCloseable {
+
+        private final int limit;
+        private List<Violation> violations;
+        private NodeIdTable tableNames;
+        private NodeIdTable columnNames;
+
+        Pass(int limit) {
+            this.limit = limit;
+        }
+
+        void report(Code code, String detail) {
+            if (limit == 1) {
+                bad(code, detail);
+            }
+            if (violations == null) {
+                violations = new ArrayList<>();
+            }
+            violations.add(new Violation(code, detail));
+            if (violations.size() >= limit) {
+                throw new ScenarioValidationException(violations);
+            }
         }
 
-        List<ScenarioDto.DbTable> tables = dbConfig.tables();
-        if (tables == null || tables.isEmpty()) {
-            return;
+        void finish() {
+            if (violations != null) {
+                throw new ScenarioValidationException(violations);
+            }
         }
 
-        Set<String> tableNames = new HashSet<>();
-        for (ScenarioDto.DbTable table : tables) {
-            if (table == null) {
-                continue;
+        void workload(ScenarioDto.Workload workload) {
+            if (workload == null) {
+                return;
+            }
+            if (workload.rps() != null && workload.rps() < 0) {
+                report(Code.INVALID_WORKLOAD, "Workload rps is negative");
+            }
+            if (workload.p95TargetMs() != null && workload.p95TargetMs() < 0) {
+                report(Code.INVALID_WORKLOAD, "Workload p95TargetMs is negative");
             }
-            String tableName = table.name();
-            if (tableName != null && !tableName.isBlank()) {
-                String normalized = tableName.trim();
-                if (!tableNames.add(normalized)) {
-                    bad("Node '" + node.id() + "' has duplicate table name '" + normalized + "'");
+            List<ScenarioDto.RatePoint> curve = workload.curve();
+            if (curve != null && workload.trace() != null) {
+                report(Code.INVALID_WORKLOAD, "Workload may have a curve or a trace, not both");
+            }
+            if (workload.trace() != null && workload.trace().isBlank()) {
+                report(Code.INVALID_WORKLOAD, "Workload trace id is blank");
+            }
+            if (curve == null) {
+                return;
+            }
+            if (curve.isEmpty() || curve.size() > MAX_CURVE_POINTS) {
+                report(Code.INVALID_WORKLOAD, "Workload curve needs between 1 and " + MAX_CURVE_POINTS + " points");
+                return;
+            }
+            int previous = -1;
+            for (int i = 0; i < curve.size(); i++) {
+                ScenarioDto.RatePoint point = curve.get(i);
+                if (point == null || point.atSec() == null || point.rps() == null) {
+                    report(Code.INVALID_WORKLOAD, "Workload curve point " + i + " needs 'atSec' and 'rps'");
+                    continue;
+                }
+                if (point.atSec() < 0) {
+                    report(Code.INVALID_WORKLOAD, "Workload curve point " + i + " has a negative atSec");
+                } else if (point.atSec() <= previous) {
+                    report(Code.INVALID_WORKLOAD, "Workload curve point " + i + " must come after the previous point");
                 }
+                if (point.rps() < 0) {
+                    report(Code.INVALID_WORKLOAD, "Workload curve point " + i + " has a negative rps");
+                }
+                previous = Math.max(previous, point.atSec());
+            }
+        }
+
+        void node(ScenarioDto.Node n) {
+            if (n == null) {
+                report(Code.INVALID_NODE, "Node entry is null");
+                return;
+            }
+            if (n.id() == null || n.id().isBlank()) report(Code.INVALID_NODE, "Node id is missing/blank");
+            if (n.type() == null || n.type().isBlank()) {
+                report(Code.INVALID_NODE, "Node '" + n.id() + "' has missing 'type'");
+                return;
+            }
+            if (n.replicas() != null && n.replicas() < 1) {
+                report(Code.INVALID_NODE, "Node '" + n.id() + "' must have at least 1 replica");
             }
+            if (n.cache() != null) {
+                cache(n);
+            }
+            if (n.dbConfig() != null && isDatabase(n.type())) {
+                dbConfig(n);
+            }
+        }
 
-            List<ScenarioDto.DbColumn> columns = table.columns();
-            if (columns == null || columns.isEmpty()) {
-                continue;
+        /** The check the compiler uses to apply a database config, so catalog-defined database types are covered. */
+        private boolean isDatabase(String type) {
+            NodeTypeCatalog.Snapshot types = catalog.current();
+            int typeId = types.typeId(type);
+            return typeId >= 0 && types.isDatabase(typeId);
+        }
+
+        private void cache(ScenarioDto.Node n) {
+            String node = "Node '" + n.id() + "'";
+            NodeTypeCatalog.Snapshot types = catalog.current();
+            int typeId = types.typeId(n.type());
+            if (typeId >= 0 && !types.isCache(typeId)) {
+                report(Code.INVALID_NODE, node + " of type '" + n.type() + "' does not take a cache config");
             }
-            Set<String> columnNames = new HashSet<>();
-            for (ScenarioDto.DbColumn column : columns) {
-                if (column == null || column.name() == null || column.name().isBlank()) {
+            ScenarioDto.CacheConfig cache = n.cache();
+            if (cache.hitRatio() != null) {
+                if (!(cache.hitRatio() >= 0.0 && cache.hitRatio() <= 1.0)) {
+                    report(Code.INVALID_NODE, node + " needs cache.hitRatio between 0 and 1");
+                }
+                if (cache.keySpace() != null || cache.cachedKeys() != null || cache.zipfSkew() != null) {
+                    report(Code.INVALID_NODE, node + " gives both cache.hitRatio and a Zipf key space");
+                }
+                return;
+            }
+            if (cache.keySpace() == null || cache.keySpace() < 1) {
+                report(Code.INVALID_NODE, node + " needs cache.hitRatio, or a cache.keySpace of at least 1");
+            }
+            if (cache.cachedKeys() == null || cache.cachedKeys() < 0) {
+                report(Code.INVALID_NODE, node + " needs a non-negative cache.cachedKeys");
+            }
+            if (cache.zipfSkew() != null && !(cache.zipfSkew() >= 0.0 && cache.zipfSkew() <= MAX_ZIPF_SKEW)) {
+                report(Code.INVALID_NODE, node + " needs cache.zipfSkew between 0 and " + MAX_ZIPF_SKEW);
+            }
+        }
+
+        void edge(ScenarioDto.Edge e, NodeIdTable ids) {
+            if (e == null) {
+                report(Code.INVALID_EDGE, "Edge entry is null");
+                return;
+            }
+            boolean hasFrom = e.from() != null && !e.from().isBlank();
+            boolean hasTo = e.to() != null && !e.to().isBlank();
+            if (!hasFrom) report(Code.INVALID_EDGE, "Edge missing 'from'");
+            if (!hasTo) report(Code.INVALID_EDGE, "Edge missing 'to'");
+            if (!hasFrom || !hasTo) {
+                return;
+            }
+            if (e.from().equals(e.to())) report(Code.SELF_LOOP, "Self-loop edge not allowed: " + e.from());
+            if (ids != null) {
+                if (!ids.contains(e.from())) report(Code.UNKNOWN_NODE, "Edge 'from' not found: " + e.from());
+                if (!ids.contains(e.to())) report(Code.UNKNOWN_NODE, "Edge 'to' not found: " + e.to());
+            }
+            if (CallPolicies.declared(e)) {
+                policy(e);
+            }
+        }
+
+        private void policy(ScenarioDto.Edge e) {
+            String edge = "Edge '" + e.from() + "' -> '" + e.to() + "'";
+            if (e.timeoutMs() != null && e.timeoutMs() < 1) {
+                report(Code.INVALID_EDGE, edge + " has a timeoutMs below 1");
+            }
+            ScenarioDto.Retry retry = e.retry();
+            if (retry != null) {
+                if (retry.maxRetries() == null || retry.maxRetries() < 0 || retry.maxRetries() > MAX_RETRIES) {
+                    report(Code.INVALID_EDGE, edge + " needs retry.maxRetries between 0 and " + MAX_RETRIES);
+                }
+                if (retry.backoffMs() != null && retry.backoffMs() < 0) {
+                    report(Code.INVALID_EDGE, edge + " has a negative retry.backoffMs");
+                }
+                if (retry.backoffMultiplier() != null && !(retry.backoffMultiplier() >= 1.0 && retry.backoffMultiplier() <= 10.0)) {
+                    report(Code.INVALID_EDGE, edge + " needs retry.backoffMultiplier between 1 and 10");
+                }
+            }
+            ScenarioDto.CircuitBreaker breaker = e.circuitBreaker();
+            if (breaker != null) {
+                Double threshold = breaker.failureThreshold();
+                if (threshold == null || !(threshold > 0.0 && threshold <= 1.0)) {
+                    report(Code.INVALID_EDGE, edge + " needs circuitBreaker.failureThreshold in (0, 1]");
+                }
+            }
+        }
+
+        private void dbConfig(ScenarioDto.Node node) {
+            ScenarioDto.DbConfig dbConfig = node.dbConfig();
+            if (dbConfig.engine() != null && !catalog.current().dbEngines().contains(dbConfig.engine())) {
+                report(Code.UNKNOWN_DB_ENGINE, "Node '" + node.id() + "' has unsupported database engine '" + dbConfig.engine() + "'");
+            }
+            if (dbConfig.connectionPool() != null && dbConfig.connectionPool() < 1) {
+                report(Code.INVALID_NODE, "Node '" + node.id() + "' needs a dbConfig.connectionPool of at least 1");
+            }
+
+            List<ScenarioDto.DbTable> tables = dbConfig.tables();
+            if (tables == null || tables.isEmpty()) {
+                return;
+            }
+
+            tableNames = reset(tableNames, tables.size());
+            for (ScenarioDto.DbTable table : tables) {
+                if (table == null) {
                     continue;
                 }
-                String normalizedColumn = column.name().trim();
-                if (!columnNames.add(normalizedColumn)) {
-                    String safeTableName = tableName != null ? tableName.trim() : "(unnamed)";
-                    bad("Node '" + node.id() + "' has duplicate column name '" + normalizedColumn + "' in table '" + safeTableName + "'");
+                String tableName = table.name();
+                if (tableName != null && !tableName.isBlank()) {
+                    String normalized = tableName.trim();
+                    if (!tableNames.add(normalized)) {
+                        report(Code.DUPLICATE_TABLE, "Node '" + node.id() + "' has duplicate table name '" + normalized + "'");
+                    }
+                }
+
+                List<ScenarioDto.DbColumn> columns = table.columns();
+                boolean declaresColumns = columns != null && !columns.isEmpty();
+                if (declaresColumns) {
+                    columnNames = reset(columnNames, columns.size());
+                    for (ScenarioDto.DbColumn column : columns) {
+                        if (column == null || column.name() == null || column.name().isBlank()) {
+                            continue;
+                        }
+                        String normalizedColumn = column.name().trim();
+                        if (!columnNames.add(normalizedColumn)) {
+                            String safeTableName = tableName != null ? tableName.trim() : "(unnamed)";
+                            report(Code.DUPLICATE_COLUMN, "Node '" + node.id() + "' has duplicate column name '" + normalizedColumn + "' in table '" + safeTableName + "'");
+                        }
+                    }
+                }
+                if (table.queries() != null) {
+                    queries(node, table, declaresColumns);
                 }
             }
         }
-    }
 
+        /** Queries need a known kind and, except for inserts, a column, which must be declared when columns are. */
+        private void queries(ScenarioDto.Node node, ScenarioDto.DbTable table, boolean declaresColumns) {
+            String where = "Node '" + node.id() + "' table '" + (table.name() != null ? table.name().trim() : "(unnamed)") + "'";
+            for (ScenarioDto.DbQuery query : table.queries()) {
+                if (query == null) {
+                    report(Code.INVALID_QUERY, where + " has a null query");
+                    continue;
+                }
+                String kind = query.kind();
+                if (!"point".equals(kind) && !"range".equals(kind) && !"write".equals(kind)) {
+                    report(Code.INVALID_QUERY, where + " has a query of unknown kind '" + kind + "'; use point, range or write");
+                }
+                String column = query.column();
+                if (column == null || column.isBlank()) {
+                    if (!"write".equals(kind)) {
+                        report(Code.INVALID_QUERY, where + " has a " + kind + " query without a column");
+                    }
+                } else if (declaresColumns && !columnNames.contains(column.trim())) {
+                    report(Code.INVALID_QUERY, where + " queries undeclared column '" + column.trim() + "'");
+                }
+                if (query.perRequest() != null && !(query.perRequest() > 0.0 && query.perRequest() <= MAX_QUERIES_PER_REQUEST)) {
+                    report(Code.INVALID_QUERY, where + " needs query perRequest in (0, " + MAX_QUERIES_PER_REQUEST + "]");
+                }
+                if (query.selectivity() != null && !(query.selectivity() > 0.0 && query.selectivity() <= 1.0)) {
+                    report(Code.INVALID_QUERY, where + " needs query selectivity in (0, 1]");
+                }
+            }
+        }
+
+        private static NodeIdTable reset(NodeIdTable names, int expected) {
+            if (names == null) {
+                return NodeIdTable.acquire(expected);
+            }
+            names.reset(expected);
+            return names;
+        }
+
+        @Override
+        public void close() {
+            if (tableNames != null) {
+                tableNames.close();
+            }
+            if (columnNames != null) {
+                columnNames.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,240 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control for simulation work. Requests are classified by estimated work into cost classes; each class
+ * has its own semaphore of concurrent permits and a bounded number of waiters, so a burst of large scenarios
+ * queues behind itself instead of in front of small ones. A request that finds its class queue full, or waits
+ * longer than {@code archbench.admission.max-wait-ms}, is rejected with a retry hint.
+ */
+@Component
+public class SimulationAdmission {
+
+    public enum CostClass { SMALL, MEDIUM, LARGE }
+
+    private static final long SMALL_WORK = 50_000L;
+    private static final long MEDIUM_WORK = 5_000_000L;
+    private static final double HOLD_SMOOTHING = 0.2;
+
+    private final Lane[] lanes;
+    private final long maxWaitNanos;
+
+    public SimulationAdmission(
+        MeterRegistry meterRegistry,
+        @Value("${archbench.admission.small.permits:0}") int smallPermits,
+        @Value("${archbench.admission.small.queue:512}") int smallQueue,
+        @Value("${archbench.admission.medium.permits:0}") int mediumPermits,
+        @Value("${archbench.admission.medium.queue:128}") int mediumQueue,
+        @Value("${archbench.admission.large.permits:0}") int largePermits,
+        @Value("${archbench.admission.large.queue:16}") int largeQueue,
+        @Value("${archbench.admission.max-wait-ms:30000}") long maxWaitMs
+    ) {
+        int[] defaults = defaultPermits(Runtime.getRuntime().availableProcessors());
+        this.lanes = new Lane[] {
+            new Lane(CostClass.SMALL, smallPermits > 0 ? smallPermits : defaults[0], smallQueue, meterRegistry),
+            new Lane(CostClass.MEDIUM, mediumPermits > 0 ? mediumPermits : defaults[1], mediumQueue, meterRegistry),
+            new Lane(CostClass.LARGE, largePermits > 0 ? largePermits : defaults[2], largeQueue, meterRegistry)
+        };
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    /**
+     * Permits per lane, small to large, when none are configured. Admitted work runs on request threads, so the lanes
+     * share the cores between them instead of each oversubscribing them: a quarter each for medium and large, the
+     * rest for small. Every lane keeps at least one permit, so only machines with fewer than three cores exceed.
+     */
+    static int[] defaultPermits(int cpus) {
+        int large = Math.max(1, cpus / 4);
+        int medium = Math.max(1, cpus / 4);
+        return new int[] { Math.max(1, cpus - medium - large), medium, large };
+    }
+
+    public CostClass classify(ScenarioDto scenario, SimulationOptions options) {
+        return classify(estimateWork(scenario, options));
+    }
+
+    public CostClass classify(List<ScenarioDto> scenarios, SimulationOptions options) {
+        long work = 0;
+        for (ScenarioDto scenario : scenarios) {
+            work = saturatedAdd(work, estimateWork(scenario, options));
+        }
+        return classify(work);
+    }
+
+    public CostClass classify(ScenarioDto scenario, OptimizerOptions options) {
+        return classify(saturatedMultiply(estimateWork(scenario, SimulationOptions.DEFAULT), options.maxCandidates()));
+    }
+
+    public <T> T run(CostClass costClass, Supplier<T> work) {
+        Lane lane = lanes[costClass.ordinal()];
+        if (lane.waiting.incrementAndGet() > lane.queueCapacity) {
+            lane.waiting.decrementAndGet();
+            throw lane.reject("Simulation queue for " + lane.tag + " scenarios is full");
+        }
+        long queuedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lane.permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw lane.reject("Interrupted while waiting for a simulation slot");
+        } finally {
+            lane.waiting.decrementAndGet();
+        }
+        long admittedAt = System.nanoTime();
+        lane.waitTimer.record(admittedAt - queuedAt, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw lane.reject("Timed out waiting for a simulation slot for " + lane.tag + " scenarios");
+        }
+        try {
+            return work.get();
+        } finally {
+            lane.recordHold(System.nanoTime() - admittedAt);
+            lane.permits.release();
+        }
+    }
+
+    public int queueDepth(CostClass costClass) {
+        return lanes[costClass.ordinal()].waiting.get();
+    }
+
+    static long estimateWork(ScenarioDto scenario, SimulationOptions options) {
+        if (scenario == null) {
+            return 1;
+        }
+        long nodes = scenario.nodes() != null ? scenario.nodes().size() : 0;
+        long edges = scenario.edges() != null ? scenario.edges().size() : 0;
+        long graph = Math.max(1, nodes + edges);
+        ScenarioDto.Workload workload = scenario.workload();
+        boolean curve = workload != null && workload.curve() != null && !workload.curve().isEmpty();
+        boolean trace = workload != null && workload.trace() != null;
+        return switch (options.mode()) {
+            case CLOSED_FORM -> graph;
+            case ANALYTIC -> {
+                if (!curve && !trace && options.windowSec() == null) {
+                    yield graph;
+                }
+                // A trace's length is only known to the store, so assume the most windows a run can have.
+                int duration = duration(workload, options, curve);
+                int windowSeconds = TimelineWindow.seconds(options.windowSec(), duration);
+                long windows = trace ? TimelineWindow.MAX_WINDOWS : (duration + windowSeconds - 1) / windowSeconds;
+                yield saturatedMultiply(graph, windows + 1);
+            }
+            case MONTE_CARLO -> saturatedMultiply(graph, options.trials() != null && options.trials() > 0
+                ? Math.min(options.trials(), MonteCarloSimulator.MAX_TRIALS)
+                : MonteCarloSimulator.DEFAULT_TRIALS);
+            case DISCRETE_EVENT -> {
+                long requests;
+                if (trace) {
+                    requests = DiscreteEventSimulator.MAX_REQUESTS;
+                } else if (curve) {
+                    int peak = 0;
+                    for (ScenarioDto.RatePoint point : workload.curve()) {
+                        if (point != null && point.rps() != null) {
+                            peak = Math.max(peak, point.rps());
+                        }
+                    }
+                    requests = Math.min(DiscreteEventSimulator.MAX_REQUESTS, (long) peak * duration(workload, options, true));
+                } else {
+                    Integer rps = workload != null ? workload.rps() : null;
+                    requests = (long) (rps != null && rps > 0 ? rps : DiscreteEventSimulator.DEFAULT_RPS)
+                        * duration(workload, options, false);
+                }
+                yield saturatedMultiply(graph, requests);
+            }
+        };
+    }
+
+    private static int duration(ScenarioDto.Workload workload, SimulationOptions options, boolean curve) {
+        if (options.durationSec() != null && options.durationSec() > 0) {
+            return options.durationSec();
+        }
+        if (curve) {
+            ScenarioDto.RatePoint last = workload.curve().get(workload.curve().size() - 1);
+            if (last != null && last.atSec() != null && last.atSec() > 0) {
+                return last.atSec();
+            }
+        }
+        return DiscreteEventSimulator.DEFAULT_DURATION_SECONDS;
+    }
+
+    private static CostClass classify(long work) {
+        if (work < SMALL_WORK) {
+            return CostClass.SMALL;
+        }
+        return work < MEDIUM_WORK ? CostClass.MEDIUM : CostClass.LARGE;
+    }
+
+    private static long saturatedAdd(long left, long right) {
+        long sum = left + right;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long left, long right) {
+        long high = Math.multiplyHigh(left, right);
+        long product = left * right;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    private static final class Lane {
+
+        private final String tag;
+        private final Semaphore permits;
+        private final int permitCount;
+        private final int queueCapacity;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejected;
+        private volatile double meanHoldNanos;
+
+        Lane(CostClass costClass, int permitCount, int queueCapacity, MeterRegistry registry) {
+            this.tag = costClass.name().toLowerCase(Locale.ROOT);
+            this.permits = new Semaphore(permitCount, true);
+            this.permitCount = permitCount;
+            this.queueCapacity = queueCapacity;
+            Gauge.builder("archbench.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("Simulations waiting for a permit")
+                .tag("class", tag)
+                .register(registry);
+            Gauge.builder("archbench.admission.active", permits, semaphore -> permitCount - semaphore.availablePermits())
+                .description("Simulations holding a permit")
+                .tag("class", tag)
+                .register(registry);
+            this.waitTimer = Timer.builder("archbench.admission.wait")
+                .description("Time spent waiting for a simulation permit")
+                .tag("class", tag)
+                .register(registry);
+            this.rejected = Counter.builder("archbench.admission.rejected")
+                .description("Simulations rejected because the queue was full or the wait timed out")
+                .tag("class", tag)
+                .register(registry);
+        }
+
+        void recordHold(long nanos) {
+            double mean = meanHoldNanos;
+            meanHoldNanos = mean == 0.0 ? nanos : mean + HOLD_SMOOTHING * (nanos - mean);
+        }
+
+        SimulationRejectedException reject(String message) {
+            rejected.increment();
+            double drainNanos = meanHoldNanos * (waiting.get() + 1) / permitCount;
+            long retryAfter = Math.max(1, (long) Math.ceil(drainNanos / 1_000_000_000.0));
+            return new SimulationRejectedException(message, retryAfter);
+        }
+    }
+}
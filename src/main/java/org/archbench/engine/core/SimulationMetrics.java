@@ -0,0 +1,99 @@
+package org.archbench.engine.core;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pipeline instrumentation. Every meter is registered up front and looked up by enum ordinal, so recording on the
+ * request path is a {@code nanoTime} call and an array index: no tag lists, builders or string concatenation per
+ * request.
+ */
+@Component
+public class SimulationMetrics {
+
+    public enum Stage { VALIDATE, COMPILE, TOPOLOGY, METRICS, MODEL, INSIGHTS }
+
+    private static final String STATUS_OK = "ok";
+
+    private final Timer[] stages;
+    private final Timer[] runs;
+    private final Counter[] rejections;
+    private final Counter statusOk;
+    private final Counter statusDegraded;
+    private final DistributionSummary nodes;
+    private final DistributionSummary edges;
+
+    public SimulationMetrics(MeterRegistry registry) {
+        stages = new Timer[Stage.values().length];
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()] = Timer.builder("archbench.simulation.stage")
+                .description("Time spent in one stage of the simulation pipeline")
+                .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+        runs = new Timer[SimulationMode.values().length];
+        for (SimulationMode mode : SimulationMode.values()) {
+            runs[mode.ordinal()] = Timer.builder("archbench.simulation")
+                .description("End-to-end simulation time, including result cache hits")
+                .tag("mode", mode.param())
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+        rejections = new Counter[ScenarioValidationException.Code.values().length];
+        for (ScenarioValidationException.Code code : ScenarioValidationException.Code.values()) {
+            rejections[code.ordinal()] = Counter.builder("archbench.scenario.rejected")
+                .description("Scenarios rejected by validation")
+                .tag("reason", code.param())
+                .register(registry);
+        }
+        statusOk = status(registry, STATUS_OK);
+        statusDegraded = status(registry, "degraded");
+        nodes = size(registry, "archbench.scenario.nodes", "Nodes per simulated scenario");
+        edges = size(registry, "archbench.scenario.edges", "Edges per simulated scenario");
+    }
+
+    /** Records the time since {@code startNanos} against the stage and returns the current time for the next one. */
+    public long stage(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        stages[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void run(SimulationMode mode, long startNanos) {
+        runs[mode.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(ScenarioValidationException.Code code) {
+        rejections[code.ordinal()].increment();
+    }
+
+    public void status(String status) {
+        (STATUS_OK.equals(status) ? statusOk : statusDegraded).increment();
+    }
+
+    public void scenarioSize(int nodeCount, int edgeCount) {
+        nodes.record(nodeCount);
+        edges.record(edgeCount);
+    }
+
+    private static Counter status(MeterRegistry registry, String status) {
+        return Counter.builder("archbench.simulation.status")
+            .description("Simulation results by derived status")
+            .tag("status", status)
+            .register(registry);
+    }
+
+    private static DistributionSummary size(MeterRegistry registry, String name, String description) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .serviceLevelObjectives(10, 100, 1_000, 10_000, 100_000, 1_000_000)
+            .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package org.archbench.engine.core;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum SimulationMode {
+    CLOSED_FORM("closed-form"),
+    ANALYTIC("analytic"),
+    DISCRETE_EVENT("discrete-event"),
+    MONTE_CARLO("montecarlo");
+
+    private final String param;
+
+    SimulationMode(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public static SimulationMode fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CLOSED_FORM;
+        }
+        for (SimulationMode mode : values()) {
+            if (mode.param.equals(value)) {
+                return mode;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown simulation mode '" + value + "'");
+    }
+}
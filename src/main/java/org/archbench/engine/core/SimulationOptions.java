@@ -0,0 +1,48 @@
+package org.archbench.engine.core;
+
+import java.util.List;
+
+public record SimulationOptions(
+    SimulationMode mode,
+    Integer durationSec,
+    Long seed,
+    Integer trials,
+    List<Double> quantiles,
+    boolean histogram,
+    boolean breakdown,
+    Integer windowSec
+) {
+    public static final SimulationOptions DEFAULT = forMode(SimulationMode.CLOSED_FORM);
+
+    public SimulationOptions(SimulationMode mode, Integer durationSec, Long seed, Integer trials) {
+        this(mode, durationSec, seed, trials, null, false, false, null);
+    }
+
+    public static SimulationOptions forMode(SimulationMode mode) {
+        return new SimulationOptions(mode, null, null, null);
+    }
+
+    public SimulationOptions withSeed(Long seed) {
+        return new SimulationOptions(mode, durationSec, seed, trials, quantiles, histogram, breakdown, windowSec);
+    }
+
+    public SimulationOptions withTrials(Integer trials) {
+        return new SimulationOptions(mode, durationSec, seed, trials, quantiles, histogram, breakdown, windowSec);
+    }
+
+    public SimulationOptions withDistribution(List<Double> quantiles, boolean histogram) {
+        return new SimulationOptions(mode, durationSec, seed, trials, quantiles, histogram, breakdown, windowSec);
+    }
+
+    public SimulationOptions withBreakdown(boolean breakdown) {
+        return new SimulationOptions(mode, durationSec, seed, trials, quantiles, histogram, breakdown, windowSec);
+    }
+
+    public SimulationOptions withWindowSec(Integer windowSec) {
+        return new SimulationOptions(mode, durationSec, seed, trials, quantiles, histogram, breakdown, windowSec);
+    }
+
+    public boolean reportsDistribution() {
+        return histogram || (quantiles != null && !quantiles.isEmpty());
+    }
+}
@@ -0,0 +1,558 @@
+package org.archbench.engine.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SimulationPipeline {
+
+    private static final long DEFAULT_SEED = 42L;
+    static final String TIME_VARYING_MODES = "Time-varying workloads need mode 'discrete-event' or 'analytic'";
+
+    private final SimulationService simulationService;
+    private final ScenarioValidator scenarioValidator;
+    private final SimulationInsights simulationInsights;
+    private final DiscreteEventSimulator discreteEventSimulator;
+    private final MonteCarloSimulator monteCarloSimulator;
+    private final QueueingModel queueingModel;
+    private final ResilienceModel resilienceModel;
+    private final TraceStore traceStore;
+    private final SimulationResultCache resultCache;
+    private final SimulationMetrics simulationMetrics;
+
+    public SimulationPipeline(
+        SimulationService simulationService,
+        ScenarioValidator scenarioValidator,
+        SimulationInsights simulationInsights,
+        DiscreteEventSimulator discreteEventSimulator,
+        MonteCarloSimulator monteCarloSimulator,
+        QueueingModel queueingModel,
+        ResilienceModel resilienceModel,
+        TraceStore traceStore,
+        SimulationResultCache resultCache,
+        SimulationMetrics simulationMetrics
+    ) {
+        this.simulationService = simulationService;
+        this.scenarioValidator = scenarioValidator;
+        this.simulationInsights = simulationInsights;
+        this.discreteEventSimulator = discreteEventSimulator;
+        this.monteCarloSimulator = monteCarloSimulator;
+        this.queueingModel = queueingModel;
+        this.resilienceModel = resilienceModel;
+        this.traceStore = traceStore;
+        this.resultCache = resultCache;
+        this.simulationMetrics = simulationMetrics;
+    }
+
+    public SimulationResultDto simulate(ScenarioDto scenario, SimulationOptions options) {
+        return simulate(scenario, options, SimulationProgress.NONE);
+    }
+
+    public SimulationResultDto simulate(ScenarioDto scenario, SimulationOptions options, SimulationProgress progress) {
+        long start = System.nanoTime();
+        NodeTypeCatalog.Snapshot catalog = simulationService.catalog();
+        SimulationResultDto result;
+        if (scenario == null || !resultCache.enabled()) {
+            result = evaluate(scenario, options, catalog, progress);
+        } else {
+            ScenarioFingerprint.Key key = ScenarioFingerprint.of(scenario, options, catalog.version());
+            result = resultCache.get(key);
+            if (result == null) {
+                result = evaluate(scenario, options, catalog, progress);
+                resultCache.put(key, result);
+            } else {
+                // A hit skips the stages, but it is still a run of this size with this status.
+                simulationMetrics.scenarioSize(scenario.nodes().size(), scenario.edges().size());
+                simulationMetrics.status(result.status());
+            }
+        }
+        simulationMetrics.run(options.mode(), start);
+        return result;
+    }
+
+    private SimulationResultDto evaluate(
+        ScenarioDto scenario,
+        SimulationOptions options,
+        NodeTypeCatalog.Snapshot catalog,
+        SimulationProgress progress
+    ) {
+        long stageStart = System.nanoTime();
+        NodeIdTable ids;
+        try {
+            ids = scenarioValidator.validateAndIndex(scenario);
+        } catch (ScenarioValidationException ex) {
+            simulationMetrics.rejected(ex.code());
+            throw ex;
+        }
+        RateProfile profile;
+        CompiledScenario compiled;
+        CompiledTopology topology;
+        CallPolicies policies;
+        try (ids) {
+            profile = rateProfile(scenario.workload(), options.mode());
+            stageStart = simulationMetrics.stage(SimulationMetrics.Stage.VALIDATE, stageStart);
+            simulationMetrics.scenarioSize(scenario.nodes().size(), scenario.edges().size());
+            compiled = simulationService.compileScenario(catalog, scenario.nodes());
+            stageStart = simulationMetrics.stage(SimulationMetrics.Stage.COMPILE, stageStart);
+            topology = simulationService.compileTopology(catalog, scenario.nodes(), scenario.edges(), ids);
+            policies = callPolicies(scenario.edges(), topology, profile, options);
+            stageStart = simulationMetrics.stage(SimulationMetrics.Stage.TOPOLOGY, stageStart);
+        }
+        NodeBreakdown breakdown = options.breakdown() ? new NodeBreakdown() : null;
+        ScenarioMetrics metrics = simulationService.calculateMetrics(compiled, topology, breakdown);
+        simulationMetrics.stage(SimulationMetrics.Stage.METRICS, stageStart);
+        if (options.mode() == SimulationMode.DISCRETE_EVENT) {
+            return simulateDiscreteEvent(scenario, compiled, topology, metrics, options, profile, progress, breakdown);
+        }
+        if (options.mode() == SimulationMode.MONTE_CARLO) {
+            return simulateMonteCarlo(scenario, compiled, topology, metrics, options, progress, breakdown);
+        }
+        if (options.mode() == SimulationMode.ANALYTIC) {
+            return simulateAnalytic(scenario, compiled, topology, metrics, options, profile, policies, breakdown);
+        }
+        if (policies == null) {
+            return closedFormResult(scenario, metrics, options, breakdown(scenario, compiled, topology, metrics, breakdown), null);
+        }
+        long start = System.nanoTime();
+        ResilienceModel.ResilienceResult resilience = resilienceModel.evaluate(
+            compiled, topology, policies, 0.0, DiscreteEventSimulator.DEFAULT_DURATION_SECONDS
+        );
+        simulationMetrics.stage(SimulationMetrics.Stage.MODEL, start);
+        ScenarioMetrics resilient = new ScenarioMetrics(
+            resilience.latencyP50(),
+            resilience.latencyP95(),
+            Math.min(metrics.throughputRps(), resilience.throughputRps()),
+            resilience.failureRate(),
+            metrics.costPerHour()
+        );
+        return closedFormResult(
+            scenario,
+            resilient,
+            options,
+            breakdown(scenario, compiled, topology, metrics, breakdown),
+            resilience(scenario, compiled, resilience)
+        );
+    }
+
+    /**
+     * The edges' call policies, or null when none are declared. They are modeled analytically, for one steady
+     * state, so sampled modes and time-varying workloads reject them rather than ignore them.
+     */
+    private CallPolicies callPolicies(
+        List<ScenarioDto.Edge> edges,
+        CompiledTopology topology,
+        RateProfile profile,
+        SimulationOptions options
+    ) {
+        if (!CallPolicies.anyDeclared(edges)) {
+            return null;
+        }
+        boolean steady = options.mode() == SimulationMode.CLOSED_FORM
+            || (options.mode() == SimulationMode.ANALYTIC && !reportsTimeline(profile, options));
+        if (!steady) {
+            reject(
+                ScenarioValidationException.Code.INVALID_EDGE,
+                "Timeout, retry and circuit-breaker policies need mode 'closed-form' or 'analytic' with a constant workload"
+            );
+        }
+        return CallPolicies.compile(edges, topology);
+    }
+
+    /**
+     * The time-varying rate of the workload, or null for a constant one. Only the discrete-event and analytic modes
+     * model load over time; the trace is looked up here rather than in the validator because it lives in the store.
+     */
+    private RateProfile rateProfile(ScenarioDto.Workload workload, SimulationMode mode) {
+        if (workload == null || (workload.curve() == null && workload.trace() == null)) {
+            return null;
+        }
+        if (mode != SimulationMode.DISCRETE_EVENT && mode != SimulationMode.ANALYTIC) {
+            reject(ScenarioValidationException.Code.INVALID_WORKLOAD, TIME_VARYING_MODES);
+        }
+        if (workload.curve() != null) {
+            return RateProfile.curve(workload.curve());
+        }
+        TraceFile trace = traceStore.find(workload.trace()).orElse(null);
+        if (trace == null) {
+            reject(ScenarioValidationException.Code.UNKNOWN_TRACE, "Unknown trace: " + workload.trace());
+        }
+        return trace;
+    }
+
+    private void reject(ScenarioValidationException.Code code, String detail) {
+        simulationMetrics.rejected(code);
+        ScenarioValidator.bad(code, detail);
+    }
+
+    /** Closed-form result for metrics computed elsewhere, e.g. by an incremental session. */
+    public SimulationResultDto closedFormResult(ScenarioDto scenario, ScenarioMetrics metrics, SimulationOptions options) {
+        return closedFormResult(scenario, metrics, options, null, null);
+    }
+
+    private SimulationResultDto closedFormResult(
+        ScenarioDto scenario,
+        ScenarioMetrics metrics,
+        SimulationOptions options,
+        SimulationResultDto.Breakdown breakdown,
+        SimulationResultDto.Resilience resilience
+    ) {
+        int latencyP95 = metrics.latencyP95();
+        int throughput = metrics.throughputRps();
+        double failureRate = metrics.failureRate();
+        Verdict verdict = verdict(scenario, latencyP95, throughput, failureRate);
+        return new SimulationResultDto(
+            metrics.latencyP50(),
+            latencyP95,
+            throughput,
+            metrics.costPerHour(),
+            verdict.status(),
+            verdict.score(),
+            verdict.hints(),
+            null,
+            null,
+            options.reportsDistribution()
+                ? distribution(LatencyHistogram.logNormal(metrics.latencyP50(), latencyP95), options)
+                : null,
+            null,
+            breakdown,
+            null,
+            resilience
+        );
+    }
+
+    private SimulationResultDto simulateDiscreteEvent(
+        ScenarioDto scenario,
+        CompiledScenario compiled,
+        CompiledTopology topology,
+        ScenarioMetrics metrics,
+        SimulationOptions options,
+        RateProfile profile,
+        SimulationProgress progress,
+        NodeBreakdown breakdown
+    ) {
+        long start = System.nanoTime();
+        Integer rps = scenario.workload() != null ? scenario.workload().rps() : null;
+        int windowSeconds = reportsTimeline(profile, options)
+            ? TimelineWindow.seconds(options.windowSec(), duration(profile, options))
+            : 0;
+        DiscreteEventSimulator.DiscreteEventResult result = discreteEventSimulator.simulate(
+            compiled,
+            topology,
+            rps,
+            profile,
+            options.durationSec(),
+            windowSeconds,
+            options.seed() != null ? options.seed() : DEFAULT_SEED,
+            progress
+        );
+        simulationMetrics.stage(SimulationMetrics.Stage.MODEL, start);
+        double costPerHour = metrics.costPerHour();
+        Verdict verdict = verdict(scenario, result.latencyP95(), result.throughputRps(), result.failureRate());
+        return new SimulationResultDto(
+            result.latencyP50(),
+            result.latencyP95(),
+            result.throughputRps(),
+            costPerHour,
+            verdict.status(),
+            verdict.score(),
+            verdict.hints(),
+            result.latencyP99(),
+            null,
+            distribution(result.latencies(), options),
+            null,
+            breakdown(scenario, compiled, topology, metrics, breakdown),
+            timeline(result.windows(), windowSeconds),
+            null
+        );
+    }
+
+    private SimulationResultDto simulateMonteCarlo(
+        ScenarioDto scenario,
+        CompiledScenario compiled,
+        CompiledTopology topology,
+        ScenarioMetrics metrics,
+        SimulationOptions options,
+        SimulationProgress progress,
+        NodeBreakdown breakdown
+    ) {
+        long start = System.nanoTime();
+        MonteCarloSimulator.MonteCarloResult result = monteCarloSimulator.simulate(
+            compiled,
+            topology,
+            options.trials(),
+            options.seed() != null ? options.seed() : DEFAULT_SEED,
+            progress
+        );
+        simulationMetrics.stage(SimulationMetrics.Stage.MODEL, start);
+        int throughput = metrics.throughputRps();
+        double costPerHour = metrics.costPerHour();
+        Verdict verdict = verdict(scenario, result.latencyP95(), throughput, result.failureRate());
+        return new SimulationResultDto(
+            result.latencyP50(),
+            result.latencyP95(),
+            throughput,
+            costPerHour,
+            verdict.status(),
+            verdict.score(),
+            verdict.hints(),
+            result.latencyP99(),
+            new SimulationResultDto.MonteCarlo(
+                result.trials(),
+                result.seed(),
+                result.latencyMean(),
+                interval(result.latencyMeanInterval()),
+                interval(result.latencyP95Interval()),
+                interval(result.latencyP99Interval()),
+                result.failureRate(),
+                interval(result.failureRateInterval())
+            ),
+            distribution(result.latencies(), options),
+            null,
+            breakdown(scenario, compiled, topology, metrics, breakdown),
+            null,
+            null
+        );
+    }
+
+    private SimulationResultDto simulateAnalytic(
+        ScenarioDto scenario,
+        CompiledScenario compiled,
+        CompiledTopology topology,
+        ScenarioMetrics metrics,
+        SimulationOptions options,
+        RateProfile profile,
+        CallPolicies policies,
+        NodeBreakdown breakdown
+    ) {
+        long start = System.nanoTime();
+        Integer rps = scenario.workload() != null ? scenario.workload().rps() : null;
+        QueueingModel.AnalyticResult result;
+        SimulationResultDto.Timeline timeline = null;
+        if (reportsTimeline(profile, options)) {
+            int duration = duration(profile, options);
+            int windowSeconds = TimelineWindow.seconds(options.windowSec(), duration);
+            RateProfile rate = profile != null
+                ? profile
+                : RateProfile.constant(rps != null && rps > 0 ? rps : DiscreteEventSimulator.DEFAULT_RPS);
+            List<TimelineWindow> windows = queueingModel.timeline(compiled, topology, rate, duration, windowSeconds);
+            double requests = 0.0;
+            for (TimelineWindow window : windows) {
+                requests += window.offeredRps() * window.seconds();
+            }
+            result = queueingModel.evaluateAt(compiled, topology, requests / duration, duration, breakdown);
+            timeline = timeline(windows, windowSeconds);
+        } else {
+            result = queueingModel.evaluate(compiled, topology, rps, options.durationSec(), breakdown);
+        }
+        ResilienceModel.ResilienceResult resilience = null;
+        double[] utilization = result.utilization();
+        int latencyP50 = result.latencyP50();
+        int latencyP95 = result.latencyP95();
+        int throughput = result.throughputRps();
+        double failureRate = result.failureRate();
+        double maxUtilization = result.maxUtilization();
+        if (policies != null) {
+            int duration = options.durationSec() != null && options.durationSec() > 0
+                ? options.durationSec()
+                : DiscreteEventSimulator.DEFAULT_DURATION_SECONDS;
+            resilience = resilienceModel.evaluate(compiled, topology, policies, result.offeredRps(), duration);
+            utilization = resilience.utilization();
+            latencyP50 = resilience.latencyP50();
+            latencyP95 = resilience.latencyP95();
+            throughput = Math.min(throughput, resilience.throughputRps());
+            failureRate = resilience.failureRate();
+            maxUtilization = 0.0;
+            for (double rho : utilization) {
+                maxUtilization = Math.max(maxUtilization, rho);
+            }
+            if (breakdown != null) {
+                breakdown.recordLoad(resilience.utilization(), resilience.waitMs());
+            }
+        }
+        simulationMetrics.stage(SimulationMetrics.Stage.MODEL, start);
+        List<String> saturated = new ArrayList<>();
+        for (int i = 0; i < compiled.nodeCount(); i++) {
+            if (utilization[i] >= 1.0) {
+                saturated.add(scenario.nodes().get(i).id());
+            }
+        }
+        Verdict verdict = verdict(scenario, latencyP95, throughput, failureRate);
+        return new SimulationResultDto(
+            latencyP50,
+            latencyP95,
+            throughput,
+            metrics.costPerHour(),
+            verdict.status(),
+            verdict.score(),
+            verdict.hints(),
+            null,
+            null,
+            options.reportsDistribution()
+                ? distribution(LatencyHistogram.logNormal(latencyP50, latencyP95), options)
+                : null,
+            new SimulationResultDto.Analytic(result.offeredRps(), maxUtilization, saturated),
+            breakdown(scenario, compiled, topology, metrics, breakdown),
+            timeline,
+            resilience != null ? resilience(scenario, compiled, resilience) : null
+        );
+    }
+
+    private static SimulationResultDto.Resilience resilience(
+        ScenarioDto scenario,
+        CompiledScenario compiled,
+        ResilienceModel.ResilienceResult result
+    ) {
+        List<String> storms = new ArrayList<>();
+        List<String> openBreakers = new ArrayList<>();
+        for (int i = 0; i < compiled.nodeCount(); i++) {
+            if (result.retryStorm()[i]) {
+                storms.add(scenario.nodes().get(i).id());
+            }
+            if (result.isBreakerOpen(i)) {
+                openBreakers.add(scenario.nodes().get(i).id());
+            }
+        }
+        return new SimulationResultDto.Resilience(1.0 - result.failureRate(), result.retryAmplification(), storms, openBreakers);
+    }
+
+    private static boolean reportsTimeline(RateProfile profile, SimulationOptions options) {
+        return profile != null || options.windowSec() != null;
+    }
+
+    private static int duration(RateProfile profile, SimulationOptions options) {
+        if (options.durationSec() != null && options.durationSec() > 0) {
+            return options.durationSec();
+        }
+        return profile != null ? profile.seconds() : DiscreteEventSimulator.DEFAULT_DURATION_SECONDS;
+    }
+
+    private static SimulationResultDto.Timeline timeline(List<TimelineWindow> windows, int windowSeconds) {
+        if (windows == null) {
+            return null;
+        }
+        List<SimulationResultDto.Window> dtos = new ArrayList<>(windows.size());
+        TimelineWindow worst = null;
+        SimulationResultDto.Window worstDto = null;
+        for (TimelineWindow window : windows) {
+            SimulationResultDto.Window dto = new SimulationResultDto.Window(
+                window.startSec(),
+                window.seconds(),
+                window.offeredRps(),
+                window.throughputRps(),
+                window.latencyP50(),
+                window.latencyP95(),
+                window.failureRate()
+            );
+            dtos.add(dto);
+            if (worst == null || window.worseThan(worst)) {
+                worst = window;
+                worstDto = dto;
+            }
+        }
+        return new SimulationResultDto.Timeline(windowSeconds, dtos, worstDto);
+    }
+
+    private Verdict verdict(ScenarioDto scenario, int latencyP95, int throughput, double failureRate) {
+        long start = System.nanoTime();
+        Verdict verdict = new Verdict(
+            simulationInsights.deriveStatus(scenario, latencyP95, throughput, failureRate),
+            simulationInsights.calculateScore(scenario, latencyP95, throughput, failureRate),
+            simulationInsights.generateHints(scenario, latencyP95, throughput, failureRate)
+        );
+        simulationMetrics.stage(SimulationMetrics.Stage.INSIGHTS, start);
+        simulationMetrics.status(verdict.status());
+        return verdict;
+    }
+
+    private record Verdict(String status, int score, List<String> hints) {}
+
+    /**
+     * Materializes the breakdown recorded by the model pass. Only the critical path is walked here; shares and
+     * utilization come straight from the compiled columns and the reach the pass recorded. Without a load model,
+     * utilization is {@code workload.rps * reach / capacityRps}: a node behind a cache only sees the misses that reach
+     * it, and without caches every request visits every reachable node. A critical-path node contributes latency only
+     * when it counts towards p50, so the contributions add up to the p50 they explain.
+     */
+    private static SimulationResultDto.Breakdown breakdown(
+        ScenarioDto scenario,
+        CompiledScenario compiled,
+        CompiledTopology topology,
+        ScenarioMetrics metrics,
+        NodeBreakdown breakdown
+    ) {
+        if (breakdown == null) {
+            return null;
+        }
+        List<ScenarioDto.Node> nodes = scenario.nodes();
+        int n = compiled.nodeCount();
+        double[] waitMs = breakdown.waitMs();
+        double[] contributed = new double[n];
+        double[] reach = breakdown.reach();
+        List<String> criticalPath = new ArrayList<>(breakdown.criticalPath().length);
+        for (int node : breakdown.criticalPath()) {
+            if (reach == null || reach[node] > SimulationService.P50_REACH) {
+                contributed[node] = compiled.latencyMs(node) + (waitMs != null ? waitMs[node] : 0.0);
+            }
+            criticalPath.add(nodes.get(node).id());
+        }
+        double failureSum = 0.0;
+        for (int i = 0; i < n; i++) {
+            failureSum += compiled.failureRate(i);
+        }
+        double[] utilization = breakdown.utilization();
+        Integer rps = scenario.workload() != null ? scenario.workload().rps() : null;
+        double totalCost = metrics.costPerHour();
+        List<SimulationResultDto.NodeDetail> details = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Double load = null;
+            if (utilization != null) {
+                load = utilization[i];
+            } else if (rps != null) {
+                int capacity = compiled.capacityRps(i);
+                load = !topology.isReachable(i) || capacity <= 0 || capacity == Integer.MAX_VALUE
+                    ? 0.0
+                    : rps * (reach != null ? reach[i] : 1.0) / capacity;
+            }
+            details.add(new SimulationResultDto.NodeDetail(
+                nodes.get(i).id(),
+                load,
+                contributed[i],
+                totalCost > 0.0 ? compiled.costPerHour(i) / totalCost : 0.0,
+                failureSum > 0.0 ? compiled.failureRate(i) / failureSum : 0.0
+            ));
+        }
+        int bottleneck = breakdown.bottleneck();
+        return new SimulationResultDto.Breakdown(criticalPath, bottleneck >= 0 ? nodes.get(bottleneck).id() : null, details);
+    }
+
+    private static SimulationResultDto.LatencyDistribution distribution(LatencyHistogram latencies, SimulationOptions options) {
+        if (!options.reportsDistribution()) {
+            return null;
+        }
+        Map<String, Double> quantiles = null;
+        if (options.quantiles() != null && !options.quantiles().isEmpty()) {
+            quantiles = new LinkedHashMap<>();
+            for (double quantile : options.quantiles()) {
+                quantiles.put(BigDecimal.valueOf(quantile).stripTrailingZeros().toPlainString(), latencies.quantileMillis(quantile));
+            }
+        }
+        return new SimulationResultDto.LatencyDistribution(
+            latencies.count(),
+            latencies.meanMillis(),
+            latencies.maxMillis(),
+            quantiles,
+            options.histogram() ? latencies.encode() : null
+        );
+    }
+
+    private static SimulationResultDto.Interval interval(MonteCarloSimulator.Interval interval) {
+        return new SimulationResultDto.Interval(interval.lower(), interval.upper());
+    }
+}
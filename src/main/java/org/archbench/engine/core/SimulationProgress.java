@@ -0,0 +1,28 @@
+package org.archbench.engine.core;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative progress and cancellation hook for the sampling engines. Engines announce their total work once, report
+ * completed units as they go (Monte Carlo trials, discrete-event arrivals) and poll {@link #checkCancelled()} at the
+ * same points, so a cancelled run stops within one reporting interval. Implementations must be thread-safe because
+ * Monte Carlo chunks report concurrently.
+ */
+public interface SimulationProgress {
+
+    SimulationProgress NONE = new SimulationProgress() {};
+
+    default void start(long totalUnits) {}
+
+    default void advance(long units) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Simulation cancelled");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.archbench.engine.core;
+
+public class SimulationRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SimulationRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
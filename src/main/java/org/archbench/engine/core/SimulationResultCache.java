@@ -0,0 +1,48 @@
+package org.archbench.engine.core;
+
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@Component
+public class SimulationResultCache {
+
+    private final Cache<ScenarioFingerprint.Key, SimulationResultDto> cache;
+    private final boolean enabled;
+
+    public SimulationResultCache(@Value("${archbench.cache.max-entries:10000}") long maxEntries) {
+        this.enabled = maxEntries > 0;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, maxEntries))
+            .recordStats()
+            .build();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public SimulationResultDto get(ScenarioFingerprint.Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(ScenarioFingerprint.Key key, SimulationResultDto result) {
+        cache.put(key, result);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
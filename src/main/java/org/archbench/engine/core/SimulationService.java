@@ -1,68 +1,378 @@
 package org.archbench.engine.core;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import org.archbench.engine.api.dto.ScenarioDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SimulationService {
 
-    private static final Map<String, NodeDefaults> DEFAULTS = Map.ofEntries(
-        Map.entry("client", new NodeDefaults(2, 1.1, Integer.MAX_VALUE, 0.001, 0.00)),
-        Map.entry("service", new NodeDefaults(8, 1.5, 3000, 0.005, 0.05)),
-        Map.entry("cache", new NodeDefaults(1, 1.1, 50000, 0.002, 0.02)),
-        Map.entry("database", new NodeDefaults(12, 2.0, 2000, 0.010, 0.30)),
-        Map.entry("queue", new NodeDefaults(2, 1.2, 10000, 0.003, 0.01)),
-        Map.entry("gateway", new NodeDefaults(6, 1.4, 4000, 0.004, 0.06)),
-        Map.entry("cdn", new NodeDefaults(3, 1.1, 60000, 0.001, 0.05)),
-        Map.entry("objectstore", new NodeDefaults(15, 2.2, 1500, 0.008, 0.25)),
-        Map.entry("search", new NodeDefaults(10, 1.8, 2500, 0.006, 0.20)),
-        Map.entry("stream", new NodeDefaults(6, 1.4, 5000, 0.005, 0.10)),
-        Map.entry("lb", new NodeDefaults(3, 1.1, 50000, 0.001, 0.03)),
-        Map.entry("worker", new NodeDefaults(7, 1.6, 3500, 0.004, 0.07))
-    );
+    /** A node weighs on a latency quantile {@code q} when more than {@code 1 - q} of the requests reach it. */
+    static final double P50_REACH = 0.5;
+    static final double P95_REACH = 0.05;
+
+    private final NodeTypeCatalog catalog;
+    private final DbQueryModel dbQueries = new DbQueryModel();
+
+    public SimulationService() {
+        this(NodeTypeCatalog.builtIn());
+    }
+
+    @Autowired
+    public SimulationService(NodeTypeCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public NodeTypeCatalog.Snapshot catalog() {
+        return catalog.current();
+    }
 
     public List<ScenarioDto.Node> normalizeNodes(List<ScenarioDto.Node> nodes) {
         if (nodes == null || nodes.isEmpty()) {
             return List.of();
         }
+        NodeTypeCatalog.Snapshot snapshot = catalog.current();
         return nodes.stream()
             .filter(Objects::nonNull)
-            .map(this::applyDefaults)
+            .map(node -> applyDefaults(snapshot, node))
             .toList();
     }
 
+    public CompiledScenario compileScenario(List<ScenarioDto.Node> nodes) {
+        return compileScenario(catalog.current(), nodes);
+    }
+
+    public CompiledScenario compileScenario(NodeTypeCatalog.Snapshot snapshot, List<ScenarioDto.Node> nodes) {
+        int n = nodes == null ? 0 : nodes.size();
+        CompiledScenario compiled = new CompiledScenario(snapshot, n);
+        for (int i = 0; i < n; i++) {
+            ScenarioDto.Node node = nodes.get(i);
+            int typeId = snapshot.typeId(node.type());
+            if (typeId < 0) {
+                throw new IllegalArgumentException("No defaults configured for node type: " + node.type());
+            }
+            NodeDefaults defaults = snapshot.defaults(typeId);
+            int latency = node.latencyMs() != null ? node.latencyMs() : defaults.latencyMs();
+            int capacity = node.capacityRps() != null ? node.capacityRps() : defaults.capacityRps();
+            int replicas = replicas(node);
+            if (snapshot.isDatabase(typeId) && DbQueryModel.applies(node.dbConfig())) {
+                double holdMs = latency + dbQueries.queryMs(snapshot, node.dbConfig());
+                int connections = DbQueryModel.connections(snapshot, node.dbConfig());
+                latency = (int) Math.round(holdMs);
+                capacity = DbQueryModel.pooledCapacity(capacity, connections, holdMs);
+                compiled.setConnections(i, (int) Math.min(Integer.MAX_VALUE, (long) connections * replicas));
+            } else if (snapshot.isDatabase(typeId) && node.dbConfig() != null) {
+                DbAdjustments adjustments = computeDbAdjustments(snapshot, node);
+                latency = (int) Math.round(latency * adjustments.latencyMultiplier());
+                capacity = (int) Math.round(capacity * adjustments.capacityMultiplier());
+            }
+            double cost = node.costPerHour() != null ? node.costPerHour() : defaults.costPerHour();
+            compiled.set(
+                i,
+                typeId,
+                latency,
+                node.varianceFactor() != null ? node.varianceFactor() : defaults.varianceFactor(),
+                scaledCapacity(capacity, replicas),
+                node.failureRate() != null ? node.failureRate() : defaults.failureRate(),
+                cost * replicas
+            );
+            if (node.cache() != null && snapshot.isCache(typeId)) {
+                compiled.setHitRatio(i, ZipfCache.hitRatio(node.cache()));
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Replicas share a node's load: they multiply its capacity and its cost and leave its latency and per-request
+     * failure rate as they are.
+     */
+    static int replicas(ScenarioDto.Node node) {
+        return node.replicas() != null && node.replicas() > 1 ? node.replicas() : 1;
+    }
+
+    private static int scaledCapacity(int capacity, int replicas) {
+        return capacity == Integer.MAX_VALUE ? capacity : (int) Math.min(Integer.MAX_VALUE, (long) capacity * replicas);
+    }
+
+    /**
+     * Share of requests that reach each node, in one pass over the topological order: a cache node passes on only
+     * its misses, and a node is reached when any of its parents passes the request on. Null when no node has a hit
+     * ratio, in which case every reachable node sees every request.
+     */
+    static double[] reach(CompiledScenario scenario, CompiledTopology topology) {
+        double[] hits = scenario.hitRatios();
+        if (hits == null) {
+            return null;
+        }
+        int n = scenario.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        double[] reach = new double[n];
+        for (int start : topology.starts()) {
+            reach[start] = 1.0;
+        }
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            double misses = reach[u] * (1.0 - hits[u]);
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                reach[edgeTargets[e]] = Math.max(reach[edgeTargets[e]], misses);
+            }
+        }
+        return reach;
+    }
+
+    /**
+     * All closed-form metrics in one pass over the topological order: longest path, bottleneck capacity, failure
+     * product and cost. Without cache hit ratios this produces the same values as the individual
+     * {@code calculate*} methods. Ties between equally long paths go to the lowest node ordinal, so the critical path
+     * does not depend on the topological order chosen.
+     *
+     * <p>With hit ratios, a node's capacity is divided by the share of requests that reach it and its failure rate is
+     * weighted by that share. A node counts towards the p50 path only when more than half of the requests reach it,
+     * and towards the p95 path when more than 5% do.
+     */
+    public ScenarioMetrics calculateMetrics(CompiledScenario scenario, CompiledTopology topology) {
+        return calculateMetrics(scenario, topology, null);
+    }
+
+    /** As {@link #calculateMetrics(CompiledScenario, CompiledTopology)}, also recording the critical path and bottleneck. */
+    public ScenarioMetrics calculateMetrics(CompiledScenario scenario, CompiledTopology topology, NodeBreakdown breakdown) {
+        int n = scenario.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        int[] latency = scenario.latencies();
+        int[] capacity = scenario.capacities();
+        double[] failure = scenario.failureRates();
+        double[] cost = scenario.costs();
+
+        double[] reach = reach(scenario, topology);
+
+        long[] incoming = new long[n];
+        long[] pathLatency = new long[n];
+        int[] predecessor = new int[n];
+        Arrays.fill(predecessor, -1);
+        double bottleneck = Double.POSITIVE_INFINITY;
+        int bottleneckNode = -1;
+        int end = -1;
+        double survival = 1.0;
+        double totalCost = 0.0;
+        for (int k = 0; k < n; k++) {
+            survival *= 1.0 - (reach != null && topology.isReachable(k) ? failure[k] * reach[k] : failure[k]);
+            totalCost += cost[k];
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            double limit = reach == null ? capacity[u] : reach[u] > 0.0 ? capacity[u] / reach[u] : Double.POSITIVE_INFINITY;
+            if (bottleneckNode < 0 || limit < bottleneck || (limit == bottleneck && u < bottleneckNode)) {
+                bottleneck = limit;
+                bottleneckNode = u;
+            }
+            long path = incoming[u] + (reach == null || reach[u] > P50_REACH ? latency[u] : 0);
+            pathLatency[u] = path;
+            if (end < 0 || path > pathLatency[end] || (path == pathLatency[end] && u < end)) {
+                end = u;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                if (predecessor[v] < 0 || path > incoming[v] || (path == incoming[v] && u < predecessor[v])) {
+                    incoming[v] = path;
+                    predecessor[v] = u;
+                }
+            }
+        }
+
+        int latencyP50 = end < 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, pathLatency[end]);
+        double[] variance = scenario.varianceFactors();
+        double varianceSum = 0.0;
+        int pathLength = 0;
+        int weighed = 0;
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            pathLength++;
+            if (reach == null || reach[node] > P50_REACH) {
+                varianceSum += variance[node];
+                weighed++;
+            }
+        }
+        double averageVariance = weighed == 0 ? 1.0 : varianceSum / weighed;
+        if (breakdown != null) {
+            breakdown.record(pathTo(end, pathLength, predecessor), bottleneckNode, reach);
+        }
+        int latencyP95 = (int) Math.round(latencyP50 * averageVariance);
+        if (reach != null && end >= 0) {
+            int tail = longestPath(topology, latency, reach, P95_REACH, incoming, pathLatency, predecessor);
+            double tailVariance = 0.0;
+            int tailLength = 0;
+            for (int node = tail; node >= 0; node = predecessor[node]) {
+                if (reach[node] > P95_REACH) {
+                    tailVariance += variance[node];
+                    tailLength++;
+                }
+            }
+            latencyP95 = (int) Math.round(Math.min(Integer.MAX_VALUE, pathLatency[tail]) * (tailVariance / tailLength));
+        }
+        return new ScenarioMetrics(
+            latencyP50,
+            latencyP95,
+            end < 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.floor(bottleneck)),
+            n == 0 ? 0.0 : 1.0 - survival,
+            totalCost
+        );
+    }
+
+    /** Ordinals of the critical path that {@link #calculateMetrics} reports, from its first node to its end. */
+    public int[] criticalPath(CompiledScenario scenario, CompiledTopology topology) {
+        int n = scenario.nodeCount();
+        int[] predecessor = new int[n];
+        int end = longestPath(
+            topology, scenario.latencies(), reach(scenario, topology), P50_REACH, new long[n], new long[n], predecessor
+        );
+        int length = 0;
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            length++;
+        }
+        return pathTo(end, length, predecessor);
+    }
+
+    /**
+     * Longest path where only nodes reached by more than {@code minReach} of the requests weigh their latency; all
+     * nodes weigh it when {@code reach} is null. Fills the scratch arrays and returns the path's last node, or -1.
+     */
+    private static int longestPath(
+        CompiledTopology topology,
+        int[] latency,
+        double[] reach,
+        double minReach,
+        long[] incoming,
+        long[] pathLatency,
+        int[] predecessor
+    ) {
+        int n = topology.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        Arrays.fill(incoming, 0L);
+        Arrays.fill(predecessor, -1);
+        int end = -1;
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            long path = incoming[u] + (reach == null || reach[u] > minReach ? latency[u] : 0);
+            pathLatency[u] = path;
+            if (end < 0 || path > pathLatency[end] || (path == pathLatency[end] && u < end)) {
+                end = u;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                if (predecessor[v] < 0 || path > incoming[v] || (path == incoming[v] && u < predecessor[v])) {
+                    incoming[v] = path;
+                    predecessor[v] = u;
+                }
+            }
+        }
+        return end;
+    }
+
+    static int[] pathTo(int end, int length, int[] predecessor) {
+        int[] path = new int[length];
+        for (int node = end; node >= 0; node = predecessor[node]) {
+            path[--length] = node;
+        }
+        return path;
+    }
+
+    public CompiledTopology compileTopology(List<ScenarioDto.Node> nodes, List<ScenarioDto.Edge> edges) {
+        return compileTopology(catalog.current(), nodes, edges);
+    }
+
+    public CompiledTopology compileTopology(
+        NodeTypeCatalog.Snapshot snapshot,
+        List<ScenarioDto.Node> nodes,
+        List<ScenarioDto.Edge> edges
+    ) {
+        return CompiledTopology.compile(nodes, edges, entryType(snapshot));
+    }
+
+    /** Compiles the topology against the id table returned by {@link ScenarioValidator#validateAndIndex}. */
+    public CompiledTopology compileTopology(
+        NodeTypeCatalog.Snapshot snapshot,
+        List<ScenarioDto.Node> nodes,
+        List<ScenarioDto.Edge> edges,
+        NodeIdTable ids
+    ) {
+        return CompiledTopology.compile(nodes, edges, entryType(snapshot), ids);
+    }
+
+    private static Predicate<String> entryType(NodeTypeCatalog.Snapshot snapshot) {
+        return type -> {
+            int typeId = snapshot.typeId(type);
+            return typeId >= 0 && snapshot.isEntry(typeId);
+        };
+    }
+
     public int calculateLatencyP50(List<ScenarioDto.Node> nodes, List<ScenarioDto.Edge> edges) {
         if (nodes == null || nodes.isEmpty()) {
             return 0;
         }
-        return nodes.stream()
-            .mapToInt(ScenarioDto.Node::latencyMs)
-            .sum();
+        return calculateLatencyP50(compileTopology(nodes, edges), nodes);
+    }
+
+    public int calculateLatencyP50(CompiledTopology topology, List<ScenarioDto.Node> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            return 0;
+        }
+        return calculateLatencyP50(longestPaths(topology, nodes));
+    }
+
+    public int calculateLatencyP50(LongestPaths paths) {
+        return paths.end() < 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, paths.pathLatency()[paths.end()]);
     }
 
-    public int calculateLatencyP95(int latencyP50, List<ScenarioDto.Node> nodes) {
+    public int calculateLatencyP95(int latencyP50, CompiledTopology topology, List<ScenarioDto.Node> nodes) {
         if (nodes == null || nodes.isEmpty()) {
             return latencyP50;
         }
-        double averageVariance = nodes.stream()
-            .mapToDouble(ScenarioDto.Node::varianceFactor)
-            .average()
-            .orElse(1.0);
+        return calculateLatencyP95(latencyP50, longestPaths(topology, nodes), nodes);
+    }
+
+    /** As {@link #calculateLatencyP95(int, CompiledTopology, List)}, reusing the paths that p50 was read from. */
+    public int calculateLatencyP95(int latencyP50, LongestPaths paths, List<ScenarioDto.Node> nodes) {
+        double varianceSum = 0.0;
+        int pathLength = 0;
+        for (int node = paths.end(); node >= 0; node = paths.predecessor()[node]) {
+            varianceSum += nodes.get(node).varianceFactor();
+            pathLength++;
+        }
+        double averageVariance = pathLength == 0 ? 1.0 : varianceSum / pathLength;
         return (int) Math.round(latencyP50 * averageVariance);
     }
 
-    public int calculateThroughput(List<ScenarioDto.Node> nodes) {
+    public int calculateThroughput(CompiledTopology topology, List<ScenarioDto.Node> nodes) {
         if (nodes == null || nodes.isEmpty()) {
             return 0;
         }
-        return nodes.stream()
-            .mapToInt(ScenarioDto.Node::capacityRps)
-            .min()
-            .orElse(0);
+        int bottleneck = Integer.MAX_VALUE;
+        boolean anyReachable = false;
+        for (int i = 0; i < topology.nodeCount(); i++) {
+            if (topology.isReachable(i)) {
+                anyReachable = true;
+                bottleneck = Math.min(bottleneck, nodes.get(i).capacityRps());
+            }
+        }
+        return anyReachable ? bottleneck : 0;
     }
 
     public double calculateFailureRate(List<ScenarioDto.Node> nodes) {
@@ -84,21 +394,74 @@ public class SimulationService {
             .sum();
     }
 
-    private ScenarioDto.Node applyDefaults(ScenarioDto.Node node) {
-        NodeDefaults defaults = DEFAULTS.get(node.type());
-        if (defaults == null) {
+    /**
+     * Longest path from the entry nodes to every reachable node of normalized {@code nodes}, computed once so that
+     * {@link #calculateLatencyP50(LongestPaths)} and {@link #calculateLatencyP95(int, LongestPaths, List)} share it.
+     */
+    public LongestPaths longestPaths(CompiledTopology topology, List<ScenarioDto.Node> nodes) {
+        int n = topology.nodeCount();
+        int[] order = topology.order();
+        int[] edgeOffsets = topology.edgeOffsets();
+        int[] edgeTargets = topology.edgeTargets();
+        long[] incoming = new long[n];
+        long[] pathLatency = new long[n];
+        int[] predecessor = new int[n];
+        Arrays.fill(predecessor, -1);
+        for (int k = 0; k < n; k++) {
+            int u = order[k];
+            if (!topology.isReachable(u)) {
+                continue;
+            }
+            pathLatency[u] = incoming[u] + nodes.get(u).latencyMs();
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                if (predecessor[v] < 0 || pathLatency[u] > incoming[v]
+                    || (pathLatency[u] == incoming[v] && u < predecessor[v])) {
+                    incoming[v] = pathLatency[u];
+                    predecessor[v] = u;
+                }
+            }
+        }
+        return new LongestPaths(pathLatency, predecessor, criticalPathEnd(topology, pathLatency));
+    }
+
+    private int criticalPathEnd(CompiledTopology topology, long[] pathLatency) {
+        int end = -1;
+        for (int i = 0; i < pathLatency.length; i++) {
+            if (topology.isReachable(i) && (end < 0 || pathLatency[i] > pathLatency[end])) {
+                end = i;
+            }
+        }
+        return end;
+    }
+
+    /** Per-node longest path latency and predecessor, and the node where the critical path ends, or -1. */
+    public record LongestPaths(long[] pathLatency, int[] predecessor, int end) {
+    }
+
+    private ScenarioDto.Node applyDefaults(NodeTypeCatalog.Snapshot snapshot, ScenarioDto.Node node) {
+        int typeId = snapshot.typeId(node.type());
+        if (typeId < 0) {
             throw new IllegalArgumentException("No defaults configured for node type: " + node.type());
         }
+        NodeDefaults defaults = snapshot.defaults(typeId);
         Integer latency = node.latencyMs() != null ? node.latencyMs() : defaults.latencyMs();
         Double variance = node.varianceFactor() != null ? node.varianceFactor() : defaults.varianceFactor();
         Integer capacity = node.capacityRps() != null ? node.capacityRps() : defaults.capacityRps();
         Double failureRate = node.failureRate() != null ? node.failureRate() : defaults.failureRate();
         Double cost = node.costPerHour() != null ? node.costPerHour() : defaults.costPerHour();
-        if ("database".equals(node.type())) {
-            DbAdjustments adjustments = computeDbAdjustments(node);
+        if (snapshot.isDatabase(typeId) && DbQueryModel.applies(node.dbConfig())) {
+            double holdMs = latency + dbQueries.queryMs(snapshot, node.dbConfig());
+            latency = (int) Math.round(holdMs);
+            capacity = DbQueryModel.pooledCapacity(capacity, DbQueryModel.connections(snapshot, node.dbConfig()), holdMs);
+        } else if (snapshot.isDatabase(typeId)) {
+            DbAdjustments adjustments = computeDbAdjustments(snapshot, node);
             latency = (int) Math.round(latency * adjustments.latencyMultiplier());
             capacity = (int) Math.round(capacity * adjustments.capacityMultiplier());
         }
+        int replicas = replicas(node);
+        capacity = scaledCapacity(capacity, replicas);
+        cost = cost * replicas;
 
         return new ScenarioDto.Node(
             node.id(),
@@ -108,11 +471,13 @@ public class SimulationService {
             capacity,
             failureRate,
             cost,
-            node.dbConfig()
+            node.dbConfig(),
+            null,
+            node.cache()
         );
     }
 
-    private DbAdjustments computeDbAdjustments(ScenarioDto.Node node) {
+    private DbAdjustments computeDbAdjustments(NodeTypeCatalog.Snapshot snapshot, ScenarioDto.Node node) {
         ScenarioDto.DbConfig config = node.dbConfig();
         if (config == null) {
             return DbAdjustments.NEUTRAL;
@@ -129,21 +494,12 @@ public class SimulationService {
                 if (table == null) {
                     continue;
                 }
-                double tableLatency = 1.0;
-                double tableCapacity = 1.0;
-                String sizeClass = table.sizeClass();
-                if ("S".equals(sizeClass)) {
-                    tableLatency *= 0.9;
-                    tableCapacity *= 1.1;
-                } else if ("L".equals(sizeClass)) {
-                    tableLatency *= 1.2;
-                    tableCapacity *= 0.8;
-                } else if ("M".equals(sizeClass) || sizeClass == null) {
-                    // neutral
-                }
+                NodeTypeCatalog.Multipliers sizeClass = snapshot.sizeClass(table.sizeClass());
+                double tableLatency = sizeClass.latency();
+                double tableCapacity = sizeClass.capacity();
                 List<String> indexes = table.indexes();
                 if (indexes != null && !indexes.isEmpty()) {
-                    tableLatency *= 0.9;
+                    tableLatency *= snapshot.indexedLatencyMultiplier();
                 }
                 worstLatency = worstLatency == null ? tableLatency : Math.max(worstLatency, tableLatency);
                 worstCapacity = worstCapacity == null ? tableCapacity : Math.min(worstCapacity, tableCapacity);
@@ -156,16 +512,9 @@ public class SimulationService {
             }
         }
 
-        String engine = config.engine();
-        if ("mongo".equals(engine)) {
-            latencyMultiplier *= 0.95;
-            capacityMultiplier *= 1.05;
-        } else if ("dynamodb".equals(engine)) {
-            latencyMultiplier *= 0.85;
-            capacityMultiplier *= 1.20;
-        } else if ("postgres".equals(engine) || "mysql".equals(engine)) {
-            // neutral
-        }
+        NodeTypeCatalog.Multipliers engine = snapshot.dbEngine(config.engine());
+        latencyMultiplier *= engine.latency();
+        capacityMultiplier *= engine.capacity();
 
         return new DbAdjustments(latencyMultiplier, capacityMultiplier);
     }
@@ -0,0 +1,36 @@
+package org.archbench.engine.core;
+
+/**
+ * Load and outcome of one window of a run, for workloads that vary over time. Latencies are those of the requests
+ * that completed inside the window, and are 0 when none did.
+ */
+public record TimelineWindow(
+    int startSec,
+    int seconds,
+    double offeredRps,
+    int throughputRps,
+    int latencyP50,
+    int latencyP95,
+    double failureRate
+) {
+    public static final int DEFAULT_SECONDS = 60;
+    public static final int MAX_WINDOWS = 10_000;
+
+    /** The requested window length, or the default, widened so that a run has at most {@link #MAX_WINDOWS} windows. */
+    public static int seconds(Integer requested, int durationSeconds) {
+        int seconds = requested != null && requested > 0 ? requested : DEFAULT_SECONDS;
+        int widest = (int) ((durationSeconds + (long) MAX_WINDOWS - 1) / MAX_WINDOWS);
+        return Math.max(1, Math.max(seconds, widest));
+    }
+
+    /** Is this window worse than {@code other}: a higher p95, then a higher failure rate, then the earlier one. */
+    public boolean worseThan(TimelineWindow other) {
+        if (latencyP95 != other.latencyP95) {
+            return latencyP95 > other.latencyP95;
+        }
+        if (failureRate != other.failureRate) {
+            return failureRate > other.failureRate;
+        }
+        return startSec < other.startSec;
+    }
+}
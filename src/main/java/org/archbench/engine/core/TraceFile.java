@@ -0,0 +1,52 @@
+package org.archbench.engine.core;
+
+import java.nio.IntBuffer;
+
+/**
+ * An uploaded traffic trace: one little-endian int32 request count per second, read through a memory-mapped view of
+ * the file, so a multi-day trace costs page cache rather than heap. Reads use absolute indexes and are safe from any
+ * number of threads.
+ */
+public final class TraceFile implements RateProfile {
+
+    private final String id;
+    private final IntBuffer counts;
+    private final long totalRequests;
+    private final int peakRps;
+
+    TraceFile(String id, IntBuffer counts) {
+        this.id = id;
+        this.counts = counts;
+        long total = 0;
+        int peak = 0;
+        for (int i = 0, n = counts.limit(); i < n; i++) {
+            int count = counts.get(i);
+            total += count;
+            peak = Math.max(peak, count);
+        }
+        this.totalRequests = total;
+        this.peakRps = peak;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public int seconds() {
+        return counts.limit();
+    }
+
+    @Override
+    public int requestsAt(int second) {
+        return second >= 0 && second < counts.limit() ? counts.get(second) : 0;
+    }
+
+    public long totalRequests() {
+        return totalRequests;
+    }
+
+    public int peakRps() {
+        return peakRps;
+    }
+}
@@ -0,0 +1,199 @@
+package org.archbench.engine.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Uploaded traffic traces, kept as files of little-endian int32 per-second request counts under
+ * {@code archbench.traces.directory}. Uploads are streamed to disk through a small buffer and never held on the heap;
+ * reads go through a read-only memory map that is opened once per trace and shared. Ids are random, and a trace
+ * never changes after upload, so a trace id is safe to use in result cache keys.
+ */
+@Component
+public class TraceStore {
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+    private static final String SUFFIX = ".trace";
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int maxSeconds;
+    private final ConcurrentHashMap<String, TraceFile> open = new ConcurrentHashMap<>();
+
+    public TraceStore(
+        @Value("${archbench.traces.directory:${java.io.tmpdir}/archbench-traces}") Path directory,
+        @Value("${archbench.traces.max-seconds:31536000}") int maxSeconds
+    ) {
+        this.directory = directory;
+        this.maxSeconds = maxSeconds;
+    }
+
+    /** Imports a text trace: non-negative request counts, one per second, separated by whitespace or commas. */
+    public TraceFile importText(InputStream input) throws IOException {
+        return store(input, true);
+    }
+
+    /** Imports a binary trace that is already in the stored layout, little-endian int32 counts. */
+    public TraceFile importBinary(InputStream input) throws IOException {
+        return store(input, false);
+    }
+
+    public Optional<TraceFile> find(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(open.computeIfAbsent(id, key -> {
+                Path path = directory.resolve(key + SUFFIX);
+                return Files.isRegularFile(path) ? map(key, path) : null;
+            }));
+        } catch (UncheckedIOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean delete(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            return false;
+        }
+        open.remove(id);
+        try {
+            return Files.deleteIfExists(directory.resolve(id + SUFFIX));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private TraceFile store(InputStream input, boolean text) throws IOException {
+        Files.createDirectories(directory);
+        String id = UUID.randomUUID().toString();
+        Path staging = Files.createTempFile(directory, id, ".part");
+        try {
+            long seconds;
+            try (FileChannel channel = FileChannel.open(staging, StandardOpenOption.WRITE)) {
+                seconds = text ? copyText(input, channel) : copyBinary(input, channel);
+            }
+            if (seconds == 0) {
+                ScenarioValidator.bad("Trace is empty");
+            }
+            Path target = directory.resolve(id + SUFFIX);
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            TraceFile trace = map(id, target);
+            open.put(id, trace);
+            return trace;
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    private long copyText(InputStream input, FileChannel channel) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] in = new byte[BUFFER_BYTES];
+        long seconds = 0;
+        long value = -1;
+        int line = 1;
+        int read;
+        while ((read = input.read(in)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = in[i];
+                if (b >= '0' && b <= '9') {
+                    value = (value < 0 ? 0 : value * 10) + (b - '0');
+                    if (value > Integer.MAX_VALUE) {
+                        ScenarioValidator.bad("Trace line " + line + " has a count above " + Integer.MAX_VALUE);
+                    }
+                    continue;
+                }
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n' && b != ',') {
+                    ScenarioValidator.bad("Trace line " + line + " is not a list of non-negative request counts");
+                }
+                if (value >= 0) {
+                    seconds = append(out, channel, (int) value, seconds);
+                    value = -1;
+                }
+                if (b == '\n') {
+                    line++;
+                }
+            }
+        }
+        if (value >= 0) {
+            seconds = append(out, channel, (int) value, seconds);
+        }
+        drain(out, channel);
+        return seconds;
+    }
+
+    private long copyBinary(InputStream input, FileChannel channel) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long bytes = 0;
+        int read;
+        while ((read = input.read(out.array(), out.position(), out.remaining())) >= 0) {
+            out.position(out.position() + read);
+            bytes += read;
+            if (bytes > (long) maxSeconds * Integer.BYTES) {
+                ScenarioValidator.bad("Trace exceeds the maximum of " + maxSeconds + " seconds");
+            }
+            if (!out.hasRemaining()) {
+                checkCounts(out);
+                drain(out, channel);
+            }
+        }
+        if (bytes % Integer.BYTES != 0) {
+            ScenarioValidator.bad("A binary trace must be a whole number of int32 counts");
+        }
+        checkCounts(out);
+        drain(out, channel);
+        return bytes / Integer.BYTES;
+    }
+
+    private long append(ByteBuffer out, FileChannel channel, int count, long seconds) throws IOException {
+        if (seconds >= maxSeconds) {
+            ScenarioValidator.bad("Trace exceeds the maximum of " + maxSeconds + " seconds");
+        }
+        if (!out.hasRemaining()) {
+            drain(out, channel);
+        }
+        out.putInt(count);
+        return seconds + 1;
+    }
+
+    private static void checkCounts(ByteBuffer out) {
+        for (int i = 0; i + Integer.BYTES <= out.position(); i += Integer.BYTES) {
+            if (out.getInt(i) < 0) {
+                ScenarioValidator.bad("Trace counts must be non-negative");
+            }
+        }
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private static TraceFile map(String id, Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size() - channel.size() % Integer.BYTES;
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            return new TraceFile(id, bytes.asIntBuffer());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
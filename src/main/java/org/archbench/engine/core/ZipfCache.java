@@ -0,0 +1,56 @@
+package org.archbench.engine.core;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+
+/**
+ * Hit ratio of a cache in front of a Zipf-distributed key space: key {@code k} (by popularity) is requested with
+ * weight {@code k^-s}, and the cache holds the most popular keys, so the hit ratio is {@code H(C, s) / H(N, s)} for
+ * {@code C} cached keys out of {@code N}. Real caches evict by recency rather than popularity and do somewhat worse,
+ * so this is an upper bound. Generalized harmonic numbers are summed exactly for the first terms and by
+ * Euler-Maclaurin for the rest, so a key space of any size costs the same.
+ */
+final class ZipfCache {
+
+    static final double DEFAULT_SKEW = 1.0;
+
+    private static final int EXACT_TERMS = 64;
+
+    private ZipfCache() {
+    }
+
+    /** The configured hit ratio, or the Zipf estimate when only the key space is given; 0 without a config. */
+    static double hitRatio(ScenarioDto.CacheConfig config) {
+        if (config == null) {
+            return 0.0;
+        }
+        if (config.hitRatio() != null) {
+            return config.hitRatio();
+        }
+        if (config.keySpace() == null || config.cachedKeys() == null || config.keySpace() <= 0) {
+            return 0.0;
+        }
+        long keys = config.keySpace();
+        long cached = Math.min(keys, Math.max(0, config.cachedKeys()));
+        double skew = config.zipfSkew() != null ? config.zipfSkew() : DEFAULT_SKEW;
+        return cached == keys ? 1.0 : harmonic(cached, skew) / harmonic(keys, skew);
+    }
+
+    /** {@code sum_{k=1..n} k^-s}. */
+    static double harmonic(long n, double s) {
+        long exact = Math.min(n, EXACT_TERMS);
+        double sum = 0.0;
+        for (long k = 1; k <= exact; k++) {
+            sum += Math.pow(k, -s);
+        }
+        if (n <= EXACT_TERMS) {
+            return sum;
+        }
+        double a = EXACT_TERMS;
+        double b = n;
+        double integral = Math.abs(s - 1.0) < 1e-12
+            ? Math.log(b / a)
+            : (Math.pow(b, 1.0 - s) - Math.pow(a, 1.0 - s)) / (1.0 - s);
+        return sum + integral + (Math.pow(b, -s) - Math.pow(a, -s)) / 2.0
+            + s / 12.0 * (Math.pow(a, -s - 1.0) - Math.pow(b, -s - 1.0));
+    }
+}
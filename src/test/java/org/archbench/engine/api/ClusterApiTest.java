@@ -0,0 +1,123 @@
+package org.archbench.engine.api;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The engine on a real port acts as its own remote worker, next to a worker that refuses connections. The coordinator
+ * does no local work, so every chunk goes over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "archbench.cluster.local-worker=false")
+@AutoConfigureMockMvc
+class ClusterApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void shardedBatchMatchesALocalBatch() throws Exception {
+        String self = "http://127.0.0.1:" + port;
+        String dead = "http://127.0.0.1:1";
+        register(self);
+        register(dead);
+        String batch = IntStream.range(0, 40)
+            .mapToObj(i -> i % 10 == 3
+                ? """
+                  {"name":"bad-%d","nodes":[{"id":"client","type":"client"}],"edges":[{"from":"client","to":"ghost"}]}
+                  """.formatted(i)
+                : """
+                  {"name":"s-%d","nodes":[{"id":"client","type":"client"},{"id":"api","type":"service","latencyMs":%d}],"edges":[{"from":"client","to":"api"}]}
+                  """.formatted(i, 5 + i))
+            .collect(Collectors.joining(",", "[", "]"));
+
+        String local = mockMvc.perform(post("/simulate/batch")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String sharded = mockMvc.perform(post("/cluster/batch")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(40))
+            .andExpect(jsonPath("$[3].error.status").value(400))
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(local), objectMapper.readTree(sharded));
+        mockMvc.perform(get("/cluster/workers"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[1].url").value(self))
+            .andExpect(jsonPath("$[1].failures").value(0))
+            .andExpect(jsonPath("$[1].scenarios").value(40));
+
+        mockMvc.perform(delete("/cluster/workers").param("url", self)).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/cluster/workers").param("url", dead)).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/cluster/workers").param("url", dead)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void scenariosReplayingATraceAreNotSharded() throws Exception {
+        mockMvc.perform(post("/cluster/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"name":"replay","workload":{"trace":"black-friday"},"nodes":[{"id":"client","type":"client"}],"edges":[]}]
+                    """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value(containsString("black-friday")));
+    }
+
+    @Test
+    void aChunkFromACoordinatorOnAnotherCatalogIsRefused() throws Exception {
+        mockMvc.perform(post("/simulate/batch")
+                .header(SweepCoordinator.CATALOG_VERSION_HEADER, "0")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"name":"s","nodes":[{"id":"client","type":"client"}],"edges":[]}]
+                    """))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void workerUrlsAreValidated() throws Exception {
+        mockMvc.perform(post("/cluster/workers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"url\":\"not a url\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void register(String url) throws Exception {
+        mockMvc.perform(post("/cluster/workers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"url\":\"" + url + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.url").value(url))
+            .andExpect(jsonPath("$.available").value(true));
+    }
+}
@@ -0,0 +1,120 @@
+package org.archbench.engine.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.archbench.engine.core.ScenarioValidationException;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ColumnarCodecTest {
+
+    @Test
+    void scenarioRoundTripsIncludingNullsSchemasAndUnknownEdgeTargets() {
+        ScenarioDto scenario = new ScenarioDto(
+            "round-trip",
+            new ScenarioDto.Workload(1200, null),
+            List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("cdn", "cdn", null, null, null, null, null, null, 2,
+                    new ScenarioDto.CacheConfig(null, 1_000_000L, 5000L, 0.9)),
+                new ScenarioDto.Node("api", "service", 12, 1.5, 3000, 0.001, 0.25, null),
+                new ScenarioDto.Node("db", "database", -1, null, null, null, 1.0, new ScenarioDto.DbConfig(
+                    "postgres",
+                    List.of(new ScenarioDto.DbTable("users", "large", List.of("email"), List.of(
+                        new ScenarioDto.DbColumn("id", "uuid"),
+                        new ScenarioDto.DbColumn("email", null)
+                    ), Arrays.asList(
+                        new ScenarioDto.DbQuery("point", "email", 2.0, null),
+                        null,
+                        new ScenarioDto.DbQuery("write", null, null, null)
+                    ))),
+                    40
+                )),
+                new ScenarioDto.Node("api", "service", null, null, null, null, null, null)
+            ),
+            List.of(
+                new ScenarioDto.Edge("client", "api"),
+                new ScenarioDto.Edge("api", "db"),
+                new ScenarioDto.Edge("db", "ghost"),
+                new ScenarioDto.Edge(null, "client")
+            )
+        );
+
+        assertEquals(scenario, ColumnarCodec.decodeScenario(ColumnarCodec.encodeScenario(scenario)));
+    }
+
+    @Test
+    void largeScenarioIsAFractionOfItsJsonSize() throws Exception {
+        int n = 10_000;
+        String[] types = { "lb", "service", "cache", "database" };
+        List<ScenarioDto.Node> nodes = new ArrayList<>(n);
+        List<ScenarioDto.Edge> edges = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new ScenarioDto.Node("node-" + i, types[i % types.length], 5 + i % 40, null, 1000 + i, null, null, null));
+            if (i > 0) {
+                edges.add(new ScenarioDto.Edge("node-" + (i - 1) / 2, "node-" + i));
+            }
+        }
+        ScenarioDto scenario = new ScenarioDto("large", null, nodes, edges);
+
+        byte[] columnar = ColumnarCodec.encodeScenario(scenario);
+        byte[] json = new ObjectMapper().writeValueAsBytes(scenario);
+        assertEquals(scenario, ColumnarCodec.decodeScenario(columnar));
+        assertTrue(columnar.length * 4 < json.length, columnar.length + " vs " + json.length);
+    }
+
+    @Test
+    void resultRoundTripsEverySection() {
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        quantiles.put("0.99", 41.5);
+        quantiles.put("1", 90.0);
+        SimulationResultDto result = new SimulationResultDto(
+            12, 30, 3000, 1.75, "degraded", 64, List.of("Add a cache"), 44,
+            new SimulationResultDto.MonteCarlo(
+                5000, -17L, 13.2,
+                new SimulationResultDto.Interval(12.9, 13.5), null, new SimulationResultDto.Interval(40.0, 48.0),
+                0.002, new SimulationResultDto.Interval(0.001, 0.003)
+            ),
+            new SimulationResultDto.LatencyDistribution(5000, 13.2, 90.0, quantiles, null),
+            new SimulationResultDto.Analytic(4000, 1.33, List.of("api")),
+            new SimulationResultDto.Breakdown(List.of("client", "api"), "api", List.of(
+                new SimulationResultDto.NodeDetail("client", null, 0.0, 0.0, 0.0),
+                new SimulationResultDto.NodeDetail("api", 1.33, 12.0, 1.0, 1.0)
+            )),
+            new SimulationResultDto.Timeline(60, List.of(
+                new SimulationResultDto.Window(0, 60, 2500.0, 2500, 11, 25, 0.0),
+                new SimulationResultDto.Window(60, 60, 4100.5, 3000, 90, 410, 0.02)
+            ), new SimulationResultDto.Window(60, 60, 4100.5, 3000, 90, 410, 0.02)),
+            new SimulationResultDto.Resilience(0.9985, 1.4, List.of("api"), List.of())
+        );
+
+        assertEquals(result, ColumnarCodec.decodeResult(ColumnarCodec.encodeResult(result)));
+    }
+
+    @Test
+    void truncatedOrForeignPayloadsAreRejected() {
+        ScenarioDto scenario = new ScenarioDto(
+            "small", null, List.of(new ScenarioDto.Node("a", "client", null, null, null, null, null, null)), List.of()
+        );
+        byte[] bytes = ColumnarCodec.encodeScenario(scenario);
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnarCodec.decodeScenario(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarCodec.decodeResult(bytes));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarCodec.decodeScenario("{\"name\":1}".getBytes()));
+        byte[] older = bytes.clone();
+        older[2] = 1;
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> ColumnarCodec.decodeScenario(older));
+        assertTrue(ex.getReason().contains("version 1"));
+    }
+}
@@ -0,0 +1,51 @@
+package org.archbench.engine.api;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusExposesPipelineMeters() throws Exception {
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "name": "metrics-scenario",
+                      "nodes": [ { "id": "client", "type": "client" }, { "id": "api", "type": "service" } ],
+                      "edges": [ { "from": "client", "to": "api" } ]
+                    }
+                    """))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "name": "broken", "nodes": [ { "id": "a", "type": "service" } ], "edges": [ { "from": "a", "to": "a" } ] }
+                    """))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("archbench_simulation_stage_seconds_count{stage=\"validate\"}")))
+            .andExpect(content().string(containsString("archbench_simulation_status_total{status=\"ok\"}")))
+            .andExpect(content().string(containsString("archbench_scenario_rejected_total{reason=\"self-loop\"} 1.0")))
+            .andExpect(content().string(containsString("archbench_scenario_nodes_bucket")));
+    }
+}
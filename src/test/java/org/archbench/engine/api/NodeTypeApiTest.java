@@ -0,0 +1,34 @@
+package org.archbench.engine.api;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NodeTypeApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void nodeTypesListsTheLoadedCatalog() throws Exception {
+        mockMvc.perform(get("/node-types"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").isString())
+            .andExpect(jsonPath("$.types", hasItems("client", "database", "worker")))
+            .andExpect(jsonPath("$.dbEngines", hasItems("postgres", "dynamodb")));
+
+        mockMvc.perform(post("/node-types/reload"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.types", hasItems("client", "database", "worker")));
+    }
+}
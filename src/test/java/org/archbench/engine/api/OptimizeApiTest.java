@@ -0,0 +1,55 @@
+package org.archbench.engine.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OptimizeApiTest {
+
+    private static final String SCENARIO = """
+        {
+          "name": "checkout",
+          "workload": { "rps": 5000, "p95TargetMs": 1000 },
+          "nodes": [
+            { "id": "client", "type": "client" },
+            { "id": "api", "type": "service" },
+            { "id": "db", "type": "database" }
+          ],
+          "edges": [ { "from": "client", "to": "api" }, { "from": "api", "to": "db" } ]
+        }
+        """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void findsAFeasibleConfiguration() throws Exception {
+        mockMvc.perform(post("/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SCENARIO))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.feasible").value(true))
+            .andExpect(jsonPath("$.baseline.throughputRps").value(2000))
+            .andExpect(jsonPath("$.changes[0].nodeId").value("api"))
+            .andExpect(jsonPath("$.changes[1].nodeId").value("db"));
+    }
+
+    @Test
+    void rejectsOutOfRangeParameters() throws Exception {
+        mockMvc.perform(post("/optimize")
+                .param("cacheHitRatio", "1.5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SCENARIO))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("cacheHitRatio must be in [0, 1)"));
+    }
+}
@@ -0,0 +1,93 @@
+package org.archbench.engine.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ScenarioHistoryApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void simulatedRunsAreListedAndDiffed() throws Exception {
+        String name = "history-" + UUID.randomUUID();
+        simulate(name, 10);
+        simulate(name, 40);
+
+        String body = mockMvc.perform(get("/scenarios/{name}/history", name))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(name))
+            .andExpect(jsonPath("$.runs.length()").value(2))
+            .andExpect(jsonPath("$.runs[0].mode").value("closed-form"))
+            .andExpect(jsonPath("$.runs[1].latencyMsP50").value(41))
+            .andReturn().getResponse().getContentAsString();
+        JsonNode runs = objectMapper.readTree(body).get("runs");
+        long first = runs.get(0).get("id").asLong();
+        long second = runs.get(1).get("id").asLong();
+
+        mockMvc.perform(get("/scenarios/{name}/history/{runId}", name, first))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.latencyMsP50").value(11));
+
+        mockMvc.perform(get("/scenarios/{name}/history/diff", name)
+                .param("from", String.valueOf(first))
+                .param("to", String.valueOf(second)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.scenarioChanged").value(true))
+            .andExpect(jsonPath("$.changes[0].metric").value("latencyMsP50"))
+            .andExpect(jsonPath("$.changes[0].delta").value(30.0));
+
+        mockMvc.perform(get("/scenarios/{name}/history", name)
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.runs.length()").value(1))
+            .andExpect(jsonPath("$.runs[0].id").value(second));
+    }
+
+    @Test
+    void unknownRunsAndBadLimitsAreRejected() throws Exception {
+        mockMvc.perform(get("/scenarios/{name}/history/{runId}", "history-" + UUID.randomUUID(), 0))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.title").value("Unknown run"));
+
+        mockMvc.perform(get("/scenarios/{name}/history", "anything")
+                .param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void simulate(String name, int latencyMs) throws Exception {
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "name": "%s",
+                      "workload": { "rps": 100, "p95TargetMs": 500 },
+                      "nodes": [
+                        { "id": "client", "type": "client", "latencyMs": 1 },
+                        { "id": "api", "type": "service", "latencyMs": %d, "varianceFactor": 1.0 }
+                      ],
+                      "edges": [ { "from": "client", "to": "api" } ]
+                    }
+                    """.formatted(name, latencyMs)))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,83 @@
+package org.archbench.engine.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ScenarioSessionApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void patchesUpdateTheSessionResult() throws Exception {
+        String scenario = """
+            {
+              "name": "editor",
+              "nodes": [ { "id": "client", "type": "client" }, { "id": "api", "type": "service" } ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """;
+        String body = mockMvc.perform(post("/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenario))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.revision").value(0))
+            .andExpect(jsonPath("$.result.latencyMsP50").value(10))
+            .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        String edit = """
+            {
+              "ops": [
+                { "op": "add-node", "node": { "id": "db", "type": "database" } },
+                { "op": "add-edge", "from": "api", "to": "db" }
+              ]
+            }
+            """;
+        mockMvc.perform(patch("/sessions/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(edit))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.revision").value(1))
+            .andExpect(jsonPath("$.nodes").value(3))
+            .andExpect(jsonPath("$.edges").value(2))
+            .andExpect(jsonPath("$.result.latencyMsP50").value(22));
+
+        mockMvc.perform(patch("/sessions/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "ops": [ { "op": "add-edge", "from": "api", "to": "ghost" } ] }
+                    """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Edge 'to' not found: ghost"));
+
+        mockMvc.perform(get("/sessions/{id}/scenario", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nodes.length()").value(3))
+            .andExpect(jsonPath("$.edges[1].to").value("db"));
+
+        mockMvc.perform(delete("/sessions/{id}", id))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/sessions/{id}", id))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.title").value("Unknown scenario session"));
+    }
+}
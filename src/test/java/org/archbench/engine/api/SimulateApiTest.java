@@ -1,9 +1,17 @@
 package org.archbench.engine.api;
 
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -11,6 +19,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 class SimulateApiTest {
@@ -18,6 +28,9 @@ class SimulateApiTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     void simulateWithValidScenarioReturnsMetrics() throws Exception {
         String scenarioJson = """
@@ -46,6 +59,60 @@ class SimulateApiTest {
             .andExpect(jsonPath("$.hints").isArray());
     }
 
+    @Test
+    void simulateAcceptsAndReturnsTheColumnarFormat() throws Exception {
+        ScenarioDto scenario = new ScenarioDto(
+            "columnar-scenario",
+            new ScenarioDto.Workload(200, 500),
+            List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("api", "service", null, null, null, null, null, null)
+            ),
+            List.of(new ScenarioDto.Edge("client", "api"))
+        );
+        String json = mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(scenario)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        byte[] body = mockMvc.perform(post("/simulate")
+                .contentType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .accept(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .content(ColumnarCodec.encodeScenario(scenario)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertEquals(objectMapper.readValue(json, SimulationResultDto.class), ColumnarCodec.decodeResult(body));
+
+        mockMvc.perform(post("/simulate")
+                .contentType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .content(new byte[] { 1, 2, 3 }))
+            .andExpect(status().isBadRequest());
+
+        byte[] older = ColumnarCodec.encodeScenario(scenario);
+        older[2] = 1;
+        mockMvc.perform(post("/simulate")
+                .contentType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .content(older))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Unsupported columnar format version 1; this engine reads version 2"));
+
+        ScenarioDto invalid = new ScenarioDto("invalid", null, scenario.nodes(), List.of(new ScenarioDto.Edge("client", "ghost")));
+        mockMvc.perform(post("/simulate")
+                .contentType(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .accept(ColumnarCodec.APPLICATION_COLUMNAR_VALUE)
+                .content(ColumnarCodec.encodeScenario(invalid)))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.code").value("unknown-node"));
+    }
+
     @Test
     void simulateWithInvalidScenarioReturnsProblemDetail() throws Exception {
         String invalidScenarioJson = """
@@ -65,6 +132,291 @@ class SimulateApiTest {
                 .content(invalidScenarioJson))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.title").value("Invalid scenario"))
-            .andExpect(jsonPath("$.detail").value("Edge 'to' not found: ghost"));
+            .andExpect(jsonPath("$.detail").value("Edge 'to' not found: ghost"))
+            .andExpect(jsonPath("$.code").value("unknown-node"));
+    }
+
+    @Test
+    void simulateWithSeveralProblemsListsThemAll() throws Exception {
+        String invalidScenarioJson = """
+            {
+              "name": "invalid",
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "client", "type": "service" }
+              ],
+              "edges": [
+                { "from": "client", "to": "ghost" }
+              ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(invalidScenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Duplicate node id: client"))
+            .andExpect(jsonPath("$.code").value("duplicate-node"))
+            .andExpect(jsonPath("$.errors.length()").value(2))
+            .andExpect(jsonPath("$.errors[1].code").value("unknown-node"))
+            .andExpect(jsonPath("$.errors[1].detail").value("Edge 'to' not found: ghost"));
+    }
+
+    @Test
+    void simulateInDiscreteEventModeReportsSampledTail() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "des-scenario",
+              "workload": { "rps": 200, "p95TargetMs": 500 },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" },
+                { "id": "db", "type": "database" }
+              ],
+              "edges": [
+                { "from": "client", "to": "api" },
+                { "from": "api", "to": "db" }
+              ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "discrete-event")
+                .param("durationSec", "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.latencyMsP50").isNumber())
+            .andExpect(jsonPath("$.latencyMsP99").isNumber())
+            .andExpect(jsonPath("$.throughputRps").value(200));
+    }
+
+    @Test
+    void simulateInMonteCarloModeReportsConfidenceIntervals() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "mc-scenario",
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" }
+              ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "montecarlo")
+                .param("trials", "5000")
+                .param("seed", "17")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.latencyMsP99").isNumber())
+            .andExpect(jsonPath("$.monteCarlo.trials").value(5000))
+            .andExpect(jsonPath("$.monteCarlo.seed").value(17))
+            .andExpect(jsonPath("$.monteCarlo.latencyMsMeanInterval.lower").isNumber())
+            .andExpect(jsonPath("$.monteCarlo.failureRateInterval.upper").isNumber());
+    }
+
+    @Test
+    void simulateInAnalyticModeFlagsSaturatedNodes() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "analytic-scenario",
+              "workload": { "rps": 4000 },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" }
+              ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.throughputRps").value(3000))
+            .andExpect(jsonPath("$.analytic.offeredRps").value(4000))
+            .andExpect(jsonPath("$.analytic.saturatedNodes[0]").value("api"))
+            .andExpect(jsonPath("$.breakdown").doesNotExist());
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .param("breakdown", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.breakdown.bottleneck").value("api"))
+            .andExpect(jsonPath("$.breakdown.criticalPath[1]").value("api"))
+            .andExpect(jsonPath("$.breakdown.nodes[1].utilization").isNumber());
+    }
+
+    @Test
+    void simulateReportsRetryStormsAndRejectsPoliciesInSampledModes() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "retry-scenario",
+              "workload": { "rps": 900 },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service", "latencyMs": 10, "varianceFactor": 1.0,
+                  "capacityRps": 500, "failureRate": 0.15, "replicas": 2 }
+              ],
+              "edges": [
+                { "from": "client", "to": "api", "timeoutMs": 50, "retry": { "maxRetries": 3, "backoffMs": 10 } }
+              ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resilience.retryStorms[0]").value("api"))
+            .andExpect(jsonPath("$.resilience.retryAmplification", closeTo(2.5, 0.01)))
+            .andExpect(jsonPath("$.resilience.openBreakers").isEmpty())
+            .andExpect(jsonPath("$.analytic.saturatedNodes[0]").value("api"));
+
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resilience.availability").isNumber());
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "montecarlo")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("invalid-edge"));
+    }
+
+    @Test
+    void simulateSendsOnlyCacheMissesDownstream() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "cache-scenario",
+              "workload": { "rps": 10000 },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "redis", "type": "cache", "cache": { "keySpace": 1000000, "cachedKeys": 100000, "zipfSkew": 1.1 } },
+                { "id": "db", "type": "database" }
+              ],
+              "edges": [ { "from": "client", "to": "redis" }, { "from": "redis", "to": "db" } ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.throughputRps").value(10000))
+            .andExpect(jsonPath("$.analytic.saturatedNodes").isEmpty());
+
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson.replace("\"type\": \"cache\"", "\"type\": \"service\"")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("invalid-node"));
+    }
+
+    @Test
+    void simulateReportsRequestedQuantilesAndHistogram() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "quantile-scenario",
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" }
+              ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "montecarlo")
+                .param("quantiles", "0.99,0.999,1")
+                .param("histogram", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.latency.count").value(1000))
+            .andExpect(jsonPath("$.latency.quantiles['0.99']").isNumber())
+            .andExpect(jsonPath("$.latency.quantiles['0.999']").isNumber())
+            .andExpect(jsonPath("$.latency.quantiles['1']").isNumber())
+            .andExpect(jsonPath("$.latency.histogram").isString());
+
+        mockMvc.perform(post("/simulate")
+                .param("quantiles", "1.5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Quantiles must be in (0, 1]"));
+    }
+
+    @Test
+    void simulateWithUnknownModeReturnsProblemDetail() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "api-scenario",
+              "nodes": [ { "id": "client", "type": "client" } ],
+              "edges": []
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "quantum")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("Unknown simulation mode 'quantum'"));
+    }
+
+    @Test
+    void simulateStreamsNdjsonResultsInInputOrder() throws Exception {
+        String ndjson = """
+            {"name":"one","nodes":[{"id":"client","type":"client"}],"edges":[]}
+            {"name":"two","nodes":[{"id":"client","type":"client"}],"edges":[{"from":"client","to":"ghost"}]}
+            {"name":"three","nodes":[{"id":"lb","type":"lb"},{"id":"api","type":"service"}],"edges":[{"from":"lb","to":"api"}]}
+            """;
+
+        String body = mockMvc.perform(post("/simulate")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"result\":{\"latencyMsP50\":2,"));
+        assertTrue(lines[1].contains("\"detail\":\"Edge 'to' not found: ghost\""));
+        assertTrue(lines[2].startsWith("{\"result\":{\"latencyMsP50\":11,"));
+    }
+
+    @Test
+    void simulateStreamStopsWithAProblemLineOnMalformedInput() throws Exception {
+        String ndjson = """
+            {"name":"one","nodes":[{"id":"client","type":"client"}],"edges":[]}
+            {"name":"two","nodes":[
+            """;
+
+        String body = mockMvc.perform(post("/simulate")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("Malformed scenario JSON"));
     }
 }
@@ -0,0 +1,73 @@
+package org.archbench.engine.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SimulateBatchApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void batchReturnsResultsAndProblemsInRequestOrder() throws Exception {
+        String batchJson = """
+            [
+              {
+                "name": "first",
+                "nodes": [ { "id": "client", "type": "client" }, { "id": "api", "type": "service" } ],
+                "edges": [ { "from": "client", "to": "api" } ]
+              },
+              {
+                "name": "broken",
+                "nodes": [ { "id": "client", "type": "client" } ],
+                "edges": [ { "from": "client", "to": "ghost" } ]
+              },
+              {
+                "name": "third",
+                "nodes": [ { "id": "client", "type": "client" }, { "id": "db", "type": "database" } ],
+                "edges": [ { "from": "client", "to": "db" } ]
+              }
+            ]
+            """;
+
+        mockMvc.perform(post("/simulate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].result.latencyMsP50").value(10))
+            .andExpect(jsonPath("$[0].error").doesNotExist())
+            .andExpect(jsonPath("$[1].result").doesNotExist())
+            .andExpect(jsonPath("$[1].error.status").value(400))
+            .andExpect(jsonPath("$[1].error.detail").value("Edge 'to' not found: ghost"))
+            .andExpect(jsonPath("$[2].result.latencyMsP50").value(14));
+    }
+
+    @Test
+    void ndjsonBatchReportsMalformedLinesPerItem() throws Exception {
+        String ndjson = """
+            {"name":"one","nodes":[{"id":"client","type":"client"}],"edges":[]}
+            {"name":"two","nodes":[
+            {"name":"three","nodes":[{"id":"lb","type":"lb"}],"edges":[]}
+            """;
+
+        mockMvc.perform(post("/simulate/batch")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].result.latencyMsP50").value(2))
+            .andExpect(jsonPath("$[1].error.title").value("Invalid scenario"))
+            .andExpect(jsonPath("$[2].result.latencyMsP50").value(3));
+    }
+}
@@ -0,0 +1,116 @@
+package org.archbench.engine.api;
+
+import static org.hamcrest.Matchers.oneOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SimulationJobApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void jobRunsEveryScenarioAndKeepsResultsInOrder() throws Exception {
+        String sweep = """
+            [
+              {
+                "name": "first",
+                "nodes": [ { "id": "client", "type": "client" }, { "id": "api", "type": "service" } ],
+                "edges": [ { "from": "client", "to": "api" } ]
+              },
+              {
+                "name": "broken",
+                "nodes": [ { "id": "client", "type": "client" } ],
+                "edges": [ { "from": "client", "to": "ghost" } ]
+              }
+            ]
+            """;
+
+        String body = mockMvc.perform(post("/simulations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(sweep))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.total").value(2))
+            .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        awaitFinished(id);
+        mockMvc.perform(get("/simulations/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("succeeded"))
+            .andExpect(jsonPath("$.completed").value(2))
+            .andExpect(jsonPath("$.progress").value(1.0))
+            .andExpect(jsonPath("$.finishedAt").isString())
+            .andExpect(jsonPath("$.results[0].result.latencyMsP50").value(10))
+            .andExpect(jsonPath("$.results[1].error.detail").value("Edge 'to' not found: ghost"));
+    }
+
+    @Test
+    void deleteCancelsARunningJob() throws Exception {
+        String heavy = """
+            {
+              "name": "heavy",
+              "nodes": [ { "id": "client", "type": "client" }, { "id": "api", "type": "service" }, { "id": "db", "type": "database" } ],
+              "edges": [ { "from": "client", "to": "api" }, { "from": "api", "to": "db" } ],
+              "workload": { "rps": 5000 }
+            }
+            """;
+
+        String body = mockMvc.perform(post("/simulations")
+                .param("mode", "discrete-event")
+                .param("durationSec", "3600")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(heavy))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        mockMvc.perform(delete("/simulations/{id}", id))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status", oneOf("cancelling", "cancelled")));
+
+        awaitFinished(id);
+        mockMvc.perform(get("/simulations/{id}", id))
+            .andExpect(jsonPath("$.status").value("cancelled"))
+            .andExpect(jsonPath("$.completed").value(0));
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/simulations/{id}", "missing"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.title").value("Unknown simulation job"));
+    }
+
+    private void awaitFinished(String id) throws Exception {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            String body = mockMvc.perform(get("/simulations/{id}", id)).andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            if (job.get("finishedAt") != null) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+}
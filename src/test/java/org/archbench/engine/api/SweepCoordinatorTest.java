@@ -0,0 +1,243 @@
+package org.archbench.engine.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.archbench.engine.api.dto.BatchItemDto;
+import org.archbench.engine.api.dto.ClusterWorkerDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.archbench.engine.core.NodeTypeCatalog;
+import org.archbench.engine.core.ScenarioValidationException;
+import org.archbench.engine.core.SimulationAdmission;
+import org.archbench.engine.core.SimulationOptions;
+import org.archbench.engine.core.SimulationRejectedException;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SweepCoordinatorTest {
+
+    private static final String FAST = "http://fast:8080";
+    private static final String SLOW = "http://slow:8080";
+    private static final String DEAD = "http://dead:8080";
+
+    @Test
+    void chunksAreSpreadAcrossWorkersAndMergedInOrder() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(FAST, SLOW), 60_000);
+        Map<String, AtomicInteger> chunks = new ConcurrentHashMap<>();
+        AtomicInteger largest = new AtomicInteger();
+        SweepCoordinator coordinator = coordinator(registry, 4, (url, chunk, query, catalogVersion) -> {
+            assertEquals("mode=analytic", query);
+            assertEquals(Long.toHexString(NodeTypeCatalog.builtIn().current().version()), catalogVersion);
+            chunks.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+            largest.accumulateAndGet(chunk.size(), Math::max);
+            return echo(chunk);
+        });
+
+        List<BatchItemDto> items = coordinator.run(scenarios(50), SimulationOptions.DEFAULT, "mode=analytic");
+
+        assertEquals(IntStream.range(0, 50).boxed().toList(), latencies(items));
+        assertEquals(4, largest.get());
+        assertTrue(chunks.values().stream().mapToInt(AtomicInteger::get).sum() >= 13);
+    }
+
+    @Test
+    void aFailedWorkersChunkIsRetriedElsewhere() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(FAST, DEAD), 60_000);
+        CountDownLatch deadTried = new CountDownLatch(1);
+        SweepCoordinator coordinator = coordinator(registry, 5, (url, chunk, query, catalogVersion) -> {
+            if (url.equals(DEAD)) {
+                deadTried.countDown();
+                throw new ConnectException("Connection refused");
+            }
+            deadTried.await(5, TimeUnit.SECONDS);
+            return echo(chunk);
+        });
+
+        List<BatchItemDto> items = coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null);
+
+        assertEquals(IntStream.range(0, 20).boxed().toList(), latencies(items));
+        ClusterWorkerDto dead = registry.list().stream().filter(worker -> worker.url().equals(DEAD)).findFirst().orElseThrow();
+        assertEquals(1, dead.failures());
+        assertFalse(dead.available());
+        assertTrue(dead.lastError().contains("Connection refused"));
+        assertEquals(List.of(FAST), registry.available().stream().map(ClusterWorkerRegistry.Worker::url).toList());
+    }
+
+    @Test
+    void aBusyWorkerWaitsAndStaysInTheSweep() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(SLOW), 60_000);
+        AtomicInteger refusals = new AtomicInteger();
+        SweepCoordinator coordinator = coordinator(registry, 5, (url, chunk, query, catalogVersion) -> {
+            if (refusals.getAndIncrement() < 2) {
+                throw new SweepCoordinator.WorkerStatusException(url, 429, 10);
+            }
+            return echo(chunk);
+        });
+
+        List<BatchItemDto> items = coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null);
+
+        assertEquals(IntStream.range(0, 20).boxed().toList(), latencies(items));
+        ClusterWorkerDto busy = registry.list().get(0);
+        assertEquals(20, busy.scenarios());
+        assertEquals(0, busy.failures());
+        assertTrue(busy.available());
+    }
+
+    @Test
+    void aRefusedChunkTakesTheWorkerOutOfTheSweepWithoutACooldown() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(FAST, DEAD), 60_000);
+        CountDownLatch refused = new CountDownLatch(1);
+        SweepCoordinator coordinator = coordinator(registry, 5, (url, chunk, query, catalogVersion) -> {
+            if (url.equals(DEAD)) {
+                refused.countDown();
+                throw new SweepCoordinator.WorkerStatusException(url, 400, 0);
+            }
+            refused.await(5, TimeUnit.SECONDS);
+            return echo(chunk);
+        });
+
+        List<BatchItemDto> items = coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null);
+
+        assertEquals(IntStream.range(0, 20).boxed().toList(), latencies(items));
+        ClusterWorkerDto dead = registry.list().stream().filter(worker -> worker.url().equals(DEAD)).findFirst().orElseThrow();
+        assertEquals(1, dead.failures());
+        assertTrue(dead.available());
+        assertTrue(dead.lastError().contains("HTTP 400"));
+    }
+
+    @Test
+    void anIdleWorkerBacksUpAStraggler() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(FAST, SLOW), 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        SweepCoordinator coordinator = coordinator(registry, 5, (url, chunk, query, catalogVersion) -> {
+            if (url.equals(SLOW)) {
+                release.await();
+            }
+            return echo(chunk);
+        });
+
+        List<BatchItemDto> items = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null));
+        release.countDown();
+
+        assertEquals(IntStream.range(0, 20).boxed().toList(), latencies(items));
+        ClusterWorkerDto fast = registry.list().stream().filter(worker -> worker.url().equals(FAST)).findFirst().orElseThrow();
+        assertEquals(20, fast.scenarios());
+    }
+
+    @Test
+    void chunksTheCoordinatorCannotAdmitAreLeftToTheWorkers() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(FAST), 60_000);
+        SweepCoordinator coordinator = new SweepCoordinator(registry, null, null, NodeTypeCatalog.builtIn(), saturated(),
+            (url, chunk, query, catalogVersion) -> echo(chunk), 5, true);
+
+        List<BatchItemDto> items = coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null);
+
+        assertEquals(IntStream.range(0, 20).boxed().toList(), latencies(items));
+        assertEquals(20, registry.list().get(0).scenarios());
+    }
+
+    @Test
+    void withoutWorkersAnAdmissionRejectionEndsTheSweep() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(), 60_000);
+        SweepCoordinator coordinator = new SweepCoordinator(registry, null, null, NodeTypeCatalog.builtIn(), saturated(),
+            (url, chunk, query, catalogVersion) -> echo(chunk), 5, true);
+
+        assertThrows(SimulationRejectedException.class, () -> coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null));
+    }
+
+    @Test
+    void registeringAgainDoesNotEndACooldown() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(DEAD), 60_000);
+        registry.available().get(0).failed("Connection refused");
+
+        ClusterWorkerDto dead = registry.register(DEAD);
+
+        assertFalse(dead.available());
+        assertTrue(registry.available().isEmpty());
+    }
+
+    @Test
+    void anInterruptedSweepFailsAndKeepsTheFlag() throws InterruptedException {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(SLOW), 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SweepCoordinator coordinator = coordinator(registry, 5, (url, chunk, query, catalogVersion) -> {
+            started.countDown();
+            release.await();
+            return echo(chunk);
+        });
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                coordinator.run(scenarios(20), SimulationOptions.DEFAULT, null);
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5_000);
+        release.countDown();
+
+        assertFalse(caller.isAlive());
+        assertTrue(failure.get() instanceof IllegalStateException, String.valueOf(failure.get()));
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    void workerUrlsMustBeHttp() {
+        ClusterWorkerRegistry registry = new ClusterWorkerRegistry(List.of(), 60_000);
+
+        assertEquals("http://worker:8080", registry.register("http://worker:8080/").url());
+        assertEquals(1, registry.list().size());
+        assertTrue(registry.unregister("http://worker:8080"));
+        assertThrows(ScenarioValidationException.class, () -> registry.register("ftp://worker"));
+    }
+
+    private static SweepCoordinator coordinator(ClusterWorkerRegistry registry, int chunkSize, SweepCoordinator.ChunkTransport transport) {
+        return new SweepCoordinator(registry, null, null, NodeTypeCatalog.builtIn(), null, transport, chunkSize, false);
+    }
+
+    /** Admission with no queue room in any lane, so every local chunk is turned away. */
+    private static SimulationAdmission saturated() {
+        return new SimulationAdmission(new SimpleMeterRegistry(), 1, 0, 1, 0, 1, 0, 0);
+    }
+
+    /** Answers each scenario with its index, carried in the scenario name, as p50 latency. */
+    private static List<BatchItemDto> echo(List<ScenarioDto> chunk) {
+        return chunk.stream()
+            .map(scenario -> BatchItemDto.success(new SimulationResultDto(Integer.parseInt(scenario.name()), 0, 0, 0.0, "PASS", null, List.of())))
+            .toList();
+    }
+
+    private static List<Integer> latencies(List<BatchItemDto> items) {
+        return items.stream().map(item -> item.result().latencyMsP50()).toList();
+    }
+
+    private static List<ScenarioDto> scenarios(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new ScenarioDto(String.valueOf(i), null, List.of(), List.of()))
+            .toList();
+    }
+}
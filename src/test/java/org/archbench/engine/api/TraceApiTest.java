@@ -0,0 +1,118 @@
+package org.archbench.engine.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TraceApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void uploadedTraceIsReplayedWindowByWindow() throws Exception {
+        String body = mockMvc.perform(post("/traces")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("1000\n1000\n5000\n5000\n1000\n"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.seconds").value(5))
+            .andExpect(jsonPath("$.totalRequests").value(13000))
+            .andExpect(jsonPath("$.peakRps").value(5000))
+            .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).get("id").asText();
+
+        String scenarioJson = """
+            {
+              "name": "replay",
+              "workload": { "trace": "%s" },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" }
+              ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """.formatted(id);
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .param("windowSec", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timeline.windowSec").value(2))
+            .andExpect(jsonPath("$.timeline.windows.length()").value(3))
+            .andExpect(jsonPath("$.timeline.windows[2].seconds").value(1))
+            .andExpect(jsonPath("$.timeline.worst.startSec").value(2))
+            .andExpect(jsonPath("$.timeline.worst.offeredRps").value(5000.0))
+            .andExpect(jsonPath("$.timeline.worst.throughputRps").value(3000));
+
+        mockMvc.perform(post("/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("invalid-workload"));
+
+        mockMvc.perform(delete("/traces/" + id))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/traces/" + id))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/simulate")
+                .param("mode", "analytic")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("unknown-trace"));
+    }
+
+    @Test
+    void curveWorkloadRunsInDiscreteEventMode() throws Exception {
+        String scenarioJson = """
+            {
+              "name": "ramp",
+              "workload": { "curve": [ { "atSec": 0, "rps": 100 }, { "atSec": 20, "rps": 400 } ] },
+              "nodes": [
+                { "id": "client", "type": "client" },
+                { "id": "api", "type": "service" }
+              ],
+              "edges": [ { "from": "client", "to": "api" } ]
+            }
+            """;
+
+        mockMvc.perform(post("/simulate")
+                .param("mode", "discrete-event")
+                .param("windowSec", "10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scenarioJson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.timeline.windows.length()").value(2))
+            .andExpect(jsonPath("$.timeline.windows[0].startSec").value(0))
+            .andExpect(jsonPath("$.timeline.windows[1].startSec").value(10))
+            .andExpect(jsonPath("$.timeline.worst").exists());
+    }
+
+    @Test
+    void malformedTraceIsRejected() throws Exception {
+        mockMvc.perform(post("/traces")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("10 twenty 30"))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist("Location"));
+    }
+}
@@ -0,0 +1,90 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class DbQueryModelTest {
+
+    private static final NodeTypeCatalog.QueryCosts COSTS = new NodeTypeCatalog.QueryCosts(0.02, 0.0002, 0.05, 0.5, 100);
+    private static final long ROWS = 1_000_000L;
+
+    @Test
+    void indexesTurnScansIntoTreeDescents() {
+        assertEquals(3, DbQueryModel.depth(ROWS));
+        assertEquals(3 * 0.02 + 0.0002, cost(List.of("email"), query("point", "email")), 1e-12);
+        assertEquals(ROWS * 0.0002, cost(List.of("id"), query("point", "email")), 1e-9);
+        assertEquals(3 * 0.02 + 0.0002, cost(List.of("email, created_at"), query("point", "email")), 1e-12);
+        assertEquals(ROWS * 0.0002, cost(List.of("created_at,email"), query("point", "email")), 1e-9);
+    }
+
+    @Test
+    void rangesReadTheirSelectivityOfTheRows() {
+        ScenarioDto.DbQuery narrow = new ScenarioDto.DbQuery("range", "created_at", null, 0.001);
+
+        assertEquals(3 * 0.02 + 1000 * 0.0002, cost(List.of("created_at"), narrow), 1e-12);
+        assertEquals(3 * 0.02 + ROWS * DbQueryModel.DEFAULT_SELECTIVITY * 0.0002, cost(List.of("created_at"), query("range", "created_at")), 1e-12);
+    }
+
+    @Test
+    void writesUpdateEveryIndexAndCommit() {
+        List<String> indexes = List.of("id", "email");
+
+        assertEquals(3 * 0.02 + 0.0002 + 3 * 0.05 + 0.5, cost(indexes, query("write", "id")), 1e-12);
+        assertEquals(3 * 0.05 + 0.5, cost(indexes, query("write", null)), 1e-12);
+    }
+
+    @Test
+    void queriesAddUpPerRequest() {
+        ScenarioDto.DbTable table = new ScenarioDto.DbTable("users", "M", List.of("email"), null, List.of(
+            new ScenarioDto.DbQuery("point", "email", 3.0, null),
+            new ScenarioDto.DbQuery("write", null, 0.5, null)
+        ));
+
+        assertEquals(3 * (3 * 0.02 + 0.0002) + 0.5 * (2 * 0.05 + 0.5), DbQueryModel.tableMs(COSTS, ROWS, table), 1e-12);
+    }
+
+    @Test
+    void tableCostsAreCachedBySchema() {
+        DbQueryModel model = new DbQueryModel();
+        NodeTypeCatalog.Snapshot catalog = NodeTypeCatalog.builtIn().current();
+        ScenarioDto.DbTable table = new ScenarioDto.DbTable("users", "M", List.of("email"), null, List.of(query("point", "email")));
+        ScenarioDto.DbConfig postgres = new ScenarioDto.DbConfig("postgres", List.of(table));
+        ScenarioDto.DbConfig sameSchema = new ScenarioDto.DbConfig("postgres", List.of(
+            new ScenarioDto.DbTable("users", "M", List.of("email"), null, List.of(query("point", "email")))
+        ), 20);
+        ScenarioDto.DbConfig dynamo = new ScenarioDto.DbConfig("dynamodb", List.of(table));
+
+        double first = model.queryMs(catalog, postgres);
+        double second = model.queryMs(catalog, sameSchema);
+        double other = model.queryMs(catalog, dynamo);
+
+        assertEquals(first, second, 0.0);
+        assertTrue(other > first);
+        assertEquals(1, model.stats().hitCount());
+        assertEquals(2, model.stats().missCount());
+    }
+
+    @Test
+    void poolsCapCapacityByHoldTime() {
+        assertEquals(500, DbQueryModel.pooledCapacity(2000, 10, 20.0));
+        assertEquals(2000, DbQueryModel.pooledCapacity(2000, 100, 20.0));
+        assertEquals(2000, DbQueryModel.pooledCapacity(2000, 0, 20.0));
+        assertFalse(DbQueryModel.applies(new ScenarioDto.DbConfig("postgres", List.of(
+            new ScenarioDto.DbTable("users", "M", List.of("email"), null)
+        ))));
+    }
+
+    private static double cost(List<String> indexes, ScenarioDto.DbQuery query) {
+        return DbQueryModel.tableMs(COSTS, ROWS, new ScenarioDto.DbTable("t", "M", indexes, null, List.of(query)));
+    }
+
+    private static ScenarioDto.DbQuery query(String kind, String column) {
+        return new ScenarioDto.DbQuery(kind, column, null, null);
+    }
+}
@@ -0,0 +1,167 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class DiscreteEventSimulatorTest {
+
+    private final SimulationService simulationService = new SimulationService();
+    private final DiscreteEventSimulator simulator = new DiscreteEventSimulator();
+
+    @Test
+    void parallelBranchesJoinOnTheSlowestPath() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("cache", "cache", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("db", "database", null, 1.0, null, 0.0, null, null)
+        ));
+        List<ScenarioDto.Edge> edges = List.of(
+            new ScenarioDto.Edge("client", "api"),
+            new ScenarioDto.Edge("api", "cache"),
+            new ScenarioDto.Edge("api", "db")
+        );
+
+        DiscreteEventSimulator.DiscreteEventResult result = simulator.simulate(
+            simulationService.compileScenario(nodes), CompiledTopology.compile(nodes, edges), 100, 10, 7L);
+
+        assertEquals(1000, result.generatedRequests());
+        assertEquals(1000, result.completedRequests());
+        assertEquals(22, result.latencyP50());
+        assertEquals(22, result.latencyP99());
+        assertEquals(100, result.throughputRps());
+        assertEquals(0.0, result.failureRate());
+    }
+
+    @Test
+    void overloadedNodeCapsThroughputAndInflatesTail() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", 10, null, 500, 0.0, null, null)
+        ));
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "api"));
+        CompiledTopology topology = CompiledTopology.compile(nodes, edges);
+
+        DiscreteEventSimulator.DiscreteEventResult light = simulator.simulate(simulationService.compileScenario(nodes), topology, 200, 20, 1L);
+        DiscreteEventSimulator.DiscreteEventResult heavy = simulator.simulate(simulationService.compileScenario(nodes), topology, 1000, 20, 1L);
+
+        assertEquals(200, light.throughputRps(), 2);
+        assertTrue(heavy.throughputRps() < 560, "Expected throughput near capacity, got " + heavy.throughputRps());
+        assertTrue(heavy.throughputRps() > 440, "Expected throughput near capacity, got " + heavy.throughputRps());
+        assertTrue(heavy.latencyP95() > 10 * light.latencyP95());
+    }
+
+    @Test
+    void sampledFailuresMatchPerNodeRates() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, 0.1, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(new ScenarioDto.Edge("client", "api")));
+
+        DiscreteEventSimulator.DiscreteEventResult result = simulator.simulate(simulationService.compileScenario(nodes), topology, 1000, 20, 3L);
+
+        assertEquals(0.1, result.failureRate(), 0.01);
+    }
+
+    @Test
+    void sameSeedReproducesTheRun() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("lb", "lb", null, null, null, null, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, null, null, null),
+            new ScenarioDto.Node("db", "database", null, null, null, null, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("lb", "api"),
+            new ScenarioDto.Edge("api", "db")
+        ));
+
+        assertEquals(
+            simulator.simulate(simulationService.compileScenario(nodes), topology, 1500, 5, 11L),
+            simulator.simulate(simulationService.compileScenario(nodes), topology, 1500, 5, 11L)
+        );
+    }
+
+    @Test
+    void curveReplayReportsEachWindowAndTheSpike() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", 10, null, 500, 0.0, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(new ScenarioDto.Edge("client", "api")));
+        RateProfile profile = RateProfile.curve(List.of(
+            new ScenarioDto.RatePoint(0, 200),
+            new ScenarioDto.RatePoint(19, 200),
+            new ScenarioDto.RatePoint(20, 1000),
+            new ScenarioDto.RatePoint(29, 1000),
+            new ScenarioDto.RatePoint(30, 200),
+            new ScenarioDto.RatePoint(60, 200)
+        ));
+
+        DiscreteEventSimulator.DiscreteEventResult result = simulator.simulate(
+            simulationService.compileScenario(nodes), topology, null, profile, null, 10, 5L, SimulationProgress.NONE);
+
+        List<TimelineWindow> windows = result.windows();
+        assertEquals(6, windows.size());
+        assertEquals(200.0, windows.get(0).offeredRps(), 1e-9);
+        assertEquals(1000.0, windows.get(2).offeredRps(), 1e-9);
+        assertEquals(200, windows.get(0).throughputRps(), 5);
+        TimelineWindow worst = windows.stream().reduce((a, b) -> b.worseThan(a) ? b : a).orElseThrow();
+        assertTrue(worst.startSec() == 20 || worst.startSec() == 30, "Worst window starts at " + worst.startSec());
+        assertTrue(worst.latencyP95() > 10 * windows.get(0).latencyP95());
+        assertEquals(result.completedRequests() + result.rejectedRequests(), result.generatedRequests());
+    }
+
+    @Test
+    void cacheHitsSkipTheNodesBehindIt() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, null, 0.0, 0.0, null, null,
+                new ScenarioDto.CacheConfig(0.9, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 1.0, 2000, 0.0, 0.0, null)
+        );
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("client", "cache"),
+            new ScenarioDto.Edge("cache", "db")
+        ));
+
+        DiscreteEventSimulator.DiscreteEventResult result = simulator.simulate(
+            simulationService.compileScenario(nodes), topology, 10_000, 10, 11L);
+
+        assertEquals(result.generatedRequests(), result.completedRequests());
+        assertEquals(10_000, result.throughputRps(), 100);
+        assertEquals(3, result.latencyP50());
+        assertTrue(result.latencyP99() >= 15 && result.latencyP99() <= 17, "Misses pay the database, p99 " + result.latencyP99());
+    }
+
+    @Test
+    void skippedJoinStillRunsWhenAnotherParentCallsIt() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, null, 0.0, 0.0, null, null,
+                new ScenarioDto.CacheConfig(1.0, null, null, null)),
+            new ScenarioDto.Node("api", "service", 5, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("db", "database", 12, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("search", "search", 4, 1.0, null, 0.0, 0.0, null)
+        );
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("client", "cache"),
+            new ScenarioDto.Edge("client", "api"),
+            new ScenarioDto.Edge("cache", "db"),
+            new ScenarioDto.Edge("api", "db"),
+            new ScenarioDto.Edge("cache", "search")
+        ));
+
+        DiscreteEventSimulator.DiscreteEventResult result = simulator.simulate(
+            simulationService.compileScenario(nodes), topology, 100, 5, 2L);
+
+        assertEquals(500, result.completedRequests());
+        assertEquals(2 + 5 + 12, result.latencyP50());
+        assertEquals(2 + 5 + 12, result.latencyP99());
+    }
+}
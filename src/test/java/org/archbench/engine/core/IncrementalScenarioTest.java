@@ -0,0 +1,187 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.ScenarioPatchDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class IncrementalScenarioTest {
+
+    private static final String[] TYPES = {"service", "cache", "database", "queue", "worker", "lb"};
+
+    private final SimulationService simulationService = new SimulationService();
+    private final ScenarioValidator validator = new ScenarioValidator();
+
+    @Test
+    void randomEditsMatchAFullRecompute() {
+        SplittableRandom random = new SplittableRandom(17);
+        List<ScenarioDto.Node> nodes = new ArrayList<>();
+        List<ScenarioDto.Edge> edges = new ArrayList<>();
+        nodes.add(node("client", "client", random));
+        for (int i = 1; i < 60; i++) {
+            nodes.add(node("n" + i, TYPES[random.nextInt(TYPES.length)], random));
+            edges.add(new ScenarioDto.Edge(nodes.get(random.nextInt(i)).id(), "n" + i));
+        }
+        IncrementalScenario session = new IncrementalScenario(
+            simulationService, validator, simulationService.catalog(), new ScenarioDto("editor", null, nodes, edges));
+        assertMatchesFullRecompute(session);
+
+        int nextId = 60;
+        for (int step = 0; step < 400; step++) {
+            ScenarioDto current = session.toScenario();
+            List<ScenarioDto.Node> live = current.nodes();
+            String someNode = live.get(random.nextInt(live.size())).id();
+            String otherNode = live.get(random.nextInt(live.size())).id();
+            ScenarioPatchDto.Operation op = switch (random.nextInt(6)) {
+                case 0 -> new ScenarioPatchDto.Operation("add-node", node("n" + nextId++, TYPES[random.nextInt(TYPES.length)], random), null, null, null);
+                case 1 -> "client".equals(someNode) ? null : new ScenarioPatchDto.Operation("remove-node", null, someNode, null, null);
+                case 2 -> new ScenarioPatchDto.Operation("update-node", node(someNode,
+                    "client".equals(someNode) ? "client" : TYPES[random.nextInt(TYPES.length)], random), null, null, null);
+                case 3, 4 -> someNode.equals(otherNode) ? null : new ScenarioPatchDto.Operation("add-edge", null, null, someNode, otherNode);
+                default -> current.edges().isEmpty() ? null : removeEdge(current.edges().get(random.nextInt(current.edges().size())));
+            };
+            if (op == null) {
+                continue;
+            }
+            session.apply(new ScenarioPatchDto(null, List.of(op)));
+            assertMatchesFullRecompute(session);
+        }
+    }
+
+    @Test
+    void removingTheLastEntryMakesEveryNodeAStart() {
+        IncrementalScenario session = new IncrementalScenario(simulationService, validator, simulationService.catalog(),
+            new ScenarioDto("editor", null, List.of(
+                new ScenarioDto.Node("lb", "lb", 5, 1.0, 1000, 0.0, 1.0, null),
+                new ScenarioDto.Node("api", "service", 20, 1.0, 500, 0.0, 1.0, null),
+                new ScenarioDto.Node("batch", "worker", 90, 1.0, 50, 0.0, 1.0, null)
+            ), List.of(new ScenarioDto.Edge("lb", "api"))));
+        assertEquals(25, session.metrics().latencyP50());
+        assertEquals(500, session.metrics().throughputRps());
+
+        session.apply(new ScenarioPatchDto(null, List.of(new ScenarioPatchDto.Operation("remove-node", null, "lb", null, null))));
+
+        assertEquals(90, session.metrics().latencyP50());
+        assertEquals(50, session.metrics().throughputRps());
+        assertEquals(2.0, session.metrics().costPerHour(), 1e-9);
+        assertMatchesFullRecompute(session);
+    }
+
+    @Test
+    void invalidPatchLeavesTheSessionUntouched() {
+        IncrementalScenario session = new IncrementalScenario(simulationService, validator, simulationService.catalog(),
+            new ScenarioDto("editor", null, List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("api", "service", null, null, null, null, null, null)
+            ), List.of(new ScenarioDto.Edge("client", "api"))));
+        ScenarioMetrics before = session.metrics();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> session.apply(new ScenarioPatchDto(null, List.of(
+            new ScenarioPatchDto.Operation("remove-edge", null, null, "client", "api"),
+            new ScenarioPatchDto.Operation("remove-edge", null, null, "client", "api")
+        ))));
+
+        assertEquals("Edge not found: client -> api", ex.getReason());
+        assertEquals(0, session.revision());
+        assertEquals(1, session.edgeCount());
+        assertEquals(before, session.metrics());
+    }
+
+    @Test
+    void nodesOfAnUnknownTypeAreRejected() {
+        IncrementalScenario session = new IncrementalScenario(simulationService, validator, simulationService.catalog(),
+            new ScenarioDto("editor", null, List.of(new ScenarioDto.Node("client", "client", null, null, null, null, null, null)), List.of()));
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> session.apply(new ScenarioPatchDto(null, List.of(
+            new ScenarioPatchDto.Operation("add-node", new ScenarioDto.Node("q", "teleporter", null, null, null, null, null, null), null, null, null)
+        ))));
+
+        assertEquals(ScenarioValidationException.Code.INVALID_NODE, ex.code());
+        assertEquals("No defaults configured for node type: teleporter", ex.getReason());
+        assertEquals(0, session.revision());
+        ScenarioValidationException opened = assertThrows(ScenarioValidationException.class, () -> new IncrementalScenario(
+            simulationService, validator, simulationService.catalog(), new ScenarioDto("editor", null, List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("q", "teleporter", null, null, null, null, null, null)
+            ), List.of())));
+        assertEquals(ScenarioValidationException.Code.INVALID_NODE, opened.code());
+        assertEquals(ex.getReason(), opened.getReason());
+    }
+
+    @Test
+    void timeVaryingOrInvalidWorkloadsAreRejected() {
+        List<ScenarioDto.Node> nodes = List.of(new ScenarioDto.Node("client", "client", null, null, null, null, null, null));
+        ScenarioDto.Workload curve = new ScenarioDto.Workload(null, null, List.of(new ScenarioDto.RatePoint(0, 100)), null);
+
+        ScenarioValidationException created = assertThrows(ScenarioValidationException.class, () -> new IncrementalScenario(
+            simulationService, validator, simulationService.catalog(), new ScenarioDto("editor", curve, nodes, List.of())));
+        IncrementalScenario session = new IncrementalScenario(simulationService, validator, simulationService.catalog(),
+            new ScenarioDto("editor", new ScenarioDto.Workload(100, 50), nodes, List.of()));
+        ScenarioValidationException patched = assertThrows(ScenarioValidationException.class,
+            () -> session.apply(new ScenarioPatchDto(curve, List.of())));
+        ScenarioValidationException negative = assertThrows(ScenarioValidationException.class,
+            () -> session.apply(new ScenarioPatchDto(new ScenarioDto.Workload(-5, 50), List.of())));
+
+        assertEquals(ScenarioValidationException.Code.INVALID_WORKLOAD, created.code());
+        assertEquals(created.getReason(), patched.getReason());
+        assertEquals(ScenarioValidationException.Code.INVALID_WORKLOAD, negative.code());
+        assertEquals(0, session.revision());
+        assertEquals(100, session.workload().rps());
+    }
+
+    @Test
+    void cacheHitRatiosAreRejected() {
+        ScenarioDto.Node cache = new ScenarioDto.Node("cache", "cache", null, null, null, null, null, null, null,
+            new ScenarioDto.CacheConfig(0.9, null, null, null));
+        ScenarioDto.Node client = new ScenarioDto.Node("client", "client", null, null, null, null, null, null);
+
+        ScenarioValidationException created = assertThrows(ScenarioValidationException.class, () -> new IncrementalScenario(
+            simulationService, validator, simulationService.catalog(), new ScenarioDto("editor", null, List.of(client, cache), List.of())));
+        IncrementalScenario session = new IncrementalScenario(simulationService, validator, simulationService.catalog(),
+            new ScenarioDto("editor", null, List.of(client), List.of()));
+        ScenarioValidationException patched = assertThrows(ScenarioValidationException.class, () -> session.apply(
+            new ScenarioPatchDto(null, List.of(new ScenarioPatchDto.Operation("add-node", cache, null, null, null)))));
+
+        assertEquals(ScenarioValidationException.Code.INVALID_NODE, created.code());
+        assertEquals(created.getReason(), patched.getReason());
+        assertEquals(1, session.nodeCount());
+    }
+
+    private void assertMatchesFullRecompute(IncrementalScenario session) {
+        ScenarioDto scenario = session.toScenario();
+        ScenarioMetrics expected = simulationService.calculateMetrics(
+            simulationService.compileScenario(scenario.nodes()),
+            simulationService.compileTopology(scenario.nodes(), scenario.edges())
+        );
+        ScenarioMetrics actual = session.metrics();
+        assertEquals(expected.latencyP50(), actual.latencyP50());
+        assertEquals(expected.latencyP95(), actual.latencyP95());
+        assertEquals(expected.throughputRps(), actual.throughputRps());
+        assertEquals(expected.failureRate(), actual.failureRate(), 1e-9);
+        assertEquals(expected.costPerHour(), actual.costPerHour(), 1e-6);
+    }
+
+    private static ScenarioPatchDto.Operation removeEdge(ScenarioDto.Edge edge) {
+        return new ScenarioPatchDto.Operation("remove-edge", null, null, edge.from(), edge.to());
+    }
+
+    private static ScenarioDto.Node node(String id, String type, SplittableRandom random) {
+        return new ScenarioDto.Node(
+            id,
+            type,
+            random.nextInt(1, 50),
+            1.0 + random.nextInt(0, 4) * 0.5,
+            random.nextInt(100, 5000),
+            random.nextInt(0, 3) * 0.01,
+            random.nextDouble(0.0, 2.0),
+            null
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void quantilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.recordMillis(i / 100.0);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(500.0, histogram.quantileMillis(0.50), 500.0 / 128);
+        assertEquals(990.0, histogram.quantileMillis(0.99), 990.0 / 128);
+        assertEquals(999.0, histogram.quantileMillis(0.999), 999.0 / 128);
+        assertEquals(1000.0, histogram.quantileMillis(1.0));
+        assertEquals(500.005, histogram.meanMillis(), 1e-9);
+    }
+
+    @Test
+    void mergingMatchesRecordingIntoOneHistogram() {
+        SplittableRandom random = new SplittableRandom(7);
+        LatencyHistogram whole = new LatencyHistogram();
+        LatencyHistogram left = new LatencyHistogram();
+        LatencyHistogram right = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            double latency = Math.exp(3.0 + random.nextGaussian());
+            whole.recordMillis(latency);
+            (i % 2 == 0 ? left : right).recordMillis(latency);
+        }
+        left.merge(right);
+
+        assertEquals(whole.count(), left.count());
+        assertEquals(whole.encode(), left.encode());
+        assertEquals(whole.quantileMillis(0.99), left.quantileMillis(0.99));
+    }
+
+    @Test
+    void encodingRoundTripsCounts() {
+        LatencyHistogram histogram = LatencyHistogram.logNormal(22, 34);
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+        assertEquals(histogram.count(), decoded.count());
+        assertEquals(histogram.maxMillis(), decoded.maxMillis());
+        assertEquals(histogram.quantileMillis(0.95), decoded.quantileMillis(0.95));
+        assertTrue(histogram.encode().length() < 2_000);
+    }
+
+    @Test
+    void malformedEncodingsAreRejected() {
+        byte[] header = Base64.getDecoder().decode(new LatencyHistogram().encode());
+        byte[] tooManyBuckets = Arrays.copyOf(header, header.length + 5_000);
+        Arrays.fill(tooManyBuckets, header.length, tooManyBuckets.length, (byte) 2);
+        byte[] hugeSkip = Arrays.copyOf(header, header.length + 10);
+        Arrays.fill(hugeSkip, header.length, hugeSkip.length - 1, (byte) 0xFF);
+        hugeSkip[hugeSkip.length - 1] = 1;
+
+        for (byte[] bytes : List.of(Arrays.copyOf(header, header.length - 1), tooManyBuckets, hugeSkip,
+            Arrays.copyOf(hugeSkip, hugeSkip.length - 1))) {
+            String encoded = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+            assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.decode(encoded));
+        }
+    }
+
+    @Test
+    void logNormalFitReproducesMedianAndP95() {
+        LatencyHistogram histogram = LatencyHistogram.logNormal(22, 34);
+
+        assertEquals(22.0, histogram.quantileMillis(0.50), 0.5);
+        assertEquals(34.0, histogram.quantileMillis(0.95), 0.5);
+    }
+}
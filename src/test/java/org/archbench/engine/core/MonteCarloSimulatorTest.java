@@ -0,0 +1,140 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class MonteCarloSimulatorTest {
+
+    private final SimulationService simulationService = new SimulationService();
+
+    @Test
+    void deterministicNodesCollapseTheDistribution() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("cache", "cache", null, 1.0, null, 0.0, null, null),
+            new ScenarioDto.Node("db", "database", null, 1.0, null, 0.0, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("client", "api"),
+            new ScenarioDto.Edge("api", "cache"),
+            new ScenarioDto.Edge("api", "db")
+        ));
+
+        MonteCarloSimulator.MonteCarloResult result = new MonteCarloSimulator(ForkJoinPool.commonPool())
+            .simulate(simulationService.compileScenario(nodes), topology, 2000, 5L);
+
+        assertEquals(2000, result.trials());
+        assertEquals(22.0, result.latencyMean(), 1e-9);
+        assertEquals(22, result.latencyP95());
+        assertEquals(22, result.latencyP99());
+        assertEquals(0.0, result.failureRate());
+    }
+
+    @Test
+    void cacheHitsSkipTheNodesBehindIt() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, null, 0.0, 0.0, null, null,
+                new ScenarioDto.CacheConfig(0.9, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 1.0, null, 0.5, 0.0, null)
+        );
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("client", "cache"),
+            new ScenarioDto.Edge("cache", "db")
+        ));
+
+        MonteCarloSimulator.MonteCarloResult result = new MonteCarloSimulator(ForkJoinPool.commonPool())
+            .simulate(simulationService.compileScenario(nodes), topology, 20_000, 3L);
+
+        assertEquals(3, result.latencyP50());
+        assertEquals(15, result.latencyP99());
+        assertTrue(result.failureRateInterval().lower() < 0.05 && 0.05 < result.failureRateInterval().upper());
+    }
+
+    @Test
+    void failureRateIntervalCoversTheAnalyticValue() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, 0.0, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, 0.05, null, null),
+            new ScenarioDto.Node("db", "database", null, null, null, 0.02, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("client", "api"),
+            new ScenarioDto.Edge("api", "db")
+        ));
+
+        MonteCarloSimulator.MonteCarloResult result = new MonteCarloSimulator(ForkJoinPool.commonPool())
+            .simulate(simulationService.compileScenario(nodes), topology, 50_000, 9L);
+
+        double expected = 1.0 - 0.95 * 0.98;
+        assertTrue(result.failureRateInterval().lower() <= expected && expected <= result.failureRateInterval().upper(),
+            "Expected " + expected + " within " + result.failureRateInterval());
+        assertTrue(result.latencyP95Interval().lower() <= result.latencyP95());
+        assertTrue(result.latencyP95() <= result.latencyP95Interval().upper());
+        assertTrue(result.latencyP99() >= result.latencyP95());
+    }
+
+    @Test
+    void resultsDependOnlyOnTheSeed() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("lb", "lb", null, null, null, null, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, null, null, null),
+            new ScenarioDto.Node("search", "search", null, null, null, null, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(
+            new ScenarioDto.Edge("lb", "api"),
+            new ScenarioDto.Edge("api", "search")
+        ));
+
+        MonteCarloSimulator.MonteCarloResult single = new MonteCarloSimulator(new ForkJoinPool(1))
+            .simulate(simulationService.compileScenario(nodes), topology, 20_000, 123L);
+        MonteCarloSimulator.MonteCarloResult parallel = new MonteCarloSimulator(new ForkJoinPool(8))
+            .simulate(simulationService.compileScenario(nodes), topology, 20_000, 123L);
+
+        assertEquals(single, parallel);
+    }
+
+    @Test
+    void progressCountsEveryTrialAndCancellationStopsTheRun() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("lb", "lb", null, null, null, null, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, null, null, null)
+        ));
+        CompiledTopology topology = CompiledTopology.compile(nodes, List.of(new ScenarioDto.Edge("lb", "api")));
+        MonteCarloSimulator simulator = new MonteCarloSimulator(new ForkJoinPool(4));
+        AtomicLong expected = new AtomicLong();
+        AtomicLong done = new AtomicLong();
+
+        simulator.simulate(simulationService.compileScenario(nodes), topology, 30_001, 7L, new SimulationProgress() {
+            @Override
+            public void start(long totalUnits) {
+                expected.set(totalUnits);
+            }
+
+            @Override
+            public void advance(long units) {
+                done.addAndGet(units);
+            }
+        });
+
+        assertEquals(30_001, expected.get());
+        assertEquals(30_001, done.get());
+        assertThrows(CancellationException.class, () -> simulator.simulate(
+            simulationService.compileScenario(nodes), topology, 30_000, 7L, new SimulationProgress() {
+                @Override
+                public boolean isCancelled() {
+                    return true;
+                }
+            }));
+    }
+}
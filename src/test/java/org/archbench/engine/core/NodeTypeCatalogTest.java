@@ -0,0 +1,122 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class NodeTypeCatalogTest {
+
+    private static final String CUSTOM_CATALOG = """
+        types:
+          edge-function:
+            latencyMs: 4
+            varianceFactor: 1.3
+            capacityRps: 20000
+            failureRate: 0.002
+            costPerHour: 0.01
+            entry: true
+          vector-db:
+            latencyMs: 18
+            varianceFactor: 1.9
+            capacityRps: 800
+            failureRate: 0.004
+            costPerHour: 0.40
+            database: true
+        dbEngines:
+          pgvector: { latency: 1.5, capacity: 0.5 }
+        """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void builtInCatalogProvidesTheStandardTypes() {
+        NodeTypeCatalog.Snapshot snapshot = NodeTypeCatalog.builtIn().current();
+
+        assertEquals(12, snapshot.typeCount());
+        int service = snapshot.typeId("service");
+        assertEquals(new NodeDefaults(8, 1.5, 3000, 0.005, 0.05), snapshot.defaults(service));
+        assertTrue(snapshot.isEntry(snapshot.typeId("lb")));
+        assertTrue(snapshot.isDatabase(snapshot.typeId("database")));
+        assertEquals(-1, snapshot.typeId("vector-db"));
+        assertEquals(0.85, snapshot.dbEngine("dynamodb").latency());
+    }
+
+    @Test
+    void customTypesLoadFromYamlAndDriveTheSimulation() throws IOException {
+        Path file = directory.resolve("node-types.yaml");
+        Files.writeString(file, CUSTOM_CATALOG);
+        NodeTypeCatalog catalog = new NodeTypeCatalog(file.toUri().toString(), new DefaultResourceLoader());
+        SimulationService simulationService = new SimulationService(catalog);
+
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("edge", "edge-function", null, null, null, null, null, null),
+            new ScenarioDto.Node("vectors", "vector-db", null, null, null, null, null,
+                new ScenarioDto.DbConfig("pgvector", List.of()))
+        );
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        CompiledTopology topology = simulationService.compileTopology(nodes, List.of(new ScenarioDto.Edge("edge", "vectors")));
+        ScenarioMetrics metrics = simulationService.calculateMetrics(compiled, topology);
+
+        assertEquals("vector-db", compiled.type(1));
+        assertEquals(27, compiled.latencyMs(1));
+        assertEquals(400, compiled.capacityRps(1));
+        assertEquals(4 + 27, metrics.latencyP50());
+        assertEquals(400, metrics.throughputRps());
+    }
+
+    @Test
+    void queryMixesOfCustomDatabaseTypesAreValidated() throws IOException {
+        Path file = directory.resolve("node-types.yaml");
+        Files.writeString(file, CUSTOM_CATALOG);
+        ScenarioValidator validator = new ScenarioValidator(new NodeTypeCatalog(file.toUri().toString(), new DefaultResourceLoader()));
+        ScenarioDto.DbTable table = new ScenarioDto.DbTable("embeddings", null, null, null,
+            List.of(new ScenarioDto.DbQuery("point", "id", -3.0, null)));
+        ScenarioDto scenario = new ScenarioDto("vectors", null, List.of(
+            new ScenarioDto.Node("edge", "edge-function", null, null, null, null, null, null),
+            new ScenarioDto.Node("vectors", "vector-db", null, null, null, null, null,
+                new ScenarioDto.DbConfig("pgvector", List.of(table)))
+        ), List.of(new ScenarioDto.Edge("edge", "vectors")));
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> validator.validate(scenario));
+
+        assertEquals(ScenarioValidationException.Code.INVALID_QUERY, ex.code());
+        assertTrue(ex.getReason().contains("perRequest"));
+    }
+
+    @Test
+    void reloadSwapsSnapshotsWithoutTouchingTheOldOne() throws IOException {
+        Path file = directory.resolve("node-types.yaml");
+        Files.writeString(file, CUSTOM_CATALOG);
+        NodeTypeCatalog catalog = new NodeTypeCatalog(file.toUri().toString(), new DefaultResourceLoader());
+        NodeTypeCatalog.Snapshot before = catalog.current();
+
+        assertSame(before, catalog.current());
+        Files.writeString(file, CUSTOM_CATALOG.replace("latencyMs: 4", "latencyMs: 6"));
+        NodeTypeCatalog.Snapshot after = catalog.reload();
+
+        assertSame(after, catalog.current());
+        assertNotEquals(before.version(), after.version());
+        assertEquals(4, before.defaults(before.typeId("edge-function")).latencyMs());
+        assertEquals(6, after.defaults(after.typeId("edge-function")).latencyMs());
+
+        Files.writeString(file, "types:\n  broken:\n    latencyMs: 1\n");
+        NodeTypeCatalogException failure = assertThrows(NodeTypeCatalogException.class, catalog::reload);
+        assertEquals("Node type 'broken' is missing 'varianceFactor'", failure.getMessage());
+        assertSame(after, catalog.current());
+        assertFalse(after.typeNames().contains("broken"));
+    }
+}
@@ -0,0 +1,189 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class QueueingModelTest {
+
+    private final SimulationService simulationService = new SimulationService();
+    private final QueueingModel model = new QueueingModel();
+
+    @Test
+    void latencyGrowsWithUtilization() {
+        QueueingModel.AnalyticResult light = evaluate(chain(1000), 10);
+        QueueingModel.AnalyticResult heavy = evaluate(chain(1000), 900);
+
+        assertEquals(22, light.latencyP50());
+        assertEquals(0.01, light.utilization()[1], 1e-12);
+        assertEquals(0.9, heavy.utilization()[1], 1e-12);
+        assertEquals(4.5, heavy.waitMs()[1], 1e-9);
+        assertEquals(27, heavy.latencyP50());
+        assertEquals(900, heavy.throughputRps());
+        assertEquals(0, heavy.saturatedNodes());
+    }
+
+    @Test
+    void saturatedNodeThrottlesEverythingDownstream() {
+        QueueingModel.AnalyticResult result = evaluate(chain(500), 1000);
+
+        assertTrue(result.isSaturated(1));
+        assertFalse(result.isSaturated(2));
+        assertEquals(1, result.saturatedNodes());
+        assertEquals(2.0, result.maxUtilization(), 1e-12);
+        assertEquals(500, result.throughputRps());
+        assertEquals(500.0, result.arrivalRps()[2], 1e-12);
+        assertEquals(30_000.0, result.waitMs()[1], 1e-9);
+    }
+
+    @Test
+    void joinSeesTheSlowerParent() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 1, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("fast", "service", 1, 1.0, 5000, 0.0, 0.0, null),
+            new ScenarioDto.Node("slow", "service", 1, 1.0, 200, 0.0, 0.0, null),
+            new ScenarioDto.Node("join", "service", 1, 1.0, 5000, 0.0, 0.0, null)
+        );
+        List<ScenarioDto.Edge> edges = List.of(
+            new ScenarioDto.Edge("client", "fast"),
+            new ScenarioDto.Edge("client", "slow"),
+            new ScenarioDto.Edge("fast", "join"),
+            new ScenarioDto.Edge("slow", "join")
+        );
+        QueueingModel.AnalyticResult result = model.evaluate(
+            simulationService.compileScenario(nodes), simulationService.compileTopology(nodes, edges), 300, 10);
+
+        assertEquals(200.0, result.arrivalRps()[3], 1e-12);
+        assertEquals(200, result.throughputRps());
+    }
+
+    @Test
+    void matchesClosedFormWithoutLoad() {
+        List<ScenarioDto.Node> nodes = chain(Integer.MAX_VALUE);
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db"));
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+
+        ScenarioMetrics closedForm = simulationService.calculateMetrics(compiled, topology);
+        QueueingModel.AnalyticResult analytic = model.evaluate(compiled, topology, 100, null);
+
+        assertEquals(closedForm.latencyP50(), analytic.latencyP50());
+        assertEquals(closedForm.latencyP95(), analytic.latencyP95());
+    }
+
+
+    @Test
+    void timelineEvaluatesEachWindowAtItsMeanRate() {
+        List<ScenarioDto.Node> nodes = chain(1000);
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db"));
+        RateProfile profile = RateProfile.curve(List.of(
+            new ScenarioDto.RatePoint(0, 100),
+            new ScenarioDto.RatePoint(59, 100),
+            new ScenarioDto.RatePoint(60, 1500),
+            new ScenarioDto.RatePoint(119, 1500),
+            new ScenarioDto.RatePoint(120, 100)
+        ));
+
+        List<TimelineWindow> windows = model.timeline(
+            simulationService.compileScenario(nodes), simulationService.compileTopology(nodes, edges), profile, 150, 60);
+
+        assertEquals(3, windows.size());
+        assertEquals(30, windows.get(2).seconds());
+        assertEquals(100.0, windows.get(0).offeredRps(), 1e-9);
+        assertEquals(1500.0, windows.get(1).offeredRps(), 1e-9);
+        assertEquals(1000, windows.get(1).throughputRps());
+        assertTrue(windows.get(1).worseThan(windows.get(0)));
+        assertEquals(windows.get(0).latencyP95(), windows.get(2).latencyP95());
+    }
+
+    @Test
+    void nodesBehindACacheSeeOnlyItsMisses() {
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "cache"), new ScenarioDto.Edge("cache", "db"));
+        List<ScenarioDto.Node> cached = cachedChain(0.9);
+        List<ScenarioDto.Node> uncached = cachedChain(0.0);
+
+        QueueingModel.AnalyticResult shielded = model.evaluate(
+            simulationService.compileScenario(cached), simulationService.compileTopology(cached, edges), 10_000, 60);
+        QueueingModel.AnalyticResult exposed = model.evaluate(
+            simulationService.compileScenario(uncached), simulationService.compileTopology(uncached, edges), 10_000, 60);
+
+        assertEquals(1000.0, shielded.arrivalRps()[2], 1e-9);
+        assertEquals(0.5, shielded.utilization()[2], 1e-12);
+        assertEquals(10_000, shielded.throughputRps());
+        assertEquals(0, shielded.saturatedNodes());
+        assertEquals(3, shielded.latencyP50());
+        assertTrue(exposed.isSaturated(2));
+        assertEquals(2000, exposed.throughputRps());
+    }
+
+    @Test
+    void failureRateBehindACacheMatchesClosedForm() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, 50_000, 0.001, 0.0, null, null,
+                new ScenarioDto.CacheConfig(0.9, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 1.0, 2000, 0.02, 0.0, null)
+        );
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "cache"), new ScenarioDto.Edge("cache", "db"));
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+
+        ScenarioMetrics closedForm = simulationService.calculateMetrics(compiled, topology);
+        QueueingModel.AnalyticResult analytic = model.evaluate(compiled, topology, 100, 60);
+
+        assertEquals(1.0 - (1.0 - 0.001) * (1.0 - 0.02 * 0.1), closedForm.failureRate(), 1e-12);
+        assertEquals(closedForm.failureRate(), analytic.failureRate(), 1e-12);
+    }
+
+    @Test
+    void connectionPoolsQueueAsErlangC() {
+        assertEquals(1.0 / 3, QueueingModel.erlangC(0.5, 2), 1e-12);
+        assertEquals(0.5, QueueingModel.erlangC(0.5, 1), 1e-12);
+        assertEquals(0.0, QueueingModel.meanWaitMs(0.0, 500, 50, 60), 0.0);
+        assertEquals(QueueingModel.meanWaitMs(400, 500, 60), QueueingModel.meanWaitMs(400, 500, 1, 60), 0.0);
+        assertEquals(QueueingModel.erlangC(0.8, 50) / 100 * 1000, QueueingModel.meanWaitMs(400, 500, 50, 60), 1e-12);
+        assertEquals(QueueingModel.meanWaitMs(600, 500, 60), QueueingModel.meanWaitMs(600, 500, 50, 60), 0.0);
+
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 8, 1.0, 10_000, 0.0, 0.0, null),
+            new ScenarioDto.Node("db", "database", 100, 1.0, 10_000, 0.0, 0.0, new ScenarioDto.DbConfig("postgres", List.of(
+                new ScenarioDto.DbTable("users", "S", List.of("id"), null, List.of(new ScenarioDto.DbQuery("point", "id", null, null)))
+            ), 50))
+        );
+        int capacity = simulationService.compileScenario(nodes).capacityRps(2);
+        QueueingModel.AnalyticResult result = evaluate(nodes, 400);
+
+        assertEquals((int) Math.floor(50 * 1000.0 / (100 + 2 * 0.02 + 0.0002)), capacity);
+        assertEquals(400.0 / capacity, result.utilization()[2], 1e-12);
+        assertEquals(QueueingModel.meanWaitMs(400, capacity, 50, 60), result.waitMs()[2], 1e-12);
+        assertTrue(result.waitMs()[2] < QueueingModel.meanWaitMs(400, capacity, 60));
+    }
+
+    private QueueingModel.AnalyticResult evaluate(List<ScenarioDto.Node> nodes, int rps) {
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db"));
+        return model.evaluate(simulationService.compileScenario(nodes), simulationService.compileTopology(nodes, edges), rps, 60);
+    }
+
+    private static List<ScenarioDto.Node> chain(int apiCapacity) {
+        return List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 8, 1.2, apiCapacity, 0.0, 0.0, null),
+            new ScenarioDto.Node("db", "database", 12, 1.5, Integer.MAX_VALUE, 0.0, 0.0, null)
+        );
+    }
+
+    private static List<ScenarioDto.Node> cachedChain(double hitRatio) {
+        return List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, 50_000, 0.0, 0.0, null, null,
+                new ScenarioDto.CacheConfig(hitRatio, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 1.0, 2000, 0.0, 0.0, null)
+        );
+    }
+}
@@ -0,0 +1,98 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class ResilienceModelTest {
+
+    private final SimulationService simulationService = new SimulationService();
+    private final ResilienceModel model = new ResilienceModel();
+
+    @Test
+    void retriesMaskIndependentFailures() {
+        ScenarioDto.Edge edge = new ScenarioDto.Edge("client", "api", null, new ScenarioDto.Retry(2, null, null), null);
+
+        ResilienceModel.ResilienceResult result = evaluate(api(10, 1.0, 1000, 0.1), edge, 0.0);
+
+        assertEquals(0.001, result.failureRate(), 1e-12);
+        assertEquals(1.11, result.attempts()[1], 1e-12);
+        assertEquals(2.11 / 2, result.retryAmplification(), 1e-12);
+        assertFalse(result.retryStorm()[1]);
+    }
+
+    @Test
+    void retriesTipANearlyFullNodeIntoAStorm() {
+        ScenarioDto.Node api = api(10, 1.0, 1000, 0.15);
+        ScenarioDto.Edge plain = new ScenarioDto.Edge("client", "api", 50, null, null);
+        ScenarioDto.Edge retried = new ScenarioDto.Edge("client", "api", 50, new ScenarioDto.Retry(3, 10, null), null);
+
+        ResilienceModel.ResilienceResult calm = evaluate(api, plain, 900.0);
+        ResilienceModel.ResilienceResult storm = evaluate(api, retried, 900.0);
+
+        assertEquals(0.15, calm.failureRate(), 1e-12);
+        assertEquals(0.9, calm.utilization()[1], 1e-12);
+        assertTrue(storm.retryStorm()[1]);
+        assertEquals(4.0, storm.attempts()[1], 1e-9);
+        assertEquals(1.0, storm.failureRate(), 1e-9);
+    }
+
+    @Test
+    void breakerShedsLoadInsteadOfStorming() {
+        ScenarioDto.Edge guarded = new ScenarioDto.Edge(
+            "client", "api", 50, new ScenarioDto.Retry(3, 10, null), new ScenarioDto.CircuitBreaker(0.5)
+        );
+
+        ResilienceModel.ResilienceResult result = evaluate(api(10, 1.0, 1000, 0.15), guarded, 900.0);
+
+        assertTrue(result.isBreakerOpen(1));
+        assertFalse(result.retryStorm()[1]);
+        assertTrue(result.utilization()[1] < 1.0);
+        // Attempts start timing out once the 10 ms service plus the M/D/1 wait passes 50 ms, at utilization 80/81.
+        double shed = result.shed()[1];
+        assertEquals(1.0 - 1000.0 * 80 / 81 / (900.0 * (1 + 0.15 + 0.0225 + 0.003375)), shed, 1e-3);
+        assertEquals(1.0 - (1.0 - shed) * (1.0 - Math.pow(0.15, 4)), result.failureRate(), 1e-3);
+    }
+
+    @Test
+    void timeoutCutsTheTailAndRetriesPayForIt() {
+        ScenarioDto.Edge edge = new ScenarioDto.Edge("client", "api", 150, new ScenarioDto.Retry(1, 20, null), null);
+
+        ResilienceModel.ResilienceResult result = evaluate(api(100, 2.0, 1000, 0.0), edge, 0.0);
+
+        double sigma = Math.log(2.0) / 1.6448536269514722;
+        double timedOut = 0.5 * ResilienceModel.erfc(Math.log(1.5) / (sigma * Math.sqrt(2.0)));
+        assertEquals(0.168, timedOut, 1e-3);
+        assertEquals(timedOut * timedOut, result.failureRate(), 1e-9);
+        assertEquals(1 + 100, result.latencyP50());
+        assertEquals(1 + 150 + 20 + 150, result.latencyP95());
+    }
+
+    @Test
+    void erfcMatchesKnownValues() {
+        assertEquals(1.0, ResilienceModel.erfc(0.0), 1e-7);
+        assertEquals(0.157299207, ResilienceModel.erfc(1.0), 1e-7);
+        assertEquals(1.842700793, ResilienceModel.erfc(-1.0), 1e-7);
+    }
+
+    private ResilienceModel.ResilienceResult evaluate(ScenarioDto.Node api, ScenarioDto.Edge edge, double offeredRps) {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 1, 1.0, Integer.MAX_VALUE, 0.0, 0.0, null),
+            api
+        );
+        List<ScenarioDto.Edge> edges = List.of(edge);
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+        return model.evaluate(
+            simulationService.compileScenario(nodes), topology, CallPolicies.compile(edges, topology), offeredRps, 60
+        );
+    }
+
+    private static ScenarioDto.Node api(int latencyMs, double variance, int capacity, double failureRate) {
+        return new ScenarioDto.Node("api", "service", latencyMs, variance, capacity, failureRate, 0.0, null);
+    }
+}
@@ -0,0 +1,205 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunHistoryTest {
+
+    private static final NodeTypeCatalog CATALOG = NodeTypeCatalog.builtIn();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void runsSurviveARestart() {
+        RunHistory history = open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC());
+        RunHistory.Run first = history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(40, "a")).orElseThrow();
+        history.record(scenario("checkout", 30), SimulationOptions.DEFAULT, result(50, "b"));
+        history.record(scenario("search", 20), SimulationOptions.DEFAULT, result(10, "c"));
+        history.close();
+
+        RunHistory reopened = open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC());
+        List<RunHistory.Run> runs = reopened.history("checkout", null, null, 10);
+
+        assertEquals(2, runs.size());
+        assertEquals(first, runs.get(0));
+        assertEquals(50, runs.get(1).latencyMsP95());
+        assertNotEquals(runs.get(0).scenarioHash(), runs.get(1).scenarioHash());
+        assertNull(runs.get(1).latencyMsP99());
+        assertEquals(List.of("b"), reopened.result("checkout", runs.get(1).id()).orElseThrow().hints());
+        RunHistory.Run next = reopened.record(scenario("search", 20), SimulationOptions.DEFAULT, result(10, "c")).orElseThrow();
+        assertEquals(runs.get(1).id() + 2, next.id());
+        assertEquals(32, runs.get(0).scenarioHash().length());
+        reopened.close();
+    }
+
+    @Test
+    void historyIsFilteredByTimeAndLimitedToTheLatestRuns() {
+        MutableClock clock = new MutableClock();
+        RunHistory history = open(1 << 20, Long.MAX_VALUE, 100, clock);
+        for (int i = 0; i < 5; i++) {
+            clock.millis = 1_000L * i;
+            history.record(scenario("checkout", 20 + i), SimulationOptions.DEFAULT, result(40 + i, null));
+        }
+
+        List<RunHistory.Run> window = history.history("checkout", Instant.ofEpochMilli(1_000), Instant.ofEpochMilli(4_000), 10);
+        List<RunHistory.Run> latest = history.history("checkout", null, null, 2);
+
+        assertEquals(List.of(41, 42, 43), window.stream().map(RunHistory.Run::latencyMsP95).toList());
+        assertEquals(List.of(43, 44), latest.stream().map(RunHistory.Run::latencyMsP95).toList());
+        assertTrue(history.history("unknown", null, null, 10).isEmpty());
+        history.close();
+    }
+
+    @Test
+    void onlyTheLatestRunsOfAScenarioAreKept() {
+        RunHistory history = open(1 << 20, Long.MAX_VALUE, 2, Clock.systemUTC());
+        for (int i = 0; i < 4; i++) {
+            history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(40 + i, null));
+        }
+        assertEquals(List.of(42, 43), history.history("checkout", null, null, 10).stream().map(RunHistory.Run::latencyMsP95).toList());
+        assertTrue(history.run("checkout", 0).isEmpty());
+        history.close();
+
+        RunHistory reopened = open(1 << 20, Long.MAX_VALUE, 2, Clock.systemUTC());
+        assertEquals(List.of(42, 43), reopened.history("checkout", null, null, 10).stream().map(RunHistory.Run::latencyMsP95).toList());
+        reopened.close();
+    }
+
+    @Test
+    void sparseSegmentsAreRewrittenAndTheOldestDroppedOverBudget() throws Exception {
+        RunHistory history = open(4096, Long.MAX_VALUE, 1, Clock.systemUTC());
+        for (int i = 0; i < 200; i++) {
+            history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(i, "hint " + i));
+        }
+        assertTrue(segments() > 2);
+
+        history.compact();
+
+        assertTrue(segments() <= 2);
+        assertEquals(List.of("hint 199"), history.result("checkout", history.history("checkout", null, null, 1).get(0).id()).orElseThrow().hints());
+        history.close();
+
+        RunHistory bounded = open(4096, 2 * 4096, 100, Clock.systemUTC());
+        for (int i = 0; i < 200; i++) {
+            bounded.record(scenario("scenario-" + i, 20), SimulationOptions.DEFAULT, result(i, null));
+        }
+        bounded.compact();
+
+        assertTrue(segments() <= 2);
+        assertTrue(bounded.history("scenario-0", null, null, 10).isEmpty());
+        assertEquals(1, bounded.history("scenario-199", null, null, 10).size());
+        bounded.close();
+    }
+
+    @Test
+    void aTornTailIsCutOff() throws Exception {
+        RunHistory history = open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC());
+        history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(40, null));
+        history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(41, null));
+        history.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 0x55;
+        Files.write(segment, bytes);
+
+        RunHistory reopened = open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC());
+        assertEquals(List.of(40), reopened.history("checkout", null, null, 10).stream().map(RunHistory.Run::latencyMsP95).toList());
+        reopened.close();
+    }
+
+    @Test
+    void aSecondInstanceCannotOpenALogInUse() {
+        RunHistory history = open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC()));
+        assertTrue(ex.getMessage().contains("archbench.history.directory"));
+        history.close();
+        open(1 << 20, Long.MAX_VALUE, 100, Clock.systemUTC()).close();
+    }
+
+    @Test
+    void aDisabledHistoryRecordsNothing() {
+        RunHistory history = new RunHistory(false, directory, 4096, Long.MAX_VALUE, 100, 0, CATALOG, Clock.systemUTC());
+
+        assertTrue(history.record(scenario("checkout", 20), SimulationOptions.DEFAULT, result(40, null)).isEmpty());
+        assertTrue(history.history("checkout", null, null, 10).isEmpty());
+        history.close();
+    }
+
+    private RunHistory open(int segmentBytes, long maxBytes, int maxRuns, Clock clock) {
+        return new RunHistory(true, directory, segmentBytes, maxBytes, maxRuns, 0, CATALOG, clock);
+    }
+
+    private long segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+
+    private static SimulationResultDto result(int p95, String hint) {
+        return new SimulationResultDto(p95 / 2, p95, 1000, 1.5, "PASS", null, hint != null ? List.of(hint) : List.of());
+    }
+
+    private static ScenarioDto scenario(String name, int dbLatency) {
+        return new ScenarioDto(
+            name,
+            new ScenarioDto.Workload(100, 50),
+            List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("db", "database", dbLatency, null, null, null, null, null)
+            ),
+            List.of(new ScenarioDto.Edge("client", "db"))
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
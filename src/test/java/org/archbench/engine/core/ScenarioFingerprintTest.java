@@ -0,0 +1,60 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class ScenarioFingerprintTest {
+
+    @Test
+    void identicalScenariosShareAKey() {
+        assertEquals(
+            ScenarioFingerprint.of(scenario(20, List.of("a", "b")), SimulationOptions.DEFAULT, 1L),
+            ScenarioFingerprint.of(scenario(20, List.of("a", "b")), SimulationOptions.DEFAULT, 1L)
+        );
+    }
+
+    @Test
+    void databaseTableContentsAreHashedOrderInsensitively() {
+        assertEquals(
+            ScenarioFingerprint.of(scenario(20, List.of("a", "b")), SimulationOptions.DEFAULT, 1L),
+            ScenarioFingerprint.of(scenario(20, List.of("b", "a")), SimulationOptions.DEFAULT, 1L)
+        );
+    }
+
+    @Test
+    void anyEffectiveChangeProducesADifferentKey() {
+        ScenarioFingerprint.Key base = ScenarioFingerprint.of(scenario(20, List.of("a")), SimulationOptions.DEFAULT, 1L);
+
+        assertNotEquals(base, ScenarioFingerprint.of(scenario(21, List.of("a")), SimulationOptions.DEFAULT, 1L));
+        assertNotEquals(base, ScenarioFingerprint.of(scenario(20, List.of("a")), SimulationOptions.DEFAULT, 2L));
+        assertNotEquals(base, ScenarioFingerprint.of(
+            scenario(20, List.of("a")),
+            SimulationOptions.forMode(SimulationMode.DISCRETE_EVENT),
+            1L
+        ));
+        assertNotEquals(
+            ScenarioFingerprint.of(scenario(20, List.of("a")), SimulationOptions.forMode(SimulationMode.DISCRETE_EVENT).withSeed(1L), 1L),
+            ScenarioFingerprint.of(scenario(20, List.of("a")), SimulationOptions.forMode(SimulationMode.DISCRETE_EVENT).withSeed(2L), 1L)
+        );
+    }
+
+    private ScenarioDto scenario(int dbLatency, List<String> indexes) {
+        return new ScenarioDto(
+            "fingerprint",
+            new ScenarioDto.Workload(100, 50),
+            List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("db", "database", dbLatency, null, null, null, null, new ScenarioDto.DbConfig(
+                    "postgres",
+                    List.of(new ScenarioDto.DbTable("users", "M", indexes, List.of(new ScenarioDto.DbColumn("id", "string"))))
+                ))
+            ),
+            List.of(new ScenarioDto.Edge("client", "db"))
+        );
+    }
+}
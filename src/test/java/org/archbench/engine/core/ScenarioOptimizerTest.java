@@ -0,0 +1,101 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.archbench.engine.api.dto.OptimizationResultDto;
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class ScenarioOptimizerTest {
+
+    private final ScenarioOptimizer optimizer = new ScenarioOptimizer(
+        new SimulationService(), new ScenarioValidator(), ForkJoinPool.commonPool());
+
+    @Test
+    void scalesOutAndCachesWhereThatIsCheaperThanReplicas() {
+        ScenarioDto scenario = new ScenarioDto("scale", new ScenarioDto.Workload(5000, 1000), List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+            new ScenarioDto.Node("api", "service", null, null, null, null, null, null),
+            new ScenarioDto.Node("db", "database", null, null, null, null, null, null)
+        ), List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db")));
+
+        OptimizationResultDto result = optimizer.optimize(scenario, OptimizerOptions.DEFAULT);
+
+        assertTrue(result.feasible());
+        assertEquals(2000, result.baseline().throughputRps());
+        assertTrue(result.best().throughputRps() >= 5000);
+        assertEquals(List.of(
+            new OptimizationResultDto.NodeChange("api", 1, 15000, 1, 3),
+            new OptimizationResultDto.NodeChange("db", 1, 10000, 1, 3)
+        ), result.changes());
+    }
+
+    @Test
+    void cachesOnlyTheCriticalPathNodesNeededForTheLatencyTarget() {
+        ScenarioDto scenario = new ScenarioDto("latency", new ScenarioDto.Workload(null, 70), List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 40, 1.0, 1000, 0.0, 1.0, null),
+            new ScenarioDto.Node("db", "database", 60, 1.0, 1000, 0.0, 1.0, null)
+        ), List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db")));
+
+        OptimizationResultDto result = optimizer.optimize(scenario, OptimizerOptions.DEFAULT);
+
+        assertTrue(result.feasible());
+        assertEquals(102, result.baseline().latencyMsP95());
+        assertEquals(55, result.best().latencyMsP95());
+        assertEquals(2.02, result.best().costPerHour(), 1e-9);
+        assertEquals(List.of(new OptimizationResultDto.NodeChange("db", 1, 5000, 1, 13)), result.changes());
+        assertEquals(List.of(), result.frontier().get(0).cachedNodes());
+        assertEquals(List.of("db"), result.frontier().get(1).cachedNodes());
+    }
+
+    @Test
+    void reportsTheClosestConfigurationWhenTargetsAreOutOfReach() {
+        ScenarioDto scenario = new ScenarioDto("tight", new ScenarioDto.Workload(null, 5), List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 40, 1.0, 1000, 0.0, 1.0, null),
+            new ScenarioDto.Node("db", "database", 60, 1.0, 1000, 0.0, 1.0, null)
+        ), List.of(new ScenarioDto.Edge("client", "api"), new ScenarioDto.Edge("api", "db")));
+
+        OptimizationResultDto result = optimizer.optimize(scenario, OptimizerOptions.DEFAULT);
+
+        assertFalse(result.feasible());
+        assertEquals(2 + 9 + 13, result.best().latencyMsP95());
+        assertEquals(2, result.changes().size());
+    }
+
+    @Test
+    void declaredReplicasAreSizedPerInstance() {
+        ScenarioDto scenario = new ScenarioDto("replicated", new ScenarioDto.Workload(1000, null), List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 20, 1.0, 100, 0.0, 1.0, null, 4, null)
+        ), List.of(new ScenarioDto.Edge("client", "api")));
+
+        OptimizationResultDto result = optimizer.optimize(scenario, new OptimizerOptions(32, 0.0, 64));
+
+        assertTrue(result.feasible());
+        assertEquals(400, result.baseline().throughputRps());
+        assertEquals(4.0, result.baseline().costPerHour(), 1e-9);
+        assertEquals(1000, result.best().throughputRps());
+        assertEquals(10.0, result.best().costPerHour(), 1e-9);
+        assertEquals(List.of(new OptimizationResultDto.NodeChange("api", 10, 1000, null, null)), result.changes());
+    }
+
+    @Test
+    void rejectsScenariosWithoutTargets() {
+        ScenarioDto scenario = new ScenarioDto("none", null, List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, null, null, null)
+        ), List.of());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+            () -> optimizer.optimize(scenario, OptimizerOptions.DEFAULT));
+        assertEquals("Optimization needs workload.rps or workload.p95TargetMs", ex.getReason());
+    }
+}
@@ -1,8 +1,11 @@
 package org.archbench.engine.core;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.archbench.engine.api.dto.ScenarioDto;
@@ -67,6 +70,180 @@ class ScenarioValidatorTest {
         assertTrue(ex.getReason().contains("unsupported database engine"));
     }
 
+    @Test
+    void collectsEveryProblemInOnePassUpToTheLimit() {
+        ScenarioDto scenario = new ScenarioDto(
+            "broken",
+            null,
+            List.of(node("a", "service"), node("a", "service"), node("b", null)),
+            List.of(new ScenarioDto.Edge("a", "ghost"), new ScenarioDto.Edge("b", "b"), new ScenarioDto.Edge(null, "a"))
+        );
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> validator.validate(scenario));
+        assertEquals("Duplicate node id: a", ex.getReason());
+        assertEquals(ScenarioValidationException.Code.DUPLICATE_NODE, ex.code());
+        assertEquals(
+            List.of(
+                ScenarioValidationException.Code.DUPLICATE_NODE,
+                ScenarioValidationException.Code.INVALID_NODE,
+                ScenarioValidationException.Code.UNKNOWN_NODE,
+                ScenarioValidationException.Code.SELF_LOOP,
+                ScenarioValidationException.Code.INVALID_EDGE
+            ),
+            ex.violations().stream().map(ScenarioValidationException.Violation::code).toList()
+        );
+
+        ScenarioValidationException limited = assertThrows(
+            ScenarioValidationException.class,
+            () -> new ScenarioValidator(NodeTypeCatalog.builtIn(), 2).validate(scenario)
+        );
+        assertEquals(2, limited.violations().size());
+        ScenarioValidationException first = assertThrows(
+            ScenarioValidationException.class,
+            () -> new ScenarioValidator(NodeTypeCatalog.builtIn(), 1).validate(scenario)
+        );
+        assertEquals(List.of(new ScenarioValidationException.Violation(
+            ScenarioValidationException.Code.DUPLICATE_NODE, "Duplicate node id: a")), first.violations());
+    }
+
+    @Test
+    void rejectsOutOfRangeReplicasAndCallPolicies() {
+        ScenarioDto scenario = new ScenarioDto(
+            "policies",
+            null,
+            List.of(
+                node("client", "client"),
+                new ScenarioDto.Node("api", "service", null, null, null, null, null, null, 0),
+                node("db", "database")
+            ),
+            List.of(
+                new ScenarioDto.Edge("client", "api", 0, new ScenarioDto.Retry(11, null, null), null),
+                new ScenarioDto.Edge("api", "db", 100, new ScenarioDto.Retry(2, -1, 0.5), new ScenarioDto.CircuitBreaker(1.5))
+            )
+        );
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> validator.validate(scenario));
+        assertEquals(
+            List.of(
+                ScenarioValidationException.Code.INVALID_NODE,
+                ScenarioValidationException.Code.INVALID_EDGE,
+                ScenarioValidationException.Code.INVALID_EDGE,
+                ScenarioValidationException.Code.INVALID_EDGE,
+                ScenarioValidationException.Code.INVALID_EDGE,
+                ScenarioValidationException.Code.INVALID_EDGE
+            ),
+            ex.violations().stream().map(ScenarioValidationException.Violation::code).toList()
+        );
+    }
+
+    @Test
+    void rejectsMalformedQueriesAndPools() {
+        ScenarioDto.DbTable users = new ScenarioDto.DbTable(
+            "users",
+            "M",
+            List.of("email"),
+            List.of(new ScenarioDto.DbColumn("id", "string"), new ScenarioDto.DbColumn("email", "string")),
+            Arrays.asList(
+                new ScenarioDto.DbQuery("point", "email", 2.0, null),
+                new ScenarioDto.DbQuery("write", null, null, null),
+                new ScenarioDto.DbQuery("delete", "id", null, null),
+                new ScenarioDto.DbQuery("range", null, null, 0.5),
+                new ScenarioDto.DbQuery("point", "name", 0.0, 2.0),
+                null
+            )
+        );
+        ScenarioDto scenario = new ScenarioDto(
+            "queries",
+            null,
+            List.of(
+                node("client", "client"),
+                new ScenarioDto.Node("db", "database", null, null, null, null, null,
+                    new ScenarioDto.DbConfig("postgres", List.of(users), 0))
+            ),
+            List.of()
+        );
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> validator.validate(scenario));
+        assertEquals(ScenarioValidationException.Code.INVALID_NODE, ex.code());
+        assertEquals(
+            List.of(
+                "Node 'db' needs a dbConfig.connectionPool of at least 1",
+                "Node 'db' table 'users' has a query of unknown kind 'delete'; use point, range or write",
+                "Node 'db' table 'users' has a range query without a column",
+                "Node 'db' table 'users' queries undeclared column 'name'",
+                "Node 'db' table 'users' needs query perRequest in (0, 1000]",
+                "Node 'db' table 'users' needs query selectivity in (0, 1]",
+                "Node 'db' table 'users' has a null query"
+            ),
+            ex.violations().stream().map(ScenarioValidationException.Violation::detail).toList()
+        );
+    }
+
+    @Test
+    void rejectsCacheConfigsOnOtherTypesAndOutOfRange() {
+        ScenarioDto scenario = new ScenarioDto(
+            "caches",
+            null,
+            List.of(
+                node("client", "client"),
+                new ScenarioDto.Node("api", "service", null, null, null, null, null, null, null,
+                    new ScenarioDto.CacheConfig(0.5, null, null, null)),
+                new ScenarioDto.Node("cdn", "cdn", null, null, null, null, null, null, null,
+                    new ScenarioDto.CacheConfig(1.5, 1000L, null, null)),
+                new ScenarioDto.Node("cache", "cache", null, null, null, null, null, null, null,
+                    new ScenarioDto.CacheConfig(null, 0L, -1L, 9.0)),
+                new ScenarioDto.Node("redis", "cache", null, null, null, null, null, null, null,
+                    new ScenarioDto.CacheConfig(null, 1_000_000L, 10_000L, 0.8))
+            ),
+            List.of()
+        );
+
+        ScenarioValidationException ex = assertThrows(ScenarioValidationException.class, () -> validator.validate(scenario));
+        assertEquals(
+            List.of(
+                "Node 'api' of type 'service' does not take a cache config",
+                "Node 'cdn' needs cache.hitRatio between 0 and 1",
+                "Node 'cdn' gives both cache.hitRatio and a Zipf key space",
+                "Node 'cache' needs cache.hitRatio, or a cache.keySpace of at least 1",
+                "Node 'cache' needs a non-negative cache.cachedKeys",
+                "Node 'cache' needs cache.zipfSkew between 0 and 5"
+            ),
+            ex.violations().stream().map(ScenarioValidationException.Violation::detail).toList()
+        );
+    }
+
+    @Test
+    void indexMapsEveryNodeIdToItsOrdinalAcrossPooledReuse() {
+        int n = 50_000;
+        List<ScenarioDto.Node> nodes = new ArrayList<>(n);
+        List<ScenarioDto.Edge> edges = new ArrayList<>(n - 1);
+        for (int i = 0; i < n; i++) {
+            nodes.add(node("node-" + i, i == 0 ? "client" : "service"));
+            if (i > 0) {
+                edges.add(new ScenarioDto.Edge("node-" + (i - 1), "node-" + i));
+            }
+        }
+        ScenarioDto scenario = new ScenarioDto("large", null, nodes, edges);
+
+        for (int round = 0; round < 2; round++) {
+            try (NodeIdTable ids = validator.validateAndIndex(scenario)) {
+                assertEquals(n, ids.size());
+                for (int i = 0; i < n; i += 997) {
+                    assertEquals(i, ids.get("node-" + i));
+                }
+                assertEquals(NodeIdTable.ABSENT, ids.get("ghost"));
+                CompiledTopology shared = CompiledTopology.compile(nodes, edges, "client"::equals, ids);
+                CompiledTopology own = CompiledTopology.compile(nodes, edges, "client"::equals);
+                assertEquals(own.edgeCount(), shared.edgeCount());
+                assertEquals(n - 1, shared.edgeCount());
+            }
+        }
+    }
+
+    private static ScenarioDto.Node node(String id, String type) {
+        return new ScenarioDto.Node(id, type, null, null, null, null, null, null);
+    }
+
     private ScenarioDto baseScenario(ScenarioDto.DbConfig dbConfig) {
         ScenarioDto.Node dbNode = new ScenarioDto.Node(
             "db",
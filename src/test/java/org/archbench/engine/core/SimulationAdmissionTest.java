@@ -0,0 +1,86 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SimulationAdmissionTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SimulationAdmission admission = new SimulationAdmission(registry, 4, 8, 2, 4, 1, 1, 5_000);
+
+    @Test
+    void scenariosAreClassifiedByEstimatedWork() {
+        ScenarioDto small = new ScenarioDto("small", null, List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, null, null, null)
+        ), List.of());
+
+        assertEquals(SimulationAdmission.CostClass.SMALL, admission.classify(small, SimulationOptions.DEFAULT));
+        assertEquals(SimulationAdmission.CostClass.MEDIUM,
+            admission.classify(small, SimulationOptions.forMode(SimulationMode.MONTE_CARLO).withTrials(100_000)));
+        ScenarioDto busy = new ScenarioDto("busy", new ScenarioDto.Workload(5_000, 100), small.nodes(), List.of());
+        assertEquals(SimulationAdmission.CostClass.LARGE, admission.classify(busy,
+            new SimulationOptions(SimulationMode.DISCRETE_EVENT, 3_600, null, null)));
+    }
+
+    @Test
+    void defaultPermitsShareTheCoresAcrossLanes() {
+        for (int cpus : new int[] { 3, 4, 8, 13, 64 }) {
+            int[] permits = SimulationAdmission.defaultPermits(cpus);
+            assertEquals(cpus, permits[0] + permits[1] + permits[2]);
+            assertTrue(permits[0] >= permits[1] && permits[1] >= permits[2] && permits[2] >= 1);
+        }
+        assertEquals(List.of(1, 1, 1), Arrays.stream(SimulationAdmission.defaultPermits(1)).boxed().toList());
+    }
+
+    @Test
+    void fullQueueRejectsWithoutBlockingOtherClasses() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> holder = executor.submit(() -> admission.run(SimulationAdmission.CostClass.LARGE, () -> {
+                running.countDown();
+                await(release);
+                return 1;
+            }));
+            running.await();
+            Future<Integer> queued = executor.submit(() -> admission.run(SimulationAdmission.CostClass.LARGE, () -> 2));
+            while (admission.queueDepth(SimulationAdmission.CostClass.LARGE) == 0) {
+                Thread.onSpinWait();
+            }
+
+            SimulationRejectedException rejected = assertThrows(SimulationRejectedException.class,
+                () -> admission.run(SimulationAdmission.CostClass.LARGE, () -> 3));
+            assertTrue(rejected.retryAfterSeconds() >= 1);
+            assertEquals(1.0, registry.get("archbench.admission.rejected").tag("class", "large").counter().count());
+            assertEquals(1.0, registry.get("archbench.admission.queue.depth").tag("class", "large").gauge().value());
+
+            assertEquals(4, admission.run(SimulationAdmission.CostClass.SMALL, () -> 4));
+
+            release.countDown();
+            assertEquals(1, holder.get());
+            assertEquals(2, queued.get());
+        }
+        assertEquals(0, admission.queueDepth(SimulationAdmission.CostClass.LARGE));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
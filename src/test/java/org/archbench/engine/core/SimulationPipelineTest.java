@@ -0,0 +1,169 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.archbench.engine.api.dto.SimulationResultDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SimulationPipelineTest {
+
+    private final SimulationResultCache cache = new SimulationResultCache(100);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SimulationPipeline pipeline = new SimulationPipeline(
+        new SimulationService(),
+        new ScenarioValidator(),
+        new SimulationInsights(),
+        new DiscreteEventSimulator(),
+        new MonteCarloSimulator(ForkJoinPool.commonPool()),
+        new QueueingModel(),
+        new ResilienceModel(),
+        new TraceStore(Path.of(System.getProperty("java.io.tmpdir"), "archbench-traces"), 3_600),
+        cache,
+        new SimulationMetrics(registry)
+    );
+
+    @Test
+    void repeatedScenarioIsServedFromTheCache() {
+        SimulationResultDto first = pipeline.simulate(scenario("service"), SimulationOptions.DEFAULT);
+        SimulationResultDto second = pipeline.simulate(scenario("service"), SimulationOptions.DEFAULT);
+        SimulationResultDto other = pipeline.simulate(scenario("worker"), SimulationOptions.DEFAULT);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    void cacheHitsCountStatusesAndScenarioSizes() {
+        pipeline.simulate(scenario("service"), SimulationOptions.DEFAULT);
+        pipeline.simulate(scenario("service"), SimulationOptions.DEFAULT);
+
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2.0, registry.get("archbench.simulation.status").tag("status", "ok").counter().count());
+        assertEquals(2, registry.get("archbench.scenario.nodes").summary().count());
+        assertEquals(1, registry.get("archbench.simulation.stage").tag("stage", "validate").timer().count());
+    }
+
+    @Test
+    void invalidScenariosAreNotCached() {
+        ScenarioDto invalid = new ScenarioDto("broken", null, List.of(), List.of());
+
+        assertThrows(ResponseStatusException.class, () -> pipeline.simulate(invalid, SimulationOptions.DEFAULT));
+        assertThrows(ResponseStatusException.class, () -> pipeline.simulate(invalid, SimulationOptions.DEFAULT));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void stagesStatusesAndRejectionsAreRecorded() {
+        pipeline.simulate(scenario("service"), SimulationOptions.forMode(SimulationMode.ANALYTIC));
+        ScenarioDto selfLoop = new ScenarioDto("loop", null,
+            List.of(new ScenarioDto.Node("a", "service", null, null, null, null, null, null)),
+            List.of(new ScenarioDto.Edge("a", "a")));
+        assertThrows(ResponseStatusException.class, () -> pipeline.simulate(selfLoop, SimulationOptions.DEFAULT));
+
+        for (String stage : List.of("validate", "compile", "topology", "metrics", "model", "insights")) {
+            assertEquals(1, registry.get("archbench.simulation.stage").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(1, registry.get("archbench.simulation").tag("mode", "analytic").timer().count());
+        assertEquals(1.0, registry.get("archbench.simulation.status").tag("status", "ok").counter().count());
+        assertEquals(1.0, registry.get("archbench.scenario.rejected").tag("reason", "self-loop").counter().count());
+        assertEquals(2.0, registry.get("archbench.scenario.nodes").summary().totalAmount());
+    }
+
+    @Test
+    void breakdownMarksCriticalPathBottleneckAndShares() {
+        ScenarioDto scenario = new ScenarioDto("detail", new ScenarioDto.Workload(500, null), List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("api", "service", 8, 1.0, 1000, 0.01, 1.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, 50000, 0.0, 0.5, null),
+            new ScenarioDto.Node("db", "database", 12, 1.0, 800, 0.03, 2.5, null)
+        ), List.of(
+            new ScenarioDto.Edge("client", "api"),
+            new ScenarioDto.Edge("api", "cache"),
+            new ScenarioDto.Edge("api", "db")
+        ));
+
+        SimulationResultDto plain = pipeline.simulate(scenario, SimulationOptions.DEFAULT);
+        SimulationResultDto detailed = pipeline.simulate(scenario, SimulationOptions.DEFAULT.withBreakdown(true));
+
+        assertNull(plain.breakdown());
+        SimulationResultDto.Breakdown breakdown = detailed.breakdown();
+        assertEquals(List.of("client", "api", "db"), breakdown.criticalPath());
+        assertEquals("db", breakdown.bottleneck());
+        SimulationResultDto.NodeDetail db = breakdown.nodes().get(3);
+        assertEquals(0.625, db.utilization(), 1e-12);
+        assertEquals(12.0, db.latencyMs(), 1e-12);
+        assertEquals(0.625, db.costShare(), 1e-12);
+        assertEquals(0.75, db.failureShare(), 1e-12);
+        assertEquals(0.0, breakdown.nodes().get(2).latencyMs(), 1e-12);
+        assertEquals(plain.latencyMsP50(), detailed.latencyMsP50());
+
+        SimulationResultDto analytic = pipeline.simulate(scenario,
+            SimulationOptions.forMode(SimulationMode.ANALYTIC).withBreakdown(true));
+        SimulationResultDto.NodeDetail api = analytic.breakdown().nodes().get(1);
+        assertEquals(0.5, api.utilization(), 1e-12);
+        assertEquals(8.5, api.latencyMs(), 1e-12);
+    }
+
+    @Test
+    void breakdownLoadsNodesBehindACacheWithMissesOnly() {
+        ScenarioDto scenario = new ScenarioDto("cached-db", new ScenarioDto.Workload(500, null), List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, 50000, 0.0, 0.5, null, null, new ScenarioDto.CacheConfig(0.8, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 1.0, 800, 0.0, 2.5, null)
+        ), List.of(
+            new ScenarioDto.Edge("client", "cache"),
+            new ScenarioDto.Edge("cache", "db")
+        ));
+
+        SimulationResultDto.Breakdown breakdown = pipeline.simulate(scenario, SimulationOptions.DEFAULT.withBreakdown(true)).breakdown();
+
+        assertEquals(0.01, breakdown.nodes().get(1).utilization(), 1e-12);
+        assertEquals(500 * 0.2 / 800, breakdown.nodes().get(2).utilization(), 1e-12);
+    }
+
+    @Test
+    void breakdownLatencyAddsUpToP50WhenMissesAreOnThePath() {
+        // The database is listed first, so it wins the tie with the cache for the end of the critical path.
+        ScenarioDto scenario = new ScenarioDto("cached-db", new ScenarioDto.Workload(500, null), List.of(
+            new ScenarioDto.Node("db", "database", 12, 1.0, 800, 0.0, 2.5, null),
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.0, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, 50000, 0.0, 0.5, null, null, new ScenarioDto.CacheConfig(0.8, null, null, null))
+        ), List.of(
+            new ScenarioDto.Edge("client", "cache"),
+            new ScenarioDto.Edge("cache", "db")
+        ));
+
+        SimulationResultDto result = pipeline.simulate(scenario, SimulationOptions.DEFAULT.withBreakdown(true));
+
+        assertEquals(List.of("client", "cache", "db"), result.breakdown().criticalPath());
+        assertEquals(0.0, result.breakdown().nodes().get(0).latencyMs());
+        assertEquals(result.latencyMsP50(),
+            result.breakdown().nodes().stream().mapToDouble(SimulationResultDto.NodeDetail::latencyMs).sum(), 1e-9);
+    }
+
+    private ScenarioDto scenario(String serviceType) {
+        return new ScenarioDto(
+            "cached",
+            null,
+            List.of(
+                new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+                new ScenarioDto.Node("svc", serviceType, null, null, null, null, null, null)
+            ),
+            List.of(new ScenarioDto.Edge("client", "svc"))
+        );
+    }
+}
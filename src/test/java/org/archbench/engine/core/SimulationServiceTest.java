@@ -1,6 +1,7 @@
 package org.archbench.engine.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -37,14 +38,20 @@ public class SimulationServiceTest {
                 && node.dbConfig() == null
         ));
 
-        int latencyP50 = simulationService.calculateLatencyP50(normalizedNodes, edges);
-        assertEquals(23, latencyP50);
+        CompiledTopology topology = simulationService.compileTopology(normalizedNodes, edges);
 
-        int latencyP95 = simulationService.calculateLatencyP95(latencyP50, normalizedNodes);
-        assertEquals(33, latencyP95);
+        int latencyP50 = simulationService.calculateLatencyP50(topology, normalizedNodes);
+        assertEquals(22, latencyP50);
+
+        int latencyP95 = simulationService.calculateLatencyP95(latencyP50, topology, normalizedNodes);
+        assertEquals(34, latencyP95);
         assertTrue(latencyP95 >= latencyP50);
 
-        int throughput = simulationService.calculateThroughput(normalizedNodes);
+        SimulationService.LongestPaths paths = simulationService.longestPaths(topology, normalizedNodes);
+        assertEquals(22, simulationService.calculateLatencyP50(paths));
+        assertEquals(34, simulationService.calculateLatencyP95(22, paths, normalizedNodes));
+
+        int throughput = simulationService.calculateThroughput(topology, normalizedNodes);
         assertEquals(2000, throughput);
 
         double failureRate = simulationService.calculateFailureRate(normalizedNodes);
@@ -100,10 +107,182 @@ public class SimulationServiceTest {
         assertTrue(adjustedDb.latencyMs() > baselineDb.latencyMs());
         assertTrue(adjustedDb.capacityRps() < baselineDb.capacityRps());
 
-        int adjustedLatencyP50 = simulationService.calculateLatencyP50(adjustedNodes, List.of());
-        assertEquals(adjustedNodes.stream().mapToInt(ScenarioDto.Node::latencyMs).sum(), adjustedLatencyP50);
+        CompiledTopology adjustedTopology = simulationService.compileTopology(adjustedNodes, List.of());
+        int adjustedLatencyP50 = simulationService.calculateLatencyP50(adjustedTopology, adjustedNodes);
+        assertEquals(adjustedNodes.stream().mapToInt(ScenarioDto.Node::latencyMs).max().orElseThrow(), adjustedLatencyP50);
 
-        int adjustedThroughput = simulationService.calculateThroughput(adjustedNodes);
+        int adjustedThroughput = simulationService.calculateThroughput(adjustedTopology, adjustedNodes);
         assertEquals(expectedCapacity, adjustedThroughput);
     }
+
+    @Test
+    void latencyFollowsTheLongestPathFromEntryNodes() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("cdn", "cdn", null, null, null, null, null, null),
+            new ScenarioDto.Node("lb", "lb", null, null, null, null, null, null),
+            new ScenarioDto.Node("fast", "service", 5, 1.0, 8000, null, null, null),
+            new ScenarioDto.Node("slow", "service", 40, 2.0, 900, null, null, null),
+            new ScenarioDto.Node("join", "database", 10, 1.0, 5000, null, null, null),
+            new ScenarioDto.Node("orphan", "worker", 500, null, 10, null, null, null)
+        ));
+        List<ScenarioDto.Edge> edges = List.of(
+            new ScenarioDto.Edge("cdn", "lb"),
+            new ScenarioDto.Edge("lb", "fast"),
+            new ScenarioDto.Edge("lb", "slow"),
+            new ScenarioDto.Edge("fast", "join"),
+            new ScenarioDto.Edge("slow", "join")
+        );
+
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+
+        assertEquals(3 + 3 + 40 + 10, simulationService.calculateLatencyP50(topology, nodes));
+        assertEquals(
+            Math.round(56 * (1.1 + 1.1 + 2.0 + 1.0) / 4),
+            simulationService.calculateLatencyP95(56, topology, nodes)
+        );
+        assertEquals(900, simulationService.calculateThroughput(topology, nodes));
+        assertFalse(topology.isReachable(5));
+    }
+
+    @Test
+    void replicasMultiplyCapacityAndCost() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("single", "service", 20, 1.5, 900, 0.01, 0.5, null),
+            new ScenarioDto.Node("triple", "service", 20, 1.5, 900, 0.01, 0.5, null, 3),
+            new ScenarioDto.Node("edge", "cdn", null, null, null, null, null, null, 4)
+        );
+
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        List<ScenarioDto.Node> normalized = simulationService.normalizeNodes(nodes);
+
+        assertEquals(900, compiled.capacityRps(0));
+        assertEquals(2700, compiled.capacityRps(1));
+        assertEquals(1.5, compiled.costPerHour(1), 1e-12);
+        assertEquals(compiled.latencyMs(0), compiled.latencyMs(1));
+        assertEquals(compiled.failureRate(0), compiled.failureRate(1), 1e-12);
+        assertEquals(2700, normalized.get(1).capacityRps());
+        assertEquals(1.5, normalized.get(1).costPerHour(), 1e-12);
+        assertEquals(4 * 60_000, compiled.capacityRps(2));
+    }
+
+    @Test
+    void cacheHitsShieldTheNodesBehindIt() {
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("client", "client", 2, 1.0, null, 0.001, 0.0, null),
+            new ScenarioDto.Node("cache", "cache", 1, 1.0, null, 0.002, 0.0, null, null,
+                new ScenarioDto.CacheConfig(0.9, null, null, null)),
+            new ScenarioDto.Node("db", "database", 12, 2.0, 2000, 0.01, 0.0, null)
+        );
+        List<ScenarioDto.Edge> edges = List.of(new ScenarioDto.Edge("client", "cache"), new ScenarioDto.Edge("cache", "db"));
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+
+        ScenarioMetrics metrics = simulationService.calculateMetrics(compiled, topology);
+
+        assertEquals(0.9, compiled.hitRatio(1), 1e-12);
+        assertEquals(20_000, metrics.throughputRps());
+        assertEquals(2 + 1, metrics.latencyP50());
+        assertEquals(Math.round((2 + 1 + 12) * (1.0 + 1.0 + 2.0) / 3), metrics.latencyP95());
+        assertEquals(1.0 - 0.999 * 0.998 * (1.0 - 0.1 * 0.01), metrics.failureRate(), 1e-12);
+        assertEquals(2, simulationService.criticalPath(compiled, topology).length);
+
+        List<ScenarioDto.Node> service = List.of(
+            nodes.get(0),
+            new ScenarioDto.Node("cache", "service", 1, 1.0, null, 0.002, 0.0, null, null,
+                new ScenarioDto.CacheConfig(0.9, null, null, null)),
+            nodes.get(2)
+        );
+        assertFalse(simulationService.compileScenario(service).hasHits());
+    }
+
+    @Test
+    void queryMixReplacesSizeClassMultipliers() {
+        ScenarioDto.DbTable scanned = new ScenarioDto.DbTable("orders", "M", List.of("customer_id"), null, List.of(
+            new ScenarioDto.DbQuery("point", "customer_id", null, null),
+            new ScenarioDto.DbQuery("range", "created_at", null, null)
+        ));
+        ScenarioDto.DbTable indexed = new ScenarioDto.DbTable("orders", "M", List.of("customer_id", "created_at"), null,
+            scanned.queries());
+        List<ScenarioDto.Node> nodes = List.of(
+            new ScenarioDto.Node("scan", "database", 12, null, 2000, null, null,
+                new ScenarioDto.DbConfig("postgres", List.of(scanned))),
+            new ScenarioDto.Node("seek", "database", 12, null, 2000, null, null,
+                new ScenarioDto.DbConfig("postgres", List.of(indexed)), 2),
+            new ScenarioDto.Node("legacy", "database", 12, null, 2000, null, null,
+                new ScenarioDto.DbConfig("postgres", List.of(new ScenarioDto.DbTable("orders", "L", List.of("customer_id"), null))))
+        );
+
+        CompiledScenario compiled = simulationService.compileScenario(nodes);
+        List<ScenarioDto.Node> normalized = simulationService.normalizeNodes(nodes);
+
+        double scanMs = 12 + (3 * 0.02 + 0.0002) + 1_000_000 * 0.0002;
+        assertEquals(Math.round(scanMs), compiled.latencyMs(0));
+        assertEquals((int) Math.floor(100 * 1000.0 / scanMs), compiled.capacityRps(0));
+        assertEquals(100, compiled.connections(0));
+        assertEquals(Math.round(12 + (3 * 0.02 + 0.0002) + (3 * 0.02 + 10_000 * 0.0002)), compiled.latencyMs(1));
+        assertEquals(2 * 2000, compiled.capacityRps(1));
+        assertEquals(200, compiled.connections(1));
+        assertEquals(Math.round(12 * 1.2 * 0.9), compiled.latencyMs(2));
+        assertEquals(0, compiled.connections(2));
+        assertEquals(compiled.latencyMs(0), normalized.get(0).latencyMs());
+        assertEquals(compiled.capacityRps(0), normalized.get(0).capacityRps());
+    }
+
+    @Test
+    void cyclesAreBrokenInsteadOfLoopingForever() {
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(List.of(
+            new ScenarioDto.Node("client", "client", null, null, null, null, null, null),
+            new ScenarioDto.Node("a", "service", 10, null, null, null, null, null),
+            new ScenarioDto.Node("b", "queue", 20, null, null, null, null, null)
+        ));
+        List<ScenarioDto.Edge> edges = List.of(
+            new ScenarioDto.Edge("client", "a"),
+            new ScenarioDto.Edge("a", "b"),
+            new ScenarioDto.Edge("b", "a")
+        );
+
+        CompiledTopology topology = simulationService.compileTopology(nodes, edges);
+
+        assertEquals(1, topology.droppedEdges());
+        assertEquals(2 + 10 + 20, simulationService.calculateLatencyP50(topology, nodes));
+    }
+
+    @Test
+    void fusedMetricsMatchTheIndividualCalculations() {
+        List<ScenarioDto.Node> rawNodes = List.of(
+            new ScenarioDto.Node("cdn", "cdn", null, null, null, null, null, null),
+            new ScenarioDto.Node("lb", "lb", null, null, null, null, null, null),
+            new ScenarioDto.Node("fast", "service", 5, 1.0, 8000, null, null, null),
+            new ScenarioDto.Node("slow", "service", 40, 2.0, 900, null, null, null),
+            new ScenarioDto.Node("db", "database", 20, null, 1800, null, null, new ScenarioDto.DbConfig(
+                "dynamodb",
+                List.of(new ScenarioDto.DbTable("events", "L", List.of(), List.of()))
+            )),
+            new ScenarioDto.Node("orphan", "worker", 500, null, 10, null, null, null)
+        );
+        List<ScenarioDto.Edge> edges = List.of(
+            new ScenarioDto.Edge("cdn", "lb"),
+            new ScenarioDto.Edge("lb", "fast"),
+            new ScenarioDto.Edge("lb", "slow"),
+            new ScenarioDto.Edge("fast", "db"),
+            new ScenarioDto.Edge("slow", "db")
+        );
+        List<ScenarioDto.Node> nodes = simulationService.normalizeNodes(rawNodes);
+        CompiledTopology topology = simulationService.compileTopology(rawNodes, edges);
+
+        CompiledScenario compiled = simulationService.compileScenario(rawNodes);
+        ScenarioMetrics metrics = simulationService.calculateMetrics(compiled, topology);
+
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals(nodes.get(i).type(), compiled.type(i));
+            assertEquals(nodes.get(i).latencyMs(), compiled.latencyMs(i));
+            assertEquals(nodes.get(i).capacityRps(), compiled.capacityRps(i));
+        }
+        int latencyP50 = simulationService.calculateLatencyP50(topology, nodes);
+        assertEquals(latencyP50, metrics.latencyP50());
+        assertEquals(simulationService.calculateLatencyP95(latencyP50, topology, nodes), metrics.latencyP95());
+        assertEquals(simulationService.calculateThroughput(topology, nodes), metrics.throughputRps());
+        assertEquals(simulationService.calculateFailureRate(nodes), metrics.failureRate(), 1e-12);
+        assertEquals(simulationService.calculateCost(nodes), metrics.costPerHour(), 1e-9);
+    }
 }
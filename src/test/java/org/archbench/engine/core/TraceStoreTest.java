@@ -0,0 +1,78 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void textTraceIsStoredAndReadBackThroughTheMap() throws Exception {
+        TraceStore store = new TraceStore(directory, 3_600);
+
+        TraceFile trace = store.importText(text("10, 20\n30\t0\r\n45\n"));
+
+        assertEquals(5, trace.seconds());
+        assertEquals(105, trace.totalRequests());
+        assertEquals(45, trace.peakRps());
+        assertEquals(30, trace.requestsAt(2));
+        assertEquals(0, trace.requestsAt(5));
+        assertEquals(20L, Files.size(directory.resolve(trace.id() + ".trace")));
+        assertSame(trace, store.find(trace.id()).orElseThrow());
+        assertEquals(105, new TraceStore(directory, 3_600).find(trace.id()).orElseThrow().totalRequests());
+    }
+
+    @Test
+    void binaryTraceIsTakenAsIs() throws Exception {
+        ByteBuffer bytes = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN).putInt(7).putInt(0).putInt(9);
+
+        TraceFile trace = new TraceStore(directory, 3_600).importBinary(new ByteArrayInputStream(bytes.array()));
+
+        assertEquals(3, trace.seconds());
+        assertEquals(9, trace.requestsAt(2));
+    }
+
+    @Test
+    void badTracesAreRejectedAndLeaveNothingBehind() throws Exception {
+        TraceStore store = new TraceStore(directory, 3);
+
+        assertThrows(ScenarioValidationException.class, () -> store.importText(text("1 2 x")));
+        assertThrows(ScenarioValidationException.class, () -> store.importText(text("1 -2")));
+        assertThrows(ScenarioValidationException.class, () -> store.importText(text("1 2 3 4")));
+        assertThrows(ScenarioValidationException.class, () -> store.importText(text(" \n")));
+        assertThrows(ScenarioValidationException.class, () -> store.importBinary(new ByteArrayInputStream(new byte[6])));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void deletedTraceIsGone() throws Exception {
+        TraceStore store = new TraceStore(directory, 3_600);
+        TraceFile trace = store.importText(text("1 2 3"));
+
+        assertTrue(store.delete(trace.id()));
+        assertFalse(store.find(trace.id()).isPresent());
+        assertFalse(store.delete(trace.id()));
+        assertFalse(store.find("../escape").isPresent());
+    }
+
+    private static ByteArrayInputStream text(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package org.archbench.engine.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.archbench.engine.api.dto.ScenarioDto;
+import org.junit.jupiter.api.Test;
+
+class ZipfCacheTest {
+
+    @Test
+    void harmonicNumbersMatchTheExactSum() {
+        for (double skew : new double[] {0.0, 0.6, 1.0, 1.4}) {
+            for (long n : new long[] {1, 64, 65, 1000, 250_000}) {
+                double exact = 0.0;
+                for (long k = 1; k <= n; k++) {
+                    exact += Math.pow(k, -skew);
+                }
+                assertEquals(exact, ZipfCache.harmonic(n, skew), exact * 1e-9, "n=" + n + " s=" + skew);
+            }
+        }
+    }
+
+    @Test
+    void hitRatioFollowsTheKeySpace() {
+        assertEquals(0.75, ZipfCache.hitRatio(new ScenarioDto.CacheConfig(0.75, null, null, null)), 0.0);
+        assertEquals(0.0, ZipfCache.hitRatio(null), 0.0);
+        assertEquals(1.0, ZipfCache.hitRatio(new ScenarioDto.CacheConfig(null, 1000L, 5000L, null)), 0.0);
+        assertEquals(0.01, ZipfCache.hitRatio(new ScenarioDto.CacheConfig(null, 100_000L, 1000L, 0.0)), 1e-12);
+
+        double euler = 0.5772156649015329;
+        double expected = (Math.log(1e4) + euler) / (Math.log(1e9) + euler);
+        assertEquals(expected, ZipfCache.hitRatio(new ScenarioDto.CacheConfig(null, 1_000_000_000L, 10_000L, null)), 1e-4);
+    }
+}